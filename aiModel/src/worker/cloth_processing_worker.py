@@ -8,9 +8,11 @@ RabbitMQ Cloth Processing Worker
 import pika
 import json
 import base64
+import hashlib
 import os
 import sys
 import traceback
+import requests
 from pathlib import Path
 from PIL import Image
 import io
@@ -69,6 +71,54 @@ RABBITMQ_PORT = int(os.getenv("RABBITMQ_PORT", "5672"))
 RABBITMQ_USER = os.getenv("RABBITMQ_USERNAME", "guest")
 RABBITMQ_PASS = os.getenv("RABBITMQ_PASSWORD", "guest")
 
+
+# Spring 내부 API (claim-check 원본 이미지 다운로드용)
+PIPELINE_INTERNAL_TOKEN = os.getenv("PIPELINE_INTERNAL_TOKEN", "")  # 기본값 없음 (Spring과 같은 값 필수)
+IMAGE_FETCH_CHUNK_SIZE = 64 * 1024
+
+
+def load_message_image_bytes(message):
+    """메시지에서 원본 이미지 바이트를 얻는다.
+
+    - claim-check 모드: imageFetchUrl에서 스트리밍 다운로드 후 SHA-256/크기 검증
+    - inline 모드 (구버전): imageBytes (base64 문자열 또는 숫자 배열)
+    """
+    fetch_url = message.get("imageFetchUrl")
+    if fetch_url:
+        if not PIPELINE_INTERNAL_TOKEN:
+            raise RuntimeError("PIPELINE_INTERNAL_TOKEN is not set (required for claim-check image download)")
+        expected_sha256 = message.get("contentSha256")
+        expected_length = message.get("contentLength")
+        digest = hashlib.sha256()
+        buffer = io.BytesIO()
+        with requests.get(
+            fetch_url,
+            headers={"X-Internal-Token": PIPELINE_INTERNAL_TOKEN},
+            stream=True,
+            timeout=(10, 120),
+        ) as response:
+            response.raise_for_status()
+            for chunk in response.iter_content(chunk_size=IMAGE_FETCH_CHUNK_SIZE):
+                digest.update(chunk)
+                buffer.write(chunk)
+
+        image_bytes = buffer.getvalue()
+        if expected_length is not None and expected_length >= 0 and len(image_bytes) != expected_length:
+            raise ValueError(f"Image size mismatch: expected {expected_length}, got {len(image_bytes)}")
+        if expected_sha256 and digest.hexdigest() != expected_sha256:
+            raise ValueError("Image SHA-256 mismatch (claim-check)")
+        print(f"  📥 Fetched original image via claim-check ({len(image_bytes)} bytes)")
+        return image_bytes
+
+    image_bytes_data = message.get("imageBytes")
+    if isinstance(image_bytes_data, str):
+        # Base64 문자열인 경우
+        return base64.b64decode(image_bytes_data)
+    if isinstance(image_bytes_data, list):
+        # 숫자 배열인 경우 (Jackson 기본 직렬화)
+        return bytes(image_bytes_data)
+    raise ValueError(f"Unsupported imageBytes format: {type(image_bytes_data)}")
+
 REQUEST_QUEUE = "cloth.processing.queue"
 RESULT_QUEUE = "cloth.result.queue"
 PROGRESS_QUEUE = "cloth.progress.queue"
@@ -470,6 +520,12 @@ class ClothProcessingPipeline:
 
         return results
 
+    def image_to_base64(self, image):
+        """PIL Image를 PNG base64 문자열로 변환 (단계별 결과 전송용)"""
+        img_byte_arr = io.BytesIO()
+        image.save(img_byte_arr, format='PNG')
+        return base64.b64encode(img_byte_arr.getvalue()).decode('utf-8')
+
     def inpaint_image(self, image):
         """이미지 복원 (간단한 처리 - Stable Diffusion은 너무 무거우므로 생략 가능)"""
         print("  Step 3/3: Inpainting image...")
@@ -505,6 +561,9 @@ class ClothProcessingPipeline:
             removed_bg_path = REMOVED_BG_DIR / f"{cloth_id}.png"
             removed_bg_image.save(removed_bg_path)
             if worker:
+                worker.send_stage_result(cloth_id, "REMOVED_BG", {
+                    "removedBgImageBase64": self.image_to_base64(removed_bg_image)
+                })
                 worker.send_progress(cloth_id, user_id, "PROCESSING", "배경 제거 완료", 33)
             print(f"  [33%] 배경 제거 완료")
 
@@ -559,7 +618,25 @@ class ClothProcessingPipeline:
 
             print(f"  💾 Found {len(all_detected_items)} clothing item(s) (1 primary + {additional_count} additional)")
 
+            # 카테고리 매핑
+            suggested_category = CATEGORY_MAPPING.get(primary_item["label"], "ACC")  # 기본값: ACC
+
             if worker:
+                # 단계별 결과는 경로 대신 base64 이미지로 전송 (Spring은 경로를 읽지 않음)
+                worker.send_stage_result(cloth_id, "SEGMENTED", {
+                    "segmentedImageBase64": self.image_to_base64(cropped_image),
+                    "suggestedCategory": suggested_category,
+                    "segmentationLabel": primary_item["label"],
+                    "areaPixels": primary_item["area_pixels"],
+                    "allSegmentedItems": [
+                        {
+                            "label": item["label"],
+                            "imageBase64": self.image_to_base64(item["cropped_image"]),
+                            "areaPixels": item["area_pixels"]
+                        }
+                        for item in all_detected_items_sorted
+                    ]
+                })
                 worker.send_progress(cloth_id, user_id, "PROCESSING", "옷 영역 분석 완료", 66)
             print(f"  [66%] 옷 영역 분석 완료")
 
@@ -644,9 +721,6 @@ class ClothProcessingPipeline:
                 worker.send_progress(cloth_id, user_id, "PROCESSING", "모든 아이템 확장 완료", 95)
             print(f"  [95%] 모든 아이템 확장 완료 (총 {len(all_expanded_items)}개)")
 
-            # 카테고리 매핑
-            suggested_category = CATEGORY_MAPPING.get(primary_item["label"], "ACC")  # 기본값: ACC
-
             result = {
                 "clothId": cloth_id,
                 "success": True,
@@ -725,6 +799,7 @@ class ClothProcessingWorker:
         )
 
         # 큐 선언
+        # 처리 요청 큐의 dead letter는 브로커 정책으로 설정 (큐 인자로 재선언하면 기존 큐와 충돌)
         self.channel.queue_declare(queue=REQUEST_QUEUE, durable=True)
         self.channel.queue_declare(queue=RESULT_QUEUE, durable=True)
         self.channel.queue_declare(queue=PROGRESS_QUEUE, durable=True)
@@ -758,8 +833,7 @@ class ClothProcessingWorker:
             message = json.loads(body)
             cloth_id = message["clothId"]
             user_id = message.get("userId")  # userId 추출
-            image_bytes_data = message["imageBytes"]
-            original_filename = message["originalFilename"]
+            original_filename = message.get("originalFilename")
             image_type = message.get("imageType", "FULL_BODY")  # imageType 추출 (기본값: FULL_BODY)
 
             print(f"\n📨 Received message: clothId={cloth_id}, userId={user_id}, filename={original_filename}, imageType={image_type}")
@@ -767,15 +841,8 @@ class ClothProcessingWorker:
             # userId 저장 (진행도 전송에 필요)
             self.user_id = user_id
 
-            # imageBytes 처리 (Jackson이 byte[]를 숫자 배열로 직렬화함)
-            if isinstance(image_bytes_data, str):
-                # Base64 문자열인 경우
-                image_bytes = base64.b64decode(image_bytes_data)
-            elif isinstance(image_bytes_data, list):
-                # 숫자 배열인 경우 (Jackson 기본 직렬화)
-                image_bytes = bytes(image_bytes_data)
-            else:
-                raise ValueError(f"Unsupported imageBytes format: {type(image_bytes_data)}")
+            # 원본 이미지 로드 (claim-check 다운로드 또는 inline imageBytes)
+            image_bytes = load_message_image_bytes(message)
 
             # 파이프라인 실행 (worker 인스턴스 전달하여 진행도 전송 가능하게)
             result = self.pipeline.process(cloth_id, user_id, image_bytes, image_type, self)
@@ -791,8 +858,8 @@ class ClothProcessingWorker:
             print(f"❌ Error processing message: {str(e)}")
             traceback.print_exc()
 
-            # NACK (재시도)
-            ch.basic_nack(delivery_tag=method.delivery_tag, requeue=True)
+            # NACK (dead letter 큐로 이동, 관리자 API로 재처리 시 retryCount 증가)
+            ch.basic_nack(delivery_tag=method.delivery_tag, requeue=False)
 
     def send_progress(self, cloth_id, user_id, status, current_step, progress_percentage):
         """진행도 메시지 전송"""
@@ -819,6 +886,21 @@ class ClothProcessingWorker:
 
         print(f"📊 Progress sent: {progress_percentage}% - {current_step}")
 
+    def send_stage_result(self, cloth_id, stage, fields):
+        """단계별 중간 결과 전송 (단계가 끝나는 즉시, 최종 결과 전에 먼저 반영)
+
+        - stage: REMOVED_BG 또는 SEGMENTED (Spring ProcessingStage)
+        - 해당 단계 이미지/메타데이터만 담은 결과 메시지 (최종 결과는 이미 반영된 이미지를 유지)
+        - 전송 실패는 처리 실패로 보지 않음
+        """
+        stage_result = {"clothId": cloth_id, "success": True, "stage": stage}
+        stage_result.update(fields)
+        try:
+            self.send_result(stage_result)
+            print(f"📤 Stage result sent: {stage}")
+        except Exception as e:
+            print(f"⚠️  Stage result not sent ({stage}): {str(e)}")
+
     def send_result(self, result):
         """결과 메시지 전송"""
         result_json = json.dumps(result)
@@ -10,9 +10,11 @@ RabbitMQ Cloth Processing Worker (CloudRun API Version)
 import pika
 import json
 import base64
+import hashlib
 import os
 import sys
 import traceback
+import uuid
 import requests
 import time
 from pathlib import Path
@@ -57,6 +59,11 @@ RABBITMQ_PORT = int(os.getenv("RABBITMQ_PORT", "5672"))
 RABBITMQ_USER = os.getenv("RABBITMQ_USERNAME", "guest")
 RABBITMQ_PASS = os.getenv("RABBITMQ_PASSWORD", "guest")
 
+# 결과 프로토콜: v1 (단일 JSON + base64) / v2 (아티팩트별 raw PNG 메시지 + 매니페스트)
+RESULT_PROTOCOL = os.getenv("RESULT_PROTOCOL", "v1")
+RESULT_CONTENT_TYPE_ARTIFACT = "application/vnd.closetconnect.cloth-artifact.v2"
+RESULT_CONTENT_TYPE_MANIFEST = "application/vnd.closetconnect.cloth-manifest.v2+json"
+
 REQUEST_QUEUE = "cloth.processing.queue"
 RESULT_QUEUE = "cloth.result.queue"
 PROGRESS_QUEUE = "cloth.progress.queue"
@@ -65,6 +72,53 @@ REQUEST_ROUTING_KEY = "cloth.processing"
 RESULT_ROUTING_KEY = "cloth.result"
 PROGRESS_ROUTING_KEY = "cloth.progress"
 
+# Spring 내부 API (claim-check 원본 이미지 다운로드용)
+PIPELINE_INTERNAL_TOKEN = os.getenv("PIPELINE_INTERNAL_TOKEN", "")  # 기본값 없음 (Spring과 같은 값 필수)
+IMAGE_FETCH_CHUNK_SIZE = 64 * 1024
+
+
+def load_message_image_bytes(message):
+    """메시지에서 원본 이미지 바이트를 얻는다.
+
+    - claim-check 모드: imageFetchUrl에서 스트리밍 다운로드 후 SHA-256/크기 검증
+    - inline 모드 (구버전): imageBytes (base64 문자열 또는 숫자 배열)
+    """
+    fetch_url = message.get("imageFetchUrl")
+    if fetch_url:
+        if not PIPELINE_INTERNAL_TOKEN:
+            raise RuntimeError("PIPELINE_INTERNAL_TOKEN is not set (required for claim-check image download)")
+        expected_sha256 = message.get("contentSha256")
+        expected_length = message.get("contentLength")
+        digest = hashlib.sha256()
+        buffer = io.BytesIO()
+        with requests.get(
+            fetch_url,
+            headers={"X-Internal-Token": PIPELINE_INTERNAL_TOKEN},
+            stream=True,
+            timeout=(10, 120),
+        ) as response:
+            response.raise_for_status()
+            for chunk in response.iter_content(chunk_size=IMAGE_FETCH_CHUNK_SIZE):
+                digest.update(chunk)
+                buffer.write(chunk)
+
+        image_bytes = buffer.getvalue()
+        if expected_length is not None and expected_length >= 0 and len(image_bytes) != expected_length:
+            raise ValueError(f"Image size mismatch: expected {expected_length}, got {len(image_bytes)}")
+        if expected_sha256 and digest.hexdigest() != expected_sha256:
+            raise ValueError("Image SHA-256 mismatch (claim-check)")
+        print(f"  📥 Fetched original image via claim-check ({len(image_bytes)} bytes)")
+        return image_bytes
+
+    image_bytes_data = message.get("imageBytes")
+    if isinstance(image_bytes_data, str):
+        # Base64 문자열인 경우
+        return base64.b64decode(image_bytes_data)
+    if isinstance(image_bytes_data, list):
+        # 숫자 배열인 경우 (Jackson 기본 직렬화)
+        return bytes(image_bytes_data)
+    raise ValueError(f"Unsupported imageBytes format: {type(image_bytes_data)}")
+
 # CloudRun API URLs
 SEGMENTATION_API_URL = os.getenv("SEGMENTATION_API_URL", "http://localhost:8002")  # Segformer (FULL_BODY)
 U2NET_API_URL = os.getenv("U2NET_API_URL", "http://localhost:8004")  # U2NET (SINGLE_ITEM)
@@ -527,7 +581,9 @@ class ClothProcessingPipelineCloudRun:
             removed_bg_image = self.remove_background(image_bytes)
             removed_bg_path = REMOVED_BG_DIR / f"{cloth_id}.png"
             removed_bg_image.save(removed_bg_path)
+            removed_bg_base64 = self.image_to_base64(removed_bg_image)
             if worker:
+                worker.send_stage_result(cloth_id, "REMOVED_BG", {"removedBgImageBase64": removed_bg_base64})
                 worker.send_progress(cloth_id, user_id, "PROCESSING", "배경 제거 완료", 25)
             print(f"  [25%] 배경 제거 완료")
 
@@ -558,7 +614,27 @@ class ClothProcessingPipelineCloudRun:
             segmented_image.save(segmented_path)
             print(f"  💾 Segmented 이미지 저장: {segmented_path}")
 
+            # 카테고리 매핑
+            suggested_category = CATEGORY_MAPPING.get(primary_item["label"], "ACC")
+            segmented_base64 = self.image_to_base64(segmented_image)
+            all_segmented_items = [
+                {
+                    "label": item["label"],
+                    "segmentedPath": item.get("saved_path", ""),
+                    "imageBase64": item.get("image_base64", ""),  # Segmentation API에서 받은 base64
+                    "areaPixels": item["area_pixels"]
+                }
+                for item in all_detected_items
+            ]
+
             if worker:
+                worker.send_stage_result(cloth_id, "SEGMENTED", {
+                    "segmentedImageBase64": segmented_base64,
+                    "suggestedCategory": suggested_category,
+                    "segmentationLabel": primary_item["label"],
+                    "areaPixels": primary_item["area_pixels"],
+                    "allSegmentedItems": all_segmented_items
+                })
                 worker.send_progress(cloth_id, user_id, "PROCESSING", "옷 영역 분석 완료", 50)
             print(f"  [50%] 옷 영역 분석 완료")
 
@@ -680,13 +756,8 @@ class ClothProcessingPipelineCloudRun:
                 worker.send_progress(cloth_id, user_id, "PROCESSING", "처리 완료", 95)
             print(f"  [95%] 최종 이미지 처리 완료")
 
-            # 카테고리 매핑
-            suggested_category = CATEGORY_MAPPING.get(primary_item["label"], "ACC")
-
-            # 이미지들을 base64로 인코딩 (CloudRun → Railway 전송용)
+            # 이미지들을 base64로 인코딩 (CloudRun → Railway 전송용, 배경 제거/세그멘테이션은 단계별 결과에서 인코딩)
             print(f"  [96%] Base64 인코딩 중...")
-            removed_bg_base64 = self.image_to_base64(removed_bg_image)
-            segmented_base64 = self.image_to_base64(segmented_image)  # segmented 이미지
             expanded_base64 = self.image_to_base64(expanded_image)    # expanded 이미지 (Gemini)
             final_base64 = self.image_to_base64(final_image)          # 최종 이미지 (= expanded)
             print(f"  [97%] Base64 인코딩 완료")
@@ -707,15 +778,7 @@ class ClothProcessingPipelineCloudRun:
                 "segmentationLabel": primary_item["label"],
                 "areaPixels": primary_item["area_pixels"],
                 # 추가 아이템 (있는 경우)
-                "allSegmentedItems": [
-                    {
-                        "label": item["label"],
-                        "segmentedPath": item.get("saved_path", ""),
-                        "imageBase64": item.get("image_base64", ""),  # Segmentation API에서 받은 base64
-                        "areaPixels": item["area_pixels"]
-                    }
-                    for item in all_detected_items
-                ],
+                "allSegmentedItems": all_segmented_items,
                 # ✅ 수정: allExpandedItems에 모든 확장된 아이템 추가
                 "allExpandedItems": all_expanded_items
             }
@@ -781,6 +844,7 @@ class ClothProcessingWorker:
         )
 
         # 큐 선언
+        # 처리 요청 큐의 dead letter는 브로커 정책으로 설정 (큐 인자로 재선언하면 기존 큐와 충돌)
         self.channel.queue_declare(queue=REQUEST_QUEUE, durable=True)
         self.channel.queue_declare(queue=RESULT_QUEUE, durable=True)
         self.channel.queue_declare(queue=PROGRESS_QUEUE, durable=True)
@@ -818,8 +882,7 @@ class ClothProcessingWorker:
             message = json.loads(body)
             cloth_id = message["clothId"]
             user_id = message.get("userId")
-            image_bytes_data = message["imageBytes"]
-            original_filename = message["originalFilename"]
+            original_filename = message.get("originalFilename")
             image_type = message.get("imageType", "FULL_BODY")
             retry_count = message.get("retryCount", 0)
             message_timestamp = message.get("timestamp", None)
@@ -858,13 +921,8 @@ class ClothProcessingWorker:
             # userId 저장
             self.user_id = user_id
 
-            # imageBytes 처리
-            if isinstance(image_bytes_data, str):
-                image_bytes = base64.b64decode(image_bytes_data)
-            elif isinstance(image_bytes_data, list):
-                image_bytes = bytes(image_bytes_data)
-            else:
-                raise ValueError(f"Unsupported imageBytes format: {type(image_bytes_data)}")
+            # 원본 이미지 로드 (claim-check 다운로드 또는 inline imageBytes)
+            image_bytes = load_message_image_bytes(message)
 
             # 파이프라인 실행
             result = self.pipeline.process(cloth_id, user_id, image_bytes, image_type, self)
@@ -962,6 +1020,10 @@ class ClothProcessingWorker:
 
     def send_result(self, result):
         """결과 메시지 전송"""
+        if RESULT_PROTOCOL == "v2":
+            self.send_result_v2(result)
+            return
+
         result_json = json.dumps(result)
 
         self.channel.basic_publish(
@@ -976,6 +1038,86 @@ class ClothProcessingWorker:
 
         print(f"📤 Result sent to {RESULT_QUEUE}")
 
+    def send_stage_result(self, cloth_id, stage, fields):
+        """단계별 중간 결과 전송 (단계가 끝나는 즉시, 최종 결과 전에 먼저 반영)
+
+        - stage: REMOVED_BG 또는 SEGMENTED (Spring ProcessingStage)
+        - 해당 단계 이미지/메타데이터만 담아 send_result와 같은 프로토콜로 발행 (v2면 stage 매니페스트)
+        - 최종 결과에도 같은 이미지를 담으므로 전송 실패는 처리 실패로 보지 않음
+        """
+        stage_result = {"clothId": cloth_id, "success": True, "stage": stage}
+        stage_result.update(fields)
+        try:
+            self.send_result(stage_result)
+            print(f"📤 Stage result sent: {stage}")
+        except Exception as e:
+            print(f"⚠️  Stage result not sent ({stage}): {str(e)}")
+
+    def send_result_v2(self, result):
+        """결과 메시지 전송 (v2: 아티팩트별 raw PNG 메시지 + 매니페스트)
+
+        - 아티팩트마다 raw PNG 바디와 헤더(clothId, type, label, areaPixels)로 발행
+        - 마지막에 메타데이터 + 아티팩트 목록을 담은 매니페스트 발행
+        - 모든 메시지는 같은 correlation_id로 묶임
+        """
+        cloth_id = result.get("clothId")
+        correlation_id = f"{cloth_id}-{uuid.uuid4().hex}"
+        artifacts = []
+
+        def publish_artifact(artifact_type, image_base64, label=None, area_pixels=None):
+            if not image_base64:
+                return
+            headers = {"x-cloth-id": cloth_id, "x-artifact-type": artifact_type}
+            if label is not None:
+                headers["x-artifact-label"] = label
+            if area_pixels is not None:
+                headers["x-area-pixels"] = area_pixels
+            self.channel.basic_publish(
+                exchange=EXCHANGE,
+                routing_key=RESULT_ROUTING_KEY,
+                body=base64.b64decode(image_base64),
+                properties=pika.BasicProperties(
+                    delivery_mode=2,
+                    content_type=RESULT_CONTENT_TYPE_ARTIFACT,
+                    correlation_id=correlation_id,
+                    headers=headers
+                )
+            )
+            artifacts.append({"type": artifact_type, "label": label, "areaPixels": area_pixels})
+
+        if result.get("success"):
+            publish_artifact("REMOVED_BG", result.get("removedBgImageBase64"))
+            publish_artifact("SEGMENTED", result.get("segmentedImageBase64"))
+            publish_artifact("INPAINTED", result.get("inpaintedImageBase64"))
+            for item in result.get("allSegmentedItems") or []:
+                publish_artifact("SEGMENTED_ITEM", item.get("imageBase64"), item.get("label"), item.get("areaPixels"))
+            for item in result.get("allExpandedItems") or []:
+                publish_artifact("EXPANDED_ITEM", item.get("imageBase64"), item.get("label"), item.get("areaPixels"))
+
+        manifest = {
+            "version": 2,
+            "clothId": cloth_id,
+            "stage": result.get("stage"),
+            "success": result.get("success"),
+            "errorMessage": result.get("errorMessage"),
+            "suggestedCategory": result.get("suggestedCategory"),
+            "segmentationLabel": result.get("segmentationLabel"),
+            "areaPixels": result.get("areaPixels"),
+            "artifacts": artifacts
+        }
+        self.channel.basic_publish(
+            exchange=EXCHANGE,
+            routing_key=RESULT_ROUTING_KEY,
+            body=json.dumps(manifest),
+            properties=pika.BasicProperties(
+                delivery_mode=2,
+                content_type=RESULT_CONTENT_TYPE_MANIFEST,
+                correlation_id=correlation_id
+            )
+        )
+
+        print(f"📤 Result (v2, {len(artifacts)} artifacts) sent to {RESULT_QUEUE}")
+
     def start(self):
         """Worker 시작 (자동 재연결 포함)"""
         while True:
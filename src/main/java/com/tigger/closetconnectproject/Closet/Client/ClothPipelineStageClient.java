@@ -0,0 +1,196 @@
+package com.tigger.closetconnectproject.Closet.Client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.URLConnection;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 옷 처리 단계별 Python 서버 HTTP 클라이언트 (로컬 파이프라인용)
+ * - rembg → segmentation → inpainting 서버를 JVM에서 직접 호출
+ * - 요청 본문은 multipart/form-data의 {@code file} 파트 (FastAPI {@code UploadFile = File(...)} 계약)
+ * - 이미지 바이트는 파트 헤더/종료 경계 사이에 그대로 스트리밍, 응답도 메모리에 모으지 않고 바로 기록
+ * - 단계별 동시 호출 수 제한 (Semaphore): 느린 inpainting이 rembg/segmentation 호출을 막지 않음
+ * - 단계별 타임아웃: 응답 헤더까지(= 서버 처리 시간) 적용, 동시 호출 대기도 같은 시간까지만
+ * - 메트릭: cloth.local.stage{stage, outcome}
+ */
+@Slf4j
+@Component
+public class ClothPipelineStageClient {
+
+    static final String STAGE_METRIC = "cloth.local.stage";
+    static final String FILE_PART = "file";
+
+    /**
+     * 파이프라인 단계
+     */
+    public enum Stage {
+        REMBG, SEGMENTATION, INPAINTING
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, StageConfig> stages = new EnumMap<>(Stage.class);
+
+    public ClothPipelineStageClient(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rembg.server.url:http://localhost:8001}") String rembgUrl,
+            @Value("${rembg.timeout.seconds:60}") long rembgTimeoutSeconds,
+            @Value("${cloth.local-pipeline.rembg.path:/remove-bg}") String rembgPath,
+            @Value("${cloth.local-pipeline.rembg.concurrency:2}") int rembgConcurrency,
+            @Value("${cloth-segmentation.server.url:http://localhost:8002}") String segmentationUrl,
+            @Value("${cloth-segmentation.timeout.seconds:30}") long segmentationTimeoutSeconds,
+            @Value("${cloth.local-pipeline.segmentation.path:/segment}") String segmentationPath,
+            @Value("${cloth.local-pipeline.segmentation.concurrency:2}") int segmentationConcurrency,
+            @Value("${inpainting.server.url:http://localhost:8003}") String inpaintingUrl,
+            @Value("${inpainting.timeout.seconds:900}") long inpaintingTimeoutSeconds,
+            @Value("${cloth.local-pipeline.inpainting.path:/inpaint}") String inpaintingPath,
+            @Value("${cloth.local-pipeline.inpainting.concurrency:1}") int inpaintingConcurrency,
+            @Value("${cloth.local-pipeline.connect-timeout-seconds:5}") long connectTimeoutSeconds
+    ) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .build();
+
+        stages.put(Stage.REMBG, new StageConfig(
+                URI.create(rembgUrl + rembgPath), Duration.ofSeconds(rembgTimeoutSeconds), new Semaphore(rembgConcurrency)));
+        stages.put(Stage.SEGMENTATION, new StageConfig(
+                URI.create(segmentationUrl + segmentationPath), Duration.ofSeconds(segmentationTimeoutSeconds),
+                new Semaphore(segmentationConcurrency)));
+        stages.put(Stage.INPAINTING, new StageConfig(
+                URI.create(inpaintingUrl + inpaintingPath), Duration.ofSeconds(inpaintingTimeoutSeconds),
+                new Semaphore(inpaintingConcurrency)));
+    }
+
+    /**
+     * 이미지 → 이미지 단계 호출 (rembg, inpainting)
+     *
+     * @param stage    단계
+     * @param filename 파트 파일명 (확장자로 Content-Type 결정, inpainting 서버는 임시 파일명으로도 사용)
+     * @param image    요청 이미지 (스트리밍)
+     * @param out      응답 이미지를 기록할 스트림 (보통 StagingSession 임시 파일)
+     * @throws IOException 호출 실패, 2xx 이외 응답, 타임아웃
+     */
+    public void transform(Stage stage, String filename, HttpRequest.BodyPublisher image, OutputStream out)
+            throws IOException {
+        call(stage, filename, image, in -> {
+            in.transferTo(out);
+            return null;
+        });
+    }
+
+    /**
+     * 이미지 → JSON 단계 호출 (segmentation)
+     *
+     * @param stage        단계
+     * @param filename     파트 파일명 (확장자로 Content-Type 결정)
+     * @param image        요청 이미지 (스트리밍)
+     * @param responseType 응답 DTO 타입
+     * @return 역직렬화된 응답
+     * @throws IOException 호출 실패, 2xx 이외 응답, 타임아웃
+     */
+    public <T> T analyze(Stage stage, String filename, HttpRequest.BodyPublisher image, Class<T> responseType)
+            throws IOException {
+        return call(stage, filename, image, in -> objectMapper.readValue(in, responseType));
+    }
+
+    private <T> T call(Stage stage, String filename, HttpRequest.BodyPublisher image, ResponseReader<T> reader)
+            throws IOException {
+        StageConfig config = stages.get(stage);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        boolean acquired = false;
+        try {
+            acquired = config.permits().tryAcquire(config.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                outcome = "busy";
+                throw new HttpTimeoutException(stage + " 동시 호출 한도 대기 시간 초과");
+            }
+
+            String boundary = "closetconnect-" + UUID.randomUUID();
+            HttpRequest request = HttpRequest.newBuilder(config.uri())
+                    .timeout(config.timeout())
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(multipartFile(boundary, filename, image))
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            try (InputStream in = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException(stage + " 서버 응답 오류: HTTP " + response.statusCode());
+                }
+                T result = reader.read(in);
+                outcome = "success";
+                return result;
+            }
+        } catch (HttpTimeoutException e) {
+            if (!"busy".equals(outcome)) {
+                outcome = "timeout";
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(stage + " 호출 중단");
+        } finally {
+            if (acquired) {
+                config.permits().release();
+            }
+            sample.stop(Timer.builder(STAGE_METRIC)
+                    .description("Local pipeline stage call duration")
+                    .tag("stage", stage.name().toLowerCase())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 이미지 하나를 {@code file} 파트로 감싼 multipart 본문
+     * - 파트 헤더와 종료 경계만 문자열로 만들고 이미지 본문은 원래 publisher 그대로 이어 붙임
+     * - 파트 Content-Type은 파일명 확장자 기준, 알 수 없으면 image/png (rembg 서버는 image/* 만 허용)
+     */
+    static HttpRequest.BodyPublisher multipartFile(String boundary, String filename, HttpRequest.BodyPublisher image) {
+        String safeName = filename.replaceAll("[\\r\\n\"]", "_");
+        String contentType = URLConnection.guessContentTypeFromName(safeName);
+        if (contentType == null || !contentType.startsWith("image/")) {
+            contentType = "image/png";
+        }
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + FILE_PART + "\"; filename=\"" + safeName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+        return HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(head),
+                image,
+                HttpRequest.BodyPublishers.ofString(tail));
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(InputStream in) throws IOException;
+    }
+
+    private record StageConfig(URI uri, Duration timeout, Semaphore permits) {}
+}
@@ -3,6 +3,7 @@ package com.tigger.closetconnectproject.Closet.Client;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -182,6 +183,15 @@ public class GeminiTryonClient implements TryonClient {
         if (imagePath.startsWith("uploads/") || imagePath.startsWith("/uploads/")) {
             String relativePath = imagePath.replaceFirst("^/uploads/", "uploads/");
             imageFile = new File(uploadsDir, relativePath.replace("uploads/", ""));
+
+            // 평면 레이아웃 경로인데 파일이 샤딩 디렉토리로 옮겨졌으면 그쪽을 읽음
+            if (!imageFile.exists()) {
+                String sharded = ImageStorageService.shardedRelativeOfLegacy(
+                        relativePath.substring("uploads/".length()));
+                if (sharded != null) {
+                    imageFile = new File(uploadsDir, sharded);
+                }
+            }
         } else {
             imageFile = new File(imagePath);
         }
@@ -0,0 +1,45 @@
+package com.tigger.closetconnectproject.Closet.Controller;
+
+import com.tigger.closetconnectproject.Closet.Service.ClothDeadLetterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 옷 처리 dead letter 관리 API (관리자)
+ * - 재시도를 모두 소진했거나 재시도할 수 없는 메시지 조회/일괄 재처리
+ * - spring.rabbitmq.enabled=true일 때만 활성화
+ */
+@RestController
+@RequestMapping("/api/v1/admin/cloth/dead-letters")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class AdminClothDeadLetterController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ClothDeadLetterService deadLetterService;
+
+    /** dead letter 조회 (오래된 순, 메시지는 큐에 그대로 남음) */
+    @GetMapping
+    public List<ClothDeadLetterService.DeadLetter> list(@RequestParam(defaultValue = "50") int limit) {
+        return deadLetterService.peek(clamp(limit));
+    }
+
+    /** dead letter 일괄 재처리 (원래 큐로 재발행, 재시도 단계 초기화) */
+    @PostMapping("/replay")
+    public ClothDeadLetterService.ReplayResult replay(@RequestParam(defaultValue = "100") int limit) {
+        return deadLetterService.replay(clamp(limit));
+    }
+
+    private static int clamp(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit은 1 이상이어야 합니다.");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -2,17 +2,35 @@ package com.tigger.closetconnectproject.Closet.Controller;
 
 import com.tigger.closetconnectproject.Closet.Dto.*;
 import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Service.ClothBatchImportService;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressStreamRegistry;
 import com.tigger.closetconnectproject.Closet.Service.ClothService;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusCache;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusService;
 import com.tigger.closetconnectproject.Security.AppUserDetails;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * 옷장 관리 API Controller
@@ -25,6 +43,9 @@ import org.springframework.web.multipart.MultipartFile;
 public class ClothController {
 
     private final ClothService clothService;
+    private final ClothBatchImportService batchImportService;
+    private final ClothStatusService clothStatusService;
+    private final ClothProgressStreamRegistry progressStreamRegistry;
 
     /**
      * 설명: 사용자의 옷 목록 조회 (페이징, 정렬, 카테고리 필터링 지원)
@@ -115,11 +136,84 @@ public class ClothController {
         return clothService.createWithImage(uid, image, req);
     }
 
+    /**
+     * 설명: 옷 일괄 업로드 (여러 이미지 또는 zip 파일)
+     * - 옷 이름은 파일명(확장자 제외), 카테고리는 AI가 제안
+     * - zip은 항목 단위로 스트리밍하며 처리, 이미지가 아닌 항목은 건너뛰고 skipped로 알려줌
+     * - 모든 옷을 한 트랜잭션에서 생성, 처리 요청은 outbox relay가 묶어서 발행
+     * - 처리 대기열이 한도를 넘으면 429 + Retry-After (전부 거절)
+     * - multipart 요청은 전역 업로드 한도(12MB)를 따름, 큰 zip은 요청 본문으로 업로드 (uploadBatchArchive)
+     *
+     * @param images 이미지 파일들 (선택)
+     * @param archive 이미지가 담긴 zip 파일 (선택, images와 함께 보낼 수 있음)
+     * @param imageType 이미지 타입 (모든 이미지에 적용)
+     * @param principal 현재 로그인한 사용자
+     * @return batchId (GET /api/v1/cloth/upload/batch/{batchId}로 진행 상황 조회), 생성된 옷 ID
+     * @example POST /api/v1/cloth/upload/batch
+     *          Content-Type: multipart/form-data
+     *          archive: (closet.zip)
+     */
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public ClothBatchResponse uploadBatch(
+            @RequestParam(value = "images", required = false) List<MultipartFile> images,
+            @RequestParam(value = "archive", required = false) MultipartFile archive,
+            @RequestParam(value = "imageType", required = false, defaultValue = "FULL_BODY") com.tigger.closetconnectproject.Closet.Entity.ImageType imageType,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) {
+        Long uid = principal.getUser().getUserId();
+        return batchImportService.importBatch(uid, images, archive, imageType.name());
+    }
+
+    /**
+     * 설명: zip 파일 일괄 업로드 (요청 본문 스트리밍)
+     * - multipart를 거치지 않으므로 전역 업로드 한도와 무관, cloth.batch.max-archive-bytes까지 허용
+     * - 처리 방식과 응답은 multipart 일괄 업로드와 동일
+     *
+     * @param archive 요청 본문 (zip)
+     * @param imageType 이미지 타입 (모든 이미지에 적용)
+     * @param principal 현재 로그인한 사용자
+     * @return batchId, 생성된 옷 ID
+     * @example POST /api/v1/cloth/upload/batch?imageType=SINGLE_ITEM
+     *          Content-Type: application/zip
+     *          (closet.zip)
+     */
+    @PostMapping(value = "/upload/batch", consumes = {"application/zip", "application/x-zip-compressed"})
+    @ResponseStatus(HttpStatus.CREATED)
+    public ClothBatchResponse uploadBatchArchive(
+            InputStream archive,
+            @RequestParam(value = "imageType", required = false, defaultValue = "FULL_BODY") com.tigger.closetconnectproject.Closet.Entity.ImageType imageType,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) throws IOException {
+        Long uid = principal.getUser().getUserId();
+        return batchImportService.importArchive(uid, archive, imageType.name());
+    }
+
+    /**
+     * 설명: 일괄 업로드 진행 상황 조회 (폴링용)
+     * - 상태별 건수, 전체 진행률(옷별 진행률 평균), 옷별 상태
+     *
+     * @param batchId 일괄 업로드 ID
+     * @param principal 현재 로그인한 사용자
+     * @return 일괄 업로드 진행 상황
+     * @example GET /api/v1/cloth/upload/batch/2f6c...
+     */
+    @GetMapping("/upload/batch/{batchId}")
+    public ClothBatchStatusResponse getBatchStatus(
+            @PathVariable String batchId,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) {
+        Long uid = principal.getUser().getUserId();
+        return clothService.getBatchStatus(uid, batchId);
+    }
+
     /**
      * 설명: 옷 처리 상태 조회 (폴링용)
      * - 비동기 처리 진행 상황 확인
      * - processingStatus: PROCESSING, READY_FOR_REVIEW, COMPLETED, FAILED
      * - READY_FOR_REVIEW 상태일 때 suggestedCategory 확인 가능
+     * - 인메모리 상태 캐시에서 응답 (DB 조회 없음), ETag 제공
+     * - If-None-Match가 현재 ETag와 같으면 304 Not Modified
      *
      * @param id 조회할 옷 아이템 ID
      * @param principal 현재 로그인한 사용자
@@ -127,12 +221,95 @@ public class ClothController {
      * @example GET /api/v1/cloth/123/status
      */
     @GetMapping("/{id}/status")
-    public ClothStatusResponse getStatus(
+    public ResponseEntity<ClothStatusResponse> getStatus(
+            @PathVariable Long id,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) {
+        Long uid = principal.getUser().getUserId();
+        return toStatusResponse(clothStatusService.getStatus(uid, id));
+    }
+
+    /**
+     * 설명: 옷 처리 상태 long-poll
+     * - If-None-Match의 ETag와 다른 상태가 될 때까지 최대 waitForChange 동안 응답을 보류
+     * - 바뀌면 200 + 새 상태, 시간 안에 바뀌지 않으면 304 Not Modified
+     * - If-None-Match가 없거나 이미 다르면 즉시 응답
+     *
+     * @param id 조회할 옷 아이템 ID
+     * @param waitForChange 최대 대기 시간 (예: 30s, 10000ms, 서버 최대값으로 제한)
+     * @param ifNoneMatch 클라이언트가 마지막으로 받은 ETag
+     * @param principal 현재 로그인한 사용자
+     * @return 처리 상태 정보
+     * @example GET /api/v1/cloth/123/status?waitForChange=30s
+     *          If-None-Match: "9b2f..."
+     */
+    @GetMapping(value = "/{id}/status", params = "waitForChange")
+    public DeferredResult<ResponseEntity<ClothStatusResponse>> awaitStatus(
+            @PathVariable Long id,
+            @RequestParam String waitForChange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) {
+        Long uid = principal.getUser().getUserId();
+        Duration wait;
+        try {
+            wait = DurationStyle.detectAndParse(waitForChange, ChronoUnit.MILLIS);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "waitForChange 형식이 올바르지 않습니다: " + waitForChange);
+        }
+
+        // 응답 보류 시간보다 조금 길게 (서블릿 비동기 타임아웃이 먼저 나지 않도록)
+        DeferredResult<ResponseEntity<ClothStatusResponse>> result =
+                new DeferredResult<>(clothStatusService.getMaxWaitMs() + 5000);
+        clothStatusService.awaitChange(uid, id, ifNoneMatch, wait).whenComplete((entry, error) -> {
+            if (error != null) {
+                result.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                result.setResult(toStatusResponse(entry));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 설명: 옷 처리 진행도 SSE 스트림 (WebSocket을 유지하기 어려운 클라이언트용)
+     * - 이벤트 이름 progress, data는 WebSocket과 같은 ClothProgressMessage JSON
+     * - 재연결 시 Last-Event-ID 헤더를 보내면 그 이후 이벤트를 재전송 (최근 이벤트만 보관)
+     * - 주기적으로 heartbeat 주석 이벤트 전송
+     *
+     * @param lastEventId 마지막으로 받은 이벤트 ID (EventSource가 재연결 시 자동 전송)
+     * @param principal 현재 로그인한 사용자
+     * @return SSE 스트림
+     * @example GET /api/v1/cloth/progress/stream
+     *          Accept: text/event-stream
+     */
+    @GetMapping(value = "/progress/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProgress(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) {
+        Long uid = principal.getUser().getUserId();
+        return progressStreamRegistry.connect(uid, lastEventId);
+    }
+
+    /**
+     * 설명: 옷장의 유사 아이템 조회
+     * - 원본/최종 이미지의 지각 해시(dHash) 해밍 거리 기준 (같은 옷을 다르게 찍은 사진 감지)
+     * - 옷장에 확정된 옷만 대상, 거리 오름차순
+     *
+     * @param id 기준 옷 아이템 ID
+     * @param principal 현재 로그인한 사용자
+     * @return 유사 아이템 목록
+     * @example GET /api/v1/cloth/123/similar
+     */
+    @GetMapping("/{id}/similar")
+    public List<SimilarClothResponse> getSimilar(
             @PathVariable Long id,
             @AuthenticationPrincipal AppUserDetails principal
     ) {
         Long uid = principal.getUser().getUserId();
-        return clothService.getStatus(uid, id);
+        return clothService.findSimilar(uid, id);
     }
 
     /**
@@ -221,4 +398,14 @@ public class ClothController {
         Long uid = principal.getUser().getUserId();
         clothService.delete(uid, id);
     }
+
+    /**
+     * 상태 응답 (ETag 포함, If-None-Match가 같으면 Spring이 304로 응답)
+     */
+    private static ResponseEntity<ClothStatusResponse> toStatusResponse(ClothStatusCache.Entry entry) {
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(entry.status());
+    }
 }
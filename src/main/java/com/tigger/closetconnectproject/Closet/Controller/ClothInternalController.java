@@ -0,0 +1,71 @@
+package com.tigger.closetconnectproject.Closet.Controller;
+
+import com.tigger.closetconnectproject.Closet.Service.ClothService;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Security.InternalApiTokenVerifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * AI 워커 전용 내부 API Controller
+ * - claim-check 방식으로 전달된 원본 이미지를 워커가 스트리밍으로 다운로드
+ * - JWT 대신 X-Internal-Token 공유 토큰으로 인증 (SecurityConfig에서 먼저 검증, 여기서 한 번 더 확인)
+ */
+@RestController
+@RequestMapping("/internal/v1/cloth")
+@RequiredArgsConstructor
+public class ClothInternalController {
+
+    private final ClothService clothService;
+    private final ImageStorageService imageStorageService;
+    private final InternalApiTokenVerifier internalApiTokenVerifier;
+
+    /**
+     * 설명: 원본 이미지 스트리밍 다운로드 (워커용)
+     * - 파일을 메모리에 올리지 않고 Resource로 스트리밍
+     * - Range 요청 지원 (206 Partial Content) - 워커의 이어받기/분할 다운로드
+     * - ETag: 원본 이미지 SHA-256
+     *
+     * @param clothId 옷 ID
+     * @param token 내부 공유 토큰 (X-Internal-Token)
+     * @return 원본 이미지 스트림
+     * @example GET /internal/v1/cloth/123/original
+     *          X-Internal-Token: {token}
+     *          Range: bytes=0-1048575
+     */
+    @GetMapping("/{clothId}/original")
+    public ResponseEntity<Resource> getOriginalImage(
+            @PathVariable Long clothId,
+            @RequestHeader(value = InternalApiTokenVerifier.HEADER, required = false) String token
+    ) {
+        verifyInternalToken(token);
+
+        ImageStorageService.StoredImage original = clothService.getOriginalImageRef(clothId);
+        Resource resource = imageStorageService.loadAsResource(original.url());
+
+        MediaType mediaType = MediaTypeFactory.getMediaType(resource)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .header("Accept-Ranges", "bytes");
+        if (original.sha256() != null) {
+            response.eTag("\"" + original.sha256() + "\"");
+            response.header("X-Content-SHA256", original.sha256());
+        }
+
+        // Range 헤더가 있으면 Spring MVC가 ResourceRegion으로 변환하여 206 응답
+        return response.body(resource);
+    }
+
+    private void verifyInternalToken(String token) {
+        if (!internalApiTokenVerifier.matches(token)) {
+            throw new AccessDeniedException("내부 API 접근 권한이 없습니다.");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.tigger.closetconnectproject.Closet.Controller;
+
+import com.tigger.closetconnectproject.Closet.Service.ClothPipelineMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 옷 처리 파이프라인 단계별 시간 요약 (GET /actuator/pipeline)
+ * - 단계(queue_wait, worker_*, result_decode, artifact_write, db_update, first_progress, end_to_end)별
+ *   이미지 타입/결과마다 건수, 평균, 최대, p50/p95/p99 (ms)
+ * - SecurityConfig에서 관리자만 접근 가능
+ */
+@Component
+@Endpoint(id = "pipeline")
+@RequiredArgsConstructor
+public class ClothPipelineEndpoint {
+
+    private final ClothPipelineMetrics pipelineMetrics;
+
+    @ReadOperation
+    public Map<String, List<ClothPipelineMetrics.StageSummary>> pipeline() {
+        return pipelineMetrics.summary();
+    }
+}
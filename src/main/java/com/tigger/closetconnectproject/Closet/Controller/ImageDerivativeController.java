@@ -0,0 +1,83 @@
+package com.tigger.closetconnectproject.Closet.Controller;
+
+import com.tigger.closetconnectproject.Closet.Service.ImageDerivativeService;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Upload.Service.UploadFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * 파생 이미지(썸네일) 제공 Controller
+ * - /uploads/derived/{width}/** 요청을 UploadFileController(/uploads/**)보다 먼저 처리 (더 구체적인 매핑)
+ * - 파생 이미지가 아직 없으면 요청 시점에 생성 (지연 생성, 동시 요청은 하나로 합침)
+ * - 생성할 수 없는 이미지(지원하지 않는 형식 등)는 원본 URL로 리다이렉트
+ * - 응답(ETag, Range, ?v= immutable 캐시)은 UploadFileService가 기록
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ImageDerivativeController {
+
+    private final ImageDerivativeService derivativeService;
+    private final ImageStorageService imageStorageService;
+    private final UploadFileService uploadFileService;
+
+    @Value("${upload.base-url:/uploads}")
+    private String uploadBaseUrl;
+
+    /**
+     * 설명: 파생 이미지 조회
+     *
+     * @param width 파생 이미지 너비 (image.derivative.widths 중 하나)
+     * @param v     내용 해시 버전 (UploadFileService.versionedUrl)
+     * @example GET /uploads/derived/320/removed-bg/123.png
+     */
+    @GetMapping("${upload.base-url:/uploads}/derived/{width}/**")
+    public void getDerivative(
+            @PathVariable int width,
+            @RequestParam(name = UploadFileService.VERSION_PARAM, required = false) String v,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!derivativeService.isSupportedWidth(width)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "지원하지 않는 이미지 크기입니다.");
+        }
+
+        String prefix = uploadBaseUrl + "/derived/" + width + "/";
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String relative = UriUtils.decode(path.substring(prefix.length()), StandardCharsets.UTF_8);
+        if (relative.isBlank() || relative.contains("..")) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다.");
+        }
+
+        String sourceUrl = imageStorageService.sourceUrlOfDerivative(width, relative);
+        if (sourceUrl == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다.");
+        }
+
+        Path derivative;
+        try {
+            derivative = derivativeService.getOrCreate(sourceUrl, width);
+        } catch (IOException e) {
+            log.debug("Serving original instead of derivative: {} ({})", sourceUrl, e.getMessage());
+            response.sendRedirect(sourceUrl);
+            return;
+        }
+
+        uploadFileService.serve(derivative, "derived", v, request, response);
+    }
+}
@@ -0,0 +1,84 @@
+package com.tigger.closetconnectproject.Closet.Controller;
+
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Closet.Service.ImageVariantService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 크기 맞춤 이미지 Controller
+ * - /uploads/** 와 같은 파일을 원하는 크기로 축소하여 제공
+ * - 강한 ETag + immutable 캐시 헤더 (원본이 바뀌면 ETag도 바뀜)
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class ImageVariantController {
+
+    private final ImageVariantService variantService;
+
+    /**
+     * 설명: 크기 맞춤 이미지 조회
+     *
+     * @param type     이미지 타입 디렉토리 (original, segmented, inpainted ...)
+     * @param filename 파일명
+     * @param w        목표 너비 (생략 시 높이 기준)
+     * @param h        목표 높이 (생략 시 너비 기준)
+     * @param fit      contain(기본, 박스 안에 맞춤) 또는 cover(박스를 채운 뒤 가운데 크롭)
+     * @return 변환된 이미지 (If-None-Match가 일치하면 304, 변환 불가 시 원본으로 302)
+     * @example GET /img/inpainted/123.png?w=320&h=320&fit=cover
+     */
+    @GetMapping("${image.variant.base-url:/img}/{type}/{filename:.+}")
+    public ResponseEntity<Resource> getImage(
+            @PathVariable String type,
+            @PathVariable String filename,
+            @RequestParam(defaultValue = "0") int w,
+            @RequestParam(defaultValue = "0") int h,
+            @RequestParam(defaultValue = "contain") String fit,
+            WebRequest webRequest
+    ) {
+        ImageStorageService.ImageType imageType = ImageStorageService.ImageType.fromDirectory(type)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다."));
+
+        ImageVariantService.VariantRequest request =
+                variantService.prepare(imageType, filename, w, h, ImageVariantService.Fit.from(fit));
+
+        // 브라우저/프록시가 가진 버전이 최신이면 이미지를 만들지 않고 304
+        if (webRequest.checkNotModified(request.etag())) {
+            return null;
+        }
+
+        Path variant;
+        try {
+            variant = variantService.getOrCreate(request);
+        } catch (IOException e) {
+            log.debug("Serving original instead of variant: {} ({})", request.sourceUrl(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(request.sourceUrl()))
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType("jpg".equals(request.format()) ? MediaType.IMAGE_JPEG : MediaType.IMAGE_PNG)
+                .eTag(request.etag())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .body(new FileSystemResource(variant));
+    }
+}
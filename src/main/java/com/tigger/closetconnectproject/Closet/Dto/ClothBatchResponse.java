@@ -0,0 +1,24 @@
+package com.tigger.closetconnectproject.Closet.Dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 일괄 업로드 응답 DTO
+ * - batchId로 GET /api/v1/cloth/upload/batch/{batchId}에서 전체 진행률 조회
+ */
+public record ClothBatchResponse(
+        String batchId,
+        List<Long> clothIds,  // 생성된 옷 ID (업로드 순서)
+        int reusedCount,  // 이전 처리 결과를 재사용해 바로 READY_FOR_REVIEW가 된 옷 수
+        List<SkippedItem> skipped,  // 건너뛴 파일 (이미지가 아님, 크기 초과 등)
+        Instant estimatedCompletionAt  // 마지막 옷의 AI 처리 예상 완료 시각
+) {
+    /**
+     * 건너뛴 파일
+     */
+    public record SkippedItem(
+            String filename,  // 업로드 파일명 또는 zip 항목 경로
+            String reason     // unsupported_type, too_large, empty
+    ) {}
+}
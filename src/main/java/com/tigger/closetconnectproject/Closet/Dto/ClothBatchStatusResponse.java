@@ -0,0 +1,30 @@
+package com.tigger.closetconnectproject.Closet.Dto;
+
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+
+import java.util.List;
+
+/**
+ * 일괄 업로드 진행 상황 응답 DTO
+ * - 처리 중인 옷의 진행률은 상태 캐시(진행도 메시지) 기준, 처리가 끝난 옷은 100
+ */
+public record ClothBatchStatusResponse(
+        String batchId,
+        int total,
+        int processing,
+        int readyForReview,
+        int completed,
+        int failed,
+        int progressPercentage,  // 전체 진행률 (0-100, 옷별 진행률 평균)
+        boolean done,  // 모든 옷의 처리가 끝났는지
+        List<Item> items
+) {
+    /**
+     * 옷별 상태
+     */
+    public record Item(
+            Long clothId,
+            ProcessingStatus processingStatus,
+            Integer progressPercentage
+    ) {}
+}
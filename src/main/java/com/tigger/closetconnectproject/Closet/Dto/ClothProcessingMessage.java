@@ -29,11 +29,34 @@ public class ClothProcessingMessage implements Serializable {
     private Long userId;
 
     /**
-     * 원본 이미지 바이트 배열
+     * 원본 이미지 바이트 배열 (inline 모드)
      * - Base64로 인코딩하여 전송 (JSON 직렬화)
+     * - claim-check 모드에서는 null (imageFetchUrl로 워커가 직접 다운로드)
      */
     private byte[] imageBytes;
 
+    /**
+     * 원본 이미지 저장소 참조 (claim-check 모드)
+     * - 예: /uploads/original/123.jpg
+     */
+    private String imageRef;
+
+    /**
+     * 워커가 원본 이미지를 스트리밍으로 받아갈 내부 엔드포인트 URL (claim-check 모드)
+     * - Range 요청 지원, X-Internal-Token 헤더 필요
+     */
+    private String imageFetchUrl;
+
+    /**
+     * 원본 이미지 SHA-256 (hex) - 워커가 다운로드 후 무결성 검증
+     */
+    private String contentSha256;
+
+    /**
+     * 원본 이미지 크기 (bytes)
+     */
+    private Long contentLength;
+
     /**
      * 원본 파일명
      * - 확장자 추출에 사용
@@ -3,6 +3,7 @@ package com.tigger.closetconnectproject.Closet.Dto;
 import com.tigger.closetconnectproject.Closet.Entity.Category;
 import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
 
+import java.time.Instant;
 import java.util.List;
 
 public record ClothResponse(
@@ -11,6 +12,7 @@ public record ClothResponse(
         String name,
         Category category,
         String imageUrl,  // 기존 호환성 유지 (최종 이미지)
+        String thumbnailUrl,  // 목록용 썸네일 (없으면 요청 시 생성, 외부 URL이면 imageUrl과 동일)
         String originalImageUrl,  // 원본 이미지 URL
         String removedBgImageUrl,  // 배경 제거 이미지 URL
         String segmentedImageUrl,  // 세그멘테이션 결과 이미지 URL (크롭된 옷)
@@ -21,7 +23,9 @@ public record ClothResponse(
         String errorMessage,  // 에러 메시지 (FAILED 상태일 때)
         List<AdditionalItemResponse> additionalItems,  // 추가 감지된 아이템들 (deprecated)
         List<SegmentedItemResponse> allSegmentedItems,  // 모든 크롭된 아이템들 (크기순)
-        List<ExpandedItemResponse> allExpandedItems  // 모든 Gemini 확장된 아이템들 (크기순)
+        List<ExpandedItemResponse> allExpandedItems,  // 모든 Gemini 확장된 아이템들 (크기순)
+        List<SimilarClothResponse> similarItems,  // 옷장의 유사 아이템 (업로드 응답에서만, 그 외 null)
+        Instant estimatedCompletionAt  // AI 처리 예상 완료 시각 (업로드 응답에서 파이프라인에 들어간 경우만, 그 외 null)
 ) {
     /**
      * 추가 감지된 옷 아이템 응답 DTO (deprecated)
@@ -0,0 +1,83 @@
+package com.tigger.closetconnectproject.Closet.Dto;
+
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 바이너리 결과 프로토콜(v2) 매니페스트 메시지 (Python → Spring)
+ * - 작업(correlationId)의 메타데이터 + 함께 전송된 이미지 아티팩트 목록
+ * - 이미지 자체는 아티팩트 메시지(raw PNG 바디 + 헤더)로 별도 전송
+ * - 매니페스트에 나열된 아티팩트가 모두 도착하면 결과를 확정
+ * - 단계별 중간 결과는 단계마다 별도 correlationId로 전송 (stage 지정, 해당 단계의 아티팩트만)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClothResultManifest implements Serializable {
+
+    /**
+     * 프로토콜 버전 (현재 2)
+     */
+    private Integer version;
+
+    private Long clothId;
+
+    /**
+     * 단계별 중간 결과의 단계 (최종 결과면 null)
+     */
+    private ProcessingStage stage;
+
+    private Boolean success;
+
+    private String errorMessage;
+
+    private String suggestedCategory;
+
+    private String segmentationLabel;
+
+    private Integer areaPixels;
+
+    /**
+     * 전송된 아티팩트 목록 (아이템은 크기순)
+     */
+    private List<ArtifactRef> artifacts;
+
+    /**
+     * 아티팩트 참조 (type + label로 아티팩트 메시지와 매칭)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ArtifactRef implements Serializable {
+        private ArtifactType type;
+        private String label;
+        private Integer areaPixels;
+    }
+
+    /**
+     * 아티팩트 종류 → 저장 디렉토리
+     */
+    public enum ArtifactType {
+        REMOVED_BG(ImageStorageService.ImageType.REMOVED_BG),
+        SEGMENTED(ImageStorageService.ImageType.SEGMENTED),
+        INPAINTED(ImageStorageService.ImageType.INPAINTED),
+        SEGMENTED_ITEM(ImageStorageService.ImageType.SEGMENTED),
+        EXPANDED_ITEM(ImageStorageService.ImageType.EXPANDED);
+
+        private final ImageStorageService.ImageType imageType;
+
+        ArtifactType(ImageStorageService.ImageType imageType) {
+            this.imageType = imageType;
+        }
+
+        public ImageStorageService.ImageType getImageType() {
+            return imageType;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.tigger.closetconnectproject.Closet.Dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Closet.Util.StagedImageDeserializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +16,14 @@ import java.util.List;
 /**
  * RabbitMQ 옷 처리 결과 메시지 (Python → Spring)
  * - Python worker가 처리 완료 후 Spring으로 전송
+ * - 이미지 필드는 ClothResultMessageReader로 역직렬화해야 함
+ *   (base64 문자열을 String/byte[]로 만들지 않고 대상 디렉토리의 임시 파일로 바로 디코딩)
+ * - stage가 있으면 단계별 중간 결과: 해당 단계의 이미지만 담아 단계가 끝나는 즉시 전송 (최종 결과 전에 먼저 반영)
+ *   - REMOVED_BG: removedBgImageBase64
+ *   - SEGMENTED: segmentedImageBase64, allSegmentedItems, suggestedCategory, segmentationLabel, areaPixels
+ *   - INPAINTED: inpaintedImageBase64
+ *   - EXPANDED: allExpandedItems
+ * - stage가 없으면 최종 결과: 이미 단계별로 보낸 이미지는 생략 가능 (반영된 값 유지)
  */
 @Data
 @NoArgsConstructor
@@ -31,6 +45,11 @@ public class ClothResultMessage implements Serializable {
      */
     private String errorMessage;
 
+    /**
+     * 단계별 중간 결과의 단계 (최종 결과면 null)
+     */
+    private ProcessingStage stage;
+
     /**
      * 배경 제거 이미지 파일 경로 (Python 서버가 저장한 경로)
      * @deprecated CloudRun에서는 파일 접근 불가. removedBgImageBase64 사용
@@ -50,19 +69,28 @@ public class ClothResultMessage implements Serializable {
     private String inpaintedImagePath;
 
     /**
-     * 배경 제거 이미지 base64 인코딩 데이터 (CloudRun용)
+     * 배경 제거 이미지 (CloudRun용)
+     * - JSON의 base64 문자열을 역직렬화 시점에 removed-bg 디렉토리의 임시 파일로 스트리밍 디코딩
      */
-    private String removedBgImageBase64;
+    @JsonProperty("removedBgImageBase64")
+    @JsonDeserialize(using = StagedImageDeserializer.RemovedBg.class)
+    private ImageStorageService.StagedImage removedBgImage;
 
     /**
-     * 세그먼트된 이미지 base64 인코딩 데이터 (CloudRun용)
+     * 세그먼트된 이미지 (CloudRun용)
+     * - base64 → segmented 디렉토리 임시 파일
      */
-    private String segmentedImageBase64;
+    @JsonProperty("segmentedImageBase64")
+    @JsonDeserialize(using = StagedImageDeserializer.Segmented.class)
+    private ImageStorageService.StagedImage segmentedImage;
 
     /**
-     * 인페인팅된 이미지 base64 인코딩 데이터 (CloudRun용)
+     * 인페인팅된 이미지 (CloudRun용)
+     * - base64 → inpainted 디렉토리 임시 파일
      */
-    private String inpaintedImageBase64;
+    @JsonProperty("inpaintedImageBase64")
+    @JsonDeserialize(using = StagedImageDeserializer.Inpainted.class)
+    private ImageStorageService.StagedImage inpaintedImage;
 
     /**
      * 제안된 카테고리 (예: "TOP", "BOTTOM", "OUTER" 등)
@@ -131,7 +159,11 @@ public class ClothResultMessage implements Serializable {
     public static class SegmentedItem implements Serializable {
         private String label;
         private String segmentedPath;  // Deprecated
-        private String imageBase64;    // CloudRun용
+
+        @JsonProperty("imageBase64")
+        @JsonDeserialize(using = StagedImageDeserializer.Segmented.class)
+        private ImageStorageService.StagedImage image;  // CloudRun용 - base64 → segmented 임시 파일
+
         private Integer areaPixels;
     }
 
@@ -144,7 +176,19 @@ public class ClothResultMessage implements Serializable {
     public static class ExpandedItem implements Serializable {
         private String label;
         private String expandedPath;  // Deprecated (for local file access)
-        private String imageBase64;    // CloudRun용 - base64 인코딩된 이미지 데이터
+
+        @JsonProperty("imageBase64")
+        @JsonDeserialize(using = StagedImageDeserializer.Expanded.class)
+        private ImageStorageService.StagedImage image;  // CloudRun용 - base64 → expanded 임시 파일
+
         private Integer areaPixels;
     }
+
+    /**
+     * 단계별 중간 결과인지 여부
+     */
+    @JsonIgnore
+    public boolean isStageResult() {
+        return stage != null;
+    }
 }
@@ -1,12 +1,16 @@
 package com.tigger.closetconnectproject.Closet.Dto;
 
 import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
 import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
 
+import java.util.List;
+
 /**
  * 옷 처리 상태 조회 응답 DTO
  * - 프론트엔드에서 폴링하여 처리 진행 상황을 확인하기 위한 DTO
  * - WebSocket을 사용하는 경우에도 초기 상태 확인에 사용
+ * - 처리 중에도 단계별 중간 결과가 반영되면 해당 이미지 URL이 채워짐 (completedStages로 확인, 먼저 확정 가능)
  */
 public record ClothStatusResponse(
         Long id,
@@ -15,7 +19,9 @@ public record ClothStatusResponse(
         Integer progressPercentage,  // 진행률 (0-100)
         Category suggestedCategory,  // AI가 제안한 카테고리
         String segmentationLabel,  // AI 원본 라벨 (예: "upper-clothes", "pants")
+        String removedBgImageUrl,  // 배경 제거 이미지
         String segmentedImageUrl,  // 세그멘테이션 결과 이미지
         String inpaintedImageUrl,  // 복원된 최종 이미지
-        String errorMessage  // 에러 메시지 (processingStatus가 FAILED일 때)
+        String errorMessage,  // 에러 메시지 (processingStatus가 FAILED일 때)
+        List<ProcessingStage> completedStages  // 결과가 반영된 처리 단계 (처리 순서)
 ) {}
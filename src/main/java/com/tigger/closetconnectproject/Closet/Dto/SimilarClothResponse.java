@@ -0,0 +1,14 @@
+package com.tigger.closetconnectproject.Closet.Dto;
+
+import com.tigger.closetconnectproject.Closet.Entity.Category;
+
+/**
+ * 유사 아이템 응답 DTO (지각 해시 기반)
+ */
+public record SimilarClothResponse(
+        Long id,
+        String name,
+        Category category,
+        String imageUrl,  // 표시용 이미지
+        Integer distance  // 해밍 거리 (0 = 거의 동일, 작을수록 유사)
+) {}
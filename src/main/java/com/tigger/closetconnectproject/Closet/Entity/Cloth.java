@@ -10,7 +10,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.Instant;
 
 @Entity
-@Table(name = "cloth")
+@Table(name = "cloth",
+        indexes = {
+                @Index(name = "idx_cloth_status_user", columnList = "processing_status, user_id"),
+                @Index(name = "idx_cloth_user_batch", columnList = "user_id, batch_id")
+        })
 @Getter @Setter
 @Builder @NoArgsConstructor @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
@@ -36,6 +40,18 @@ public class Cloth {
     @Column(name = "original_image_url", length = 512)
     private String originalImageUrl;  // 원본 이미지 URL
 
+    @Column(name = "original_content_hash", length = 64)
+    private String originalContentHash;  // 원본 이미지 SHA-256 (hex, claim-check 검증 및 ETag)
+
+    @Column(name = "original_phash")
+    private Long originalPerceptualHash;  // 원본 이미지 64비트 지각 해시 (dHash, 유사 아이템 검색)
+
+    @Column(name = "image_phash")
+    private Long imagePerceptualHash;  // 최종 선택 이미지 64비트 지각 해시 (dHash)
+
+    @Column(name = "batch_id", length = 36)
+    private String batchId;  // 일괄 업로드 ID (POST /api/v1/cloth/upload/batch, 단건 업로드는 null)
+
     @Column(name = "removed_bg_image_url", length = 512)
     private String removedBgImageUrl;  // 배경 제거된 이미지 URL
 
@@ -50,6 +66,10 @@ public class Cloth {
     @Builder.Default
     private ProcessingStatus processingStatus = ProcessingStatus.PROCESSING;  // 처리 상태
 
+    @Column(name = "completed_stages")
+    @Builder.Default
+    private Integer completedStages = 0;  // 결과가 반영된 처리 단계 (ProcessingStage 비트 마스크, 기존 행은 null)
+
     @Enumerated(EnumType.STRING)
     @Column(name = "suggested_category", length = 16)
     private Category suggestedCategory;  // AI가 제안한 카테고리
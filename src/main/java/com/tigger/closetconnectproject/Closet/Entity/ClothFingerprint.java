@@ -0,0 +1,64 @@
+package com.tigger.closetconnectproject.Closet.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * 원본 이미지 지문 인덱스 (SHA-256 → 이전 AI 처리 결과)
+ * - 같은 이미지가 다시 업로드되면 AI 파이프라인을 생략하고 결과를 재사용
+ * - 이미지 URL은 fingerprint 디렉토리의 하드 링크를 가리킴 (원래 옷이 삭제되어도 유지)
+ */
+@Entity
+@Table(name = "cloth_fingerprint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cloth_fingerprint_hash", columnNames = "content_hash"))
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class ClothFingerprint {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;  // 원본 이미지 SHA-256 (hex)
+
+    @Column(name = "source_cloth_id")
+    private Long sourceClothId;  // 처음 처리된 옷 ID (추적용)
+
+    @Column(name = "removed_bg_image_url", length = 512)
+    private String removedBgImageUrl;
+
+    @Column(name = "segmented_image_url", length = 512)
+    private String segmentedImageUrl;
+
+    @Column(name = "inpainted_image_url", length = 512)
+    private String inpaintedImageUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "suggested_category", length = 16)
+    private Category suggestedCategory;
+
+    @Column(name = "segmentation_label", length = 50)
+    private String segmentationLabel;
+
+    @Column(name = "all_segmented_items_json", columnDefinition = "TEXT")
+    private String allSegmentedItemsJson;  // 아이템 URL은 fingerprint 디렉토리 기준
+
+    @Column(name = "all_expanded_items_json", columnDefinition = "TEXT")
+    private String allExpandedItemsJson;  // 아이템 URL은 fingerprint 디렉토리 기준
+
+    @Column(name = "hit_count", nullable = false)
+    @Builder.Default
+    private Long hitCount = 0L;
+
+    @Column(name = "last_hit_at")
+    private Instant lastHitAt;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
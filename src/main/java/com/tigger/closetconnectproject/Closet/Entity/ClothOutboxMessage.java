@@ -0,0 +1,54 @@
+package com.tigger.closetconnectproject.Closet.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * 옷 처리 요청 outbox (transactional outbox)
+ * - Cloth 생성과 같은 트랜잭션에서 기록 → 커밋되면 처리 요청도 반드시 남음
+ * - ClothOutboxRelay가 브로커 confirm을 받은 뒤 삭제 (at-least-once)
+ * - available_at: 다른 인스턴스가 가져간 행(발행 중)이나 실패한 행의 재시도 시각
+ */
+@Entity
+@Table(name = "cloth_outbox",
+        indexes = @Index(name = "idx_cloth_outbox_available", columnList = "available_at, id"))
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class ClothOutboxMessage {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cloth_id", nullable = false)
+    private Long clothId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "image_ref", nullable = false, length = 512)
+    private String imageRef;  // 원본 이미지 URL (claim-check)
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "image_type", length = 32)
+    private String imageType;  // FULL_BODY / SINGLE_ITEM
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;  // 발행 시도 횟수
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,76 @@
+package com.tigger.closetconnectproject.Closet.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 옷 이미지 처리 단계 (단계별 중간 결과)
+ * - 단계가 끝날 때마다 결과 이미지를 먼저 반영하고 Cloth.completedStages 비트 마스크에 기록
+ * - 사용자는 최종 결과를 기다리지 않고 반영된 이미지로 먼저 확인할 수 있음
+ */
+public enum ProcessingStage {
+    /**
+     * 배경 제거 (removedBgImageUrl)
+     */
+    REMOVED_BG(1, "배경 제거 완료", 33),
+
+    /**
+     * 세그멘테이션 (segmentedImageUrl, 모든 크롭 아이템, 추천 카테고리)
+     */
+    SEGMENTED(1 << 1, "옷 영역 분석 완료", 66),
+
+    /**
+     * 인페인팅 (inpaintedImageUrl)
+     */
+    INPAINTED(1 << 2, "메인 아이템 복원 완료", 75),
+
+    /**
+     * Gemini 확장 (모든 확장 아이템)
+     */
+    EXPANDED(1 << 3, "모든 아이템 확장 완료", 95);
+
+    private final int bit;
+    private final String completedStep;
+    private final int progressPercentage;
+
+    ProcessingStage(int bit, String completedStep, int progressPercentage) {
+        this.bit = bit;
+        this.completedStep = completedStep;
+        this.progressPercentage = progressPercentage;
+    }
+
+    public String getCompletedStep() {
+        return completedStep;
+    }
+
+    public int getProgressPercentage() {
+        return progressPercentage;
+    }
+
+    /**
+     * 비트 마스크에 포함되어 있는지 (null은 0)
+     */
+    public boolean isIn(Integer mask) {
+        return mask != null && (mask & bit) != 0;
+    }
+
+    /**
+     * 비트 마스크에 추가
+     */
+    public int addTo(Integer mask) {
+        return (mask != null ? mask : 0) | bit;
+    }
+
+    /**
+     * 비트 마스크 → 단계 목록 (처리 순서)
+     */
+    public static List<ProcessingStage> fromMask(Integer mask) {
+        List<ProcessingStage> stages = new ArrayList<>();
+        for (ProcessingStage stage : values()) {
+            if (stage.isIn(mask)) {
+                stages.add(stage);
+            }
+        }
+        return stages;
+    }
+}
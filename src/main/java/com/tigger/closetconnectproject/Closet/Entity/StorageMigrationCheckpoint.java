@@ -0,0 +1,44 @@
+package com.tigger.closetconnectproject.Closet.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * 저장소 레이아웃 마이그레이션 진행 상황 (테이블별 체크포인트)
+ * - 배치마다 마지막으로 처리한 id를 같은 트랜잭션에서 기록 → 재시작 시 이어서 진행
+ * - 처리 중이라 건너뛴 행이 있으면 끝까지 간 뒤 그 id부터 다시 확인 (skippedFromId)
+ */
+@Entity
+@Table(name = "storage_migration_checkpoint")
+@Getter @Setter
+@Builder @NoArgsConstructor @AllArgsConstructor
+public class StorageMigrationCheckpoint {
+
+    @Id
+    @Column(name = "target", length = 64)
+    private String target;  // 대상 테이블 이름
+
+    @Column(name = "last_id", nullable = false)
+    @Builder.Default
+    private Long lastId = 0L;  // 마지막으로 처리한 행 id
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean completed = false;
+
+    @Column(name = "skipped_from_id")
+    private Long skippedFromId;  // 이번 회차에 건너뛴 가장 작은 id (없으면 null)
+
+    @Column(name = "revisit_passes", nullable = false)
+    @Builder.Default
+    private Integer revisitPasses = 0;  // 건너뛴 행을 다시 확인한 회차 수
+
+    @Column(name = "migrated_urls", nullable = false)
+    @Builder.Default
+    private Long migratedUrls = 0L;  // 샤딩 경로로 바꾼 URL 수 (누적)
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
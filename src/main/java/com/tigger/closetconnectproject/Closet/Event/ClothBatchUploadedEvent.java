@@ -0,0 +1,24 @@
+package com.tigger.closetconnectproject.Closet.Event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Cloth 일괄 업로드 완료 이벤트
+ * - 트랜잭션 커밋 후 outbox relay를 한 번만 깨우기 위한 이벤트 (처리 요청은 옷마다 cloth_outbox에 기록됨)
+ */
+@Getter
+public class ClothBatchUploadedEvent extends ApplicationEvent {
+    private final String batchId;
+    private final Long userId;
+    private final List<Long> clothIds;  // 파이프라인에 들어간 옷 ID (중복 이미지로 재사용된 옷 제외)
+
+    public ClothBatchUploadedEvent(Object source, String batchId, Long userId, List<Long> clothIds) {
+        super(source);
+        this.batchId = batchId;
+        this.userId = userId;
+        this.clothIds = clothIds;
+    }
+}
@@ -1,7 +1,6 @@
 package com.tigger.closetconnectproject.Closet.Event;
 
-import com.tigger.closetconnectproject.Closet.Dto.ClothProcessingMessage;
-import com.tigger.closetconnectproject.Closet.Service.ClothMessageProducer;
+import com.tigger.closetconnectproject.Closet.Service.ClothOutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -10,36 +9,35 @@ import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * Cloth 업로드 이벤트 리스너
- * - 트랜잭션 커밋 후에 RabbitMQ 메시지 발행
- * - RabbitMQ Consumer가 메시지를 수신하여 비동기 처리 시작
+ * - 처리 요청은 Cloth와 같은 트랜잭션에서 outbox(cloth_outbox)에 기록됨
+ * - 커밋 후 ClothOutboxRelay(RabbitMQ 비활성화 시 LocalClothPipeline)가 다음 주기에 바로 가져가도록 알림
+ * - 브로커 I/O 없음, 요청 지연과 무관
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ClothUploadedEventListener {
 
-    private final ClothMessageProducer clothMessageProducer;
+    private final ClothOutboxService outboxService;
 
     /**
-     * 트랜잭션 커밋 후 RabbitMQ 메시지 발행
-     * - AFTER_COMMIT: 트랜잭션이 성공적으로 커밋된 후에만 실행
-     * - 이때는 DB에 Cloth가 이미 저장되어 있으므로 조회 가능
-     * - RabbitMQ에 메시지를 발행하여 Consumer가 처리하도록 함
+     * 트랜잭션 커밋 후 outbox relay 깨우기
+     * - AFTER_COMMIT: 트랜잭션이 성공적으로 커밋된 후에만 실행 (롤백되면 outbox 행도 없음)
+     * - 여기서 알림을 놓쳐도(JVM 종료 등) relay가 주기적으로 outbox를 확인하므로 요청은 유실되지 않음
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleClothUploaded(ClothUploadedEvent event) {
-        log.info("[{}] Publishing RabbitMQ message after transaction commit", event.getClothId());
-
-        ClothProcessingMessage message = new ClothProcessingMessage(
-                event.getClothId(),
-                event.getUserId(),
-                event.getImageBytes(),
-                event.getOriginalFilename(),
-                event.getImageType(),
-                0,  // 초기 재시도 횟수
-                System.currentTimeMillis()  // 타임스탬프 (밀리초)
-        );
+        log.info("[{}] Cloth committed, waking outbox relay", event.getClothId());
+        outboxService.markPending();
+    }
 
-        clothMessageProducer.sendClothProcessingMessage(message);
+    /**
+     * 일괄 업로드 커밋 후 outbox relay 깨우기 (옷이 몇 장이든 한 번)
+     * - relay가 batch-size개씩 가져와 한꺼번에 발행하고 confirm을 기다림
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleBatchUploaded(ClothBatchUploadedEvent event) {
+        log.info("[Batch {}] {} clothes committed, waking outbox relay", event.getBatchId(), event.getClothIds().size());
+        outboxService.markPending();
     }
 }
@@ -0,0 +1,16 @@
+package com.tigger.closetconnectproject.Closet.Repository;
+
+import com.tigger.closetconnectproject.Closet.Entity.ClothFingerprint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ClothFingerprintRepository extends JpaRepository<ClothFingerprint, Long> {
+    Optional<ClothFingerprint> findByContentHash(String contentHash);
+    boolean existsByContentHash(String contentHash);
+
+    // 저장소 레이아웃 마이그레이션용 (id 기준 keyset 페이지)
+    List<ClothFingerprint> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,36 @@
+package com.tigger.closetconnectproject.Closet.Repository;
+
+import com.tigger.closetconnectproject.Closet.Entity.ClothOutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ClothOutboxRepository extends JpaRepository<ClothOutboxMessage, Long> {
+
+    /**
+     * 발행할 outbox 행 조회 (SELECT ... FOR UPDATE SKIP LOCKED)
+     * - lock.timeout = -2: Hibernate가 DB 방언에 맞게 SKIP LOCKED로 변환 (MariaDB 10.6+)
+     * - 다른 인스턴스가 잠근 행은 건너뛰므로 여러 relay가 같은 행을 동시에 발행하지 않음
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM ClothOutboxMessage o WHERE o.availableAt <= :now ORDER BY o.id")
+    List<ClothOutboxMessage> findRelayable(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * 발행 완료된 행 일괄 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM ClothOutboxMessage o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
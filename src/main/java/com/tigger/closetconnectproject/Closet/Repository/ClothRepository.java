@@ -2,9 +2,13 @@ package com.tigger.closetconnectproject.Closet.Repository;
 
 import com.tigger.closetconnectproject.Closet.Entity.Category;
 import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ClothRepository extends JpaRepository<Cloth, Long> {
     Page<Cloth> findByUser_UserId(Long userId, Pageable pageable);
@@ -13,5 +17,36 @@ public interface ClothRepository extends JpaRepository<Cloth, Long> {
     // confirmed=true인 옷만 조회 (사용자가 최종 이미지를 선택한 것만)
     Page<Cloth> findByUser_UserIdAndConfirmedTrue(Long userId, Pageable pageable);
     Page<Cloth> findByUser_UserIdAndCategoryAndConfirmedTrue(Long userId, Category category, Pageable pageable);
-}
 
+    /**
+     * 유사 아이템 인덱스 구성용 지각 해시 조회 (옷장에 확정된 옷만)
+     * - [id, originalPerceptualHash, imagePerceptualHash]
+     */
+    @Query("""
+        SELECT c.id, c.originalPerceptualHash, c.imagePerceptualHash
+        FROM Cloth c
+        WHERE c.user.userId = :userId
+          AND c.confirmed = true
+          AND (c.originalPerceptualHash IS NOT NULL OR c.imagePerceptualHash IS NOT NULL)
+        """)
+    List<Object[]> findPerceptualHashesByUserId(Long userId);
+
+    // 업로드 허용 제어용 (처리 대기열 깊이, 사용자별 처리 중인 옷 수)
+    long countByProcessingStatus(ProcessingStatus processingStatus);
+    long countByUser_UserIdAndProcessingStatus(Long userId, ProcessingStatus processingStatus);
+
+    /**
+     * 일괄 업로드 진행 상황 조회용 - [id, processingStatus] (id 순)
+     */
+    @Query("""
+        SELECT c.id, c.processingStatus
+        FROM Cloth c
+        WHERE c.user.userId = :userId
+          AND c.batchId = :batchId
+        ORDER BY c.id
+        """)
+    List<Object[]> findBatchStatuses(Long userId, String batchId);
+
+    // 저장소 레이아웃 마이그레이션용 (id 기준 keyset 페이지)
+    List<Cloth> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package com.tigger.closetconnectproject.Closet.Repository;
+
+import com.tigger.closetconnectproject.Closet.Entity.StorageMigrationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StorageMigrationCheckpointRepository extends JpaRepository<StorageMigrationCheckpoint, String> {
+}
@@ -0,0 +1,224 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Common.Exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 옷 업로드 허용 제어 (admission control) + 예상 완료 시각
+ * - 대기열 깊이: PROCESSING 상태인 옷 수 (outbox 대기 + 큐 대기 + 워커 처리 중, 브로커 사용 여부와 무관)
+ *   - 업로드마다 DB를 세지 않도록 backlog-refresh-ms 동안 재사용하고 그 사이 허용한 건수를 더함
+ * - 처리량: 최근 5분간 결과 반영 완료 건수 (ClothResultHandler가 알려줌, 표본이 부족하면 기본값)
+ * - 예상 완료 시간 = (대기열 깊이 + 1) / 처리량 → ClothResponse.estimatedCompletionAt
+ * - 한도
+ *   - 전체: 대기열 깊이가 max-backlog 이상이면 모두 거절
+ *   - 사용자별: 예상 완료 시간이 SLO(slo-seconds)를 넘으면 처리 중인 옷이 max-in-flight-per-user개 이상인 사용자 거절
+ *   - 거절 시 429 + Retry-After (대기열이 한도 아래로 내려갈 때까지 걸리는 예상 시간)
+ * - 처리량은 인스턴스별로 집계하므로 여러 인스턴스가 결과를 나눠 받으면 예상 시간이 실제보다 길게 잡힘 (보수적)
+ * - 메트릭: cloth.admission.decisions{outcome}, cloth.admission.backlog, cloth.admission.throughput (건/분)
+ */
+@Slf4j
+@Component
+public class ClothAdmissionController {
+
+    static final String OUTCOME_ADMITTED = "admitted";
+    static final String OUTCOME_REJECTED_GLOBAL = "rejected_global";
+    static final String OUTCOME_REJECTED_USER = "rejected_user";
+
+    /**
+     * 처리량 집계 구간: 10초 버킷 30개 (5분)
+     */
+    private static final int BUCKET_SECONDS = 10;
+    private static final int BUCKETS = 30;
+
+    private final ClothRepository clothRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cloth.admission.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * 예상 완료 시간 SLO (초) - 넘으면 사용자별 한도 적용
+     */
+    @Value("${cloth.admission.slo-seconds:600}")
+    private long sloSeconds = 600;
+
+    /**
+     * 전체 대기열 한도 - 이상이면 모든 업로드 거절
+     */
+    @Value("${cloth.admission.max-backlog:1000}")
+    private long maxBacklog = 1000;
+
+    /**
+     * SLO 초과 시 사용자당 동시에 처리할 수 있는 옷 수
+     */
+    @Value("${cloth.admission.max-in-flight-per-user:3}")
+    private long maxInFlightPerUser = 3;
+
+    /**
+     * 관측된 처리량이 없을 때 사용할 처리량 (건/분)
+     */
+    @Value("${cloth.admission.default-throughput-per-minute:6}")
+    private double defaultThroughputPerMinute = 6;
+
+    /**
+     * 관측 처리량을 쓰기 위한 최소 완료 건수 (집계 구간 내)
+     */
+    @Value("${cloth.admission.min-samples:5}")
+    private long minSamples = 5;
+
+    @Value("${cloth.admission.backlog-refresh-ms:2000}")
+    private long backlogRefreshMs = 2000;
+
+    @Value("${cloth.admission.max-retry-after-seconds:600}")
+    private long maxRetryAfterSeconds = 600;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    /**
+     * 버킷별 시각(10초 단위)과 완료 건수 (this로 동기화)
+     */
+    private final long[] bucketSlots = new long[BUCKETS];
+    private final long[] bucketCounts = new long[BUCKETS];
+
+    private volatile BacklogSnapshot backlogSnapshot;
+    private final AtomicLong admittedSinceRefresh = new AtomicLong();
+
+    public ClothAdmissionController(ClothRepository clothRepository, MeterRegistry meterRegistry) {
+        this.clothRepository = clothRepository;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cloth.admission.backlog", this,
+                        c -> c.backlogSnapshot != null ? c.backlogSnapshot.depth() : 0)
+                .description("Clothes waiting for or in AI processing (last reading)")
+                .register(meterRegistry);
+        Gauge.builder("cloth.admission.throughput", this, c -> c.throughputPerSecond() * 60)
+                .description("Observed cloth results per minute")
+                .baseUnit("clothes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 업로드 허용 여부 판단 (원본 저장 전에 호출)
+     *
+     * @param userId 사용자 ID
+     * @return 예상 완료 시간
+     * @throws TooManyRequestsException 전체/사용자별 한도 초과
+     */
+    public Admission admit(Long userId) {
+        return admit(userId, 1);
+    }
+
+    /**
+     * 여러 장을 한꺼번에 허용할지 판단 (일괄 업로드, 전부 허용하거나 전부 거절)
+     *
+     * @param userId 사용자 ID
+     * @param count 업로드할 옷 수
+     * @return 마지막 옷의 예상 완료 시간
+     * @throws TooManyRequestsException 전체/사용자별 한도 초과
+     */
+    public Admission admit(Long userId, int count) {
+        long backlog = backlog();
+        double throughput = throughputPerSecond();
+        long etaSeconds = secondsFor(backlog + count, throughput);
+
+        if (enabled) {
+            if (backlog + count > maxBacklog) {
+                reject(OUTCOME_REJECTED_GLOBAL, userId, backlog, etaSeconds,
+                        secondsFor(backlog + count - maxBacklog, throughput),
+                        "처리 대기 중인 옷이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+            if (etaSeconds > sloSeconds) {
+                long inFlight = clothRepository.countByUser_UserIdAndProcessingStatus(userId, ProcessingStatus.PROCESSING);
+                if (inFlight + count > maxInFlightPerUser) {
+                    reject(OUTCOME_REJECTED_USER, userId, backlog, etaSeconds, etaSeconds - sloSeconds,
+                            "처리 중인 옷이 " + inFlight + "개 있습니다. 처리가 끝난 후 다시 시도해주세요.");
+                }
+            }
+        }
+
+        admittedSinceRefresh.addAndGet(count);
+        meterRegistry.counter("cloth.admission.decisions", "outcome", OUTCOME_ADMITTED).increment(count);
+        return new Admission(etaSeconds, Instant.ofEpochMilli(clock.getAsLong() + etaSeconds * 1000));
+    }
+
+    /**
+     * 결과 반영 완료 (성공/실패 모두 처리량에 포함)
+     */
+    public synchronized void onCompleted() {
+        long slot = currentSlot();
+        int index = (int) (slot % BUCKETS);
+        if (bucketSlots[index] != slot) {
+            bucketSlots[index] = slot;
+            bucketCounts[index] = 0;
+        }
+        bucketCounts[index]++;
+    }
+
+    /**
+     * 관측 처리량 (건/초) - 가장 오래된 표본부터 지금까지의 평균, 표본이 부족하면 기본값
+     */
+    synchronized double throughputPerSecond() {
+        long current = currentSlot();
+        long total = 0;
+        long oldest = current;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (bucketCounts[i] > 0 && current - bucketSlots[i] < BUCKETS) {
+                total += bucketCounts[i];
+                oldest = Math.min(oldest, bucketSlots[i]);
+            }
+        }
+        if (total < minSamples) {
+            return defaultThroughputPerMinute / 60;
+        }
+        return (double) total / ((current - oldest + 1) * BUCKET_SECONDS);
+    }
+
+    /**
+     * 대기열 깊이 (마지막 DB 조회 값 + 그 이후 허용한 건수)
+     */
+    long backlog() {
+        long now = clock.getAsLong();
+        BacklogSnapshot snapshot = backlogSnapshot;
+        if (snapshot == null || now - snapshot.readAtMillis() >= backlogRefreshMs) {
+            admittedSinceRefresh.set(0);
+            snapshot = new BacklogSnapshot(clothRepository.countByProcessingStatus(ProcessingStatus.PROCESSING), now);
+            backlogSnapshot = snapshot;
+        }
+        return snapshot.depth() + admittedSinceRefresh.get();
+    }
+
+    private void reject(String outcome, Long userId, long backlog, long etaSeconds, long drainSeconds, String message) {
+        long retryAfter = Math.max(1, Math.min(maxRetryAfterSeconds, drainSeconds));
+        meterRegistry.counter("cloth.admission.decisions", "outcome", outcome).increment();
+        log.warn("[Admission] Upload rejected ({}) for userId: {} (backlog: {}, eta: {}s, retryAfter: {}s)",
+                outcome, userId, backlog, etaSeconds, retryAfter);
+        throw new TooManyRequestsException(message, retryAfter);
+    }
+
+    private long currentSlot() {
+        return clock.getAsLong() / 1000 / BUCKET_SECONDS;
+    }
+
+    private static long secondsFor(long clothes, double throughputPerSecond) {
+        return (long) Math.ceil(clothes / throughputPerSecond);
+    }
+
+    /**
+     * 허용 결과
+     *
+     * @param etaSeconds 예상 완료까지 남은 시간 (초)
+     * @param estimatedCompletionAt 예상 완료 시각
+     */
+    public record Admission(long etaSeconds, Instant estimatedCompletionAt) {}
+
+    private record BacklogSnapshot(long depth, long readAtMillis) {}
+}
@@ -0,0 +1,228 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 옷 처리 결과 아티팩트 저장 (DB 트랜잭션 밖에서 실행)
+ * - 임시 저장된 이미지들을 I/O 전용 Executor에서 병렬로 커밋
+ * - 아이템 목록 JSON 직렬화까지 미리 끝내고, 트랜잭션에서는 결과만 반영
+ * - 대표 이미지(removed-bg, segmented, inpainted) 실패는 전체 실패, 개별 아이템 실패는 건너뜀
+ * - 최종 결과와 단계별 중간 결과에 같이 사용 (메시지에 없는 이미지는 건너뜀)
+ */
+@Slf4j
+@Component
+public class ClothArtifactPersister {
+
+    static final String ARTIFACT_WRITE_METRIC = "cloth.result.artifact.write";
+
+    private final ImageStorageService imageStorageService;
+    private final ObjectMapper objectMapper;
+    private final Executor artifactIoExecutor;
+    private final MeterRegistry meterRegistry;
+
+    public ClothArtifactPersister(ImageStorageService imageStorageService,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("clothArtifactIoExecutor") Executor artifactIoExecutor,
+                                  MeterRegistry meterRegistry) {
+        this.imageStorageService = imageStorageService;
+        this.objectMapper = objectMapper;
+        this.artifactIoExecutor = artifactIoExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 성공 결과의 모든 아티팩트 저장
+     *
+     * @param message 옷 처리 결과 메시지 (이미지는 임시 저장된 상태)
+     * @return 저장된 URL 및 아이템 JSON
+     */
+    public PersistedArtifacts persist(ClothResultMessage message) {
+        Long clothId = message.getClothId();
+
+        CompletableFuture<String> removedBg = commitAsync("removed-bg", message.getRemovedBgImage(), clothId, null);
+        CompletableFuture<String> segmented = commitAsync("segmented", message.getSegmentedImage(), clothId, null);
+        CompletableFuture<String> inpainted = commitAsync("inpainted", message.getInpaintedImage(), clothId, null);
+
+        List<CompletableFuture<Map<String, Object>>> segmentedItems = new ArrayList<>();
+        if (message.getAllSegmentedItems() != null) {
+            for (ClothResultMessage.SegmentedItem item : message.getAllSegmentedItems()) {
+                if (item.getImage() == null) {
+                    log.warn("[ArtifactPersister][{}] No base64 data for segmented item: {}", clothId, item.getLabel());
+                    continue;
+                }
+                segmentedItems.add(itemAsync(clothId, "segmented-item", item.getLabel(), item.getAreaPixels(),
+                        "segmentedUrl", () -> imageStorageService.commitStagedImage(item.getImage(), clothId, item.getLabel())));
+            }
+        }
+
+        List<CompletableFuture<Map<String, Object>>> expandedItems = new ArrayList<>();
+        if (message.getAllExpandedItems() != null) {
+            for (ClothResultMessage.ExpandedItem item : message.getAllExpandedItems()) {
+                if (item.getImage() == null) {
+                    log.warn("[ArtifactPersister][{}] No base64 data for expanded item: {}", clothId, item.getLabel());
+                    continue;
+                }
+                expandedItems.add(itemAsync(clothId, "expanded-item", item.getLabel(), item.getAreaPixels(),
+                        "expandedUrl", () -> imageStorageService.commitStagedImage(item.getImage(), clothId, item.getLabel())));
+            }
+        }
+
+        // 하위 호환 (deprecated): Python이 로컬에 저장한 파일 경로
+        List<CompletableFuture<Map<String, Object>>> additionalItems = new ArrayList<>();
+        if (message.getAdditionalClothingItems() != null) {
+            for (ClothResultMessage.AdditionalClothingItem item : message.getAdditionalClothingItems()) {
+                additionalItems.add(itemAsync(clothId, "additional-item", item.getLabel(), item.getAreaPixels(),
+                        "imageUrl", () -> imageStorageService.saveAdditionalItemImage(
+                                loadImageFile(item.getPath()), clothId, item.getLabel())));
+            }
+        }
+
+        return new PersistedArtifacts(
+                await(removedBg),
+                await(segmented),
+                await(inpainted),
+                toJson(collect(segmentedItems)),
+                toJson(collect(expandedItems)),
+                toJson(collect(additionalItems))
+        );
+    }
+
+    private CompletableFuture<String> commitAsync(String artifactType, ImageStorageService.StagedImage image,
+                                                  Long clothId, String label) {
+        if (image == null) {
+            // 단계별 중간 결과로 이미 반영했거나 해당 단계 결과가 아닌 이미지
+            log.debug("[ArtifactPersister][{}] No {} base64 data provided", clothId, artifactType);
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(
+                () -> timed(artifactType, () -> imageStorageService.commitStagedImage(image, clothId, label)),
+                artifactIoExecutor);
+    }
+
+    /**
+     * 개별 아이템 저장 - 실패 시 null (목록에서 제외)
+     */
+    private CompletableFuture<Map<String, Object>> itemAsync(Long clothId, String artifactType, String label,
+                                                             Integer areaPixels, String urlKey,
+                                                             Supplier<String> writer) {
+        return CompletableFuture.supplyAsync(() -> {
+                    String url = timed(artifactType, writer);
+                    Map<String, Object> itemData = new HashMap<>();
+                    itemData.put("label", label);
+                    itemData.put(urlKey, url);
+                    itemData.put("areaPixels", areaPixels);
+                    return itemData;
+                }, artifactIoExecutor)
+                .exceptionally(e -> {
+                    log.warn("[ArtifactPersister][{}] Failed to save {}: {}", clothId, artifactType, label, e);
+                    return null;
+                });
+    }
+
+    private String timed(String artifactType, Supplier<String> writer) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return writer.get();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(ARTIFACT_WRITE_METRIC)
+                    .description("Latency of persisting a single cloth result artifact")
+                    .tag("type", artifactType)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 완료 순서와 무관하게 요청 순서(크기순)를 유지
+     */
+    private static List<Map<String, Object>> collect(List<CompletableFuture<Map<String, Object>>> futures) {
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private String toJson(List<Map<String, Object>> items) {
+        if (items.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("아이템 메타데이터 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * Python이 저장한 이미지 파일을 읽어서 바이트 배열로 반환
+     *
+     * @param imagePath Python 서버가 저장한 이미지 파일 경로
+     * @return 이미지 바이트 배열
+     */
+    private byte[] loadImageFile(String imagePath) {
+        try {
+            Path path = Paths.get(imagePath);
+
+            if (!Files.exists(path)) {
+                throw new IllegalStateException("Image file not found: " + imagePath);
+            }
+
+            byte[] imageBytes = Files.readAllBytes(path);
+            log.debug("Loaded image file: {} ({} bytes)", imagePath, imageBytes.length);
+
+            return imageBytes;
+
+        } catch (IOException e) {
+            log.error("Failed to load image file: {}", imagePath, e);
+            throw new RuntimeException("이미지 파일 로드 실패: " + imagePath, e);
+        }
+    }
+
+    /**
+     * 저장 완료된 아티팩트 (JSON 컬럼 값은 아이템이 없으면 null)
+     */
+    public record PersistedArtifacts(
+            String removedBgUrl,
+            String segmentedUrl,
+            String inpaintedUrl,
+            String segmentedItemsJson,
+            String expandedItemsJson,
+            String additionalItemsJson
+    ) {}
+}
@@ -0,0 +1,374 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothBatchResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 옷 일괄 업로드 (POST /api/v1/cloth/upload/batch)
+ * - 여러 이미지 파일 또는 zip 압축 파일을 받아 한 번에 등록
+ * - 큰 zip은 multipart가 아닌 요청 본문(application/zip)으로 받음 (전역 multipart 한도는 단건 업로드 기준 유지)
+ * - zip은 항목 단위로 스트리밍하며 압축을 풀어 임시 파일로 기록 (압축 파일 전체를 메모리에 올리지 않음)
+ * - 원본 임시 저장(단건 업로드와 같은 정규화) → 허용 제어(한 번에 전부) → ClothService.createBatch (한 트랜잭션, relay는 한 번만 깨움)
+ * - 이미지가 아니거나 크기를 넘는 항목은 건너뛰고 응답에 알려줌, 항목 수/전체 크기 한도를 넘으면 400
+ * - 메트릭: cloth.batch.items{outcome=accepted|skipped}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClothBatchImportService {
+
+    static final String SKIP_UNSUPPORTED = "unsupported_type";
+    static final String SKIP_TOO_LARGE = "too_large";
+    static final String SKIP_EMPTY = "empty";
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".webp", ".gif", ".bmp");
+    private static final int NAME_MAX_LENGTH = 100;
+
+    private final ClothService clothService;
+    private final ImageStorageService imageStorageService;
+    private final ClothAdmissionController admissionController;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 한 번에 등록할 수 있는 최대 이미지 수
+     */
+    @Value("${cloth.batch.max-items:50}")
+    private int maxItems = 50;
+
+    /**
+     * 이미지 한 장의 최대 크기 (zip 항목은 압축 해제 후 크기)
+     */
+    @Value("${cloth.batch.max-item-bytes:10485760}")
+    private long maxItemBytes = 10485760;
+
+    /**
+     * 한 번에 등록할 수 있는 이미지 크기 합 (압축 해제 후, zip 폭탄 방지)
+     */
+    @Value("${cloth.batch.max-total-bytes:209715200}")
+    private long maxTotalBytes = 209715200;
+
+    /**
+     * 요청 본문으로 받는 zip 파일의 최대 크기 (압축 상태)
+     */
+    @Value("${cloth.batch.max-archive-bytes:220200960}")
+    private long maxArchiveBytes = 220200960;
+
+    /**
+     * 일괄 업로드
+     *
+     * @param userId 사용자 ID
+     * @param images 업로드된 이미지 파일들 (없으면 null)
+     * @param archive 이미지가 담긴 zip 파일 (없으면 null)
+     * @param imageType 이미지 타입 (FULL_BODY / SINGLE_ITEM)
+     * @return batchId, 생성된 옷 ID, 건너뛴 파일, 예상 완료 시각
+     */
+    public ClothBatchResponse importBatch(Long userId, List<MultipartFile> images, MultipartFile archive,
+                                          String imageType) {
+        boolean hasImages = images != null && images.stream().anyMatch(file -> !file.isEmpty());
+        boolean hasArchive = archive != null && !archive.isEmpty();
+        if (!hasImages && !hasArchive) {
+            throw new IllegalArgumentException("업로드할 이미지 또는 zip 파일이 없습니다.");
+        }
+
+        return importStaged(userId, imageType, (session, staging) -> {
+            if (hasImages) {
+                for (MultipartFile image : images) {
+                    if (!image.isEmpty()) {
+                        stageFile(session, staging, image);
+                    }
+                }
+            }
+            if (hasArchive) {
+                try (InputStream in = archive.getInputStream()) {
+                    stageArchive(session, staging, in);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("zip 파일을 읽을 수 없습니다: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * zip 일괄 업로드 (요청 본문을 그대로 스트리밍)
+     * - 본문 크기는 max-archive-bytes까지만 읽음 (넘으면 400)
+     *
+     * @param userId 사용자 ID
+     * @param archive zip 요청 본문
+     * @param imageType 이미지 타입 (FULL_BODY / SINGLE_ITEM)
+     * @return batchId, 생성된 옷 ID, 건너뛴 파일, 예상 완료 시각
+     */
+    public ClothBatchResponse importArchive(Long userId, InputStream archive, String imageType) {
+        return importStaged(userId, imageType,
+                (session, staging) -> stageArchive(session, staging, new BoundedInputStream(archive, maxArchiveBytes)));
+    }
+
+    /**
+     * 임시 저장 → 허용 제어 → 한 트랜잭션 생성
+     */
+    private ClothBatchResponse importStaged(Long userId, String imageType, Stager stager) {
+        String batchId = UUID.randomUUID().toString();
+        Staging staging = new Staging();
+
+        // 커밋되지 않은 임시 파일은 성공/실패와 무관하게 close()에서 삭제
+        try (ImageStorageService.StagingSession session = imageStorageService.openStagingSession()) {
+            stager.stage(session, staging);
+
+            if (staging.items.isEmpty()) {
+                throw new IllegalArgumentException("등록할 수 있는 이미지가 없습니다.");
+            }
+
+            // 전부 허용하거나 전부 거절 (거절 시 429, 임시 파일은 삭제)
+            ClothAdmissionController.Admission admission = admissionController.admit(userId, staging.items.size());
+            ClothService.BatchResult result = clothService.createBatch(userId, batchId, staging.items, imageType);
+
+            meterRegistry.counter("cloth.batch.items", "outcome", "accepted").increment(result.clothIds().size());
+            meterRegistry.counter("cloth.batch.items", "outcome", "skipped").increment(staging.skipped.size());
+            log.info("[Batch {}] Imported {} images for userId: {} ({} skipped, {} bytes)",
+                    batchId, result.clothIds().size(), userId, staging.skipped.size(), staging.totalBytes);
+
+            return new ClothBatchResponse(batchId, result.clothIds(), result.reusedCount(), staging.skipped,
+                    result.clothIds().size() > result.reusedCount() ? admission.estimatedCompletionAt() : null);
+        }
+    }
+
+    private void stageFile(ImageStorageService.StagingSession session, Staging staging, MultipartFile image) {
+        String filename = image.getOriginalFilename();
+        String contentType = image.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            staging.skip(filename, SKIP_UNSUPPORTED);
+            return;
+        }
+        try (InputStream in = image.getInputStream()) {
+            stage(session, staging, filename, in);
+        } catch (IOException e) {
+            throw new IllegalStateException("이미지 임시 저장 실패: " + filename, e);
+        }
+    }
+
+    /**
+     * zip 항목을 순서대로 읽으며 이미지 항목만 임시 저장
+     * - 디렉토리, 숨김 파일(__MACOSX, .DS_Store 등)은 조용히 무시
+     * - 항목 이름은 옷 이름에만 사용하고 저장 경로에는 쓰지 않음 (경로 조작 불가)
+     */
+    private void stageArchive(ImageStorageService.StagingSession session, Staging staging, InputStream archive) {
+        try (ZipInputStream zip = new ZipInputStream(archive)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = entry.getName();
+                if (!entry.isDirectory() && !isHidden(entryName)) {
+                    stage(session, staging, entryName, zip);
+                }
+                zip.closeEntry();
+            }
+        } catch (ArchiveTooLargeException e) {
+            throw new IllegalArgumentException("zip 파일 크기는 " + maxArchiveBytes + " bytes를 초과할 수 없습니다.");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("zip 파일을 읽을 수 없습니다: " + e.getMessage());
+        }
+    }
+
+    private void stage(ImageStorageService.StagingSession session, Staging staging, String filename,
+                       InputStream content) throws IOException {
+        String extension = extensionOf(filename);
+        if (extension == null) {
+            staging.skip(filename, SKIP_UNSUPPORTED);
+            return;
+        }
+        if (staging.items.size() >= maxItems) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxItems + "장까지 등록할 수 있습니다.");
+        }
+
+        MessageDigest digest = sha256();
+        ImageStorageService.StagedImage staged;
+        try {
+            staged = session.stage(ImageStorageService.ImageType.ORIGINAL,
+                    out -> copyBounded(content, new DigestOutputStream(out, digest)));
+        } catch (ItemTooLargeException e) {
+            staging.skip(filename, SKIP_TOO_LARGE);
+            return;
+        }
+        if (staged == null) {
+            staging.skip(filename, SKIP_EMPTY);
+            return;
+        }
+        staging.totalBytes += staged.size();
+        if (staging.totalBytes > maxTotalBytes) {
+            throw new IllegalArgumentException("한 번에 등록할 수 있는 이미지 크기 합(" + maxTotalBytes + " bytes)을 초과했습니다.");
+        }
+
+        // 단건 업로드와 같은 정규화 (긴 변 제한, EXIF 방향, 메타데이터 제거)
+        ImageStorageService.StagedOriginal normalized;
+        try {
+            normalized = session.normalizeOriginal(staged, HexFormat.of().formatHex(digest.digest()));
+        } catch (ResponseStatusException e) {
+            staging.skip(filename, SKIP_TOO_LARGE);  // 해상도 한도 초과
+            return;
+        }
+        staging.items.add(new ClothService.BatchItem(nameOf(filename), baseName(filename), extension,
+                normalized.staged(), normalized.sha256()));
+    }
+
+    /**
+     * 최대 크기까지만 복사 (넘으면 ItemTooLargeException, 임시 파일은 stageImage에서 삭제)
+     */
+    private void copyBounded(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long copied = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            copied += read;
+            if (copied > maxItemBytes) {
+                throw new ItemTooLargeException();
+            }
+            out.write(buffer, 0, read);
+        }
+        out.flush();
+    }
+
+    private static boolean isHidden(String entryName) {
+        return entryName.startsWith("__MACOSX/") || baseName(entryName).startsWith(".");
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String extension = filename.substring(dot).toLowerCase(Locale.ROOT);
+        return IMAGE_EXTENSIONS.contains(extension) ? extension : null;
+    }
+
+    private static String baseName(String path) {
+        return path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+    }
+
+    /**
+     * 옷 이름: 파일명에서 경로와 확장자를 뺀 값 (최대 100자)
+     */
+    private static String nameOf(String filename) {
+        String name = baseName(filename);
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        name = name.isBlank() ? "새 옷" : name.trim();
+        return name.length() > NAME_MAX_LENGTH ? name.substring(0, NAME_MAX_LENGTH) : name;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 요청 1건의 임시 저장 방법 (multipart 파일들 / zip 본문)
+     */
+    @FunctionalInterface
+    private interface Stager {
+        void stage(ImageStorageService.StagingSession session, Staging staging);
+    }
+
+    /**
+     * 임시 저장 진행 상황 (요청 1건 단위)
+     */
+    private static class Staging {
+        private final List<ClothService.BatchItem> items = new ArrayList<>();
+        private final List<ClothBatchResponse.SkippedItem> skipped = new ArrayList<>();
+        private long totalBytes;
+
+        private void skip(String filename, String reason) {
+            skipped.add(new ClothBatchResponse.SkippedItem(filename, reason));
+        }
+    }
+
+    /**
+     * 항목이 최대 크기를 넘음 (해당 항목만 건너뜀)
+     */
+    private static class ItemTooLargeException extends IOException {
+        ItemTooLargeException() {
+            super("item too large");
+        }
+    }
+
+    /**
+     * zip 본문이 최대 크기를 넘음 (요청 전체 거절)
+     */
+    private static class ArchiveTooLargeException extends IOException {
+        ArchiveTooLargeException() {
+            super("archive too large");
+        }
+    }
+
+    /**
+     * 최대 크기까지만 읽는 입력 스트림 (넘으면 ArchiveTooLargeException)
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private final long limit;
+        private long read;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) throws ArchiveTooLargeException {
+            read += n;
+            if (read > limit) {
+                throw new ArchiveTooLargeException();
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 실패 메시지 지연 재시도 / dead letter 처리
+ * - 리스너가 실패하면 그 자리에서 재시도하지 않고 바로 ack → retry 단계 큐에 넣어 지연 재전달
+ *   (컨슈머 스레드가 재시도 대기로 묶이지 않음)
+ * - x-retry-count 헤더로 단계 결정 (0 → 5s, 1 → 30s, 2 → 5m), 모두 소진하거나 재시도해도 소용없는 실패
+ *   (역직렬화 실패, AmqpRejectAndDontRequeueException)는 바로 dead letter 큐로
+ * - dead letter는 원래 큐 이름(x-original-queue)을 보관하므로 관리자가 일괄 재처리 가능
+ * - 워커가 reject한 처리 요청은 브로커 정책(cloth-processing-dlx, dead-letter-exchange)으로 브로커가 옮김
+ *   (원래 큐 이름은 x-first-death-queue 헤더)
+ * - 재시도 횟수는 x-retry-count 헤더로 관리, 처리 요청 메시지(워커 큐/lane)는 워커가 읽는 본문 retryCount도 함께 증가
+ * - 결과 큐의 최종 결과는 재시도 중에는 상태를 바꾸지 않고, dead letter로 갈 때 한 번만 FAILED 반영 + 실패 알림
+ * - 메트릭: cloth.retry.scheduled{tier}, cloth.dead-letter.routed, cloth.dead-letter.replayed
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class ClothDeadLetterService implements MessageRecoverer {
+
+    private static final int MAX_REASON_LENGTH = 512;
+
+    /**
+     * 브로커가 dead letter 정책으로 옮긴 메시지의 원래 큐 (RabbitMQ 3.8+)
+     */
+    private static final String HEADER_FIRST_DEATH_QUEUE = "x-first-death-queue";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ClothRetryTiers retryTiers;
+    private final ClothDispatchLanes lanes;
+    private final ClothResultHandler resultHandler;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rabbitmq.queue.cloth-processing}")
+    private String clothProcessingQueue;
+
+    @Value("${rabbitmq.queue.cloth-result}")
+    private String clothResultQueue;
+
+    /**
+     * 리스너 실패 메시지 처리 (컨테이너 advice chain의 recoverer)
+     * - 처리 요청 메시지(워커 큐/lane)는 본문의 retryCount도 1 올림
+     * - 여기서 예외가 나면(브로커 발행 실패) 컨테이너가 원래 큐로 requeue
+     */
+    @Override
+    public void recover(Message message, Throwable cause) {
+        MessageProperties props = message.getMessageProperties();
+        String originalQueue = originalQueueOf(props);
+        int retryCount = retryCountOf(props);
+        String reason = reasonOf(cause);
+
+        // 수신 메시지는 deliveryMode가 비어 있으므로 재발행 시 원래 값 유지 (persistent)
+        if (props.getDeliveryMode() == null) {
+            props.setDeliveryMode(props.getReceivedDeliveryMode());
+        }
+
+        if (retryCount >= retryTiers.getTierCount() || !isRetryable(cause)) {
+            deadLetter(message, originalQueue, reason);
+            failDeadLetteredResult(message, originalQueue, reason);
+            return;
+        }
+
+        props.setHeader(RabbitMQConfig.HEADER_RETRY_COUNT, retryCount + 1);
+        props.setHeader(RabbitMQConfig.HEADER_RETRY_TIER, retryTiers.tierHeaderValue(retryCount));
+        props.setHeader(RabbitMQConfig.HEADER_ORIGINAL_QUEUE, originalQueue);
+        props.setHeader(RabbitMQConfig.HEADER_FAILURE_REASON, reason);
+        // 라우팅 키 = 원래 큐 이름: TTL 만료 시 기본 익스체인지로 dead-letter되어 원래 큐로 돌아감
+        byte[] body = incrementBodyRetryCount(originalQueue, message.getBody());
+        rabbitTemplate.send(retryTiers.getExchange(), originalQueue,
+                body == message.getBody() ? message : new Message(body, props));
+
+        meterRegistry.counter("cloth.retry.scheduled", "tier", retryTiers.tierHeaderValue(retryCount)).increment();
+        log.warn("[DeadLetter] Retry {}/{} for message from {} in {}ms: {}",
+                retryCount + 1, retryTiers.getTierCount(), originalQueue, retryTiers.delayMs(retryCount), reason);
+    }
+
+    /**
+     * dead letter 큐 조회 (소비하지 않음: 가져온 메시지는 모두 원래 순서로 되돌림)
+     *
+     * @param limit 최대 메시지 수
+     * @return dead letter 요약 (오래된 순)
+     */
+    public List<DeadLetter> peek(int limit) {
+        return rabbitTemplate.execute(channel -> {
+            List<DeadLetter> deadLetters = new ArrayList<>();
+            long lastTag = -1;
+            for (int i = 0; i < limit; i++) {
+                GetResponse response = channel.basicGet(retryTiers.getDeadLetterQueue(), false);
+                if (response == null) {
+                    break;
+                }
+                lastTag = response.getEnvelope().getDeliveryTag();
+                deadLetters.add(DeadLetter.of(response.getProps(), response.getBody().length));
+            }
+            if (lastTag >= 0) {
+                channel.basicNack(lastTag, true, true);
+            }
+            return deadLetters;
+        });
+    }
+
+    /**
+     * dead letter 일괄 재처리 (원래 큐로 다시 발행)
+     * - x-retry-count를 초기화하여 지연 재시도 단계를 처음부터 다시 적용
+     * - 처리 요청 메시지(워커 큐/lane)는 본문의 retryCount를 1 올림
+     * - 원래 큐 정보가 없는 메시지는 건너뛰고 dead letter 큐에 남김
+     *
+     * @param limit 최대 메시지 수
+     * @return 재발행한 메시지 수, 건너뛴 메시지 수
+     */
+    public ReplayResult replay(int limit) {
+        ReplayResult result = rabbitTemplate.execute(channel -> {
+            int replayed = 0;
+            List<Long> skipped = new ArrayList<>();
+            for (int i = 0; i < limit; i++) {
+                GetResponse response = channel.basicGet(retryTiers.getDeadLetterQueue(), false);
+                if (response == null) {
+                    break;
+                }
+                long tag = response.getEnvelope().getDeliveryTag();
+                Map<String, Object> headers = response.getProps().getHeaders();
+                String originalQueue = DeadLetter.originalQueueOf(headers);
+                if (originalQueue == null) {
+                    skipped.add(tag);
+                    continue;
+                }
+
+                Map<String, Object> replayHeaders = new HashMap<>(headers);
+                replayHeaders.put(RabbitMQConfig.HEADER_RETRY_COUNT, 0);
+                replayHeaders.remove(RabbitMQConfig.HEADER_RETRY_TIER);
+                AMQP.BasicProperties props = response.getProps().builder().headers(replayHeaders).build();
+
+                channel.basicPublish("", originalQueue, props,
+                        incrementBodyRetryCount(originalQueue, response.getBody()));
+                channel.basicAck(tag, false);
+                replayed++;
+            }
+            for (long tag : skipped) {
+                channel.basicNack(tag, false, true);
+            }
+            return new ReplayResult(replayed, skipped.size());
+        });
+
+        meterRegistry.counter("cloth.dead-letter.replayed").increment(result.replayed());
+        log.info("[DeadLetter] Replayed {} dead letters ({} skipped without original queue)",
+                result.replayed(), result.skipped());
+        return result;
+    }
+
+    private void deadLetter(Message message, String originalQueue, String reason) {
+        MessageProperties props = message.getMessageProperties();
+        props.setHeader(RabbitMQConfig.HEADER_ORIGINAL_QUEUE, originalQueue);
+        props.setHeader(RabbitMQConfig.HEADER_FAILURE_REASON, reason);
+        props.setHeader(RabbitMQConfig.HEADER_DEAD_LETTERED_AT, Instant.now().toEpochMilli());
+        rabbitTemplate.send(retryTiers.getDeadLetterExchange(), retryTiers.getDeadLetterQueue(), message);
+
+        meterRegistry.counter("cloth.dead-letter.routed").increment();
+        log.error("[DeadLetter] Message from {} dead-lettered after {} retries: {}",
+                originalQueue, retryCountOf(props), reason);
+    }
+
+    /**
+     * 결과 큐의 최종 결과가 dead letter로 가면 옷을 FAILED로 (종료 상태)
+     * - 단계별 중간 결과(stage 지정)는 최종 결과가 같은 이미지를 다시 반영하므로 제외
+     * - 반영 실패는 dead letter 이동을 되돌리지 않음 (관리자 재처리 대상)
+     */
+    private void failDeadLetteredResult(Message message, String originalQueue, String reason) {
+        if (!originalQueue.equals(clothResultQueue)) {
+            return;
+        }
+        Long clothId = resultClothIdOf(message);
+        if (clothId == null) {
+            log.warn("[DeadLetter] Dead-lettered result has no clothId (or is a stage result), status unchanged");
+            return;
+        }
+        try {
+            resultHandler.handleUnrecoverableResult(clothId, reason);
+        } catch (RuntimeException e) {
+            log.error("[DeadLetter][{}] Failed to mark dead-lettered result as FAILED", clothId, e);
+        }
+    }
+
+    /**
+     * 결과 메시지의 clothId (v2 아티팩트는 x-cloth-id 헤더, v1 결과/v2 매니페스트는 JSON 본문)
+     *
+     * @return 단계별 중간 결과이거나 알 수 없으면 null
+     */
+    private Long resultClothIdOf(Message message) {
+        Object header = message.getMessageProperties().getHeader(RabbitMQConfig.HEADER_CLOTH_ID);
+        if (header != null) {
+            try {
+                return Long.valueOf(header.toString());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        try {
+            JsonNode node = objectMapper.readTree(message.getBody());
+            if (node == null || node.hasNonNull("stage")) {
+                return null;
+            }
+            JsonNode clothId = node.path("clothId");
+            return clothId.isIntegralNumber() ? clothId.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 처리 요청 메시지면 본문의 retryCount 증가 (워커가 재시도 횟수를 알 수 있도록)
+     */
+    private byte[] incrementBodyRetryCount(String queue, byte[] body) {
+        if (!queue.equals(clothProcessingQueue) && !lanes.isLaneQueue(queue)) {
+            return body;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            if (node instanceof ObjectNode object) {
+                object.put("retryCount", object.path("retryCount").asInt(0) + 1);
+                return objectMapper.writeValueAsBytes(object);
+            }
+        } catch (IOException e) {
+            log.warn("[DeadLetter] Processing message body is not JSON, keeping retryCount as is");
+        }
+        return body;
+    }
+
+    private static String originalQueueOf(MessageProperties props) {
+        Object original = props.getHeader(RabbitMQConfig.HEADER_ORIGINAL_QUEUE);
+        return original != null ? original.toString() : props.getConsumerQueue();
+    }
+
+    private static int retryCountOf(MessageProperties props) {
+        Object count = props.getHeader(RabbitMQConfig.HEADER_RETRY_COUNT);
+        return count instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * 다시 시도해도 같은 결과인 실패 (메시지 자체가 잘못됨)
+     */
+    private static boolean isRetryable(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof AmqpRejectAndDontRequeueException || t instanceof MessageConversionException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String reasonOf(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        String reason = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+
+    /**
+     * dead letter 요약
+     *
+     * @param originalQueue  원래 큐
+     * @param retryCount     소진한 재시도 횟수
+     * @param reason         마지막 실패 원인
+     * @param deadLetteredAt dead letter 큐로 이동한 시각 (epoch millis)
+     * @param contentType    content-type
+     * @param bodySize       본문 크기 (bytes)
+     * @param clothId        옷 ID (v2 아티팩트 메시지 헤더가 있을 때만)
+     */
+    public record DeadLetter(String originalQueue, int retryCount, String reason, Long deadLetteredAt,
+                             String contentType, int bodySize, String clothId) {
+
+        static DeadLetter of(AMQP.BasicProperties props, int bodySize) {
+            Map<String, Object> headers = props.getHeaders() != null ? props.getHeaders() : Map.of();
+            Object retryCount = headers.get(RabbitMQConfig.HEADER_RETRY_COUNT);
+            Object deadLetteredAt = headers.get(RabbitMQConfig.HEADER_DEAD_LETTERED_AT);
+            return new DeadLetter(
+                    originalQueueOf(headers),
+                    retryCount instanceof Number number ? number.intValue() : 0,
+                    stringOf(headers.get(RabbitMQConfig.HEADER_FAILURE_REASON)),
+                    deadLetteredAt instanceof Number millis ? millis.longValue() : null,
+                    props.getContentType(),
+                    bodySize,
+                    stringOf(headers.get(RabbitMQConfig.HEADER_CLOTH_ID)));
+        }
+
+        /**
+         * 원래 큐 이름 (서비스가 옮긴 메시지는 x-original-queue, 브로커가 옮긴 메시지는 x-first-death-queue)
+         */
+        static String originalQueueOf(Map<String, Object> headers) {
+            if (headers == null) {
+                return null;
+            }
+            Object original = headers.get(RabbitMQConfig.HEADER_ORIGINAL_QUEUE);
+            return stringOf(original != null ? original : headers.get(HEADER_FIRST_DEATH_QUEUE));
+        }
+
+        private static String stringOf(Object value) {
+            return value != null ? value.toString() : null;
+        }
+    }
+
+    /**
+     * 재처리 결과
+     *
+     * @param replayed 원래 큐로 재발행한 메시지 수
+     * @param skipped  원래 큐 정보가 없어 남겨둔 메시지 수
+     */
+    public record ReplayResult(int replayed, int skipped) {}
+}
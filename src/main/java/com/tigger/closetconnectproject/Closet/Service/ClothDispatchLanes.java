@@ -0,0 +1,102 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 사용자별 공정 분배 lane 정보 (cloth.processing.lane.{n})
+ * - 업로드 요청은 사용자 ID를 consistent hash한 lane 큐로 먼저 발행
+ * - ClothFairShareDispatcher가 lane들을 돌아가며 워커 큐(cloth.processing.queue)로 옮김
+ * - 한 사용자가 수백 장을 올려도 한 lane에만 쌓이므로 다른 사용자의 첫 업로드가 뒤로 밀리지 않음
+ * - 브로커 I/O 없음 (RabbitMQ 비활성화 시에도 빈으로 존재, 프로듀서가 라우팅 키 결정에 사용)
+ */
+@Component
+public class ClothDispatchLanes {
+
+    @Value("${rabbitmq.fair-share.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * lane 수 (사용자 수보다 적으면 일부 사용자가 lane을 공유)
+     * - jump consistent hash라 늘려도 기존 사용자 대부분은 같은 lane 유지
+     * - 줄일 때는 없어지는 lane이 비었는지 먼저 확인 (설정된 lane만 분배)
+     */
+    @Value("${rabbitmq.fair-share.lanes:32}")
+    private int laneCount = 32;
+
+    @Value("${rabbitmq.fair-share.lane-prefix:cloth.processing.lane.}")
+    private String lanePrefix = "cloth.processing.lane.";
+
+    /**
+     * lane에 분배할 메시지가 있을 수 있음 (시작 시에는 이전 실행에서 남은 메시지 확인)
+     */
+    private final AtomicBoolean pending = new AtomicBoolean(true);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    /**
+     * lane 큐 이름 (cloth.exchange에 같은 이름의 라우팅 키로 바인딩)
+     */
+    public String queueName(int lane) {
+        return lanePrefix + lane;
+    }
+
+    /**
+     * lane 큐인지 여부 (dead letter 재처리 시 처리 요청 메시지 판별)
+     */
+    public boolean isLaneQueue(String queueName) {
+        return queueName != null && queueName.startsWith(lanePrefix);
+    }
+
+    /**
+     * 사용자의 lane 라우팅 키
+     */
+    public String routingKeyOf(Long userId) {
+        return queueName(laneOf(userId, laneCount));
+    }
+
+    /**
+     * lane에 메시지를 발행했음을 표시 (디스패처가 다음 주기에 바로 분배)
+     */
+    public void markPending() {
+        pending.set(true);
+    }
+
+    /**
+     * 분배할 메시지 표시를 확인하고 지움
+     */
+    public boolean takePending() {
+        return pending.getAndSet(false);
+    }
+
+    /**
+     * 사용자 ID → lane 번호 (jump consistent hash, Lamping & Veach)
+     * - lane 수를 n → n+1로 늘리면 약 1/(n+1)의 사용자만 새 lane으로 이동
+     *
+     * @param userId 사용자 ID (null이면 0번 lane)
+     * @param lanes  lane 수
+     * @return 0 이상 lanes 미만
+     */
+    public static int laneOf(Long userId, int lanes) {
+        if (userId == null || lanes <= 1) {
+            return 0;
+        }
+        long key = userId;
+        long bucket = -1;
+        long next = 0;
+        while (next < lanes) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,226 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.client.ReturnListener;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 사용자별 공정 분배 디스패처 (lane 큐 → cloth.processing.queue)
+ * - 워커 큐에 대기 중인 메시지를 target-depth 이하로 유지하고, 빈 자리만큼 lane들을 라운드 로빈으로 옮김
+ *   (작업 비용이 비슷하므로 deficit round robin의 quantum = 메시지 1개)
+ * - 대량 업로드 사용자는 자기 lane에서 차례를 기다리고, 다른 사용자의 업로드는 다음 차례에 바로 워커 큐로 이동
+ * - 혼자 업로드 중이면 매 주기마다 워커 큐를 채우므로 처리량은 그대로
+ * - 메시지는 워커 큐에 발행(mandatory)하고 publisher confirm을 받은 뒤에만 lane에서 ack
+ *   (nack, confirm 시간 초과, 라우팅 불가 반환, 채널 오류면 이번에 꺼낸 메시지를 모두 lane에 되돌림, at-least-once)
+ * - 여러 인스턴스가 동시에 분배해도 안전 (target-depth를 조금 넘을 수 있음)
+ * - 메트릭: cloth.dispatch.moved (옮긴 메시지 수), cloth.dispatch.requeued (되돌린 메시지 수),
+ *   cloth.dispatch.lane.wait (lane 대기 시간)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class ClothFairShareDispatcher {
+
+    private static final String METRIC_MOVED = "cloth.dispatch.moved";
+    private static final String METRIC_REQUEUED = "cloth.dispatch.requeued";
+    private static final String METRIC_LANE_WAIT = "cloth.dispatch.lane.wait";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ClothDispatchLanes lanes;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rabbitmq.queue.cloth-processing}")
+    private String clothProcessingQueue;
+
+    @Value("${rabbitmq.exchange.cloth}")
+    private String clothExchange;
+
+    @Value("${rabbitmq.routing-key.cloth-processing}")
+    private String clothProcessingRoutingKey;
+
+    /**
+     * 워커 큐에 미리 채워둘 대기 메시지 수 (워커 수 정도면 워커가 쉬지 않음)
+     * - 클수록 나중에 들어온 사용자가 그만큼 더 기다림
+     */
+    @Value("${rabbitmq.fair-share.target-depth:8}")
+    private int targetDepth = 8;
+
+    /**
+     * 이 인스턴스가 발행하지 않은 메시지(다른 인스턴스, 재시작 전)를 확인하는 주기
+     */
+    @Value("${rabbitmq.fair-share.sweep-interval-ms:5000}")
+    private long sweepIntervalMs = 5000;
+
+    /**
+     * 워커 큐 발행 confirm을 기다리는 최대 시간 (넘으면 lane에 되돌리고 다음 주기에 다시 분배)
+     */
+    @Value("${rabbitmq.fair-share.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs = 5000;
+
+    private int cursor;
+    private long nextSweepAt;
+
+    /**
+     * 분배 주기 실행
+     * - 새로 발행된 메시지가 있거나 아직 다 옮기지 못했을 때만 브로커 조회 (유휴 시에는 sweep 주기마다)
+     */
+    @Scheduled(fixedDelayString = "${rabbitmq.fair-share.interval-ms:100}")
+    public void dispatchTick() {
+        if (!lanes.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!lanes.takePending() && now < nextSweepAt) {
+            return;
+        }
+
+        try {
+            DispatchResult result = dispatch();
+            if (result.drained()) {
+                nextSweepAt = now + sweepIntervalMs;
+            } else {
+                lanes.markPending();
+            }
+        } catch (AmqpException e) {
+            log.warn("[Dispatcher] Dispatch failed, will retry: {}", e.getMessage());
+            lanes.markPending();
+        }
+    }
+
+    /**
+     * 워커 큐의 빈 자리만큼 lane들에서 라운드 로빈으로 메시지를 옮김
+     * - 라운드 로빈 위치는 호출 사이에 유지 (매 주기 0번 lane부터 시작하지 않음)
+     * - 꺼낸 메시지를 모두 발행한 뒤 confirm을 한 번에 기다리고, 확인되면 lane에서 ack
+     *
+     * @return 옮긴 메시지 수, 모든 lane이 비었는지 여부 (되돌렸으면 0, false)
+     */
+    public synchronized DispatchResult dispatch() {
+        return rabbitTemplate.execute(channel -> {
+            long waiting = channel.queueDeclarePassive(clothProcessingQueue).getMessageCount();
+            long budget = targetDepth - waiting;
+            int emptyLanes = 0;
+            int laneCount = lanes.getLaneCount();
+            List<GetResponse> batch = new ArrayList<>();
+
+            AtomicBoolean returned = new AtomicBoolean();
+            ReturnListener returnListener = (replyCode, replyText, exchange, routingKey, properties, body) -> {
+                log.warn("[Dispatcher] Message returned by broker ({} {}), requeueing batch", replyCode, replyText);
+                returned.set(true);
+            };
+            channel.addReturnListener(returnListener);
+            try {
+                while (budget > 0 && emptyLanes < laneCount) {
+                    String lane = lanes.queueName(cursor % laneCount);
+                    cursor = (cursor + 1) % laneCount;
+
+                    GetResponse response = channel.basicGet(lane, false);
+                    if (response == null) {
+                        emptyLanes++;
+                        continue;
+                    }
+                    emptyLanes = 0;
+
+                    if (batch.isEmpty()) {
+                        channel.confirmSelect();
+                    }
+                    batch.add(response);
+                    channel.basicPublish(clothExchange, clothProcessingRoutingKey, true,
+                            response.getProps(), response.getBody());
+                    budget--;
+                }
+
+                if (batch.isEmpty()) {
+                    return new DispatchResult(0, true);
+                }
+                if (!awaitConfirms(channel) || returned.get()) {
+                    requeue(channel, batch);
+                    return new DispatchResult(0, false);
+                }
+            } catch (Exception e) {
+                requeue(channel, batch);
+                throw e;
+            } finally {
+                channel.removeReturnListener(returnListener);
+            }
+
+            for (GetResponse response : batch) {
+                channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+                recordLaneWait(response.getProps().getHeaders());
+            }
+            meterRegistry.counter(METRIC_MOVED).increment(batch.size());
+            log.debug("[Dispatcher] Moved {} messages to {} (waiting before: {})",
+                    batch.size(), clothProcessingQueue, waiting);
+            return new DispatchResult(batch.size(), emptyLanes >= laneCount);
+        });
+    }
+
+    /**
+     * 발행한 메시지의 confirm 대기
+     *
+     * @return 모두 ack면 true (nack 또는 시간 초과면 false)
+     */
+    private boolean awaitConfirms(Channel channel) {
+        try {
+            return channel.waitForConfirms(confirmTimeoutMs);
+        } catch (TimeoutException e) {
+            log.warn("[Dispatcher] Publish not confirmed within {}ms, requeueing batch", confirmTimeoutMs);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 꺼낸 메시지를 lane에 되돌림 (채널이 이미 닫혔으면 브로커가 자동으로 되돌림)
+     */
+    private void requeue(Channel channel, List<GetResponse> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (GetResponse response : batch) {
+            try {
+                channel.basicNack(response.getEnvelope().getDeliveryTag(), false, true);
+            } catch (IOException | RuntimeException e) {
+                log.debug("[Dispatcher] Nack failed (channel closed?): {}", e.getMessage());
+            }
+        }
+        meterRegistry.counter(METRIC_REQUEUED).increment(batch.size());
+        log.warn("[Dispatcher] Requeued {} messages to their lanes", batch.size());
+    }
+
+    private void recordLaneWait(Map<String, Object> headers) {
+        Object enqueuedAt = headers != null ? headers.get(RabbitMQConfig.HEADER_ENQUEUED_AT) : null;
+        if (enqueuedAt instanceof Number millis) {
+            long waitMs = Math.max(0, System.currentTimeMillis() - millis.longValue());
+            meterRegistry.timer(METRIC_LANE_WAIT).record(waitMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 분배 결과
+     *
+     * @param moved   워커 큐로 옮긴 메시지 수
+     * @param drained 모든 lane이 비었으면 true (false면 워커 큐가 가득 차서 멈춘 것)
+     */
+    public record DispatchResult(int moved, boolean drained) {}
+}
@@ -0,0 +1,253 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ClothFingerprint;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothFingerprintRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 원본 이미지 지문(SHA-256) 기반 중복 업로드 처리
+ * - 처리 완료된 결과를 지문 인덱스에 등록 (아티팩트는 fingerprint 디렉토리에 하드 링크)
+ * - 같은 이미지가 다시 업로드되면 이전 결과를 새 옷에 연결하고 AI 파이프라인을 생략
+ * - 계정과 무관하게 동작 (같은 바이트를 가진 사용자에게 같은 파생 이미지를 제공)
+ */
+@Slf4j
+@Service
+public class ClothFingerprintService {
+
+    private static final String REUSED_STEP = "처리 완료 (이전 결과 재사용)";
+
+    private final ClothFingerprintRepository fingerprintRepository;
+    private final ImageStorageService imageStorageService;
+    private final ObjectMapper objectMapper;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    @Value("${cloth.dedup.enabled:true}")
+    private boolean enabled;
+
+    public ClothFingerprintService(ClothFingerprintRepository fingerprintRepository,
+                                   ImageStorageService imageStorageService,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry) {
+        this.fingerprintRepository = fingerprintRepository;
+        this.imageStorageService = imageStorageService;
+        this.objectMapper = objectMapper;
+
+        this.hitCounter = Counter.builder("cloth.dedup.lookups")
+                .description("Cloth upload fingerprint lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cloth.dedup.lookups")
+                .description("Cloth upload fingerprint lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cloth.dedup.hit.ratio", this, ClothFingerprintService::getHitRatio)
+                .description("Ratio of cloth uploads served from a previous pipeline result")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 지문이 등록된 이미지면 이전 처리 결과를 옷에 연결 (READY_FOR_REVIEW)
+     * - 연결된 파일이 사라진 지문은 삭제하고 미스로 처리
+     *
+     * @param cloth 원본 이미지와 contentHash가 저장된 옷
+     * @return 재사용 여부 (true면 AI 파이프라인 발행 생략)
+     */
+    @Transactional
+    public boolean reuseIfKnown(Cloth cloth) {
+        String contentHash = cloth.getOriginalContentHash();
+        if (!enabled || contentHash == null) {
+            return false;
+        }
+
+        Optional<ClothFingerprint> found = fingerprintRepository.findByContentHash(contentHash);
+        if (found.isEmpty()) {
+            recordLookup(false);
+            return false;
+        }
+
+        ClothFingerprint fingerprint = found.get();
+        Long clothId = cloth.getId();
+        List<String> linkedUrls = new ArrayList<>();
+
+        String removedBgUrl;
+        String segmentedUrl;
+        String inpaintedUrl;
+        String segmentedItemsJson;
+        String expandedItemsJson;
+        try {
+            removedBgUrl = link(fingerprint.getRemovedBgImageUrl(),
+                    ImageStorageService.ImageType.REMOVED_BG, clothId + ".png", linkedUrls);
+            segmentedUrl = link(fingerprint.getSegmentedImageUrl(),
+                    ImageStorageService.ImageType.SEGMENTED, clothId + ".png", linkedUrls);
+            inpaintedUrl = link(fingerprint.getInpaintedImageUrl(),
+                    ImageStorageService.ImageType.INPAINTED, clothId + ".png", linkedUrls);
+            segmentedItemsJson = relinkItems(fingerprint.getAllSegmentedItemsJson(), "segmentedUrl",
+                    ImageStorageService.ImageType.SEGMENTED, label -> clothId + "_" + label + ".png", linkedUrls);
+            expandedItemsJson = relinkItems(fingerprint.getAllExpandedItemsJson(), "expandedUrl",
+                    ImageStorageService.ImageType.EXPANDED, label -> clothId + "_" + label + ".png", linkedUrls);
+        } catch (IOException e) {
+            log.warn("[{}] Stale fingerprint {} (artifact missing), falling back to pipeline: {}",
+                    clothId, contentHash, e.getMessage());
+            linkedUrls.forEach(imageStorageService::deleteImage);
+            fingerprintRepository.delete(fingerprint);
+            recordLookup(false);
+            return false;
+        }
+
+        cloth.setRemovedBgImageUrl(removedBgUrl);
+        cloth.setSegmentedImageUrl(segmentedUrl);
+        cloth.setInpaintedImageUrl(inpaintedUrl);
+        cloth.setAllSegmentedItemsJson(segmentedItemsJson);
+        cloth.setAllExpandedItemsJson(expandedItemsJson);
+        cloth.setSuggestedCategory(fingerprint.getSuggestedCategory());
+        cloth.setSegmentationLabel(fingerprint.getSegmentationLabel());
+        cloth.setProcessingStatus(ProcessingStatus.READY_FOR_REVIEW);
+        cloth.setCompletedStages(ClothResultWriter.completedStagesOf(cloth));
+        cloth.setErrorMessage(null);
+        cloth.setCurrentStep(REUSED_STEP);
+        cloth.setProgressPercentage(100);
+
+        fingerprint.setHitCount(fingerprint.getHitCount() + 1);
+        fingerprint.setLastHitAt(Instant.now());
+
+        recordLookup(true);
+        log.info("[{}] Reused pipeline result of cloth {} (fingerprint {})",
+                clothId, fingerprint.getSourceClothId(), contentHash);
+        return true;
+    }
+
+    /**
+     * 처리 완료된 결과를 지문 인덱스에 등록 (best-effort, 실패해도 결과 반영에는 영향 없음)
+     * - DB 트랜잭션 밖에서 호출 (파일 링크 후 짧은 insert)
+     *
+     * @param clothId     옷 ID
+     * @param contentHash 원본 이미지 SHA-256
+     * @param message     처리 결과 메시지 (메타데이터)
+     * @param artifacts   저장 완료된 아티팩트
+     */
+    public void record(Long clothId, String contentHash, ClothResultMessage message,
+                       ClothArtifactPersister.PersistedArtifacts artifacts) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+        if (artifacts.removedBgUrl() == null && artifacts.segmentedUrl() == null && artifacts.inpaintedUrl() == null) {
+            return;
+        }
+
+        List<String> linkedUrls = new ArrayList<>();
+        try {
+            if (fingerprintRepository.existsByContentHash(contentHash)) {
+                return;
+            }
+
+            ImageStorageService.ImageType type = ImageStorageService.ImageType.FINGERPRINT;
+            ClothFingerprint fingerprint = ClothFingerprint.builder()
+                    .contentHash(contentHash)
+                    .sourceClothId(clothId)
+                    .removedBgImageUrl(link(artifacts.removedBgUrl(), type, contentHash + ".removed-bg.png", linkedUrls))
+                    .segmentedImageUrl(link(artifacts.segmentedUrl(), type, contentHash + ".segmented.png", linkedUrls))
+                    .inpaintedImageUrl(link(artifacts.inpaintedUrl(), type, contentHash + ".inpainted.png", linkedUrls))
+                    .suggestedCategory(toCategory(message.getSuggestedCategory()))
+                    .segmentationLabel(message.getSegmentationLabel())
+                    .allSegmentedItemsJson(relinkItems(artifacts.segmentedItemsJson(), "segmentedUrl", type,
+                            label -> contentHash + ".segmented." + label + ".png", linkedUrls))
+                    .allExpandedItemsJson(relinkItems(artifacts.expandedItemsJson(), "expandedUrl", type,
+                            label -> contentHash + ".expanded." + label + ".png", linkedUrls))
+                    .build();
+
+            fingerprintRepository.save(fingerprint);
+            log.info("[{}] Fingerprint recorded: {}", clothId, contentHash);
+
+        } catch (DataIntegrityViolationException e) {
+            // 동시에 같은 이미지가 처리된 경우 - 먼저 등록된 지문 유지 (파일명이 같으므로 링크는 정리하지 않음)
+            log.debug("[{}] Fingerprint already recorded concurrently: {}", clothId, contentHash);
+        } catch (Exception e) {
+            log.warn("[{}] Failed to record fingerprint {}", clothId, contentHash, e);
+            linkedUrls.forEach(imageStorageService::deleteImage);
+        }
+    }
+
+    public double getHitRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private void recordLookup(boolean hit) {
+        lookups.incrementAndGet();
+        if (hit) {
+            hits.incrementAndGet();
+            hitCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+    }
+
+    private String link(String sourceUrl, ImageStorageService.ImageType targetType, String filename,
+                        List<String> linkedUrls) throws IOException {
+        if (sourceUrl == null) {
+            return null;
+        }
+        String url = imageStorageService.linkImage(sourceUrl, targetType, filename);
+        linkedUrls.add(url);
+        return url;
+    }
+
+    /**
+     * 아이템 목록 JSON의 이미지 URL을 새 파일명으로 링크한 URL로 교체
+     */
+    private String relinkItems(String itemsJson, String urlKey, ImageStorageService.ImageType targetType,
+                               Function<String, String> filenameForLabel,
+                               List<String> linkedUrls) throws IOException {
+        if (itemsJson == null || itemsJson.isBlank()) {
+            return null;
+        }
+
+        List<Map<String, Object>> items = objectMapper.readValue(itemsJson, new TypeReference<>() {});
+        List<Map<String, Object>> relinked = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            Map<String, Object> copy = new HashMap<>(item);
+            String label = String.valueOf(item.get("label"));
+            copy.put(urlKey, link((String) item.get(urlKey), targetType, filenameForLabel.apply(label), linkedUrls));
+            relinked.add(copy);
+        }
+        return objectMapper.writeValueAsString(relinked);
+    }
+
+    private static Category toCategory(String suggestedCategory) {
+        if (suggestedCategory == null) {
+            return null;
+        }
+        try {
+            return Category.valueOf(suggestedCategory);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
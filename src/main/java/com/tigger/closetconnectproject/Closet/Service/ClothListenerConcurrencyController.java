@@ -0,0 +1,288 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 옷 결과/진행도 리스너 동시성 자동 조절
+ * - 리스너마다 별도 컨테이너 (결과: 수 MB 파일 저장, 진행도: 작고 빈번) → 진행도가 결과 처리 뒤에 밀리지 않음
+ * - 주기마다 큐 적체, 처리 지연(cloth.listener.latency), DB 풀 포화도를 보고 consumer 수/prefetch를 한 단계씩 조정
+ *   - DB 풀 포화(결과 리스너): consumer 감소 (DB 커넥션 대기만 늘어남)
+ *   - 적체 > consumer × backlog-per-consumer, 지연 정상: consumer 증가, prefetch 2배
+ *   - 지연 > 목표: prefetch 절반 (한 consumer에 메시지가 몰리지 않도록)
+ *   - 큐가 비었음: consumer 감소
+ * - prefetch 변경은 새로 시작하는 consumer부터 적용 (처리 중인 consumer는 재시작하지 않음)
+ * - 결정은 메트릭으로 노출: cloth.listener.consumers/prefetch{listener}, cloth.listener.scale{listener,action,reason}
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class ClothListenerConcurrencyController {
+
+    public static final String RESULT_LISTENER_ID = "clothResultListener";
+    public static final String PROGRESS_LISTENER_ID = "clothProgressListener";
+
+    static final String LATENCY_METRIC = "cloth.listener.latency";
+
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rabbitmq.listener.adaptive.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * consumer 1개가 감당할 적체 메시지 수 (넘으면 consumer 증가)
+     */
+    @Value("${rabbitmq.listener.adaptive.backlog-per-consumer:10}")
+    private int backlogPerConsumer = 10;
+
+    /**
+     * 활성 커넥션 비율이 이 이상이거나 커넥션 대기 스레드가 있으면 포화로 판단
+     */
+    @Value("${rabbitmq.listener.adaptive.db-saturation:0.9}")
+    private double dbSaturation = 0.9;
+
+    private final Map<String, ListenerPolicy> policies = new LinkedHashMap<>();
+    private final Map<String, ListenerState> states = new LinkedHashMap<>();
+
+    public ClothListenerConcurrencyController(
+            RabbitListenerEndpointRegistry listenerRegistry,
+            AmqpAdmin amqpAdmin,
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${rabbitmq.queue.cloth-result}") String resultQueue,
+            @Value("${rabbitmq.listener.result.min-consumers:2}") int resultMinConsumers,
+            @Value("${rabbitmq.listener.result.max-consumers:8}") int resultMaxConsumers,
+            @Value("${rabbitmq.listener.result.target-latency-ms:5000}") long resultTargetLatencyMs,
+            @Value("${rabbitmq.queue.cloth-progress}") String progressQueue,
+            @Value("${rabbitmq.listener.progress.min-consumers:1}") int progressMinConsumers,
+            @Value("${rabbitmq.listener.progress.max-consumers:4}") int progressMaxConsumers,
+            @Value("${rabbitmq.listener.progress.min-prefetch:10}") int progressMinPrefetch,
+            @Value("${rabbitmq.listener.progress.max-prefetch:250}") int progressMaxPrefetch,
+            @Value("${rabbitmq.listener.progress.target-latency-ms:50}") long progressTargetLatencyMs) {
+        this.listenerRegistry = listenerRegistry;
+        this.amqpAdmin = amqpAdmin;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+
+        // 결과 메시지는 수 MB라 prefetch 1 고정, DB 풀을 쓰므로 포화 시 축소
+        register(new ListenerPolicy(RESULT_LISTENER_ID, resultQueue, resultMinConsumers, resultMaxConsumers,
+                1, 1, resultTargetLatencyMs, true));
+        register(new ListenerPolicy(PROGRESS_LISTENER_ID, progressQueue, progressMinConsumers, progressMaxConsumers,
+                progressMinPrefetch, progressMaxPrefetch, progressTargetLatencyMs, false));
+    }
+
+    private void register(ListenerPolicy policy) {
+        ListenerState state = new ListenerState(policy.minConsumers(), policy.minPrefetch());
+        policies.put(policy.listenerId(), policy);
+        states.put(policy.listenerId(), state);
+        meterRegistry.gauge("cloth.listener.consumers", Tags.of("listener", policy.listenerId()), state.consumers);
+        meterRegistry.gauge("cloth.listener.prefetch", Tags.of("listener", policy.listenerId()), state.prefetch);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 리스너 정책 (RabbitMQConfig가 컨테이너 팩토리의 초기 consumer 수/prefetch로 사용)
+     */
+    public ListenerPolicy policy(String listenerId) {
+        return policies.get(listenerId);
+    }
+
+    /**
+     * 조절 주기 실행
+     */
+    @Scheduled(fixedDelayString = "${rabbitmq.listener.adaptive.interval-ms:5000}")
+    public void adjustTick() {
+        if (!enabled) {
+            return;
+        }
+        boolean dbSaturated = isDbSaturated();
+        for (ListenerPolicy policy : policies.values()) {
+            try {
+                adjust(policy, dbSaturated);
+            } catch (AmqpException e) {
+                log.warn("[ListenerConcurrency][{}] Adjust failed: {}", policy.listenerId(), e.getMessage());
+            }
+        }
+    }
+
+    private void adjust(ListenerPolicy policy, boolean dbSaturated) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(policy.listenerId());
+        if (!(container instanceof SimpleMessageListenerContainer simple) || !container.isRunning()) {
+            return;
+        }
+        QueueInformation queue = amqpAdmin.getQueueInfo(policy.queue());
+        if (queue == null) {
+            return;
+        }
+
+        ListenerState state = states.get(policy.listenerId());
+        Observation observation = new Observation(queue.getMessageCount(), state.consumers.get(), state.prefetch.get(),
+                state.windowLatencyMs(meterRegistry, policy.listenerId()), dbSaturated);
+        Decision decision = decide(policy, observation, backlogPerConsumer);
+        if (decision.consumers() == observation.consumers() && decision.prefetch() == observation.prefetch()) {
+            return;
+        }
+
+        simple.setPrefetchCount(decision.prefetch());
+        if (decision.consumers() > observation.consumers()) {
+            simple.setMaxConcurrentConsumers(decision.consumers());
+            simple.setConcurrentConsumers(decision.consumers());
+        } else {
+            simple.setConcurrentConsumers(decision.consumers());
+            simple.setMaxConcurrentConsumers(decision.consumers());
+        }
+        state.consumers.set(decision.consumers());
+        state.prefetch.set(decision.prefetch());
+
+        String action = decision.consumers() > observation.consumers() ? "scale_up"
+                : decision.consumers() < observation.consumers() ? "scale_down" : "prefetch";
+        meterRegistry.counter("cloth.listener.scale",
+                "listener", policy.listenerId(), "action", action, "reason", decision.reason()).increment();
+        log.info("[ListenerConcurrency][{}] {} ({}): consumers {} → {}, prefetch {} → {} (depth {}, latency {}ms)",
+                policy.listenerId(), action, decision.reason(), observation.consumers(), decision.consumers(),
+                observation.prefetch(), decision.prefetch(), observation.depth(), observation.latencyMs());
+    }
+
+    /**
+     * 한 주기의 조정 결정 (한 번에 한 단계만 이동)
+     *
+     * @param policy             리스너 정책
+     * @param observation        현재 상태
+     * @param backlogPerConsumer consumer 1개가 감당할 적체 메시지 수
+     * @return 다음 consumer 수, prefetch, 사유 (변경 없으면 현재 값 그대로)
+     */
+    public static Decision decide(ListenerPolicy policy, Observation observation, int backlogPerConsumer) {
+        int consumers = observation.consumers();
+        int prefetch = observation.prefetch();
+        boolean slow = observation.latencyMs() > policy.targetLatencyMs();
+
+        if (policy.dbBound() && observation.dbSaturated()) {
+            return new Decision(Math.max(policy.minConsumers(), consumers - 1), prefetch, "db_saturated");
+        }
+        if (slow && prefetch > policy.minPrefetch()) {
+            return new Decision(consumers, Math.max(policy.minPrefetch(), prefetch / 2), "latency");
+        }
+        if (observation.depth() > (long) consumers * backlogPerConsumer) {
+            if (!slow && prefetch < policy.maxPrefetch()) {
+                return new Decision(consumers, Math.min(policy.maxPrefetch(), prefetch * 2), "backlog");
+            }
+            return new Decision(Math.min(policy.maxConsumers(), consumers + 1), prefetch, "backlog");
+        }
+        if (observation.depth() == 0) {
+            return new Decision(Math.max(policy.minConsumers(), consumers - 1),
+                    Math.max(policy.minPrefetch(), prefetch / 2), "idle");
+        }
+        return new Decision(consumers, prefetch, "steady");
+    }
+
+    /**
+     * DB 커넥션 풀 포화 여부 (Hikari가 아니면 항상 false)
+     */
+    private boolean isDbSaturated() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return false;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return false;
+        }
+        return pool.getThreadsAwaitingConnection() > 0
+                || pool.getActiveConnections() >= hikari.getMaximumPoolSize() * dbSaturation;
+    }
+
+    /**
+     * 리스너 처리 시간 기록 (컨슈머에서 호출)
+     */
+    public static Timer latencyTimer(MeterRegistry meterRegistry, String listenerId) {
+        return Timer.builder(LATENCY_METRIC)
+                .description("Cloth listener message processing time")
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 리스너 정책
+     *
+     * @param listenerId      @RabbitListener id
+     * @param queue           소비하는 큐
+     * @param minConsumers    최소 consumer 수 (초기값)
+     * @param maxConsumers    최대 consumer 수
+     * @param minPrefetch     최소 prefetch (초기값)
+     * @param maxPrefetch     최대 prefetch
+     * @param targetLatencyMs 메시지당 목표 처리 시간
+     * @param dbBound         DB 풀 포화 시 축소 대상인지
+     */
+    public record ListenerPolicy(String listenerId, String queue, int minConsumers, int maxConsumers,
+                                 int minPrefetch, int maxPrefetch, long targetLatencyMs, boolean dbBound) {}
+
+    /**
+     * 조정 입력
+     *
+     * @param depth       큐에 대기 중인 메시지 수
+     * @param consumers   현재 consumer 수
+     * @param prefetch    현재 prefetch
+     * @param latencyMs   직전 주기 평균 처리 시간 (처리한 메시지가 없으면 0)
+     * @param dbSaturated DB 풀 포화 여부
+     */
+    public record Observation(long depth, int consumers, int prefetch, double latencyMs, boolean dbSaturated) {}
+
+    /**
+     * 조정 결정
+     */
+    public record Decision(int consumers, int prefetch, String reason) {}
+
+    /**
+     * 리스너별 현재 설정과 직전 주기 처리 시간 집계
+     */
+    private static final class ListenerState {
+        private final AtomicInteger consumers;
+        private final AtomicInteger prefetch;
+        private long lastCount;
+        private double lastTotalMs;
+
+        private ListenerState(int consumers, int prefetch) {
+            this.consumers = new AtomicInteger(consumers);
+            this.prefetch = new AtomicInteger(prefetch);
+        }
+
+        private double windowLatencyMs(MeterRegistry meterRegistry, String listenerId) {
+            Timer timer = meterRegistry.find(LATENCY_METRIC).tag("listener", listenerId).timer();
+            if (timer == null) {
+                return 0;
+            }
+            long count = timer.count();
+            double totalMs = timer.totalTime(TimeUnit.MILLISECONDS);
+            long deltaCount = count - lastCount;
+            double deltaMs = totalMs - lastTotalMs;
+            lastCount = count;
+            lastTotalMs = totalMs;
+            return deltaCount > 0 ? deltaMs / deltaCount : 0;
+        }
+    }
+}
@@ -1,22 +1,54 @@
 package com.tigger.closetconnectproject.Closet.Service;
 
 import com.tigger.closetconnectproject.Closet.Dto.ClothProcessingMessage;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * RabbitMQ 메시지 프로듀서
  * - 옷 이미지 처리 요청을 RabbitMQ 큐에 발행
+ * - 공정 분배가 켜져 있으면 사용자 lane 큐로 발행 (ClothFairShareDispatcher가 워커 큐로 옮김)
+ * - 비동기 발행: 호출 스레드(HTTP 요청의 AFTER_COMMIT 리스너)는 버퍼에 넣고 바로 반환
+ *   - 발행 스레드가 버퍼에서 batch-size개씩 꺼내 한 채널로 연속 발행
+ *   - 버퍼가 가득 차면 호출 스레드에서 직접 발행 (배압)
+ * - publisher confirm(correlated)으로 브로커 수신을 확인, nack/채널 오류는 max-attempts까지 재발행
+ *   (라우팅 불가로 반환된 메시지는 설정 오류이므로 재발행하지 않음)
+ * - 메트릭: cloth.publish.latency (버퍼 투입 → confirm), cloth.publish.confirm.lag (발행 → confirm),
+ *   cloth.publish.results{result}, cloth.publish.buffer.size, cloth.publish.awaiting.confirm
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ClothMessageProducer {
 
+    private static final String METRIC_LATENCY = "cloth.publish.latency";
+    private static final String METRIC_CONFIRM_LAG = "cloth.publish.confirm.lag";
+    private static final String METRIC_RESULTS = "cloth.publish.results";
+
     private final RabbitTemplate rabbitTemplate;
+    private final ClothDispatchLanes dispatchLanes;
+    private final MeterRegistry meterRegistry;
 
     @Value("${rabbitmq.exchange.cloth}")
     private String clothExchange;
@@ -24,26 +56,238 @@ public class ClothMessageProducer {
     @Value("${rabbitmq.routing-key.cloth-processing}")
     private String clothProcessingRoutingKey;
 
+    @Value("${rabbitmq.publisher.buffer-capacity:1000}")
+    private int bufferCapacity = 1000;
+
+    @Value("${rabbitmq.publisher.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${rabbitmq.publisher.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    /**
+     * 재발행 대기 시간 (시도 횟수만큼 곱함)
+     */
+    @Value("${rabbitmq.publisher.retry-backoff-ms:500}")
+    private long retryBackoffMs = 500;
+
+    private BlockingQueue<PendingPublish> buffer;
+    private final AtomicInteger awaitingConfirm = new AtomicInteger();
+    private volatile boolean running;
+    private Thread publisherThread;
+
+    /**
+     * 발행 대기 메시지
+     *
+     * @param message        처리 요청 메시지
+     * @param attempt        발행 시도 횟수 (1부터)
+     * @param enqueuedAtNano 처음 버퍼에 넣은 시각 (System.nanoTime)
+     * @param result         confirm(ack) 시 완료, 재시도를 모두 실패하면 예외로 완료
+     */
+    private record PendingPublish(ClothProcessingMessage message, int attempt, long enqueuedAtNano,
+                                  CompletableFuture<Void> result) {
+
+        PendingPublish nextAttempt() {
+            return new PendingPublish(message, attempt + 1, enqueuedAtNano, result);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        Gauge.builder("cloth.publish.buffer.size", buffer, BlockingQueue::size)
+                .description("Cloth processing messages waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("cloth.publish.awaiting.confirm", awaitingConfirm, AtomicInteger::get)
+                .description("Published cloth processing messages not yet confirmed by the broker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 발행 스레드 시작 (시작 전에 들어온 메시지는 버퍼에서 대기)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        publisherThread = new Thread(this::runPublisher, "cloth-publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+    }
+
+    /**
+     * 종료 시 버퍼에 남은 메시지를 모두 발행
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+            publisherThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        while (flush() > 0) {
+            // 남은 메시지 발행
+        }
+    }
+
     /**
-     * 옷 처리 메시지를 RabbitMQ에 발행
+     * 옷 처리 메시지 발행 요청 (비동기)
      *
      * @param message 옷 처리 메시지 (clothId, imageBytes, originalFilename)
+     * @return 브로커가 수신을 확인하면 완료, 재시도를 모두 실패하면 예외로 완료
      */
-    public void sendClothProcessingMessage(ClothProcessingMessage message) {
+    public CompletableFuture<Void> sendClothProcessingMessage(ClothProcessingMessage message) {
+        PendingPublish pending = new PendingPublish(message, 1, System.nanoTime(), new CompletableFuture<>());
+        if (!buffer.offer(pending)) {
+            // 버퍼가 가득 차면 호출 스레드에서 직접 발행 (발행 스레드가 따라잡을 때까지 자연스럽게 느려짐)
+            log.warn("[Producer] Publish buffer full, publishing on caller thread: clothId={}", message.getClothId());
+            count("caller_runs");
+            publish(List.of(pending));
+        }
+        return pending.result();
+    }
+
+    /**
+     * 버퍼에서 최대 batch-size개를 꺼내 한 채널로 발행 (confirm은 비동기로 도착)
+     *
+     * @return 발행한 메시지 수
+     */
+    public int flush() {
+        List<PendingPublish> batch = new ArrayList<>(batchSize);
+        buffer.drainTo(batch, batchSize);
+        if (!batch.isEmpty()) {
+            publish(batch);
+        }
+        return batch.size();
+    }
+
+    private void runPublisher() {
+        while (running) {
+            try {
+                PendingPublish first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingPublish> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("[Producer] Unexpected publisher error", e);
+            }
+        }
+    }
+
+    private void publish(List<PendingPublish> batch) {
+        AtomicInteger sent = new AtomicInteger();
         try {
-            log.info("[Producer] Sending cloth processing message to queue: clothId={}", message.getClothId());
+            rabbitTemplate.invoke(operations -> {
+                for (PendingPublish pending : batch) {
+                    send(operations, pending);
+                    sent.incrementAndGet();
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            log.warn("[Producer] Publish failed after {}/{} messages: {}", sent.get(), batch.size(), e.getMessage());
+            // 발행하지 못한 메시지만 재발행 (이미 발행한 메시지는 채널이 닫히면서 nack으로 재발행됨)
+            for (PendingPublish pending : batch.subList(sent.get(), batch.size())) {
+                retry(pending, e.getMessage());
+            }
+            return;
+        }
+        if (dispatchLanes.isEnabled()) {
+            dispatchLanes.markPending();
+        }
+        log.debug("[Producer] Published batch of {} messages", batch.size());
+    }
+
+    private void send(RabbitOperations operations, PendingPublish pending) {
+        ClothProcessingMessage message = pending.message();
+        String routingKey = dispatchLanes.isEnabled()
+                ? dispatchLanes.routingKeyOf(message.getUserId())
+                : clothProcessingRoutingKey;
+        CorrelationData correlation = new CorrelationData(message.getClothId() + "-" + pending.attempt());
+        long sentAt = System.nanoTime();
 
-            rabbitTemplate.convertAndSend(
+        awaitingConfirm.incrementAndGet();
+        try {
+            operations.convertAndSend(
                     clothExchange,
-                    clothProcessingRoutingKey,
-                    message
+                    routingKey,
+                    message,
+                    amqpMessage -> {
+                        amqpMessage.getMessageProperties()
+                                .setHeader(RabbitMQConfig.HEADER_ENQUEUED_AT, System.currentTimeMillis());
+                        if (message.getImageType() != null) {
+                            amqpMessage.getMessageProperties()
+                                    .setHeader(RabbitMQConfig.HEADER_IMAGE_TYPE, message.getImageType());
+                        }
+                        return amqpMessage;
+                    },
+                    correlation
             );
+        } catch (RuntimeException e) {
+            awaitingConfirm.decrementAndGet();
+            throw e;
+        }
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            awaitingConfirm.decrementAndGet();
+            if (error != null) {
+                retry(pending, error.getMessage());
+            } else if (correlation.getReturned() != null) {
+                log.error("[Producer] Message returned as unroutable: clothId={}, routingKey={}, reply={}",
+                        message.getClothId(), routingKey, correlation.getReturned().getReplyText());
+                count("returned");
+                pending.result().completeExceptionally(new AmqpException(
+                        "Unroutable cloth processing message: " + correlation.getReturned().getReplyText()));
+            } else if (confirm.isAck()) {
+                long now = System.nanoTime();
+                meterRegistry.timer(METRIC_CONFIRM_LAG).record(now - sentAt, TimeUnit.NANOSECONDS);
+                meterRegistry.timer(METRIC_LATENCY).record(now - pending.enqueuedAtNano(), TimeUnit.NANOSECONDS);
+                count("ack");
+                pending.result().complete(null);
+            } else {
+                count("nack");
+                retry(pending, confirm.getReason());
+            }
+        });
+    }
 
-            log.info("[Producer] Message sent successfully: clothId={}", message.getClothId());
+    /**
+     * 재발행 (시도 횟수 × retry-backoff-ms 후 버퍼에 다시 넣음)
+     */
+    private void retry(PendingPublish pending, String reason) {
+        Long clothId = pending.message().getClothId();
+        if (pending.attempt() >= maxAttempts) {
+            log.error("[Producer] Giving up after {} attempts: clothId={}, reason={}", pending.attempt(), clothId, reason);
+            count("failed");
+            pending.result().completeExceptionally(new AmqpException(
+                    "Failed to publish cloth processing message: " + reason));
+            return;
+        }
+
+        log.warn("[Producer] Republishing (attempt {}): clothId={}, reason={}", pending.attempt() + 1, clothId, reason);
+        PendingPublish next = pending.nextAttempt();
+        long delayMs = retryBackoffMs * pending.attempt();
+        if (delayMs <= 0) {
+            requeue(next);
+        } else {
+            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> requeue(next));
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("[Producer] Failed to send message: clothId={}", message.getClothId(), e);
-            throw new RuntimeException("Failed to send cloth processing message", e);
+    private void requeue(PendingPublish pending) {
+        if (!buffer.offer(pending)) {
+            log.error("[Producer] Publish buffer full, dropping retry: clothId={}", pending.message().getClothId());
+            count("failed");
+            pending.result().completeExceptionally(new AmqpException("Cloth publish buffer full"));
         }
     }
+
+    private void count(String result) {
+        meterRegistry.counter(METRIC_RESULTS, "result", result).increment();
+    }
 }
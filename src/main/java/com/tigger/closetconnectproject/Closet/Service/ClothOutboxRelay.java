@@ -0,0 +1,198 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothProcessingMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ClothOutboxMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 옷 처리 요청 outbox relay (cloth_outbox → cloth.exchange)
+ * - 새 행이 커밋되면(ClothUploadedEventListener) 다음 주기에 바로, 그 외에는 idle-poll-interval마다 확인
+ * - batch-size개씩 가져와(SKIP LOCKED) 비동기 프로듀서로 한꺼번에 발행, confirm을 받은 행만 일괄 삭제
+ * - 주기 작업은 전용 Executor에 배치 하나만 넘기고 바로 반환 (confirm 대기가 공유 스케줄러 스레드를 막지 않음)
+ * - 배치가 가득 차면 같은 주기에서 반복하지 않고 다음 주기에 이어서 발행
+ * - JVM이 커밋과 발행 사이에 죽어도 행이 남아 있으므로 재시작 후 발행 (at-least-once, 중복 가능)
+ * - 메트릭: cloth.outbox.relayed, cloth.outbox.failed, cloth.outbox.lag (행 생성 → confirm)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class ClothOutboxRelay {
+
+    private final ClothOutboxService outboxService;
+    private final ClothMessageProducer clothMessageProducer;
+    private final ImageStorageService imageStorageService;
+    private final ClothPipelineMetrics pipelineMetrics;
+    private final MeterRegistry meterRegistry;
+    private final Executor relayExecutor;
+
+    @Value("${cloth.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    /**
+     * 배치 전체의 confirm을 기다리는 최대 시간 (넘으면 남은 행은 lease 후 재발행)
+     */
+    @Value("${cloth.outbox.confirm-timeout-ms:15000}")
+    private long confirmTimeoutMs = 15000;
+
+    @Value("${cloth.outbox.idle-poll-interval-ms:1000}")
+    private long idlePollIntervalMs = 1000;
+
+    /**
+     * claim-check 모드 여부
+     * - true: 메시지에는 저장소 참조 + 해시 + 크기만 포함, 워커가 내부 엔드포인트에서 스트리밍 다운로드
+     * - false: 구버전 워커 호환을 위해 발행 시점에 디스크에서 읽어 imageBytes로 전송
+     */
+    @Value("${cloth.pipeline.claim-check.enabled:true}")
+    private boolean claimCheckEnabled;
+
+    @Value("${cloth.pipeline.internal-base-url:http://localhost:8080}")
+    private String internalBaseUrl;
+
+    private final AtomicBoolean relaying = new AtomicBoolean();
+    private long nextPollAt;
+
+    public ClothOutboxRelay(ClothOutboxService outboxService,
+                            ClothMessageProducer clothMessageProducer,
+                            ImageStorageService imageStorageService,
+                            ClothPipelineMetrics pipelineMetrics,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("clothOutboxRelayExecutor") Executor relayExecutor) {
+        this.outboxService = outboxService;
+        this.clothMessageProducer = clothMessageProducer;
+        this.imageStorageService = imageStorageService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.meterRegistry = meterRegistry;
+        this.relayExecutor = relayExecutor;
+    }
+
+    /**
+     * relay 주기 실행 (relay Executor에 배치 하나를 넘기고 바로 반환)
+     * - 이전 배치가 아직 confirm을 기다리는 중이면 건너뜀 (새 행 표시는 그대로 유지)
+     */
+    @Scheduled(fixedDelayString = "${cloth.outbox.interval-ms:100}")
+    public void relayTick() {
+        if (relaying.get()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!outboxService.takePending() && now < nextPollAt) {
+            return;
+        }
+        nextPollAt = now + idlePollIntervalMs;
+
+        relaying.set(true);
+        try {
+            relayExecutor.execute(this::relayOnce);
+        } catch (RejectedExecutionException e) {
+            relaying.set(false);
+            outboxService.markPending();
+        }
+    }
+
+    /**
+     * 배치 하나 발행 (relay Executor 스레드)
+     * - 가득 찬 배치가 모두 발행되면 남은 행이 있을 수 있으므로 다음 주기에 바로 다시 가져옴
+     */
+    private void relayOnce() {
+        try {
+            if (relayBatch() >= batchSize) {
+                outboxService.markPending();
+            }
+        } catch (RuntimeException e) {
+            log.error("[OutboxRelay] Relay failed, will retry", e);
+        } finally {
+            relaying.set(false);
+        }
+    }
+
+    /**
+     * 한 배치 발행
+     *
+     * @return 발행 완료(confirm)되어 삭제한 행 수
+     */
+    public int relayBatch() {
+        List<ClothOutboxMessage> rows = outboxService.claim(batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<ClothOutboxMessage, CompletableFuture<Void>> sends = new LinkedHashMap<>();
+        for (ClothOutboxMessage row : rows) {
+            try {
+                sends.put(row, clothMessageProducer.sendClothProcessingMessage(toMessage(row)));
+            } catch (RuntimeException e) {
+                sends.put(row, CompletableFuture.failedFuture(e));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(sends.values().toArray(CompletableFuture[]::new))
+                    .get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // 일부 실패/지연: confirm된 행만 삭제
+        }
+
+        List<Long> relayed = new ArrayList<>();
+        Instant now = Instant.now();
+        sends.forEach((row, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                relayed.add(row.getId());
+                meterRegistry.timer("cloth.outbox.lag").record(Duration.between(row.getCreatedAt(), now));
+                pipelineMetrics.onEnqueued(row.getClothId(), row.getImageType(), row.getCreatedAt().toEpochMilli());
+            } else {
+                log.warn("[OutboxRelay][{}] Not confirmed (attempt {}), retrying after {}",
+                        row.getClothId(), row.getAttempts(), row.getAvailableAt());
+            }
+        });
+        outboxService.deleteRelayed(relayed);
+
+        meterRegistry.counter("cloth.outbox.relayed").increment(relayed.size());
+        meterRegistry.counter("cloth.outbox.failed").increment(rows.size() - relayed.size());
+        log.info("[OutboxRelay] Relayed {}/{} cloth processing messages", relayed.size(), rows.size());
+        return relayed.size();
+    }
+
+    private ClothProcessingMessage toMessage(ClothOutboxMessage row) {
+        ClothProcessingMessage message = new ClothProcessingMessage();
+        message.setClothId(row.getClothId());
+        message.setUserId(row.getUserId());
+        message.setOriginalFilename(row.getOriginalFilename());
+        message.setImageType(row.getImageType());
+        message.setContentSha256(row.getContentSha256());
+        message.setContentLength(row.getContentLength());
+        message.setRetryCount(0);  // 초기 재시도 횟수
+        message.setTimestamp(row.getCreatedAt().toEpochMilli());  // 업로드 시각 (밀리초)
+
+        if (claimCheckEnabled) {
+            // claim-check: 저장소 참조만 전달 (메시지 크기가 파일 크기와 무관)
+            message.setImageRef(row.getImageRef());
+            message.setImageFetchUrl(internalBaseUrl + "/internal/v1/cloth/" + row.getClothId() + "/original");
+        } else {
+            // inline: 발행 직전에만 파일을 읽어 전송 (outbox에는 바이트를 보관하지 않음)
+            message.setImageBytes(imageStorageService.readImageBytes(row.getImageRef()));
+        }
+        return message;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Entity.ClothOutboxMessage;
+import com.tigger.closetconnectproject.Closet.Repository.ClothOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 옷 처리 요청 outbox 저장소 (짧은 트랜잭션)
+ * - enqueue: ClothService.createWithImage 트랜잭션에 참여 (Cloth와 함께 커밋/롤백)
+ * - claim: SKIP LOCKED로 행을 가져오고 available_at을 lease만큼 미룸 (커밋 후 잠금이 풀려도 다른 relay가 가져가지 않음)
+ * - 발행이 실패한 행은 lease가 지나면 다시 가져감 (시도 횟수만큼 lease를 늘려 재시도 간격 확대)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClothOutboxService {
+
+    private final ClothOutboxRepository outboxRepository;
+
+    @Value("${cloth.outbox.lease-seconds:30}")
+    private long leaseSeconds = 30;
+
+    /**
+     * 새 행이 커밋되었을 수 있음 (시작 시에는 이전 실행에서 남은 행 확인)
+     */
+    private final AtomicBoolean pending = new AtomicBoolean(true);
+
+    /**
+     * 처리 요청 기록 (호출자 트랜잭션에 참여)
+     */
+    @Transactional
+    public ClothOutboxMessage enqueue(Long clothId, Long userId, ImageStorageService.StoredImage original,
+                                      String originalFilename, String imageType) {
+        Instant now = Instant.now();
+        return outboxRepository.save(ClothOutboxMessage.builder()
+                .clothId(clothId)
+                .userId(userId)
+                .imageRef(original.url())
+                .contentSha256(original.sha256())
+                .contentLength(original.size())
+                .originalFilename(originalFilename)
+                .imageType(imageType)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * 발행할 행을 가져와 lease 설정 (SKIP LOCKED)
+     *
+     * @param limit 최대 행 수
+     * @return 이 호출자가 발행할 행 (lease 동안 다른 relay는 가져가지 않음)
+     */
+    @Transactional
+    public List<ClothOutboxMessage> claim(int limit) {
+        Instant now = Instant.now();
+        List<ClothOutboxMessage> rows = outboxRepository.findRelayable(now, PageRequest.of(0, limit));
+        for (ClothOutboxMessage row : rows) {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setAvailableAt(now.plus(Duration.ofSeconds(leaseSeconds * Math.min(row.getAttempts(), 10))));
+        }
+        return rows;
+    }
+
+    /**
+     * 발행 완료(브로커 confirm)된 행 일괄 삭제
+     */
+    @Transactional
+    public int deleteRelayed(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return outboxRepository.deleteByIdIn(ids);
+    }
+
+    /**
+     * 커밋된 새 행이 있음을 표시 (relay 또는 로컬 파이프라인이 다음 주기에 바로 가져감)
+     */
+    public void markPending() {
+        pending.set(true);
+    }
+
+    /**
+     * 새 행 표시를 확인하고 지움
+     */
+    public boolean takePending() {
+        return pending.getAndSet(false);
+    }
+}
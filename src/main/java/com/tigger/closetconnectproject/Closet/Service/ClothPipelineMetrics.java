@@ -0,0 +1,330 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 옷 처리 파이프라인 단계별 시간 측정
+ * - 타이머 cloth.pipeline.stage{stage, image_type, outcome} (p50/p95/p99 + 히스토그램, /actuator/pipeline에서 요약)
+ * - 단계
+ *   - queue_wait: 처리 요청 발행 → 워커 수신 (워커가 x-dequeued-at 헤더로 알려줌)
+ *   - worker_{단계}: 워커의 단계별 처리 시간 (x-stage-timings 헤더, 로컬 파이프라인은 직접 측정)
+ *   - first_progress: 업로드 → 첫 진행도 수신
+ *   - first_artifact: 업로드 → 첫 결과 이미지 반영 (단계별 중간 결과 또는 최종 결과, 사용자가 처음 볼 수 있는 시점)
+ *   - result_decode, artifact_write, db_update: 결과 반영 단계
+ *   - end_to_end: 업로드 → 결과 반영 완료
+ * - 업로드 시각/이미지 타입은 발행한 인스턴스가 clothId별로 기억하고, 다른 인스턴스가 결과를 받으면
+ *   워커가 되돌려준 헤더(x-enqueued-at, x-image-type)로 대신함
+ */
+@Slf4j
+@Component
+public class ClothPipelineMetrics {
+
+    public static final String STAGE_TIMER = "cloth.pipeline.stage";
+
+    public static final String STAGE_QUEUE_WAIT = "queue_wait";
+    public static final String STAGE_FIRST_PROGRESS = "first_progress";
+    public static final String STAGE_FIRST_ARTIFACT = "first_artifact";
+    public static final String STAGE_RESULT_DECODE = "result_decode";
+    public static final String STAGE_ARTIFACT_WRITE = "artifact_write";
+    public static final String STAGE_DB_UPDATE = "db_update";
+    public static final String STAGE_END_TO_END = "end_to_end";
+    public static final String WORKER_STAGE_PREFIX = "worker_";
+
+    static final String UNKNOWN_IMAGE_TYPE = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 추적 정보 보관 시간 (결과가 오지 않은 옷의 정보 정리)
+     */
+    @Value("${cloth.pipeline.metrics.tracking-ttl-ms:3600000}")
+    private long trackingTtlMs = 3600000;
+
+    /**
+     * clothId → 업로드 시각/이미지 타입
+     */
+    private final Map<Long, Tracked> tracked = new ConcurrentHashMap<>();
+
+    public ClothPipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 처리 요청 발행 (outbox relay / 로컬 파이프라인)
+     *
+     * @param clothId 옷 ID
+     * @param imageType 이미지 타입 (FULL_BODY / SINGLE_ITEM)
+     * @param uploadedAtMillis 업로드 시각 (outbox 행 생성 시각)
+     */
+    public void onEnqueued(Long clothId, String imageType, long uploadedAtMillis) {
+        tracked.putIfAbsent(clothId, new Tracked(imageTypeOrUnknown(imageType), uploadedAtMillis));
+    }
+
+    /**
+     * 진행도 수신: 첫 진행도면 first_progress, 워커 수신 시각이 있으면 queue_wait 기록 (옷당 한 번)
+     *
+     * @param clothId 옷 ID
+     * @param headers 진행도 메시지 헤더 (로컬 파이프라인은 빈 Map)
+     */
+    public void onProgress(Long clothId, Map<String, Object> headers) {
+        Tracked entry = trackedOf(clothId, headers);
+        if (entry == null) {
+            return;
+        }
+        if (entry.firstProgressSeen.compareAndSet(false, true)) {
+            record(STAGE_FIRST_PROGRESS, entry.imageType, "success",
+                    System.currentTimeMillis() - entry.uploadedAtMillis);
+        }
+        recordQueueWait(entry, headers);
+    }
+
+    /**
+     * 결과 수신: 워커가 보고한 queue_wait, 단계별 처리 시간 기록
+     *
+     * @param clothId 옷 ID
+     * @param headers 결과 메시지 헤더
+     * @param success 처리 성공 여부
+     */
+    public void onWorkerResult(Long clothId, Map<String, Object> headers, boolean success) {
+        Tracked entry = trackedOf(clothId, headers);
+        String imageType = entry != null ? entry.imageType : imageTypeOf(headers);
+        if (entry != null) {
+            recordQueueWait(entry, headers);
+        }
+
+        Object timings = headers != null ? headers.get(RabbitMQConfig.HEADER_STAGE_TIMINGS) : null;
+        if (timings == null) {
+            return;
+        }
+        // 형식: rembg=1200;segmentation=800;inpainting=3000 (ms)
+        for (String pair : timings.toString().split(";")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            try {
+                long millis = Long.parseLong(pair.substring(eq + 1).trim());
+                recordWorkerStage(pair.substring(0, eq).trim(), imageType, success, millis);
+            } catch (NumberFormatException e) {
+                log.debug("[PipelineMetrics][{}] Ignoring malformed stage timing: {}", clothId, pair);
+            }
+        }
+    }
+
+    /**
+     * 단계별 중간 결과 반영: 첫 반영이면 first_artifact 기록 (옷당 한 번)
+     *
+     * @param clothId 옷 ID
+     */
+    public void onStageApplied(Long clothId) {
+        Tracked entry = tracked.get(clothId);
+        if (entry != null) {
+            recordFirstArtifact(entry);
+        }
+    }
+
+    /**
+     * 결과 반영 완료: end_to_end 기록 후 추적 종료 (성공이고 중간 결과가 없었으면 first_artifact도 기록)
+     */
+    public void onCompleted(Long clothId, boolean success) {
+        Tracked entry = tracked.remove(clothId);
+        if (entry != null) {
+            if (success) {
+                recordFirstArtifact(entry);
+            }
+            record(STAGE_END_TO_END, entry.imageType, outcome(success),
+                    System.currentTimeMillis() - entry.uploadedAtMillis);
+        }
+    }
+
+    /**
+     * 워커 단계 처리 시간 기록
+     *
+     * @param stage 단계 이름 (rembg, segmentation, inpainting)
+     */
+    public void recordWorkerStage(String stage, String imageType, boolean success, long millis) {
+        record(WORKER_STAGE_PREFIX + stage, imageType, outcome(success), millis);
+    }
+
+    /**
+     * 단계 실행 시간 측정 (예외가 나면 outcome=failure)
+     */
+    public <T> T time(String stage, Long clothId, Supplier<T> work) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = work.get();
+            success = true;
+            return result;
+        } finally {
+            recordSince(stage, clothId, success, start);
+        }
+    }
+
+    /**
+     * 시작 시각(System.nanoTime)부터 지금까지를 단계 시간으로 기록
+     */
+    public void recordSince(String stage, Long clothId, boolean success, long startNanos) {
+        timer(stage, imageTypeOf(clothId), outcome(success)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 단계 시간 기록
+     */
+    public void record(String stage, String imageType, String outcome, long millis) {
+        timer(stage, imageType, outcome).record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 추적 중인 옷의 이미지 타입 (없으면 unknown)
+     */
+    public String imageTypeOf(Long clothId) {
+        Tracked entry = tracked.get(clothId);
+        return entry != null ? entry.imageType : UNKNOWN_IMAGE_TYPE;
+    }
+
+    /**
+     * 단계별 요약 (/actuator/pipeline)
+     * - 단계 이름 → 이미지 타입/결과별 건수, 평균, 최대, p50/p95/p99 (ms)
+     * - 백분위수는 최근 구간(기본 약 2분) 기준 값
+     */
+    public Map<String, List<StageSummary>> summary() {
+        Map<String, List<StageSummary>> summary = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(STAGE_TIMER).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<Double, Double> percentiles = new HashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put(value.percentile(), value.value(TimeUnit.MILLISECONDS));
+            }
+            summary.computeIfAbsent(timer.getId().getTag("stage"), stage -> new ArrayList<>())
+                    .add(new StageSummary(
+                            timer.getId().getTag("image_type"),
+                            timer.getId().getTag("outcome"),
+                            snapshot.count(),
+                            snapshot.mean(TimeUnit.MILLISECONDS),
+                            snapshot.max(TimeUnit.MILLISECONDS),
+                            percentiles.get(0.5),
+                            percentiles.get(0.95),
+                            percentiles.get(0.99)));
+        }
+        summary.values().forEach(list -> list.sort(
+                Comparator.comparing(StageSummary::imageType).thenComparing(StageSummary::outcome)));
+        return summary;
+    }
+
+    /**
+     * 오래된 추적 정보 정리 (결과가 다른 인스턴스로 가거나 유실된 경우)
+     */
+    @Scheduled(fixedDelayString = "${cloth.pipeline.metrics.cleanup-interval-ms:300000}")
+    public void purgeExpired() {
+        long expiredBefore = System.currentTimeMillis() - trackingTtlMs;
+        tracked.values().removeIf(entry -> entry.uploadedAtMillis < expiredBefore);
+    }
+
+    private Timer timer(String stage, String imageType, String outcome) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Cloth processing pipeline stage duration")
+                .tag("stage", stage)
+                .tag("image_type", imageType)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 추적 정보 조회, 없으면 워커가 되돌려준 헤더로 생성 (다른 인스턴스가 발행한 경우)
+     */
+    private Tracked trackedOf(Long clothId, Map<String, Object> headers) {
+        Tracked entry = tracked.get(clothId);
+        if (entry != null) {
+            return entry;
+        }
+        Long enqueuedAt = millisHeader(headers, RabbitMQConfig.HEADER_ENQUEUED_AT);
+        if (enqueuedAt == null) {
+            return null;
+        }
+        return tracked.computeIfAbsent(clothId, id -> new Tracked(imageTypeOf(headers), enqueuedAt));
+    }
+
+    private void recordQueueWait(Tracked entry, Map<String, Object> headers) {
+        Long enqueuedAt = millisHeader(headers, RabbitMQConfig.HEADER_ENQUEUED_AT);
+        Long dequeuedAt = millisHeader(headers, RabbitMQConfig.HEADER_DEQUEUED_AT);
+        if (enqueuedAt != null && dequeuedAt != null && entry.queueWaitRecorded.compareAndSet(false, true)) {
+            record(STAGE_QUEUE_WAIT, entry.imageType, "success", dequeuedAt - enqueuedAt);
+        }
+    }
+
+    private void recordFirstArtifact(Tracked entry) {
+        if (entry.firstArtifactSeen.compareAndSet(false, true)) {
+            record(STAGE_FIRST_ARTIFACT, entry.imageType, "success",
+                    System.currentTimeMillis() - entry.uploadedAtMillis);
+        }
+    }
+
+    private static String imageTypeOf(Map<String, Object> headers) {
+        Object imageType = headers != null ? headers.get(RabbitMQConfig.HEADER_IMAGE_TYPE) : null;
+        return imageTypeOrUnknown(imageType != null ? imageType.toString() : null);
+    }
+
+    private static Long millisHeader(Map<String, Object> headers, String name) {
+        Object value = headers != null ? headers.get(name) : null;
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value != null) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static String imageTypeOrUnknown(String imageType) {
+        return imageType == null || imageType.isBlank() ? UNKNOWN_IMAGE_TYPE : imageType;
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+
+    /**
+     * 단계 요약 (시간 단위 ms)
+     */
+    public record StageSummary(String imageType, String outcome, long count, double meanMs, double maxMs,
+                               Double p50Ms, Double p95Ms, Double p99Ms) {}
+
+    private static final class Tracked {
+        private final String imageType;
+        private final long uploadedAtMillis;
+        private final AtomicBoolean firstProgressSeen = new AtomicBoolean();
+        private final AtomicBoolean firstArtifactSeen = new AtomicBoolean();
+        private final AtomicBoolean queueWaitRecorded = new AtomicBoolean();
+
+        private Tracked(String imageType, long uploadedAtMillis) {
+            this.imageType = imageType;
+            this.uploadedAtMillis = uploadedAtMillis;
+        }
+    }
+}
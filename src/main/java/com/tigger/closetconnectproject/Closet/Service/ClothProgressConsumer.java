@@ -1,16 +1,22 @@
 package com.tigger.closetconnectproject.Closet.Service;
 
 import com.tigger.closetconnectproject.Closet.Dto.ClothProgressMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * RabbitMQ 옷 처리 진행도 컨슈머 (Python → Spring)
  * - cloth.progress.queue에서 실시간 진행 상황 메시지를 소비
- * - WebSocket을 통해 프론트엔드로 진행도 전송
+ * - WebSocket을 통해 프론트엔드로 진행도 전송 (ClothProgressNotifier가 clothId별로 모아서 전송)
+ * - 상태 폴링 캐시(ClothStatusCache)에도 반영 (진행도는 DB에 저장하지 않음)
  * - spring.rabbitmq.enabled=true일 때만 활성화
  */
 @Slf4j
@@ -20,20 +26,32 @@ import org.springframework.stereotype.Service;
 public class ClothProgressConsumer {
 
     private final ClothProgressNotifier progressNotifier;
+    private final ClothStatusCache statusCache;
+    private final ClothPipelineMetrics pipelineMetrics;
+    private final MeterRegistry meterRegistry;
 
     /**
      * RabbitMQ 진행도 메시지 리스너
      * - 큐: cloth.progress.queue
      * - Python worker가 처리 중 실시간으로 전송하는 진행 상황 처리
+     * - 전용 컨테이너(clothProgressContainerFactory): 결과 메시지 처리와 consumer를 공유하지 않음
      *
      * @param message 옷 처리 진행도 메시지
+     * @param headers 메시지 헤더 (첫 진행도/대기 시간 측정용)
      */
-    @RabbitListener(queues = "${rabbitmq.queue.cloth-progress}")
-    public void handleProgressUpdate(ClothProgressMessage message) {
-        log.info("[ProgressConsumer] Received progress update: clothId={}, userId={}, step={}, progress={}%",
+    @RabbitListener(id = ClothListenerConcurrencyController.PROGRESS_LISTENER_ID,
+            queues = "${rabbitmq.queue.cloth-progress}",
+            containerFactory = "clothProgressContainerFactory")
+    public void handleProgressUpdate(ClothProgressMessage message, @Headers Map<String, Object> headers) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        pipelineMetrics.onProgress(message.getClothId(), headers);
+        log.debug("[ProgressConsumer] Received progress update: clothId={}, userId={}, step={}, progress={}%",
                 message.getClothId(), message.getUserId(), message.getCurrentStep(), message.getProgressPercentage());
 
-        // WebSocket을 통해 프론트엔드로 진행도 전송
+        statusCache.applyProgress(message.getClothId(), message.getStatus(),
+                message.getCurrentStep(), message.getProgressPercentage());
+
+        // WebSocket 전송 (중간 진행도는 clothId별 최신 값만 주기적으로 전송)
         progressNotifier.notifyProgress(
                 message.getUserId(),
                 message.getClothId(),
@@ -42,6 +60,7 @@ public class ClothProgressConsumer {
                 message.getProgressPercentage()
         );
 
-        log.info("[ProgressConsumer] ✅ Progress forwarded to WebSocket: {}%", message.getProgressPercentage());
+        sample.stop(ClothListenerConcurrencyController.latencyTimer(
+                meterRegistry, ClothListenerConcurrencyController.PROGRESS_LISTENER_ID));
     }
 }
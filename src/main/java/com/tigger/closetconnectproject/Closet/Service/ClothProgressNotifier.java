@@ -2,14 +2,25 @@ package com.tigger.closetconnectproject.Closet.Service;
 
 import com.tigger.closetconnectproject.Closet.Dto.ClothProgressMessage;
 import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 옷 처리 진행 상황 WebSocket 알림 서비스
  * - 클라이언트에게 실시간으로 진행 상황을 전송
+ * - 중간 진행도는 clothId별 최신 값만 보관(latest-wins)하고 flush-interval마다 전송
+ *   (워커가 초당 수십 번 보내도 화면은 몇 Hz로만 갱신하므로 덮어쓰인 값은 보내지 않음)
+ * - 완료/실패(종료 상태)는 즉시 전송하고, 뒤늦게 도착한 중간 진행도는 버림
+ * - 같은 메시지를 SSE 연결(ClothProgressStreamRegistry)에도 전달
+ * - 메트릭: cloth.progress.received, cloth.progress.delivered{kind}, cloth.progress.superseded
  */
 @Slf4j
 @Service
@@ -17,9 +28,28 @@ import org.springframework.stereotype.Service;
 public class ClothProgressNotifier {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final ClothProgressStreamRegistry streamRegistry;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 종료 상태를 보낸 clothId를 기억하는 시간 (이후 도착한 중간 진행도 무시)
+     */
+    @Value("${cloth.progress.terminal-retention-ms:10000}")
+    private long terminalRetentionMs = 10000;
+
+    /**
+     * 전송 대기 중인 중간 진행도 (clothId → 최신 메시지)
+     */
+    private final Map<Long, ClothProgressMessage> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 종료 상태를 보낸 clothId → 전송 시각
+     */
+    private final Map<Long, Long> terminated = new ConcurrentHashMap<>();
 
     /**
      * 특정 사용자에게 진행 상황 알림 전송
+     * - 중간 진행도는 다음 flush까지 최신 값만 남김, 종료 상태는 즉시 전송
      *
      * @param userId 사용자 ID
      * @param clothId 옷 ID
@@ -36,13 +66,35 @@ public class ClothProgressNotifier {
                 currentStep,
                 progressPercentage
         );
+        meterRegistry.counter("cloth.progress.received").increment();
 
-        // 특정 사용자에게만 메시지 전송 (/queue/cloth/progress)
-        String destination = "/queue/cloth/progress/" + userId;
-        messagingTemplate.convertAndSend(destination, message);
+        if (isTerminal(status)) {
+            sendTerminal(message);
+            return;
+        }
+        if (terminated.containsKey(clothId)) {
+            return;  // 완료/실패 이후 도착한 중간 진행도
+        }
+        if (pending.put(clothId, message) != null) {
+            meterRegistry.counter("cloth.progress.superseded").increment();
+        }
+    }
 
-        log.info("[WebSocket] 📡 Sent progress to user {}: clothId={}, step={}, progress={}%",
-                userId, clothId, currentStep, progressPercentage);
+    /**
+     * 대기 중인 중간 진행도 전송 (clothId별 최신 값 1개씩)
+     */
+    @Scheduled(fixedRateString = "${cloth.progress.flush-interval-ms:250}")
+    public void flush() {
+        for (Long clothId : pending.keySet()) {
+            ClothProgressMessage message = pending.remove(clothId);
+            if (message != null && !terminated.containsKey(clothId)) {
+                send(message);
+                meterRegistry.counter("cloth.progress.delivered", "kind", "intermediate").increment();
+            }
+        }
+
+        long expiredBefore = System.currentTimeMillis() - terminalRetentionMs;
+        terminated.values().removeIf(sentAt -> sentAt < expiredBefore);
     }
 
     /**
@@ -62,8 +114,7 @@ public class ClothProgressNotifier {
         message.setErrorMessage(errorMessage);
         message.setTimestamp(System.currentTimeMillis());
 
-        String destination = "/queue/cloth/progress/" + userId;
-        messagingTemplate.convertAndSend(destination, message);
+        sendTerminal(message);
 
         log.info("[WebSocket] ⚠️  Sent failure notification to user {}: clothId={}, error={}",
                 userId, clothId, errorMessage);
@@ -84,10 +135,35 @@ public class ClothProgressNotifier {
                 100
         );
 
-        String destination = "/queue/cloth/progress/" + userId;
+        sendTerminal(message);
+
+        log.info("[WebSocket] ✅ Sent completion notification to user {}: clothId={}",
+                userId, clothId);
+    }
+
+    /**
+     * 종료 상태 즉시 전송 (대기 중인 중간 진행도는 버림)
+     */
+    private void sendTerminal(ClothProgressMessage message) {
+        terminated.put(message.getClothId(), System.currentTimeMillis());
+        pending.remove(message.getClothId());
+        send(message);
+        meterRegistry.counter("cloth.progress.delivered", "kind", "terminal").increment();
+    }
+
+    private void send(ClothProgressMessage message) {
+        // 특정 사용자에게만 메시지 전송 (/queue/cloth/progress)
+        String destination = "/queue/cloth/progress/" + message.getUserId();
         messagingTemplate.convertAndSend(destination, message);
+        streamRegistry.publish(message, isTerminal(message.getStatus()));
+
+        log.debug("[WebSocket] 📡 Sent progress to user {}: clothId={}, step={}, progress={}%",
+                message.getUserId(), message.getClothId(), message.getCurrentStep(), message.getProgressPercentage());
+    }
 
-        log.info("[WebSocket] ✅ Sent completion notification to user {}: clothId={}, destination={}",
-                userId, clothId, destination);
+    private static boolean isTerminal(ProcessingStatus status) {
+        return status == ProcessingStatus.READY_FOR_REVIEW
+                || status == ProcessingStatus.COMPLETED
+                || status == ProcessingStatus.FAILED;
     }
 }
@@ -0,0 +1,336 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothProgressMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 옷 처리 진행도 SSE 연결 관리 (GET /api/v1/cloth/progress/stream)
+ * - WebSocket(STOMP)을 유지하기 어려운 모바일/웹뷰 클라이언트용, ClothProgressNotifier가 전송하는 메시지를 그대로 전달
+ * - 발행 스레드는 연결별 버퍼에 넣기만 하고, 실제 쓰기는 전용 Executor에서 (느린 클라이언트가 발행을 막지 않음)
+ * - 연결별 버퍼가 가득 차면 중간 진행도부터 버림 (완료/실패는 버리지 않음)
+ * - 사용자별 최근 이벤트를 링 버퍼에 보관 → 재연결 시 Last-Event-ID 이후 이벤트 재전송
+ * - heartbeat 주석 이벤트로 프록시/로드밸런서의 유휴 연결 종료 방지
+ * - 메트릭: cloth.progress.stream.connections, cloth.progress.stream.sent, cloth.progress.stream.dropped
+ */
+@Slf4j
+@Component
+public class ClothProgressStreamRegistry {
+
+    static final String EVENT_NAME = "progress";
+
+    private final Executor streamExecutor;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * SSE 연결 유지 시간 (지나면 서버가 종료, 클라이언트는 Last-Event-ID로 재연결)
+     */
+    @Value("${cloth.progress.stream.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    /**
+     * 연결별 전송 대기 이벤트 최대 개수
+     */
+    @Value("${cloth.progress.stream.buffer-size:32}")
+    private int bufferSize = 32;
+
+    /**
+     * 사용자별 재전송용 최근 이벤트 개수
+     */
+    @Value("${cloth.progress.stream.replay-size:50}")
+    private int replaySize = 50;
+
+    /**
+     * 사용자별 최대 동시 연결 수 (넘으면 가장 오래된 연결 종료)
+     */
+    @Value("${cloth.progress.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser = 5;
+
+    /**
+     * 연결이 없는 사용자의 링 버퍼 보관 시간
+     */
+    @Value("${cloth.progress.stream.replay-retention-ms:300000}")
+    private long replayRetentionMs = 300000;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final Map<Long, ReplayBuffer> replays = new ConcurrentHashMap<>();
+
+    public ClothProgressStreamRegistry(@Qualifier("clothProgressStreamExecutor") Executor streamExecutor,
+                                       MeterRegistry meterRegistry) {
+        this.streamExecutor = streamExecutor;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cloth.progress.stream.connections", connections,
+                        map -> map.values().stream().mapToInt(List::size).sum())
+                .description("Open cloth progress SSE connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * SSE 연결 등록
+     *
+     * @param userId 사용자 ID
+     * @param lastEventId 클라이언트가 마지막으로 받은 이벤트 ID (Last-Event-ID, 없으면 null)
+     * @return SseEmitter
+     */
+    public SseEmitter connect(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+
+        // 링 버퍼 잠금 안에서 등록 + 재전송 (그 사이 발행된 이벤트가 빠지거나 중복되지 않음)
+        List<Connection> evicted = new ArrayList<>();
+        Long lastId = parseEventId(lastEventId);
+        ReplayBuffer replay = replays.computeIfAbsent(userId, id -> new ReplayBuffer());
+        synchronized (replay) {
+            connections.compute(userId, (id, list) -> {
+                List<Connection> updated = list != null ? list : new CopyOnWriteArrayList<>();
+                updated.add(connection);
+                while (updated.size() > maxConnectionsPerUser) {
+                    evicted.add(updated.remove(0));
+                }
+                return updated;
+            });
+            if (lastId != null) {
+                replay.after(lastId).forEach(connection::enqueue);
+            }
+        }
+        evicted.forEach(Connection::close);
+        connection.enqueue(Event.HEARTBEAT);
+
+        log.debug("[ProgressStream] User {} connected (lastEventId={})", userId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * 진행도 이벤트 발행 (ClothProgressNotifier가 WebSocket 전송과 함께 호출)
+     *
+     * @param message 진행도 메시지
+     * @param terminal 완료/실패 여부 (버퍼가 가득 차도 버리지 않음)
+     */
+    public void publish(ClothProgressMessage message, boolean terminal) {
+        Long userId = message.getUserId();
+        ReplayBuffer replay = replays.computeIfAbsent(userId, id -> new ReplayBuffer());
+        synchronized (replay) {
+            Event event = new Event(sequence.incrementAndGet(), message, terminal);
+            replay.add(event, replaySize);
+
+            // 연결 버퍼에 넣기만 함 (전송은 streamExecutor)
+            List<Connection> userConnections = connections.get(userId);
+            if (userConnections != null) {
+                userConnections.forEach(connection -> connection.enqueue(event));
+            }
+        }
+    }
+
+    /**
+     * heartbeat 전송 + 오래된 링 버퍼 정리
+     * - 보낼 이벤트가 쌓여 있는 연결은 건너뜀
+     */
+    @Scheduled(fixedRateString = "${cloth.progress.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        connections.values().forEach(list -> list.forEach(Connection::heartbeat));
+
+        long expiredBefore = System.currentTimeMillis() - replayRetentionMs;
+        replays.entrySet().removeIf(entry ->
+                !connections.containsKey(entry.getKey()) && entry.getValue().lastAddedAt < expiredBefore);
+    }
+
+    public int getConnectionCount(Long userId) {
+        List<Connection> userConnections = connections.get(userId);
+        return userConnections != null ? userConnections.size() : 0;
+    }
+
+    private void remove(Connection connection) {
+        connection.closed.set(true);
+        connections.computeIfPresent(connection.userId, (id, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * SSE 이벤트 (id는 서버 전체에서 증가, HEARTBEAT는 주석 이벤트)
+     */
+    record Event(long id, ClothProgressMessage message, boolean terminal) {
+        static final Event HEARTBEAT = new Event(0, null, true);
+    }
+
+    /**
+     * 사용자별 최근 이벤트 링 버퍼 (호출자가 인스턴스로 동기화, 사용자 단위 발행/등록 순서 보장)
+     */
+    private static final class ReplayBuffer {
+        private final Deque<Event> events = new ArrayDeque<>();
+        private volatile long lastAddedAt = System.currentTimeMillis();
+
+        void add(Event event, int capacity) {
+            events.addLast(event);
+            while (events.size() > capacity) {
+                events.removeFirst();
+            }
+            lastAddedAt = System.currentTimeMillis();
+        }
+
+        List<Event> after(long lastId) {
+            List<Event> result = new ArrayList<>();
+            for (Event event : events) {
+                if (event.id() > lastId) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 연결 하나 (전송 대기 버퍼 + 단일 drain 작업)
+     */
+    private final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Deque<Event> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() >= bufferSize && !dropIntermediate()) {
+                    // 완료/실패 이벤트만 쌓여 있을 만큼 느린 연결: 끊고 재연결 시 재전송에 맡김
+                    meterRegistry.counter("cloth.progress.stream.dropped", "reason", "overflow").increment();
+                    close();
+                    return;
+                }
+                buffer.addLast(event);
+            }
+            scheduleDrain();
+        }
+
+        void heartbeat() {
+            synchronized (buffer) {
+                if (!buffer.isEmpty()) {
+                    return;
+                }
+            }
+            enqueue(Event.HEARTBEAT);
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                remove(this);
+                emitter.complete();
+            }
+        }
+
+        /**
+         * 가장 오래된 중간 진행도 하나 버림
+         */
+        private boolean dropIntermediate() {
+            Iterator<Event> iterator = buffer.iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().terminal()) {
+                    iterator.remove();
+                    meterRegistry.counter("cloth.progress.stream.dropped", "reason", "slow_client").increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.warn("[ProgressStream] Stream executor saturated, closing connection of user {}", userId);
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed.get() && (event = poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트 연결 종료
+                log.debug("[ProgressStream] Connection of user {} closed: {}", userId, e.getMessage());
+                closed.set(true);
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // drain 종료 직전에 들어온 이벤트 처리
+            synchronized (buffer) {
+                if (buffer.isEmpty() || closed.get()) {
+                    return;
+                }
+            }
+            scheduleDrain();
+        }
+
+        private Event poll() {
+            synchronized (buffer) {
+                return buffer.pollFirst();
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            if (event == Event.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.id()))
+                    .name(EVENT_NAME)
+                    .data(event.message(), MediaType.APPLICATION_JSON));
+            meterRegistry.counter("cloth.progress.stream.sent").increment();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultManifest;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 바이너리 결과 프로토콜(v2) 조립기
+ * - 아티팩트 메시지(raw PNG)는 도착 즉시 대상 디렉토리의 임시 파일로 기록
+ * - correlationId 단위로 아티팩트를 모으고, 매니페스트에 나열된 아티팩트가 모두 모이면
+ *   v1과 동일한 ClothResultMessage로 변환하여 반환 (단계별 중간 결과도 같은 방식, stage 유지)
+ * - 아티팩트와 매니페스트는 여러 컨슈머 스레드에서 순서 없이 도착할 수 있음
+ * - 조립된 결과는 반영에 성공(complete)해야 작업/임시 파일을 정리
+ *   - 반영 실패(release) 시 작업과 임시 파일을 유지하여, 재시도로 다시 도착한 메시지가 같은 작업으로 다시 조립
+ * - 일정 시간 내 완성(반영)되지 않은 작업은 임시 파일과 함께 폐기 (재시도 지연 합계보다 길게 설정)
+ * - 조립 상태는 이 인스턴스의 메모리 + 로컬 임시 파일에만 있음
+ *   - 한 작업의 메시지가 모두 같은 인스턴스로 와야 하므로 결과 큐 컨슈머는 단일 인스턴스로 운영
+ *   - 인스턴스 재시작 시 조립 중인 작업은 유실 (워커 재처리 또는 TTL 만료 후 재업로드)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class ClothResultAssembler {
+
+    private final ImageStorageService imageStorageService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${rabbitmq.result.v2.pending-ttl-seconds:1800}")
+    private long pendingTtlSeconds;
+
+    private final Map<String, PendingResult> pendingResults = new ConcurrentHashMap<>();
+
+    /**
+     * 아티팩트 메시지 수신
+     *
+     * @param message raw PNG 바디 + 아티팩트 헤더
+     * @return 작업이 완성되면 조립된 결과
+     */
+    public Optional<AssembledResult> acceptArtifact(Message message) throws IOException {
+        MessageProperties props = message.getMessageProperties();
+        String correlationId = requireCorrelationId(props);
+        ClothResultManifest.ArtifactType type = ClothResultManifest.ArtifactType.valueOf(
+                requireHeader(props, RabbitMQConfig.HEADER_ARTIFACT_TYPE));
+        String label = header(props, RabbitMQConfig.HEADER_ARTIFACT_LABEL);
+
+        PendingResult pending = pendingResults.computeIfAbsent(correlationId, id -> new PendingResult());
+        synchronized (pending) {
+            if (pending.completed) {
+                log.warn("[ResultAssembler][{}] Artifact arrived after completion, ignored: {} {}",
+                        correlationId, type, label);
+                return Optional.empty();
+            }
+
+            ImageStorageService.StagedImage staged =
+                    pending.session.stage(type.getImageType(), out -> out.write(message.getBody()));
+            if (staged != null) {
+                // 재전송된 아티팩트는 덮어씀 (이전 임시 파일은 세션 종료 시 삭제)
+                pending.artifacts.put(artifactKey(type, label), staged);
+            }
+            log.debug("[ResultAssembler][{}] Artifact staged: {} {} ({} bytes)",
+                    correlationId, type, label, message.getBody().length);
+
+            return tryComplete(correlationId, pending);
+        }
+    }
+
+    /**
+     * 매니페스트 메시지 수신
+     *
+     * @param message 매니페스트 JSON
+     * @return 작업이 완성되면 조립된 결과
+     */
+    public Optional<AssembledResult> acceptManifest(Message message) throws IOException {
+        String correlationId = requireCorrelationId(message.getMessageProperties());
+        ClothResultManifest manifest = objectMapper.readValue(message.getBody(), ClothResultManifest.class);
+
+        PendingResult pending = pendingResults.computeIfAbsent(correlationId, id -> new PendingResult());
+        synchronized (pending) {
+            if (pending.completed) {
+                log.warn("[ResultAssembler][{}] Duplicate manifest ignored", correlationId);
+                return Optional.empty();
+            }
+            pending.manifest = manifest;
+            return tryComplete(correlationId, pending);
+        }
+    }
+
+    /**
+     * 조립된 결과 반영 성공: 작업 제거 + 커밋되지 않은 임시 파일 정리
+     * - 이후 같은 작업으로 늦게 도착한 메시지는 새 작업으로 취급되어 TTL 후 폐기
+     */
+    public void complete(AssembledResult result) {
+        PendingResult pending = pendingResults.remove(result.correlationId());
+        if (pending == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.completed = true;
+            pending.session.close();
+        }
+    }
+
+    /**
+     * 조립된 결과 반영 실패: 작업과 임시 파일을 유지하고 다시 조립 가능한 상태로 되돌림
+     * - 재시도로 다시 도착한 매니페스트/아티팩트가 같은 작업을 다시 조립
+     */
+    public void release(AssembledResult result) {
+        PendingResult pending = pendingResults.get(result.correlationId());
+        if (pending == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.inFlight = false;
+        }
+        log.warn("[ResultAssembler][{}] Result handling failed, kept for retry ({} artifacts)",
+                result.correlationId(), pending.artifacts.size());
+    }
+
+    /**
+     * 완성되지 않은 오래된 작업 폐기 (반영 중인 작업은 제외)
+     */
+    @Scheduled(fixedDelayString = "${rabbitmq.result.v2.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - pendingTtlSeconds * 1000;
+        pendingResults.forEach((correlationId, pending) -> {
+            if (pending.createdAt >= cutoff) {
+                return;
+            }
+            synchronized (pending) {
+                if (pending.inFlight || !pendingResults.remove(correlationId, pending)) {
+                    return;
+                }
+                pending.completed = true;
+                pending.session.close();
+            }
+            log.warn("[ResultAssembler][{}] Incomplete result expired (manifest: {}, artifacts: {})",
+                    correlationId, pending.manifest != null, pending.artifacts.size());
+        });
+    }
+
+    public int getPendingCount() {
+        return pendingResults.size();
+    }
+
+    private Optional<AssembledResult> tryComplete(String correlationId, PendingResult pending) {
+        ClothResultManifest manifest = pending.manifest;
+        if (manifest == null || pending.inFlight) {
+            return Optional.empty();
+        }
+
+        List<ClothResultManifest.ArtifactRef> refs =
+                manifest.getArtifacts() != null ? manifest.getArtifacts() : List.of();
+        if (Boolean.TRUE.equals(manifest.getSuccess())) {
+            for (ClothResultManifest.ArtifactRef ref : refs) {
+                if (!pending.artifacts.containsKey(artifactKey(ref.getType(), ref.getLabel()))) {
+                    return Optional.empty();
+                }
+            }
+        }
+
+        // 반영이 끝날 때(complete/release)까지 작업과 임시 파일 유지
+        pending.inFlight = true;
+        log.info("[ResultAssembler][{}] Result assembled for clothId={} ({} artifacts)",
+                correlationId, manifest.getClothId(), pending.artifacts.size());
+
+        return Optional.of(new AssembledResult(correlationId, toResultMessage(manifest, refs, pending.artifacts)));
+    }
+
+    /**
+     * 매니페스트 + 임시 저장된 아티팩트 → v1 결과 메시지 (아이템 순서는 매니페스트 순서 유지)
+     */
+    private ClothResultMessage toResultMessage(ClothResultManifest manifest,
+                                               List<ClothResultManifest.ArtifactRef> refs,
+                                               Map<String, ImageStorageService.StagedImage> artifacts) {
+        ClothResultMessage message = new ClothResultMessage();
+        message.setClothId(manifest.getClothId());
+        message.setStage(manifest.getStage());
+        message.setSuccess(manifest.getSuccess());
+        message.setErrorMessage(manifest.getErrorMessage());
+        message.setSuggestedCategory(manifest.getSuggestedCategory());
+        message.setSegmentationLabel(manifest.getSegmentationLabel());
+        message.setAreaPixels(manifest.getAreaPixels());
+
+        List<ClothResultMessage.SegmentedItem> segmentedItems = new ArrayList<>();
+        List<ClothResultMessage.ExpandedItem> expandedItems = new ArrayList<>();
+
+        for (ClothResultManifest.ArtifactRef ref : refs) {
+            ImageStorageService.StagedImage image = artifacts.get(artifactKey(ref.getType(), ref.getLabel()));
+            if (image == null) {
+                continue;
+            }
+            switch (ref.getType()) {
+                case REMOVED_BG -> message.setRemovedBgImage(image);
+                case SEGMENTED -> message.setSegmentedImage(image);
+                case INPAINTED -> message.setInpaintedImage(image);
+                case SEGMENTED_ITEM -> segmentedItems.add(
+                        new ClothResultMessage.SegmentedItem(ref.getLabel(), null, image, ref.getAreaPixels()));
+                case EXPANDED_ITEM -> expandedItems.add(
+                        new ClothResultMessage.ExpandedItem(ref.getLabel(), null, image, ref.getAreaPixels()));
+            }
+        }
+
+        message.setAllSegmentedItems(segmentedItems.isEmpty() ? null : segmentedItems);
+        message.setAllExpandedItems(expandedItems.isEmpty() ? null : expandedItems);
+        return message;
+    }
+
+    private static String artifactKey(ClothResultManifest.ArtifactType type, String label) {
+        return type.name() + ":" + (label != null ? label : "");
+    }
+
+    private static String requireCorrelationId(MessageProperties props) {
+        String correlationId = props.getCorrelationId();
+        if (correlationId == null || correlationId.isBlank()) {
+            throw new IllegalArgumentException("correlationId가 없는 v2 결과 메시지입니다.");
+        }
+        return correlationId;
+    }
+
+    private static String requireHeader(MessageProperties props, String name) {
+        String value = header(props, name);
+        if (value == null) {
+            throw new IllegalArgumentException("필수 헤더 누락: " + name);
+        }
+        return value;
+    }
+
+    private static String header(MessageProperties props, String name) {
+        Object value = props.getHeaders().get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 조립 완료된 결과 (호출자가 반영 후 complete 또는 release 호출)
+     */
+    public record AssembledResult(String correlationId, ClothResultMessage message) {}
+
+    /**
+     * 조립 중인 작업
+     */
+    private class PendingResult {
+        private final ImageStorageService.StagingSession session = imageStorageService.openStagingSession();
+        private final Map<String, ImageStorageService.StagedImage> artifacts = new HashMap<>();
+        private final long createdAt = System.currentTimeMillis();
+        private ClothResultManifest manifest;
+        private boolean inFlight;
+        private boolean completed;
+    }
+}
@@ -1,26 +1,19 @@
 package com.tigger.closetconnectproject.Closet.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
-import com.tigger.closetconnectproject.Closet.Entity.Category;
-import com.tigger.closetconnectproject.Closet.Entity.Cloth;
-import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
-import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 /**
  * RabbitMQ 옷 처리 결과 컨슈머 (Python → Spring)
@@ -34,296 +27,100 @@ import java.util.Map;
 @ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
 public class ClothResultConsumer {
 
-    private final ClothRepository clothRepository;
     private final ImageStorageService imageStorageService;
-    private final ClothProgressNotifier progressNotifier;
-    private final ObjectMapper objectMapper;
+    private final ClothResultMessageReader resultMessageReader;
+    private final ClothResultAssembler resultAssembler;
+    private final ClothResultHandler resultHandler;
+    private final ClothPipelineMetrics pipelineMetrics;
+    private final MeterRegistry meterRegistry;
 
     /**
      * RabbitMQ 결과 메시지 리스너
      * - 큐: cloth.result.queue
      * - Python worker가 처리 완료 후 전송한 결과 처리
+     * - content-type으로 프로토콜 분기 (RabbitMQConfig.resolveResultProtocol)
+     *   - v1 JSON: 바디를 직접 역직렬화하여 base64 이미지를 임시 파일로 스트리밍 디코딩
+     *   - v2 아티팩트/매니페스트: ClothResultAssembler로 조립 후 완성 시 반영
+     * - 단계별 중간 결과(stage 지정)도 같은 큐/프로토콜로 도착하며 ClothResultHandler가 먼저 반영
+     * - 리스너 전체를 트랜잭션으로 묶지 않음 (역직렬화/파일 I/O 동안 DB 커넥션을 점유하지 않도록)
+     * - 전용 컨테이너(clothResultContainerFactory), 처리 시간은 동시성 자동 조절에 사용
      *
-     * @param message 옷 처리 결과 메시지
+     * @param amqpMessage 옷 처리 결과 AMQP 메시지
      */
-    @RabbitListener(queues = "${rabbitmq.queue.cloth-result}")
-    @Transactional
-    public void handleClothResult(ClothResultMessage message) {
-        Long clothId = message.getClothId();
-        log.info("[ResultConsumer][{}] Received cloth processing result (success: {})",
-                clothId, message.getSuccess());
-
-        Cloth cloth = clothRepository.findById(clothId)
-                .orElseThrow(() -> new IllegalStateException("Cloth not found: " + clothId));
-
-        Long userId = cloth.getUser().getUserId();
-
+    @RabbitListener(id = ClothListenerConcurrencyController.RESULT_LISTENER_ID,
+            queues = "${rabbitmq.queue.cloth-result}",
+            containerFactory = "clothResultContainerFactory")
+    public void onClothResult(Message amqpMessage) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            if (message.getSuccess()) {
-                // === 성공 케이스: CloudRun Worker에서 base64 이미지 데이터 처리 ===
-                log.info("[ResultConsumer][{}] Processing successful result", clothId);
-
-                // 1. 배경 제거 이미지 처리
-                if (message.getRemovedBgImageBase64() != null && !message.getRemovedBgImageBase64().isEmpty()) {
-                    byte[] removedBgBytes = java.util.Base64.getDecoder().decode(message.getRemovedBgImageBase64());
-                    String removedBgUrl = imageStorageService.saveRemovedBgImage(removedBgBytes, clothId);
-                    cloth.setRemovedBgImageUrl(removedBgUrl);
-                    log.info("[ResultConsumer][{}] Saved removed-bg image from base64: {} ({} bytes)",
-                            clothId, removedBgUrl, removedBgBytes.length);
-                } else {
-                    log.warn("[ResultConsumer][{}] No removed-bg base64 data provided", clothId);
-                }
-
-                // 2. 세그먼트 이미지 처리
-                if (message.getSegmentedImageBase64() != null && !message.getSegmentedImageBase64().isEmpty()) {
-                    byte[] segmentedBytes = java.util.Base64.getDecoder().decode(message.getSegmentedImageBase64());
-                    String segmentedUrl = imageStorageService.saveSegmentedImage(segmentedBytes, clothId);
-                    cloth.setSegmentedImageUrl(segmentedUrl);
-                    log.info("[ResultConsumer][{}] Saved segmented image from base64: {} ({} bytes)",
-                            clothId, segmentedUrl, segmentedBytes.length);
-                } else {
-                    log.warn("[ResultConsumer][{}] No segmented base64 data provided", clothId);
-                }
-
-                // 3. 인페인팅 이미지 처리
-                if (message.getInpaintedImageBase64() != null && !message.getInpaintedImageBase64().isEmpty()) {
-                    byte[] inpaintedBytes = java.util.Base64.getDecoder().decode(message.getInpaintedImageBase64());
-                    String inpaintedUrl = imageStorageService.saveInpaintedImage(inpaintedBytes, clothId);
-                    cloth.setInpaintedImageUrl(inpaintedUrl);
-                    log.info("[ResultConsumer][{}] Saved inpainted image from base64: {} ({} bytes)",
-                            clothId, inpaintedUrl, inpaintedBytes.length);
-                } else {
-                    log.warn("[ResultConsumer][{}] No inpainted base64 data provided", clothId);
-                }
-
-                // 4. 메타데이터 저장
-                if (message.getSuggestedCategory() != null) {
-                    try {
-                        Category category = Category.valueOf(message.getSuggestedCategory());
-                        cloth.setSuggestedCategory(category);
-                    } catch (IllegalArgumentException e) {
-                        log.warn("[ResultConsumer][{}] Invalid category: {}, setting to null",
-                                clothId, message.getSuggestedCategory());
-                        cloth.setSuggestedCategory(null);
-                    }
-                }
-                cloth.setSegmentationLabel(message.getSegmentationLabel());
-
-                // 5. 모든 세그먼트된 아이템들 처리 (크기순 정렬)
-                if (message.getAllSegmentedItems() != null && !message.getAllSegmentedItems().isEmpty()) {
-                    log.info("[ResultConsumer][{}] Processing {} segmented items",
-                            clothId, message.getAllSegmentedItems().size());
-
-                    List<Map<String, Object>> segmentedItemsData = new ArrayList<>();
-
-                    for (ClothResultMessage.SegmentedItem item : message.getAllSegmentedItems()) {
-                        try {
-                            // base64 이미지 데이터만 사용 (CloudRun 환경)
-                            if (item.getImageBase64() == null || item.getImageBase64().isEmpty()) {
-                                log.warn("[ResultConsumer][{}] No base64 data for segmented item: {}", clothId, item.getLabel());
-                                continue;
-                            }
-
-                            byte[] itemImageBytes = java.util.Base64.getDecoder().decode(item.getImageBase64());
-
-                            // 이미지 저장
-                            String itemImageUrl = imageStorageService.saveSegmentedImage(
-                                    itemImageBytes,
-                                    clothId,
-                                    item.getLabel()
-                            );
-
-                            // 메타데이터 구성
-                            Map<String, Object> itemData = new HashMap<>();
-                            itemData.put("label", item.getLabel());
-                            itemData.put("segmentedUrl", itemImageUrl);
-                            itemData.put("areaPixels", item.getAreaPixels());
-
-                            segmentedItemsData.add(itemData);
-
-                            log.info("[ResultConsumer][{}] Saved segmented item: {} -> {}",
-                                    clothId, item.getLabel(), itemImageUrl);
-
-                        } catch (Exception e) {
-                            log.warn("[ResultConsumer][{}] Failed to process segmented item: {}",
-                                    clothId, item.getLabel(), e);
-                        }
-                    }
-
-                    // JSON으로 직렬화하여 저장
-                    if (!segmentedItemsData.isEmpty()) {
-                        String segmentedItemsJson = objectMapper.writeValueAsString(segmentedItemsData);
-                        cloth.setAllSegmentedItemsJson(segmentedItemsJson);
-                        log.info("[ResultConsumer][{}] Stored {} segmented items as JSON",
-                                clothId, segmentedItemsData.size());
-                    }
-                }
-
-                // 6. 모든 Gemini 확장된 아이템들 처리 (크기순 정렬)
-                if (message.getAllExpandedItems() != null && !message.getAllExpandedItems().isEmpty()) {
-                    log.info("[ResultConsumer][{}] Processing {} expanded items",
-                            clothId, message.getAllExpandedItems().size());
-
-                    List<Map<String, Object>> expandedItemsData = new ArrayList<>();
-
-                    for (ClothResultMessage.ExpandedItem item : message.getAllExpandedItems()) {
-                        try {
-                            // base64 이미지 데이터만 사용 (CloudRun 환경)
-                            if (item.getImageBase64() == null || item.getImageBase64().isEmpty()) {
-                                log.warn("[ResultConsumer][{}] No base64 data for expanded item: {}", clothId, item.getLabel());
-                                continue;
-                            }
-
-                            byte[] itemImageBytes = java.util.Base64.getDecoder().decode(item.getImageBase64());
-
-                            // 이미지 저장
-                            String itemImageUrl = imageStorageService.saveExpandedImage(
-                                    itemImageBytes,
-                                    clothId,
-                                    item.getLabel()
-                            );
-
-                            // 메타데이터 구성
-                            Map<String, Object> itemData = new HashMap<>();
-                            itemData.put("label", item.getLabel());
-                            itemData.put("expandedUrl", itemImageUrl);
-                            itemData.put("areaPixels", item.getAreaPixels());
-
-                            expandedItemsData.add(itemData);
-
-                            log.info("[ResultConsumer][{}] Saved expanded item: {} -> {}",
-                                    clothId, item.getLabel(), itemImageUrl);
-
-                        } catch (Exception e) {
-                            log.warn("[ResultConsumer][{}] Failed to process expanded item: {}",
-                                    clothId, item.getLabel(), e);
-                        }
-                    }
-
-                    // JSON으로 직렬화하여 저장
-                    if (!expandedItemsData.isEmpty()) {
-                        String expandedItemsJson = objectMapper.writeValueAsString(expandedItemsData);
-                        cloth.setAllExpandedItemsJson(expandedItemsJson);
-                        log.info("[ResultConsumer][{}] Stored {} expanded items as JSON",
-                                clothId, expandedItemsData.size());
-                    }
-                }
-
-                // 7. 추가 감지된 아이템들 처리 (하위 호환, deprecated)
-                if (message.getAdditionalClothingItems() != null && !message.getAdditionalClothingItems().isEmpty()) {
-                    log.info("[ResultConsumer][{}] Processing {} additional clothing items (deprecated)",
-                            clothId, message.getAdditionalClothingItems().size());
-
-                    List<Map<String, Object>> additionalItemsData = new ArrayList<>();
-
-                    for (ClothResultMessage.AdditionalClothingItem item : message.getAdditionalClothingItems()) {
-                        try {
-                            // 이미지 파일 로드
-                            byte[] itemImageBytes = loadImageFile(item.getPath());
-
-                            // 이미지 저장
-                            String itemImageUrl = imageStorageService.saveAdditionalItemImage(
-                                    itemImageBytes,
-                                    clothId,
-                                    item.getLabel()
-                            );
-
-                            // 메타데이터 구성
-                            Map<String, Object> itemData = new HashMap<>();
-                            itemData.put("label", item.getLabel());
-                            itemData.put("imageUrl", itemImageUrl);
-                            itemData.put("areaPixels", item.getAreaPixels());
-
-                            additionalItemsData.add(itemData);
-
-                            log.info("[ResultConsumer][{}] Saved additional item: {} -> {}",
-                                    clothId, item.getLabel(), itemImageUrl);
-
-                        } catch (Exception e) {
-                            log.warn("[ResultConsumer][{}] Failed to process additional item: {}",
-                                    clothId, item.getLabel(), e);
-                        }
-                    }
-
-                    // JSON으로 직렬화하여 저장
-                    if (!additionalItemsData.isEmpty()) {
-                        String additionalItemsJson = objectMapper.writeValueAsString(additionalItemsData);
-                        cloth.setAdditionalItemsJson(additionalItemsJson);
-                        log.info("[ResultConsumer][{}] Stored {} additional items as JSON (deprecated)",
-                                clothId, additionalItemsData.size());
-                    }
-                }
-
-                // 6. 상태 업데이트: READY_FOR_REVIEW
-                cloth.setProcessingStatus(ProcessingStatus.READY_FOR_REVIEW);
-                cloth.setErrorMessage(null);
-                cloth.setCurrentStep("처리 완료");
-                cloth.setProgressPercentage(100);
-
-                clothRepository.save(cloth);
-
-                log.info("[ResultConsumer][{}] ✅ Processing completed successfully - READY_FOR_REVIEW", clothId);
-
-                // 7. WebSocket 완료 알림
-                progressNotifier.notifyComplete(userId, clothId);
-
-            } else {
-                // === 실패 케이스: 에러 메시지 저장 ===
-                log.error("[ResultConsumer][{}] Processing failed: {}", clothId, message.getErrorMessage());
+            handleResultMessage(amqpMessage);
+        } finally {
+            sample.stop(ClothListenerConcurrencyController.latencyTimer(
+                    meterRegistry, ClothListenerConcurrencyController.RESULT_LISTENER_ID));
+        }
+    }
 
-                cloth.setProcessingStatus(ProcessingStatus.FAILED);
-                cloth.setErrorMessage(message.getErrorMessage());
-                cloth.setCurrentStep("처리 실패");
-                cloth.setProgressPercentage(0);
+    private void handleResultMessage(Message amqpMessage) {
+        RabbitMQConfig.ResultProtocol protocol =
+                RabbitMQConfig.resolveResultProtocol(amqpMessage.getMessageProperties().getContentType());
 
-                clothRepository.save(cloth);
+        if (protocol == RabbitMQConfig.ResultProtocol.JSON) {
+            handleJsonResult(amqpMessage);
+            return;
+        }
 
-                // WebSocket 실패 알림
-                progressNotifier.notifyFailure(userId, clothId, message.getErrorMessage());
+        Optional<ClothResultAssembler.AssembledResult> assembled;
+        long decodeStart = System.nanoTime();
+        try {
+            assembled = protocol == RabbitMQConfig.ResultProtocol.BINARY_ARTIFACT
+                    ? resultAssembler.acceptArtifact(amqpMessage)
+                    : resultAssembler.acceptManifest(amqpMessage);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("[ResultConsumer] Invalid v2 result message ({})", protocol, e);
+            throw new AmqpRejectAndDontRequeueException("Invalid cloth result message", e);
+        }
 
-                log.error("[ResultConsumer][{}] Processing status set to FAILED", clothId);
+        // 반영에 성공해야 조립 작업/임시 파일 정리, 실패하면 재시도 메시지가 다시 조립하도록 유지
+        assembled.ifPresent(result -> {
+            recordReceived(result.message(), amqpMessage, decodeStart);
+            try {
+                resultHandler.handleClothResult(result.message());
+            } catch (RuntimeException e) {
+                resultAssembler.release(result);
+                throw e;
             }
-
-        } catch (Exception e) {
-            log.error("[ResultConsumer][{}] ❌ Failed to process result message", clothId, e);
-
-            // 예외 발생 시 FAILED 상태로 업데이트
-            cloth.setProcessingStatus(ProcessingStatus.FAILED);
-            cloth.setErrorMessage("결과 처리 중 오류 발생: " + e.getMessage());
-            cloth.setCurrentStep("결과 처리 실패");
-            cloth.setProgressPercentage(0);
-            clothRepository.save(cloth);
-
-            // WebSocket 실패 알림
-            progressNotifier.notifyFailure(userId, clothId, e.getMessage());
-
-            // 예외를 다시 던져서 RabbitMQ에 NACK 전송 (재시도 트리거)
-            throw new RuntimeException("Failed to process cloth result for clothId: " + clothId, e);
-        }
+            resultAssembler.complete(result);
+        });
     }
 
     /**
-     * Python이 저장한 이미지 파일을 읽어서 바이트 배열로 반환
-     *
-     * @param imagePath Python 서버가 저장한 이미지 파일 경로
-     * @return 이미지 바이트 배열
+     * v1 JSON 결과 메시지 처리
      */
-    private byte[] loadImageFile(String imagePath) {
-        try {
-            Path path = Paths.get(imagePath);
-
-            if (!Files.exists(path)) {
-                throw new IllegalStateException("Image file not found: " + imagePath);
+    private void handleJsonResult(Message amqpMessage) {
+        try (ImageStorageService.StagingSession session = imageStorageService.openStagingSession()) {
+            ClothResultMessage message;
+            long decodeStart = System.nanoTime();
+            try {
+                message = resultMessageReader.read(amqpMessage.getBody(), session);
+            } catch (IOException e) {
+                // 파싱 불가능한 메시지는 재시도해도 실패하므로 재큐잉하지 않음
+                log.error("[ResultConsumer] Failed to deserialize result message", e);
+                throw new AmqpRejectAndDontRequeueException("Invalid cloth result message", e);
             }
+            recordReceived(message, amqpMessage, decodeStart);
 
-            byte[] imageBytes = Files.readAllBytes(path);
-            log.debug("Loaded image file: {} ({} bytes)", imagePath, imageBytes.length);
-
-            return imageBytes;
-
-        } catch (IOException e) {
-            log.error("Failed to load image file: {}", imagePath, e);
-            throw new RuntimeException("이미지 파일 로드 실패: " + imagePath, e);
+            // 커밋되지 않은 임시 파일은 세션 종료 시 삭제
+            resultHandler.handleClothResult(message);
         }
     }
+
+    /**
+     * 결과 디코딩 시간 + 워커가 헤더로 보고한 단계 시간 기록
+     * - v2는 조립을 완성한 마지막 메시지의 디코딩 시간, 헤더 기준
+     */
+    private void recordReceived(ClothResultMessage message, Message amqpMessage, long decodeStartNanos) {
+        pipelineMetrics.onWorkerResult(message.getClothId(), amqpMessage.getMessageProperties().getHeaders(),
+                message.isStageResult() || Boolean.TRUE.equals(message.getSuccess()));
+        pipelineMetrics.recordSince(ClothPipelineMetrics.STAGE_RESULT_DECODE, message.getClothId(), true, decodeStartNanos);
+    }
 }
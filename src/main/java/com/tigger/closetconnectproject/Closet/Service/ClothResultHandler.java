@@ -0,0 +1,207 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Supplier;
+
+/**
+ * 옷 처리 결과 반영 (ClothResultMessage 계약)
+ * - RabbitMQ 결과 컨슈머(ClothResultConsumer)와 로컬 파이프라인(LocalClothPipeline)이 공유
+ * - 브로커 사용 여부와 무관하게 항상 등록
+ * - 단계별 중간 결과(stage 지정)는 해당 단계 이미지만 먼저 반영, 최종 결과는 반영된 이미지와 합침
+ * - 메트릭: cloth.result.stage{stage, outcome=applied|ignored|failure}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClothResultHandler {
+
+    static final String DB_HOLD_METRIC = "cloth.result.db.hold";
+    static final String STAGE_RESULT_METRIC = "cloth.result.stage";
+
+    private final ClothRepository clothRepository;
+    private final ClothProgressNotifier progressNotifier;
+    private final ClothArtifactPersister artifactPersister;
+    private final ClothResultWriter resultWriter;
+    private final ClothFingerprintService fingerprintService;
+    private final ImageDerivativeService derivativeService;
+    private final ClothStatusCache statusCache;
+    private final ClothPipelineMetrics pipelineMetrics;
+    private final ClothAdmissionController admissionController;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 옷 처리 결과 반영
+     * - 1단계: 아티팩트 저장 (트랜잭션 밖, I/O 전용 Executor에서 병렬)
+     * - 2단계: Cloth 행/JSON 컬럼만 갱신하는 짧은 트랜잭션
+     * - 알림/상태 캐시 무효화는 트랜잭션 커밋 이후
+     *
+     * @param message 옷 처리 결과 메시지 (이미지는 임시 저장된 상태)
+     */
+    public void handleClothResult(ClothResultMessage message) {
+        if (message.isStageResult()) {
+            handleStageResult(message);
+            return;
+        }
+
+        Long clothId = message.getClothId();
+        log.info("[ResultHandler][{}] Received cloth processing result (success: {})",
+                clothId, message.getSuccess());
+
+        // 존재하지 않는 옷의 아티팩트를 디스크에 남기지 않도록 먼저 확인
+        if (!clothRepository.existsById(clothId)) {
+            throw new IllegalStateException("Cloth not found: " + clothId);
+        }
+
+        try {
+            if (message.getSuccess()) {
+                // === 성공 케이스: 아티팩트 저장 → 짧은 트랜잭션 ===
+                log.info("[ResultHandler][{}] Processing successful result", clothId);
+
+                ClothArtifactPersister.PersistedArtifacts artifacts = pipelineMetrics.time(
+                        ClothPipelineMetrics.STAGE_ARTIFACT_WRITE, clothId, () -> artifactPersister.persist(message));
+                log.info("[ResultHandler][{}] Artifacts persisted (removed-bg: {}, segmented: {}, inpainted: {})",
+                        clothId, artifacts.removedBgUrl(), artifacts.segmentedUrl(), artifacts.inpaintedUrl());
+
+                ClothResultWriter.AppliedResult applied =
+                        timedTransaction(clothId, "success", () -> resultWriter.applySuccess(message, artifacts));
+                statusCache.invalidate(clothId);
+                pipelineMetrics.onCompleted(clothId, true);
+                admissionController.onCompleted();
+
+                log.info("[ResultHandler][{}] ✅ Processing completed successfully - READY_FOR_REVIEW", clothId);
+
+                // 커밋 이후 부가 작업은 실패해도 결과를 다시 반영하지 않음 (재시도 시 중복 반영/집계 방지)
+                afterCommit(clothId, () -> {
+                    // 검토 화면/목록에 표시될 이미지의 썸네일 미리 생성 (백그라운드, 중간 결과로 반영한 이미지는 이미 생성)
+                    derivativeService.generateAsync(artifacts.inpaintedUrl());
+                    derivativeService.generateAsync(artifacts.segmentedUrl());
+
+                    // WebSocket 완료 알림
+                    progressNotifier.notifyComplete(applied.userId(), clothId);
+
+                    // 같은 이미지 재업로드 시 재사용할 수 있도록 지문 등록
+                    fingerprintService.record(clothId, applied.originalContentHash(), message, applied.artifacts());
+                });
+
+            } else {
+                // === 실패 케이스: 에러 메시지 저장 ===
+                log.error("[ResultHandler][{}] Processing failed: {}", clothId, message.getErrorMessage());
+
+                Long userId = timedTransaction(clothId, "failure",
+                        () -> resultWriter.applyFailure(clothId, message.getErrorMessage(), "처리 실패"));
+                statusCache.invalidate(clothId);
+
+                // WebSocket 실패 알림
+                progressNotifier.notifyFailure(userId, clothId, message.getErrorMessage());
+                pipelineMetrics.onCompleted(clothId, false);
+                admissionController.onCompleted();
+
+                log.error("[ResultHandler][{}] Processing status set to FAILED", clothId);
+            }
+
+        } catch (Exception e) {
+            log.error("[ResultHandler][{}] ❌ Failed to process result message", clothId, e);
+
+            // 상태는 바꾸지 않고 호출자에 실패 전달 (RabbitMQ 컨슈머는 지연 재시도 큐로 이동)
+            // 재시도를 모두 소진하면 handleUnrecoverableResult로 FAILED 반영
+            throw new RuntimeException("Failed to process cloth result for clothId: " + clothId, e);
+        }
+    }
+
+    /**
+     * 반영할 수 없는 결과 처리 (종료 상태): FAILED 반영 + 실패 알림
+     * - RabbitMQ: 재시도를 모두 소진했거나 재시도해도 소용없는 최종 결과 메시지 (ClothDeadLetterService)
+     * - 로컬 파이프라인: 결과 반영 실패 (재시도 없음)
+     *
+     * @param clothId 옷 ID
+     * @param reason  마지막 실패 원인
+     */
+    public void handleUnrecoverableResult(Long clothId, String reason) {
+        Long userId = timedTransaction(clothId, "failure",
+                () -> resultWriter.applyFailure(clothId, "결과 처리 중 오류 발생: " + reason, "결과 처리 실패"));
+        statusCache.invalidate(clothId);
+
+        // WebSocket 실패 알림
+        progressNotifier.notifyFailure(userId, clothId, reason);
+        pipelineMetrics.onCompleted(clothId, false);
+        admissionController.onCompleted();
+
+        log.error("[ResultHandler][{}] Result could not be applied, status set to FAILED: {}", clothId, reason);
+    }
+
+    /**
+     * 결과 커밋 이후 부가 작업 실행 (실패는 로그만 남김)
+     */
+    private void afterCommit(Long clothId, Runnable work) {
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            log.warn("[ResultHandler][{}] Post-commit step failed (result already applied)", clothId, e);
+        }
+    }
+
+    /**
+     * 단계별 중간 결과 반영 (최종 결과를 기다리지 않고 해당 단계 이미지를 먼저 보여줌)
+     * - 이미 반영한 단계(재전송)나 최종 결과/실패 이후 늦게 도착한 중간 결과는 아티팩트를 저장하지 않고 무시
+     * - 실패해도 옷을 FAILED로 바꾸지 않음 (최종 결과가 같은 이미지를 다시 반영할 수 있음)
+     * - 반영 후 상태 캐시 무효화 + 진행도 알림 (클라이언트는 상태 조회로 새 이미지 URL 확인)
+     *
+     * @param message 단계별 중간 결과 메시지 (해당 단계 이미지만 임시 저장된 상태)
+     * @return 반영 여부 (false면 최종 결과에 같은 이미지를 다시 담아야 함)
+     */
+    public boolean handleStageResult(ClothResultMessage message) {
+        Long clothId = message.getClothId();
+        ProcessingStage stage = message.getStage();
+
+        if (!resultWriter.acceptsStage(clothId, stage)) {
+            log.debug("[ResultHandler][{}] Stage result ignored (already applied or finished): {}", clothId, stage);
+            meterRegistry.counter(STAGE_RESULT_METRIC, "stage", stage.name(), "outcome", "ignored").increment();
+            return false;
+        }
+
+        try {
+            ClothArtifactPersister.PersistedArtifacts artifacts = artifactPersister.persist(message);
+            Long userId = timedTransaction(clothId, "stage", () -> resultWriter.applyStage(message, stage, artifacts));
+            if (userId == null) {
+                meterRegistry.counter(STAGE_RESULT_METRIC, "stage", stage.name(), "outcome", "ignored").increment();
+                return false;
+            }
+            statusCache.invalidate(clothId);
+
+            log.info("[ResultHandler][{}] Stage result applied: {}", clothId, stage);
+            meterRegistry.counter(STAGE_RESULT_METRIC, "stage", stage.name(), "outcome", "applied").increment();
+            pipelineMetrics.onStageApplied(clothId);
+
+            derivativeService.generateAsync(artifacts.segmentedUrl());
+            derivativeService.generateAsync(artifacts.inpaintedUrl());
+            progressNotifier.notifyProgress(userId, clothId, ProcessingStatus.PROCESSING,
+                    stage.getCompletedStep(), stage.getProgressPercentage());
+            return true;
+
+        } catch (Exception e) {
+            log.warn("[ResultHandler][{}] Failed to apply stage result: {}", clothId, stage, e);
+            meterRegistry.counter(STAGE_RESULT_METRIC, "stage", stage.name(), "outcome", "failure").increment();
+            return false;
+        }
+    }
+
+    /**
+     * 결과 반영 트랜잭션 실행 + DB 커넥션 점유 시간 기록 (파이프라인 db_update 단계 포함)
+     */
+    private <T> T timedTransaction(Long clothId, String outcome, Supplier<T> transaction) {
+        Timer holdTimer = Timer.builder(DB_HOLD_METRIC)
+                .description("DB connection hold time while applying a cloth result")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        return pipelineMetrics.time(ClothPipelineMetrics.STAGE_DB_UPDATE, clothId, () -> holdTimer.record(transaction));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * 옷 처리 결과 메시지 리더
+ * - AMQP 바디(byte[])를 바이트 기반 JsonParser로 직접 파싱 (중간 String 생성 없음)
+ * - base64 이미지 필드는 StagedImageDeserializer가 임시 파일로 스트리밍 디코딩
+ * - 결과 메시지 1건이 차지하는 힙은 아이템 수와 무관하게 AMQP 바디 크기 수준으로 유지
+ */
+@Component
+public class ClothResultMessageReader {
+
+    private final ObjectReader reader;
+
+    public ClothResultMessageReader(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(ClothResultMessage.class);
+    }
+
+    /**
+     * 결과 메시지 역직렬화
+     *
+     * @param body    AMQP 메시지 바디 (JSON)
+     * @param session 임시 파일을 추적할 세션 (호출자가 close 책임)
+     * @return 역직렬화된 결과 메시지 (이미지 필드는 StagedImage)
+     */
+    public ClothResultMessage read(byte[] body, ImageStorageService.StagingSession session) throws IOException {
+        return reader
+                .withAttribute(ImageStorageService.StagingSession.class, session)
+                .readValue(body);
+    }
+}
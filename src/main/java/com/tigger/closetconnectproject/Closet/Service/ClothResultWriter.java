@@ -0,0 +1,197 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 옷 처리 결과의 DB 반영 (짧은 트랜잭션)
+ * - 파일 I/O는 ClothArtifactPersister에서 미리 끝내고, 여기서는 Cloth 행과 JSON 컬럼만 갱신
+ * - 반환된 userId로 호출자가 커밋 이후 알림 전송
+ * - 단계별 중간 결과는 해당 단계 이미지만 먼저 반영 (completedStages), 최종 결과는 반영된 값을 덮어쓰지 않고 합침
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClothResultWriter {
+
+    private final ClothRepository clothRepository;
+
+    /**
+     * 단계별 중간 결과를 반영할 수 있는지 (아티팩트 저장 전 확인)
+     * - 처리 중이거나 먼저 확정(COMPLETED)된 옷이고, 같은 단계를 아직 반영하지 않았을 때
+     * - 최종 결과/실패가 먼저 반영되었으면 늦게 도착한 중간 결과는 무시
+     */
+    @Transactional(readOnly = true)
+    public boolean acceptsStage(Long clothId, ProcessingStage stage) {
+        return clothRepository.findById(clothId)
+                .map(cloth -> acceptsStage(cloth, stage))
+                .orElse(false);
+    }
+
+    /**
+     * 단계별 중간 결과 반영: 해당 단계 이미지 + completedStages, 처리 중이면 진행 단계/진행률도 갱신
+     *
+     * @return 옷 소유자 userId (이미 반영되었거나 최종 결과가 먼저 반영되어 무시하면 null)
+     */
+    @Transactional
+    public Long applyStage(ClothResultMessage message, ProcessingStage stage,
+                           ClothArtifactPersister.PersistedArtifacts artifacts) {
+        Cloth cloth = getCloth(message.getClothId());
+        if (!acceptsStage(cloth, stage)) {
+            return null;
+        }
+
+        applyArtifacts(cloth, message, artifacts);
+        cloth.setCompletedStages(stage.addTo(cloth.getCompletedStages()));
+        if (cloth.getProcessingStatus() == ProcessingStatus.PROCESSING) {
+            cloth.setCurrentStep(stage.getCompletedStep());
+            cloth.setProgressPercentage(stage.getProgressPercentage());
+        }
+
+        return cloth.getUser().getUserId();
+    }
+
+    /**
+     * 성공 결과 반영: READY_FOR_REVIEW
+     * - 단계별 중간 결과로 이미 반영한 이미지는 최종 결과에 없으면 그대로 유지
+     * - 처리 중에 먼저 확정(COMPLETED)된 옷은 이미지만 반영하고 상태는 유지
+     *
+     * @return 옷 소유자 userId, 원본 이미지 SHA-256, 중간 결과를 합친 전체 아티팩트
+     */
+    @Transactional
+    public AppliedResult applySuccess(ClothResultMessage message, ClothArtifactPersister.PersistedArtifacts artifacts) {
+        Cloth cloth = getCloth(message.getClothId());
+
+        applyArtifacts(cloth, message, artifacts);
+        cloth.setCompletedStages(completedStagesOf(cloth));
+
+        if (cloth.getProcessingStatus() != ProcessingStatus.COMPLETED) {
+            cloth.setProcessingStatus(ProcessingStatus.READY_FOR_REVIEW);
+        }
+        cloth.setErrorMessage(null);
+        cloth.setCurrentStep("처리 완료");
+        cloth.setProgressPercentage(100);
+
+        ClothArtifactPersister.PersistedArtifacts merged = new ClothArtifactPersister.PersistedArtifacts(
+                cloth.getRemovedBgImageUrl(),
+                cloth.getSegmentedImageUrl(),
+                cloth.getInpaintedImageUrl(),
+                cloth.getAllSegmentedItemsJson(),
+                cloth.getAllExpandedItemsJson(),
+                cloth.getAdditionalItemsJson()
+        );
+        return new AppliedResult(cloth.getUser().getUserId(), cloth.getOriginalContentHash(), merged);
+    }
+
+    /**
+     * 실패 반영: FAILED
+     * - 처리 중에 먼저 확정(COMPLETED)된 옷은 이미 사용 중이므로 상태를 유지
+     *
+     * @return 옷 소유자 userId
+     */
+    @Transactional
+    public Long applyFailure(Long clothId, String errorMessage, String currentStep) {
+        Cloth cloth = getCloth(clothId);
+
+        if (cloth.getProcessingStatus() == ProcessingStatus.COMPLETED) {
+            log.warn("[ResultWriter][{}] Processing failed after early confirmation, keeping COMPLETED: {}",
+                    clothId, errorMessage);
+            return cloth.getUser().getUserId();
+        }
+
+        cloth.setProcessingStatus(ProcessingStatus.FAILED);
+        cloth.setErrorMessage(errorMessage);
+        cloth.setCurrentStep(currentStep);
+        cloth.setProgressPercentage(0);
+
+        return cloth.getUser().getUserId();
+    }
+
+    /**
+     * 저장된 이미지 URL, 추천 카테고리, 아이템 JSON 반영 (없는 값은 기존 값 유지)
+     */
+    private void applyArtifacts(Cloth cloth, ClothResultMessage message,
+                                ClothArtifactPersister.PersistedArtifacts artifacts) {
+        if (artifacts.removedBgUrl() != null) {
+            cloth.setRemovedBgImageUrl(artifacts.removedBgUrl());
+        }
+        if (artifacts.segmentedUrl() != null) {
+            cloth.setSegmentedImageUrl(artifacts.segmentedUrl());
+        }
+        if (artifacts.inpaintedUrl() != null) {
+            cloth.setInpaintedImageUrl(artifacts.inpaintedUrl());
+        }
+
+        if (message.getSuggestedCategory() != null) {
+            try {
+                cloth.setSuggestedCategory(Category.valueOf(message.getSuggestedCategory()));
+            } catch (IllegalArgumentException e) {
+                log.warn("[ResultWriter][{}] Invalid category: {}, setting to null",
+                        cloth.getId(), message.getSuggestedCategory());
+                cloth.setSuggestedCategory(null);
+            }
+        }
+        if (message.getSegmentationLabel() != null) {
+            cloth.setSegmentationLabel(message.getSegmentationLabel());
+        }
+
+        if (artifacts.segmentedItemsJson() != null) {
+            cloth.setAllSegmentedItemsJson(artifacts.segmentedItemsJson());
+        }
+        if (artifacts.expandedItemsJson() != null) {
+            cloth.setAllExpandedItemsJson(artifacts.expandedItemsJson());
+        }
+        if (artifacts.additionalItemsJson() != null) {
+            cloth.setAdditionalItemsJson(artifacts.additionalItemsJson());
+        }
+    }
+
+    private static boolean acceptsStage(Cloth cloth, ProcessingStage stage) {
+        ProcessingStatus status = cloth.getProcessingStatus();
+        return (status == ProcessingStatus.PROCESSING || status == ProcessingStatus.COMPLETED)
+                && !stage.isIn(cloth.getCompletedStages());
+    }
+
+    /**
+     * 반영된 이미지 기준 완료 단계 (최종 결과 반영 후, 지문 재사용 시에도 사용)
+     */
+    static int completedStagesOf(Cloth cloth) {
+        int mask = cloth.getCompletedStages() != null ? cloth.getCompletedStages() : 0;
+        if (cloth.getRemovedBgImageUrl() != null) {
+            mask = ProcessingStage.REMOVED_BG.addTo(mask);
+        }
+        if (cloth.getSegmentedImageUrl() != null) {
+            mask = ProcessingStage.SEGMENTED.addTo(mask);
+        }
+        if (cloth.getInpaintedImageUrl() != null) {
+            mask = ProcessingStage.INPAINTED.addTo(mask);
+        }
+        if (cloth.getAllExpandedItemsJson() != null) {
+            mask = ProcessingStage.EXPANDED.addTo(mask);
+        }
+        return mask;
+    }
+
+    private Cloth getCloth(Long clothId) {
+        return clothRepository.findById(clothId)
+                .orElseThrow(() -> new IllegalStateException("Cloth not found: " + clothId));
+    }
+
+    /**
+     * 성공 결과 반영 후 알림/지문 등록에 필요한 값
+     *
+     * @param userId 옷 소유자 ID
+     * @param originalContentHash 원본 이미지 SHA-256
+     * @param artifacts 단계별 중간 결과를 포함한 전체 아티팩트 (썸네일/지문 등록용)
+     */
+    public record AppliedResult(Long userId, String originalContentHash,
+                                ClothArtifactPersister.PersistedArtifacts artifacts) {}
+}
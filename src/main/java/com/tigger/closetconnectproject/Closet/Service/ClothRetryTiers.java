@@ -0,0 +1,68 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실패 메시지 지연 재시도 단계 정보 (cloth.retry.{delay}ms)
+ * - 단계별 TTL 큐: 만료되면 기본 익스체인지로 dead-letter → 원래 큐로 재전달
+ * - retry 익스체인지는 headers 타입: x-retry-tier 헤더로 단계 큐를 고르고, 라우팅 키(원래 큐 이름)는 그대로 유지
+ * - 모든 단계를 소진하면 cloth.dlx → cloth.dead-letter.queue
+ */
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class ClothRetryTiers {
+
+    /**
+     * 단계별 지연 시간 (ms, 오름차순)
+     */
+    @Value("${rabbitmq.retry.delays-ms:5000,30000,300000}")
+    private long[] delaysMs = {5000, 30000, 300000};
+
+    @Value("${rabbitmq.retry.exchange:cloth.retry.exchange}")
+    private String exchange = "cloth.retry.exchange";
+
+    @Value("${rabbitmq.retry.queue-prefix:cloth.retry.}")
+    private String queuePrefix = "cloth.retry.";
+
+    @Value("${rabbitmq.dead-letter.exchange:cloth.dlx}")
+    private String deadLetterExchange = "cloth.dlx";
+
+    @Value("${rabbitmq.dead-letter.queue:cloth.dead-letter.queue}")
+    private String deadLetterQueue = "cloth.dead-letter.queue";
+
+    public int getTierCount() {
+        return delaysMs.length;
+    }
+
+    public long delayMs(int tier) {
+        return delaysMs[tier];
+    }
+
+    /**
+     * 단계 큐 이름 (예: cloth.retry.5000ms)
+     */
+    public String queueName(int tier) {
+        return queuePrefix + delaysMs[tier] + "ms";
+    }
+
+    /**
+     * 단계 큐 바인딩에 사용하는 x-retry-tier 헤더 값
+     */
+    public String tierHeaderValue(int tier) {
+        return String.valueOf(delaysMs[tier]);
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getDeadLetterExchange() {
+        return deadLetterExchange;
+    }
+
+    public String getDeadLetterQueue() {
+        return deadLetterQueue;
+    }
+}
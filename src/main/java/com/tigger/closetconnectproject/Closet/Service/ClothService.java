@@ -3,13 +3,18 @@ package com.tigger.closetconnectproject.Closet.Service;
 import com.tigger.closetconnectproject.Closet.Dto.*;
 import com.tigger.closetconnectproject.Closet.Entity.Category;
 import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
 import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Event.ClothBatchUploadedEvent;
 import com.tigger.closetconnectproject.Closet.Event.ClothUploadedEvent;
 import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Util.HammingBkTree;
+import com.tigger.closetconnectproject.Closet.Util.PerceptualHash;
 import com.tigger.closetconnectproject.User.Entity.Users;
 import com.tigger.closetconnectproject.User.Repository.UsersRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -29,8 +34,20 @@ public class ClothService {
     private final UsersRepository usersRepository;
     private final ImageStorageService imageStorageService;
     private final ApplicationEventPublisher eventPublisher;
+    private final ClothFingerprintService fingerprintService;
+    private final ClothSimilarityIndex similarityIndex;
+    private final ImageDerivativeService derivativeService;
+    private final ClothOutboxService outboxService;
+    private final ClothStatusCache statusCache;
+    private final ClothAdmissionController admissionController;
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
+    @Value("${cloth.similarity.max-distance:10}")
+    private int similarityMaxDistance;
+
+    @Value("${cloth.similarity.max-results:10}")
+    private int similarityMaxResults;
+
     @Transactional
     public ClothResponse create(Long userId, ClothCreateRequest req) {
         Users owner = usersRepository.findById(userId)
@@ -49,7 +66,10 @@ public class ClothService {
 
     /**
      * 이미지 업로드와 함께 옷 생성 (비동기 처리)
-     * - 원본 이미지 즉시 저장
+     * - 원본 이미지 즉시 저장 (SHA-256 계산)
+     * - 이미 처리된 적 있는 이미지면 이전 결과를 연결하고 READY_FOR_REVIEW로 반환
+     * - 원본 지각 해시로 옷장의 유사 아이템을 함께 반환
+     * - 처리 대기열이 한도를 넘으면 원본 저장 전에 429 거절 (ClothAdmissionController), 허용 시 예상 완료 시각 반환
      * - 비동기 파이프라인 시작 (rembg → segmentation → inpainting)
      * - PROCESSING 상태로 즉시 응답 반환
      *
@@ -66,6 +86,9 @@ public class ClothService {
         Users owner = usersRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
 
+        // 대기열/처리량 기준 허용 여부 판단 (거절 시 429 + Retry-After, 원본을 저장하지 않음)
+        ClothAdmissionController.Admission admission = admissionController.admit(userId);
+
         // 2. Cloth 엔티티 생성 (category=null, processingStatus=PROCESSING)
         Cloth cloth = Cloth.builder()
                 .user(owner)
@@ -77,21 +100,43 @@ public class ClothService {
         Long clothId = savedCloth.getId();
 
         try {
-            // 3. 원본 이미지 즉시 저장
-            String originalImageUrl = imageStorageService.saveOriginalImage(imageFile, clothId);
-            savedCloth.setOriginalImageUrl(originalImageUrl);
+            // 3. 원본 이미지 즉시 저장 (스트리밍 저장 + SHA-256 계산)
+            ImageStorageService.StoredImage original = imageStorageService.storeOriginalImage(imageFile, clothId);
+            savedCloth.setOriginalImageUrl(original.url());
+            savedCloth.setOriginalContentHash(original.sha256());
+            savedCloth.setOriginalPerceptualHash(computePerceptualHash(clothId, original.url()));
             clothRepository.save(savedCloth);
             clothRepository.flush();  // 트랜잭션 커밋 전에 DB에 즉시 반영
-            log.info("[{}] Original image saved: {}", clothId, originalImageUrl);
+            log.info("[{}] Original image saved: {}", clothId, original.url());
+            derivativeService.generateAsync(original.url());
+
+            // 옷장에 이미 비슷한 옷이 있는지 (다른 크롭으로 다시 찍은 사진 등)
+            java.util.List<SimilarClothResponse> similarItems = findSimilarInCloset(
+                    userId, clothId, java.util.Collections.singletonList(savedCloth.getOriginalPerceptualHash()));
+
+            // 4. 같은 이미지의 이전 처리 결과가 있으면 재사용 (AI 파이프라인 생략, READY_FOR_REVIEW)
+            if (fingerprintService.reuseIfKnown(savedCloth)) {
+                log.info("[{}] Duplicate image, pipeline skipped", clothId);
+                derivativeService.generateAsync(getDisplayImageUrl(savedCloth));
+                return toDto(savedCloth, similarItems);
+            }
 
-            // 4. 이벤트 발행 (트랜잭션 커밋 후 비동기 처리 시작)
-            byte[] imageBytes = imageFile.getBytes();
+            // 5. 처리 요청을 outbox에 기록 (Cloth와 같은 트랜잭션) + 이벤트 발행 (커밋 후 relay 깨우기)
             String imageType = req.getImageType() != null ? req.getImageType().name() : "FULL_BODY";
-            eventPublisher.publishEvent(new ClothUploadedEvent(this, clothId, userId, imageBytes, imageFile.getOriginalFilename(), imageType));
+            outboxService.enqueue(clothId, userId, original, imageFile.getOriginalFilename(), imageType);
+            eventPublisher.publishEvent(new ClothUploadedEvent(
+                    this, clothId, userId, imageFile.getOriginalFilename(), imageType));
             log.info("[{}] ClothUploadedEvent published for userId: {}, imageType: {}", clothId, userId, imageType);
 
-            // 5. 즉시 응답 반환 (PROCESSING 상태)
-            return toDto(savedCloth);
+            // 6. 즉시 응답 반환 (PROCESSING 상태 + 유사 아이템 + 예상 완료 시각)
+            return toDto(savedCloth, similarItems, admission.estimatedCompletionAt());
+
+        } catch (ResponseStatusException e) {
+            // 업로드 검증 실패(400 등)는 상태 코드를 유지한 채 전달
+            log.warn("[{}] Cloth upload rejected: {}", clothId, e.getReason());
+            imageStorageService.deleteImage(savedCloth.getOriginalImageUrl());
+            clothRepository.delete(savedCloth);
+            throw e;
 
         } catch (Exception e) {
             log.error("[{}] Failed to initiate cloth processing", clothId, e);
@@ -108,6 +153,125 @@ public class ClothService {
         }
     }
 
+    /**
+     * 일괄 업로드로 옷 여러 개 생성 (ClothBatchImportService가 원본을 임시 저장한 뒤 호출)
+     * - 사용자 조회, Cloth 행 저장, outbox 기록을 한 트랜잭션에서 처리
+     * - 임시 저장된 원본을 {clothId}{확장자}로 커밋, 같은 이미지의 이전 결과가 있으면 재사용
+     * - 커밋 후 relay를 한 번만 깨움 (ClothBatchUploadedEvent)
+     *
+     * @param userId 사용자 ID
+     * @param batchId 일괄 업로드 ID
+     * @param items 임시 저장된 원본 이미지 (업로드 순서)
+     * @param imageType 이미지 타입 (FULL_BODY / SINGLE_ITEM)
+     * @return 생성된 옷 ID와 재사용 건수
+     */
+    @Transactional
+    public BatchResult createBatch(Long userId, String batchId, java.util.List<BatchItem> items, String imageType) {
+        Users owner = usersRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
+
+        java.util.List<Cloth> cloths = clothRepository.saveAll(items.stream()
+                .map(item -> Cloth.builder()
+                        .user(owner)
+                        .name(item.name())
+                        .processingStatus(ProcessingStatus.PROCESSING)
+                        .batchId(batchId)
+                        .build())
+                .toList());
+
+        java.util.List<String> committedUrls = new java.util.ArrayList<>();
+        java.util.List<Long> enqueuedIds = new java.util.ArrayList<>();
+        try {
+            for (int i = 0; i < cloths.size(); i++) {
+                Cloth cloth = cloths.get(i);
+                BatchItem item = items.get(i);
+
+                ImageStorageService.StoredImage original = imageStorageService.commitOriginalImage(
+                        item.staged(), cloth.getId(), item.extension(), item.sha256());
+                committedUrls.add(original.url());
+                cloth.setOriginalImageUrl(original.url());
+                cloth.setOriginalContentHash(original.sha256());
+                cloth.setOriginalPerceptualHash(computePerceptualHash(cloth.getId(), original.url()));
+                derivativeService.generateAsync(original.url());
+
+                if (fingerprintService.reuseIfKnown(cloth)) {
+                    derivativeService.generateAsync(getDisplayImageUrl(cloth));
+                    continue;
+                }
+                outboxService.enqueue(cloth.getId(), userId, original, item.originalFilename(), imageType);
+                enqueuedIds.add(cloth.getId());
+            }
+            clothRepository.flush();
+        } catch (Exception e) {
+            log.error("[Batch {}] Failed to initiate cloth processing", batchId, e);
+
+            // 롤백: 커밋된 원본 삭제 (Cloth/outbox 행은 트랜잭션 롤백)
+            committedUrls.forEach(imageStorageService::deleteImage);
+
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "일괄 등록 실패: " + e.getMessage(),
+                    e
+            );
+        }
+
+        if (!enqueuedIds.isEmpty()) {
+            eventPublisher.publishEvent(new ClothBatchUploadedEvent(this, batchId, userId, enqueuedIds));
+        }
+        log.info("[Batch {}] {} clothes created for userId: {} ({} enqueued, imageType: {})",
+                batchId, cloths.size(), userId, enqueuedIds.size(), imageType);
+
+        return new BatchResult(cloths.stream().map(Cloth::getId).toList(), cloths.size() - enqueuedIds.size());
+    }
+
+    /**
+     * 일괄 업로드 진행 상황 조회
+     * - 처리 중인 옷의 진행률은 상태 캐시(진행도 메시지로 갱신)에서, 처리가 끝난 옷은 100
+     *
+     * @param userId 사용자 ID
+     * @param batchId 일괄 업로드 ID
+     * @return 상태별 건수와 전체 진행률
+     */
+    @Transactional(readOnly = true)
+    public ClothBatchStatusResponse getBatchStatus(Long userId, String batchId) {
+        java.util.List<Object[]> rows = clothRepository.findBatchStatuses(userId, batchId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("일괄 업로드를 찾을 수 없습니다.");
+        }
+
+        java.util.Map<ProcessingStatus, Integer> counts = new java.util.EnumMap<>(ProcessingStatus.class);
+        java.util.List<ClothBatchStatusResponse.Item> items = new java.util.ArrayList<>(rows.size());
+        long progressSum = 0;
+        for (Object[] row : rows) {
+            Long clothId = (Long) row[0];
+            ProcessingStatus status = (ProcessingStatus) row[1];
+            counts.merge(status, 1, Integer::sum);
+
+            int progress = 100;
+            if (status == ProcessingStatus.PROCESSING) {
+                ClothStatusCache.Entry cached = statusCache.get(clothId);
+                progress = cached != null && cached.status().processingStatus() == ProcessingStatus.PROCESSING
+                        && cached.status().progressPercentage() != null
+                        ? cached.status().progressPercentage() : 0;
+            }
+            progressSum += progress;
+            items.add(new ClothBatchStatusResponse.Item(clothId, status, progress));
+        }
+
+        int processing = counts.getOrDefault(ProcessingStatus.PROCESSING, 0);
+        return new ClothBatchStatusResponse(
+                batchId,
+                rows.size(),
+                processing,
+                counts.getOrDefault(ProcessingStatus.READY_FOR_REVIEW, 0),
+                counts.getOrDefault(ProcessingStatus.COMPLETED, 0),
+                counts.getOrDefault(ProcessingStatus.FAILED, 0),
+                (int) (progressSum / rows.size()),
+                processing == 0,
+                items
+        );
+    }
+
     /**
      * 처리 상태 조회
      *
@@ -131,14 +295,38 @@ public class ClothService {
                 cloth.getProgressPercentage(),
                 cloth.getSuggestedCategory(),
                 cloth.getSegmentationLabel(),
+                cloth.getRemovedBgImageUrl(),
                 cloth.getSegmentedImageUrl(),
                 cloth.getInpaintedImageUrl(),
-                cloth.getErrorMessage()
+                cloth.getErrorMessage(),
+                ProcessingStage.fromMask(cloth.getCompletedStages())
         );
     }
 
+    /**
+     * 원본 이미지 조회 (AI 워커 내부용, claim-check)
+     *
+     * @param clothId 옷 ID
+     * @return 원본 이미지 URL, SHA-256, 크기
+     */
+    @Transactional(readOnly = true)
+    public ImageStorageService.StoredImage getOriginalImageRef(Long clothId) {
+        Cloth cloth = clothRepository.findById(clothId)
+                .orElseThrow(() -> new IllegalArgumentException("아이템을 찾을 수 없습니다."));
+
+        if (cloth.getOriginalImageUrl() == null) {
+            throw new IllegalArgumentException("원본 이미지가 존재하지 않습니다.");
+        }
+
+        long size = imageStorageService.localCopyOf(cloth.getOriginalImageUrl()).toFile().length();
+        return new ImageStorageService.StoredImage(cloth.getOriginalImageUrl(), cloth.getOriginalContentHash(), size);
+    }
+
     /**
      * 카테고리 확인 (AI 제안 후 사용자 확인/수정) - OK 선택
+     * - 처리 중이어도 단계별 중간 결과가 하나 이상 반영되었으면 먼저 확정 가능
+     *   - 반영된 단계가 없으면(원본만 있음) 거부
+     *   - 이후 도착하는 결과 이미지는 저장되지만 COMPLETED 상태는 유지
      *
      * @param userId 사용자 ID
      * @param clothId 옷 ID
@@ -154,8 +342,12 @@ public class ClothService {
             throw new AccessDeniedException("본인 소유가 아닙니다.");
         }
 
-        if (cloth.getProcessingStatus() != ProcessingStatus.READY_FOR_REVIEW) {
-            throw new IllegalStateException("처리가 완료되지 않았습니다. 현재 상태: " + cloth.getProcessingStatus());
+        ProcessingStatus status = cloth.getProcessingStatus();
+        if (status != ProcessingStatus.READY_FOR_REVIEW && status != ProcessingStatus.PROCESSING) {
+            throw new IllegalStateException("확인할 수 없는 상태입니다. 현재 상태: " + status);
+        }
+        if (status == ProcessingStatus.PROCESSING && ProcessingStage.fromMask(cloth.getCompletedStages()).isEmpty()) {
+            throw new IllegalStateException("아직 반영된 처리 결과가 없습니다. 처리 단계가 끝난 뒤 다시 시도해주세요.");
         }
 
         // 사용자가 확인한 카테고리 설정 (AI 제안 또는 사용자 수정)
@@ -174,12 +366,15 @@ public class ClothService {
         }
 
         cloth.setImageUrl(selectedImageUrl);
+        cloth.setImagePerceptualHash(perceptualHashOfSelected(cloth, selectedImageUrl));
 
         // 상태를 COMPLETED로 변경
         cloth.setProcessingStatus(ProcessingStatus.COMPLETED);
+        statusCache.invalidate(clothId);
 
-        log.info("[{}] Category confirmed: {}, selected image: {}, status: COMPLETED",
-                clothId, req.category(), req.selectedImageType());
+        log.info("[{}] Category confirmed: {}, selected image: {}, status: COMPLETED{}",
+                clothId, req.category(), req.selectedImageType(),
+                status == ProcessingStatus.PROCESSING ? " (before processing finished)" : "");
 
         return toDto(cloth);
     }
@@ -207,6 +402,10 @@ public class ClothService {
 
         // DB에서 삭제
         clothRepository.delete(cloth);
+        statusCache.invalidate(clothId);
+        if (Boolean.TRUE.equals(cloth.getConfirmed())) {
+            similarityIndex.invalidate(userId);
+        }
 
         log.info("[{}] Cloth rejected and deleted by user", clothId);
     }
@@ -238,6 +437,30 @@ public class ClothService {
             throw new AccessDeniedException("본인 소유가 아닙니다.");
         }
         clothRepository.delete(c);
+        statusCache.invalidate(clothId);
+        if (Boolean.TRUE.equals(c.getConfirmed())) {
+            similarityIndex.invalidate(userId);
+        }
+    }
+
+    /**
+     * 옷장의 유사 아이템 조회 (지각 해시 해밍 거리)
+     * - 원본/최종 이미지 해시 중 더 가까운 거리 기준, 거리 오름차순
+     *
+     * @param userId 사용자 ID
+     * @param clothId 기준 옷 ID
+     * @return 유사 아이템 목록 (자기 자신 제외)
+     */
+    @Transactional(readOnly = true)
+    public java.util.List<SimilarClothResponse> findSimilar(Long userId, Long clothId) {
+        Cloth cloth = clothRepository.findById(clothId)
+                .orElseThrow(() -> new IllegalArgumentException("아이템을 찾을 수 없습니다."));
+        if (!cloth.getUser().getUserId().equals(userId)) {
+            throw new AccessDeniedException("본인 소유가 아닙니다.");
+        }
+
+        return findSimilarInCloset(userId, clothId,
+                java.util.Arrays.asList(cloth.getOriginalPerceptualHash(), cloth.getImagePerceptualHash()));
     }
 
     /**
@@ -279,6 +502,7 @@ public class ClothService {
         }
 
         cloth.setImageUrl(selectedImageUrl);
+        cloth.setImagePerceptualHash(perceptualHashOfSelected(cloth, selectedImageUrl));
 
         // 카테고리 업데이트 (선택적)
         if (request.category() != null) {
@@ -292,6 +516,8 @@ public class ClothService {
         cloth.setConfirmed(true);
 
         Cloth saved = clothRepository.save(cloth);
+        statusCache.invalidate(clothId);
+        similarityIndex.add(userId, clothId, cloth.getOriginalPerceptualHash(), cloth.getImagePerceptualHash());
 
         log.info("[{}] Cloth confirmed by user: imageType={}, category={}",
                 clothId, request.selectedImageType(), cloth.getCategory());
@@ -299,6 +525,60 @@ public class ClothService {
         return toDto(saved);
     }
 
+    /**
+     * 옷장의 유사 아이템 조회 (사용자별 인메모리 인덱스)
+     */
+    private java.util.List<SimilarClothResponse> findSimilarInCloset(
+            Long userId, Long excludeClothId, java.util.List<Long> hashes) {
+        java.util.List<Long> validHashes = hashes.stream().filter(java.util.Objects::nonNull).toList();
+        if (validHashes.isEmpty()) {
+            return java.util.List.of();
+        }
+
+        java.util.List<HammingBkTree.Match> matches = similarityIndex.findSimilar(
+                userId, validHashes, excludeClothId, similarityMaxDistance, similarityMaxResults);
+        if (matches.isEmpty()) {
+            return java.util.List.of();
+        }
+
+        java.util.Map<Long, Cloth> clothes = new java.util.HashMap<>();
+        clothRepository.findAllById(matches.stream().map(HammingBkTree.Match::id).toList())
+                .forEach(c -> clothes.put(c.getId(), c));
+
+        // 인덱스가 갱신되기 전에 삭제된 옷은 제외
+        return matches.stream()
+                .filter(match -> clothes.containsKey(match.id()))
+                .map(match -> {
+                    Cloth c = clothes.get(match.id());
+                    return new SimilarClothResponse(
+                            c.getId(), c.getName(), c.getCategory(),
+                            derivativeService.thumbnailUrl(getDisplayImageUrl(c)), match.distance());
+                })
+                .toList();
+    }
+
+    /**
+     * 선택한 최종 이미지의 지각 해시 (원본을 선택했으면 원본 해시 재사용)
+     */
+    private Long perceptualHashOfSelected(Cloth cloth, String selectedImageUrl) {
+        if (selectedImageUrl.equals(cloth.getOriginalImageUrl()) && cloth.getOriginalPerceptualHash() != null) {
+            return cloth.getOriginalPerceptualHash();
+        }
+        return computePerceptualHash(cloth.getId(), selectedImageUrl);
+    }
+
+    /**
+     * 저장된 이미지의 지각 해시 계산 (실패 시 null - 유사 아이템 검색에서만 제외)
+     */
+    private Long computePerceptualHash(Long clothId, String imageUrl) {
+        try {
+            return PerceptualHash.dHash(imageStorageService.localCopyOf(imageUrl));
+        } catch (Exception e) {
+            log.warn("[{}] Failed to compute perceptual hash for {}: {}", clothId, imageUrl, e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * JSON 문자열을 파싱하여 리스트로 변환하는 범용 메서드
      *
@@ -381,6 +661,15 @@ public class ClothService {
     }
 
     private ClothResponse toDto(Cloth c) {
+        return toDto(c, null);
+    }
+
+    private ClothResponse toDto(Cloth c, java.util.List<SimilarClothResponse> similarItems) {
+        return toDto(c, similarItems, null);
+    }
+
+    private ClothResponse toDto(Cloth c, java.util.List<SimilarClothResponse> similarItems,
+                                java.time.Instant estimatedCompletionAt) {
         // 이미지 우선순위: imageUrl > inpaintedImageUrl > segmentedImageUrl > originalImageUrl
         String displayImageUrl = getDisplayImageUrl(c);
 
@@ -395,6 +684,7 @@ public class ClothService {
                 c.getName(),
                 c.getCategory(),
                 displayImageUrl,  // 화면에 표시할 이미지
+                derivativeService.thumbnailUrl(displayImageUrl),  // 목록용 썸네일
                 c.getOriginalImageUrl(),
                 c.getRemovedBgImageUrl(),
                 c.getSegmentedImageUrl(),
@@ -405,7 +695,9 @@ public class ClothService {
                 c.getErrorMessage(),
                 additionalItems,  // 추가 아이템 (deprecated)
                 allSegmentedItems,  // 모든 세그먼트된 아이템 (크기순)
-                allExpandedItems  // 모든 Gemini 확장된 아이템 (크기순)
+                allExpandedItems,  // 모든 Gemini 확장된 아이템 (크기순)
+                similarItems,  // 옷장의 유사 아이템 (업로드 응답에서만)
+                estimatedCompletionAt  // 예상 완료 시각 (업로드 응답에서만)
         );
     }
 
@@ -451,5 +743,24 @@ public class ClothService {
 
         return originalUrl;  // null일 수 있음 (프론트엔드에서 placeholder 처리)
     }
-}
 
+    /**
+     * 일괄 업로드 항목 (임시 저장된 원본)
+     *
+     * @param name 옷 이름 (파일명에서 확장자를 뺀 값)
+     * @param originalFilename 업로드 파일명 또는 zip 항목 이름
+     * @param extension 확장자 (".png" 형식)
+     * @param staged 임시 저장된 원본 이미지
+     * @param sha256 원본 SHA-256 (hex)
+     */
+    public record BatchItem(String name, String originalFilename, String extension,
+                            ImageStorageService.StagedImage staged, String sha256) {}
+
+    /**
+     * 일괄 생성 결과
+     *
+     * @param clothIds 생성된 옷 ID (항목 순서)
+     * @param reusedCount 이전 처리 결과를 재사용한 옷 수 (파이프라인 생략)
+     */
+    public record BatchResult(java.util.List<Long> clothIds, int reusedCount) {}
+}
@@ -0,0 +1,139 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Util.HammingBkTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자별 유사 아이템 인메모리 인덱스 (지각 해시 BK-tree)
+ * - 옷장에 확정된 옷의 원본/최종 이미지 해시를 사용자 단위로 인덱싱
+ * - 처음 조회할 때 DB에서 해시만 읽어 구성 (lazy)
+ * - SoftReference로 보관하여 메모리가 부족하면 GC가 회수 → 다음 조회 시 재구성
+ * - 옷이 삭제되면 해당 사용자 인덱스를 무효화 (BK-tree는 삭제를 지원하지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClothSimilarityIndex {
+
+    private final ClothRepository clothRepository;
+
+    private final Map<Long, SoftReference<HammingBkTree>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 유사 아이템 조회
+     *
+     * @param userId         사용자 ID
+     * @param hashes         조회할 해시들 (원본/최종 이미지)
+     * @param excludeClothId 결과에서 제외할 옷 ID (자기 자신, null 가능)
+     * @param maxDistance    최대 해밍 거리
+     * @param limit          최대 결과 수
+     * @return 옷 ID → 최소 거리 (거리 오름차순)
+     */
+    public List<HammingBkTree.Match> findSimilar(Long userId, Collection<Long> hashes, Long excludeClothId,
+                                                 int maxDistance, int limit) {
+        if (hashes.isEmpty()) {
+            return List.of();
+        }
+
+        HammingBkTree tree = getOrLoad(userId);
+        Map<Long, Integer> best = new HashMap<>();
+        synchronized (tree) {
+            for (Long hash : hashes) {
+                for (HammingBkTree.Match match : tree.search(hash, maxDistance)) {
+                    if (excludeClothId != null && match.id() == excludeClothId) {
+                        continue;
+                    }
+                    best.merge(match.id(), match.distance(), Math::min);
+                }
+            }
+        }
+
+        List<HammingBkTree.Match> results = new ArrayList<>(best.size());
+        best.forEach((id, distance) -> results.add(new HammingBkTree.Match(id, distance)));
+        results.sort(Comparator.comparingInt(HammingBkTree.Match::distance));
+        return results.size() > limit ? results.subList(0, limit) : results;
+    }
+
+    /**
+     * 옷장에 확정된 옷 추가 (인덱스가 로드되어 있을 때만, 아니면 다음 로드 시 DB에서 읽음)
+     */
+    public void add(Long userId, Long clothId, Long... hashes) {
+        SoftReference<HammingBkTree> ref = indexes.get(userId);
+        HammingBkTree tree = ref != null ? ref.get() : null;
+        if (tree == null) {
+            return;
+        }
+        synchronized (tree) {
+            for (Long hash : hashes) {
+                if (hash != null) {
+                    tree.add(hash, clothId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 사용자 인덱스 무효화 (옷 삭제 시)
+     */
+    public void invalidate(Long userId) {
+        indexes.remove(userId);
+    }
+
+    /**
+     * GC로 회수된 인덱스의 빈 참조 정리
+     */
+    @Scheduled(fixedDelayString = "${cloth.similarity.cleanup-interval-ms:300000}")
+    public void purgeCollected() {
+        indexes.values().removeIf(ref -> ref.get() == null);
+    }
+
+    public int getLoadedUserCount() {
+        return (int) indexes.values().stream().filter(ref -> ref.get() != null).count();
+    }
+
+    private HammingBkTree getOrLoad(Long userId) {
+        SoftReference<HammingBkTree> ref = indexes.get(userId);
+        HammingBkTree tree = ref != null ? ref.get() : null;
+        if (tree != null) {
+            return tree;
+        }
+
+        HammingBkTree loaded = load(userId);
+        SoftReference<HammingBkTree> loadedRef = new SoftReference<>(loaded);
+        // 동시에 로드한 스레드가 있으면 먼저 등록된 인덱스 사용
+        SoftReference<HammingBkTree> current = indexes.merge(userId, loadedRef,
+                (existing, candidate) -> existing.get() != null ? existing : candidate);
+        HammingBkTree winner = current.get();
+        return winner != null ? winner : loaded;
+    }
+
+    private HammingBkTree load(Long userId) {
+        long start = System.nanoTime();
+        HammingBkTree tree = new HammingBkTree();
+        for (Object[] row : clothRepository.findPerceptualHashesByUserId(userId)) {
+            long clothId = (Long) row[0];
+            if (row[1] != null) {
+                tree.add((Long) row[1], clothId);
+            }
+            if (row[2] != null) {
+                tree.add((Long) row[2], clothId);
+            }
+        }
+        log.debug("Similarity index loaded for userId={} ({} hashes, {} µs)",
+                userId, tree.size(), (System.nanoTime() - start) / 1_000);
+        return tree;
+    }
+}
@@ -0,0 +1,226 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothStatusResponse;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 옷 처리 상태 인메모리 캐시 (폴링용)
+ * - GET /api/v1/cloth/{id}/status가 캐시에 있으면 DB를 거치지 않음 (미스일 때만 ClothService에서 로드)
+ * - 진행도 메시지(ClothProgressConsumer, LocalClothPipeline)로 write-through 갱신
+ *   (진행도는 DB에 저장되지 않으므로 캐시 값이 DB보다 최신)
+ * - 결과 반영/확정/거부/삭제 시 무효화 → 다음 조회에서 DB 값으로 다시 채움
+ * - 최대 max-entries개 (LRU), 옷 ID 단위 ETag 제공, 변경 시 대기 중인 long-poll 요청을 깨움
+ * - 메트릭: cloth.status.cache.size, cloth.status.cache{result=hit|miss}
+ */
+@Component
+public class ClothStatusCache {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+
+    /**
+     * clothId → 캐시 항목 (접근 순서 LRU)
+     */
+    private final LinkedHashMap<Long, Entry> entries;
+
+    /**
+     * clothId → 다음 변경 시 완료되는 신호 (long-poll 대기)
+     */
+    private final Map<Long, List<CompletableFuture<Void>>> waiters = new HashMap<>();
+
+    /**
+     * 무효화할 때마다 증가 (로드 도중 무효화된 값을 캐시에 넣지 않기 위함)
+     */
+    private long invalidations;
+
+    public ClothStatusCache(MeterRegistry meterRegistry,
+                            @Value("${cloth.status-cache.max-entries:10000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > ClothStatusCache.this.maxEntries;
+            }
+        };
+        Gauge.builder("cloth.status.cache.size", this, ClothStatusCache::size)
+                .description("Cached cloth processing statuses")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시 조회
+     *
+     * @param clothId 옷 ID
+     * @return 캐시 항목 (없으면 null)
+     */
+    public synchronized Entry get(Long clothId) {
+        Entry entry = entries.get(clothId);
+        meterRegistry.counter("cloth.status.cache", "result", entry != null ? "hit" : "miss").increment();
+        return entry;
+    }
+
+    /**
+     * DB 로드 시작 시점 기록 ({@link #fill}에 전달)
+     */
+    public synchronized long loadStamp() {
+        return invalidations;
+    }
+
+    /**
+     * DB에서 읽은 상태로 캐시 채우기
+     * - 로드하는 사이 무효화되었으면 캐시에 넣지 않음, 다른 요청이 먼저 채웠으면 그 항목 사용
+     *
+     * @param ownerId   소유자 ID
+     * @param status    DB 상태
+     * @param loadStamp 로드 전에 받은 {@link #loadStamp()}
+     * @return 캐시 항목 (캐시에 넣지 않았어도 응답에 쓸 수 있는 항목)
+     */
+    public synchronized Entry fill(Long ownerId, ClothStatusResponse status, long loadStamp) {
+        Entry current = entries.get(status.id());
+        if (current != null) {
+            return current;
+        }
+        Entry entry = Entry.of(ownerId, status);
+        if (loadStamp == invalidations) {
+            entries.put(status.id(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 진행도 반영 (write-through)
+     * - 캐시에 있는 항목만 갱신 (없으면 다음 조회 시 DB에서 로드)
+     * - 완료/실패 상태는 뒤늦게 도착한 중간 진행도로 덮어쓰지 않음
+     */
+    public void applyProgress(Long clothId, ProcessingStatus status, String currentStep, Integer progressPercentage) {
+        complete(updateProgress(clothId, status, currentStep, progressPercentage));
+    }
+
+    private synchronized List<CompletableFuture<Void>> updateProgress(Long clothId, ProcessingStatus status,
+                                                                      String currentStep, Integer progressPercentage) {
+        Entry current = entries.get(clothId);
+        if (current == null || (isTerminal(current.status().processingStatus()) && !isTerminal(status))) {
+            return List.of();
+        }
+        ClothStatusResponse previous = current.status();
+        ClothStatusResponse updated = new ClothStatusResponse(
+                previous.id(),
+                status != null ? status : previous.processingStatus(),
+                currentStep != null ? currentStep : previous.currentStep(),
+                progressPercentage != null ? progressPercentage : previous.progressPercentage(),
+                previous.suggestedCategory(),
+                previous.segmentationLabel(),
+                previous.removedBgImageUrl(),
+                previous.segmentedImageUrl(),
+                previous.inpaintedImageUrl(),
+                previous.errorMessage(),
+                previous.completedStages()
+        );
+        if (updated.equals(previous)) {
+            return List.of();
+        }
+        entries.put(clothId, Entry.of(current.ownerId(), updated));
+        return takeWaiters(clothId);
+    }
+
+    /**
+     * 캐시 무효화 (결과 반영, 확정, 거부, 삭제)
+     * - 트랜잭션 안에서 호출되면 커밋 후에도 한 번 더 무효화
+     *   (커밋 전에 다른 요청이 이전 값을 다시 채우는 경우 대비)
+     */
+    public void invalidate(Long clothId) {
+        evict(clothId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(clothId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 다음 변경 신호 (long-poll)
+     * - 진행도 반영 또는 무효화 시 완료됨
+     * - 대기를 그만두면 {@link #cancel}로 해제
+     */
+    public synchronized CompletableFuture<Void> nextChange(Long clothId) {
+        CompletableFuture<Void> signal = new CompletableFuture<>();
+        waiters.computeIfAbsent(clothId, id -> new ArrayList<>()).add(signal);
+        return signal;
+    }
+
+    /**
+     * 대기 해제 (타임아웃/연결 종료)
+     */
+    public synchronized void cancel(Long clothId, CompletableFuture<Void> signal) {
+        List<CompletableFuture<Void>> list = waiters.get(clothId);
+        if (list != null && list.remove(signal) && list.isEmpty()) {
+            waiters.remove(clothId);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict(Long clothId) {
+        List<CompletableFuture<Void>> signals;
+        synchronized (this) {
+            invalidations++;
+            entries.remove(clothId);
+            signals = takeWaiters(clothId);
+        }
+        complete(signals);
+    }
+
+    private List<CompletableFuture<Void>> takeWaiters(Long clothId) {
+        List<CompletableFuture<Void>> list = waiters.remove(clothId);
+        return list != null ? list : List.of();
+    }
+
+    /**
+     * 대기 신호 완료 (락 밖에서: 완료 콜백이 응답을 쓰므로)
+     */
+    private static void complete(List<CompletableFuture<Void>> signals) {
+        signals.forEach(signal -> signal.complete(null));
+    }
+
+    private static boolean isTerminal(ProcessingStatus status) {
+        return status == ProcessingStatus.READY_FOR_REVIEW
+                || status == ProcessingStatus.COMPLETED
+                || status == ProcessingStatus.FAILED;
+    }
+
+    /**
+     * 캐시 항목
+     *
+     * @param ownerId 소유자 ID (권한 확인용)
+     * @param status  상태 응답
+     * @param etag    상태 내용 기반 ETag (따옴표 포함)
+     */
+    public record Entry(Long ownerId, ClothStatusResponse status, String etag) {
+
+        static Entry of(Long ownerId, ClothStatusResponse status) {
+            String digest = DigestUtils.md5DigestAsHex(status.toString().getBytes(StandardCharsets.UTF_8));
+            return new Entry(ownerId, status, "\"" + digest + "\"");
+        }
+    }
+}
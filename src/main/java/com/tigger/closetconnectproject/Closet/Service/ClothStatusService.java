@@ -0,0 +1,98 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothStatusResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 옷 처리 상태 조회 (폴링/long-poll)
+ * - 캐시(ClothStatusCache)에 있으면 DB 없이 응답, 미스일 때만 ClothService에서 로드
+ * - 트랜잭션을 열지 않음 (캐시 히트 시 커넥션을 빌리지 않도록)
+ * - long-poll: 클라이언트가 가진 ETag와 다른 상태가 될 때까지 최대 max-wait 대기
+ */
+@Service
+public class ClothStatusService {
+
+    private final ClothStatusCache statusCache;
+    private final ClothService clothService;
+    private final Executor wakeExecutor;
+
+    /**
+     * long-poll 최대 대기 시간
+     */
+    @Value("${cloth.status-cache.max-wait-ms:30000}")
+    private long maxWaitMs = 30000;
+
+    public ClothStatusService(ClothStatusCache statusCache,
+                              ClothService clothService,
+                              @Qualifier("clothStatusWakeExecutor") Executor wakeExecutor) {
+        this.statusCache = statusCache;
+        this.clothService = clothService;
+        this.wakeExecutor = wakeExecutor;
+    }
+
+    /**
+     * 처리 상태 조회
+     *
+     * @param userId 사용자 ID
+     * @param clothId 옷 ID
+     * @return 상태와 ETag
+     */
+    public ClothStatusCache.Entry getStatus(Long userId, Long clothId) {
+        ClothStatusCache.Entry entry = statusCache.get(clothId);
+        if (entry == null) {
+            long stamp = statusCache.loadStamp();
+            // 소유자 확인 포함
+            ClothStatusResponse status = clothService.getStatus(userId, clothId);
+            return statusCache.fill(userId, status, stamp);
+        }
+        if (!entry.ownerId().equals(userId)) {
+            throw new AccessDeniedException("본인 소유가 아닙니다.");
+        }
+        return entry;
+    }
+
+    /**
+     * 상태가 바뀔 때까지 대기 (long-poll)
+     * - 현재 ETag가 knownEtag와 다르면 즉시 완료
+     * - 대기 시간 안에 바뀌지 않으면 현재 상태로 완료 (ETag가 같으므로 컨트롤러에서 304)
+     *
+     * @param userId 사용자 ID
+     * @param clothId 옷 ID
+     * @param knownEtag 클라이언트가 가진 ETag (If-None-Match)
+     * @param wait 요청한 대기 시간 (max-wait로 제한)
+     * @return 변경된(또는 현재) 상태
+     */
+    public CompletableFuture<ClothStatusCache.Entry> awaitChange(Long userId, Long clothId,
+                                                                 String knownEtag, Duration wait) {
+        // 변경 신호를 먼저 등록한 뒤 현재 상태 확인 (사이에 바뀐 경우를 놓치지 않음)
+        CompletableFuture<Void> signal = statusCache.nextChange(clothId);
+        ClothStatusCache.Entry current;
+        try {
+            current = getStatus(userId, clothId);
+        } catch (RuntimeException e) {
+            statusCache.cancel(clothId, signal);
+            throw e;
+        }
+        if (knownEtag == null || !knownEtag.equals(current.etag())) {
+            statusCache.cancel(clothId, signal);
+            return CompletableFuture.completedFuture(current);
+        }
+
+        long waitMs = Math.min(Math.max(wait.toMillis(), 0), maxWaitMs);
+        return signal.completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> statusCache.cancel(clothId, signal))
+                .thenApplyAsync(ignored -> getStatus(userId, clothId), wakeExecutor);
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+}
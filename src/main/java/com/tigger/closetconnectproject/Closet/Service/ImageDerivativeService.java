@@ -0,0 +1,152 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 다중 해상도 파생 이미지(썸네일) 관리
+ * - 이미지 저장 직후 설정된 모든 너비(image.derivative.widths)의 파생 이미지를 비동기로 생성
+ * - 아직 없는 파생 이미지는 첫 요청 시 동기로 생성 (지연 생성)
+ * - 같은 파생 이미지에 대한 동시 생성 요청은 하나로 합침
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private final ImageStorageService imageStorageService;
+    private final Executor derivativeExecutor;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${image.derivative.thumbnail-width:320}")
+    private int thumbnailWidth;
+
+    public ImageDerivativeService(ImageStorageService imageStorageService,
+                                  @Qualifier("imageDerivativeExecutor") Executor derivativeExecutor) {
+        this.imageStorageService = imageStorageService;
+        this.derivativeExecutor = derivativeExecutor;
+    }
+
+    /**
+     * 목록(그리드)용 썸네일 URL
+     * - 파일이 아직 없어도 URL은 확정적 (요청 시 지연 생성)
+     *
+     * @param imageUrl 원본 이미지 URL
+     * @return 썸네일 URL (이 서버에 저장된 이미지가 아니면 원본 URL, 원본이 null이면 null)
+     */
+    public String thumbnailUrl(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        String derivativeUrl = imageStorageService.derivativeUrl(imageUrl, thumbnailWidth);
+        return derivativeUrl != null ? derivativeUrl : imageUrl;
+    }
+
+    /**
+     * 모든 너비의 파생 이미지를 백그라운드에서 생성
+     * - Executor 큐가 가득 차면 건너뜀 (첫 요청 시 생성됨)
+     *
+     * @param imageUrl 방금 저장된 이미지 URL
+     */
+    public void generateAsync(String imageUrl) {
+        if (imageUrl == null || imageStorageService.derivativeUrl(imageUrl, thumbnailWidth) == null) {
+            return;
+        }
+        for (int width : imageStorageService.getDerivativeWidths()) {
+            String key = key(imageUrl, width);
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key, future) != null) {
+                continue;
+            }
+            try {
+                derivativeExecutor.execute(() -> generate(key, imageUrl, width, future));
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, future);
+                future.cancel(false);
+                log.debug("Derivative queue full, deferring to first request: {} ({}px)", imageUrl, width);
+            }
+        }
+    }
+
+    /**
+     * 파생 이미지 경로 반환 (없으면 호출 스레드에서 생성, 진행 중인 생성이 있으면 완료까지 대기)
+     *
+     * @param imageUrl 원본 이미지 URL
+     * @param width    파생 이미지 너비 (image.derivative.widths 중 하나)
+     * @return 파생 이미지 경로
+     * @throws IOException 생성 실패 시
+     */
+    public Path getOrCreate(String imageUrl, int width) throws IOException {
+        String derivativeUrl = imageStorageService.derivativeUrl(imageUrl, width);
+        if (derivativeUrl == null) {
+            throw new IOException("파생 이미지를 만들 수 없는 URL입니다: " + imageUrl);
+        }
+        Path existing = imageStorageService.resolvePath(derivativeUrl);
+        if (Files.isRegularFile(existing)) {
+            return existing;
+        }
+
+        String key = key(imageUrl, width);
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, future);
+        if (running == null) {
+            generate(key, imageUrl, width, future);
+            running = future;
+        }
+
+        try {
+            return running.join();
+        } catch (CancellationException e) {
+            // 비동기 제출이 거부되어 취소된 작업 - 직접 생성
+            return getOrCreate(imageUrl, width);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("파생 이미지 생성 실패: " + imageUrl, e.getCause());
+        }
+    }
+
+    /**
+     * 허용된 파생 이미지 너비인지 (임의 크기 생성 요청 차단)
+     */
+    public boolean isSupportedWidth(int width) {
+        for (int supported : imageStorageService.getDerivativeWidths()) {
+            if (supported == width) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate(String key, String imageUrl, int width, CompletableFuture<Path> future) {
+        try {
+            long start = System.nanoTime();
+            Path path = imageStorageService.createDerivative(imageUrl, width);
+            log.debug("Derivative created: {} ({}px, {} ms)", imageUrl, width, (System.nanoTime() - start) / 1_000_000);
+            future.complete(path);
+        } catch (Exception e) {
+            log.warn("Failed to create derivative: {} ({}px): {}", imageUrl, width, e.getMessage());
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static String key(String imageUrl, int width) {
+        return width + ":" + imageUrl;
+    }
+}
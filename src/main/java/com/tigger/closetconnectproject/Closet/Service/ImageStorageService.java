@@ -1,29 +1,60 @@
 package com.tigger.closetconnectproject.Closet.Service;
 
+import com.tigger.closetconnectproject.Closet.Util.ImageNormalizer;
+import com.tigger.closetconnectproject.Closet.Util.ImageResizer;
+import com.tigger.closetconnectproject.Common.Storage.BlobStore;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
 
 /**
  * 이미지 파일 저장 서비스
- * - 원본 이미지와 AI 처리된 이미지를 로컬 파일 시스템에 저장
+ * - 원본 이미지와 AI 처리된 이미지를 BlobStore(storage.backend)에 저장, 키 = /uploads/ 이후 경로
  * - 저장 경로: /uploads/{imageType}/{filename}
+ * - 로컬 저장소면 업로드 루트(app.upload.root)가 곧 저장소
+ * - 원격 저장소(S3)면 업로드 루트에 작업 사본을 함께 두고 (파이프라인, 파생 이미지 생성 등이 파일 경로로 읽음)
+ *   사본이 없으면(재시작, 다른 인스턴스) 저장소에서 내려받음
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class ImageStorageService {
 
-    @Value("${upload.dir:./uploads}")
+    private final BlobStore blobStore;
+
+    @Value("${app.upload.root:./uploads}")
     private String uploadBaseDir;
 
     @Value("${upload.base-url:/uploads}")
@@ -31,6 +62,54 @@ public class ImageStorageService {
 
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
 
+    private static final String STAGING_PREFIX = ".staging-";
+    private static final String STAGING_SUFFIX = ".part";
+    private static final int STAGING_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 파생 이미지(썸네일 등) 루트 디렉토리: /uploads/derived/{width}/{원본 상대 경로}
+     */
+    private static final String DERIVED_DIR = "derived";
+
+    @Value("${image.derivative.widths:96,320,800}")
+    private int[] derivativeWidths = {96, 320, 800};
+
+    /**
+     * 해시 샤딩 레이아웃: {type}/{ab}/{cd}/{filename} (ab/cd = 파일명 SHA-256 앞 4자리)
+     * - 한 디렉토리에 수십만 개 파일이 쌓이지 않도록 분산
+     * - false면 기존 평면 레이아웃 {type}/{filename}
+     * - 읽기는 두 레이아웃 모두 지원 (이전 URL은 샤딩 경로로 대체 조회)
+     */
+    @Value("${upload.layout.sharded:false}")
+    private boolean shardedLayout = false;
+
+    /**
+     * 원본 정규화 (AI 파이프라인에 넘기기 전): 긴 변 제한, EXIF 방향 적용, 메타데이터 제거
+     * - false면 업로드된 그대로 저장
+     */
+    @Value("${cloth.ingest.normalize.enabled:true}")
+    private boolean normalizeEnabled = true;
+
+    /**
+     * 정규화 후 긴 변 최대 길이 (AI 모델 입력 크기 기준)
+     */
+    @Value("${cloth.ingest.max-edge:1024}")
+    private int normalizeMaxEdge = 1024;
+
+    /**
+     * 헤더상 픽셀 수 한도 (넘으면 디코딩하지 않고 400, 압축 폭탄 방지)
+     */
+    @Value("${cloth.ingest.max-pixels:100000000}")
+    private long normalizeMaxPixels = 100_000_000L;
+
+    /**
+     * 동시에 디코딩할 수 있는 원본 수 (힙 사용량 제한)
+     */
+    @Value("${cloth.ingest.max-concurrent:4}")
+    private int normalizeMaxConcurrent = 4;
+
+    private volatile Semaphore normalizeSlots;
+
     /**
      * 이미지 타입별 저장 디렉토리와 설명을 정의하는 Enum
      */
@@ -41,7 +120,8 @@ public class ImageStorageService {
         INPAINTED("inpainted", "인페인팅 이미지"),
         ADDITIONAL("additional", "추가 감지 아이템"),
         EXPANDED("expanded", "확장 이미지"),
-        TRYON("tryon", "Try-On 결과");
+        TRYON("tryon", "Try-On 결과"),
+        FINGERPRINT("fingerprint", "중복 이미지 재사용용 처리 결과");
 
         private final String directory;
         private final String description;
@@ -58,10 +138,25 @@ public class ImageStorageService {
         public String getDescription() {
             return description;
         }
+
+        /**
+         * 디렉토리 이름으로 타입 조회
+         *
+         * @return 해당 타입 (없으면 empty)
+         */
+        public static Optional<ImageType> fromDirectory(String directory) {
+            for (ImageType type : values()) {
+                if (type.directory.equals(directory)) {
+                    return Optional.of(type);
+                }
+            }
+            return Optional.empty();
+        }
     }
 
     /**
      * 이미지를 저장하는 범용 메서드
+     * - 임시 파일에 기록 후 원자적 이동(atomic move)으로 커밋 (부분 기록된 파일이 노출되지 않음)
      *
      * @param imageBytes 이미지 바이트 배열
      * @param imageType  이미지 타입 (저장 디렉토리 결정)
@@ -69,18 +164,70 @@ public class ImageStorageService {
      * @return 저장된 이미지의 URL
      */
     private String saveImage(byte[] imageBytes, ImageType imageType, String filename) {
+        StagedImage staged;
         try {
-            // 저장 디렉토리 생성
-            Path uploadPath = Paths.get(uploadBaseDir, imageType.getDirectory());
-            Files.createDirectories(uploadPath);
+            staged = stageImage(imageType, out -> out.write(imageBytes));
+        } catch (IOException e) {
+            log.error("Failed to save {} image: {}", imageType.getDescription(), filename, e);
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    imageType.getDescription() + " 저장 실패: " + e.getMessage()
+            );
+        }
+        return commitStagedImage(staged, filename);
+    }
+
+    /**
+     * 이미지를 대상 타입 디렉토리의 임시 파일로 스트리밍 기록 (커밋 전 단계)
+     * - 임시 파일은 최종 파일과 같은 디렉토리에 생성되므로 커밋 시 원자적 이동이 가능
+     * - 기록 중 예외가 발생하면 임시 파일을 삭제
+     *
+     * @param imageType 이미지 타입 (저장 디렉토리 결정)
+     * @param writer    임시 파일 OutputStream에 이미지를 기록하는 콜백
+     * @return 임시 저장된 이미지 정보
+     */
+    public StagedImage stageImage(ImageType imageType, ImageWriter writer) throws IOException {
+        Path uploadPath = Paths.get(uploadBaseDir, imageType.getDirectory());
+        Files.createDirectories(uploadPath);
 
-            // 파일 저장
-            Path filePath = uploadPath.resolve(filename);
-            Files.write(filePath, imageBytes);
+        Path tempPath = Files.createTempFile(uploadPath, STAGING_PREFIX, STAGING_SUFFIX);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempPath), STAGING_BUFFER_SIZE)) {
+            writer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        return new StagedImage(imageType, tempPath, Files.size(tempPath));
+    }
+
+    /**
+     * 임시 저장된 이미지를 최종 파일명으로 커밋 (atomic move)
+     * - 같은 임시 이미지를 다시 커밋하면(결과 반영 재시도) 이미 이동된 파일을 그대로 사용
+     *
+     * @param staged   임시 저장된 이미지
+     * @param filename 최종 파일명
+     * @return 저장된 이미지의 URL
+     */
+    public String commitStagedImage(StagedImage staged, String filename) {
+        ImageType imageType = staged.imageType();
+        try {
+            String key = keyOf(imageType, filename);
+            if (Files.notExists(staged.tempPath())) {
+                Optional<BlobStore.BlobInfo> committed = blobStore.stat(key);
+                if (committed.isPresent() && committed.get().size() == staged.size()) {
+                    log.debug("{} image already committed: {}", imageType.getDescription(), key);
+                    return uploadBaseUrl + "/" + key;
+                }
+            }
+            blobStore.putFile(key, staged.tempPath(), contentTypeOf(filename));
+            if (remoteStore()) {
+                // 원격 저장소에 올린 임시 파일을 로컬 작업 사본으로 유지
+                moveAtomically(staged.tempPath(), Paths.get(uploadBaseDir, key));
+            }
 
             // URL 생성 및 반환
-            String url = uploadBaseUrl + "/" + imageType.getDirectory() + "/" + filename;
-            log.info("Saved {} image: {}", imageType.getDescription(), url);
+            String url = uploadBaseUrl + "/" + key;
+            log.info("Saved {} image: {} ({} bytes)", imageType.getDescription(), url, staged.size());
 
             return url;
 
@@ -93,6 +240,28 @@ public class ImageStorageService {
         }
     }
 
+    /**
+     * AI 처리 결과 이미지 커밋 (파일명 규칙: {clothId}.png 또는 {clothId}_{label}.png)
+     *
+     * @param staged  임시 저장된 이미지
+     * @param clothId 옷 ID
+     * @param label   아이템 라벨 (주 이미지면 null)
+     * @return 저장된 이미지의 URL
+     */
+    public String commitStagedImage(StagedImage staged, Long clothId, String label) {
+        String filename = label == null ? clothId + ".png" : clothId + "_" + label + ".png";
+        return commitStagedImage(staged, filename);
+    }
+
+    /**
+     * 임시 저장 세션 시작
+     * - 하나의 결과 메시지를 역직렬화하는 동안 생성된 임시 파일을 추적
+     * - close() 시 커밋되지 않은 임시 파일을 모두 삭제
+     */
+    public StagingSession openStagingSession() {
+        return new StagingSession();
+    }
+
     /**
      * 원본 이미지 저장
      *
@@ -101,37 +270,141 @@ public class ImageStorageService {
      * @return 저장된 이미지의 URL
      */
     public String saveOriginalImage(MultipartFile file, Long clothId) {
+        return storeOriginalImage(file, clothId).url();
+    }
+
+    /**
+     * 원본 이미지 저장 (claim-check 메타데이터 포함)
+     * - 업로드 스트림을 임시 파일로 복사하면서 SHA-256 계산
+     * - 정규화(긴 변 제한, EXIF 방향 적용, 메타데이터 제거)한 결과를 저장 (SHA-256과 크기도 정규화 결과 기준)
+     * - 파일 전체를 힙에 올리지 않으므로 파일 크기와 무관하게 메모리 사용량이 일정 (디코딩은 서브샘플링)
+     *
+     * @param file 업로드된 이미지 파일
+     * @param clothId 옷 ID
+     * @return 저장된 이미지의 URL, SHA-256(hex), 바이트 크기
+     */
+    public StoredImage storeOriginalImage(MultipartFile file, Long clothId) {
         validateImage(file);
 
+        StagedImage staged = null;
         try {
-            // 저장 디렉토리 생성
-            Path uploadPath = Paths.get(uploadBaseDir, ImageType.ORIGINAL.getDirectory());
-            Files.createDirectories(uploadPath);
-
-            // 파일 확장자 추출
-            String originalFilename = file.getOriginalFilename();
-            String extension = getExtension(originalFilename);
-
             // 파일명 생성: {clothId}.{ext}
-            String filename = clothId + extension;
-            Path filePath = uploadPath.resolve(filename);
+            String filename = clothId + getExtension(file.getOriginalFilename());
 
-            // 파일 저장
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // URL 반환
-            String url = uploadBaseUrl + "/" + ImageType.ORIGINAL.getDirectory() + "/" + filename;
-            log.info("Saved {} image: {}", ImageType.ORIGINAL.getDescription(), url);
+            // 임시 파일에 기록 (복사와 동시에 해시 계산) → 정규화 → 커밋
+            MessageDigest digest = sha256Digest();
+            try (InputStream in = file.getInputStream()) {
+                staged = stageImage(ImageType.ORIGINAL, out -> in.transferTo(new DigestOutputStream(out, digest)));
+            }
+            StagedOriginal normalized = normalizeOriginal(staged, HexFormat.of().formatHex(digest.digest()));
+            staged = normalized.staged();
+            String url = commitStagedImage(staged, filename);
 
-            return url;
+            return new StoredImage(url, normalized.sha256(), staged.size());
 
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             log.error("Failed to save {} image for clothId: {}", ImageType.ORIGINAL.getDescription(), clothId, e);
             throw new ResponseStatusException(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     ImageType.ORIGINAL.getDescription() + " 저장 실패: " + e.getMessage()
             );
+        } finally {
+            deleteStaged(staged);
+        }
+    }
+
+    /**
+     * 임시 저장된 원본 정규화 (AI 파이프라인에 넘기기 전)
+     * - 헤더만 읽어 크기 확인, 픽셀 수가 max-pixels를 넘으면 디코딩하지 않고 400
+     * - 긴 변이 max-edge를 넘거나 EXIF 방향이 있으면 서브샘플링 디코딩 → 축소/회전 → 메타데이터 없이 재인코딩
+     * - 그 외 JPEG은 메타데이터 세그먼트만 제거 (무손실), PNG/기타 형식은 그대로
+     * - ImageIO가 읽을 수 없는 형식(HEIC 등)이나 디코딩 실패는 그대로 전달 (워커가 판단)
+     * - 새 파일을 만들면 이전 임시 파일은 삭제
+     *
+     * @param staged 임시 저장된 원본
+     * @param sha256 임시 저장된 원본의 SHA-256 (hex)
+     * @return 정규화된 임시 파일과 SHA-256 (바꿀 필요가 없으면 입력 그대로)
+     * @throws ResponseStatusException 픽셀 수 한도 초과 (400)
+     */
+    public StagedOriginal normalizeOriginal(StagedImage staged, String sha256) {
+        StagedOriginal unchanged = new StagedOriginal(staged, sha256);
+        if (!normalizeEnabled) {
+            return unchanged;
+        }
+
+        ImageNormalizer.ImageInfo info;
+        try {
+            info = ImageNormalizer.probe(staged.tempPath());
+        } catch (IOException e) {
+            log.debug("Cannot read image header, storing as uploaded: {}", e.getMessage());
+            return unchanged;
+        }
+        if (info == null) {
+            return unchanged;
+        }
+        if (info.pixels() > normalizeMaxPixels) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "이미지 해상도가 너무 큽니다. (" + info.width() + "x" + info.height() + ")"
+            );
+        }
+
+        String format = "jpeg".equals(info.format()) ? "jpg" : "png".equals(info.format()) ? "png" : null;
+        boolean reencode = format != null && (info.longEdge() > normalizeMaxEdge || info.orientation() != 1);
+        if (!reencode && !"jpg".equals(format)) {
+            return unchanged;
+        }
+
+        Semaphore slots = normalizeSlots();
+        MessageDigest digest = sha256Digest();
+        StagedImage normalized = null;
+        try {
+            slots.acquire();
+            try {
+                int[] removed = {0};
+                normalized = stageImage(ImageType.ORIGINAL, out -> {
+                    OutputStream digestOut = new DigestOutputStream(out, digest);
+                    if (reencode) {
+                        ImageNormalizer.normalize(staged.tempPath(), info, normalizeMaxEdge, format, digestOut);
+                    } else {
+                        removed[0] = ImageNormalizer.stripJpegMetadata(staged.tempPath(), digestOut);
+                    }
+                });
+                if (!reencode && removed[0] == 0) {
+                    deleteStaged(normalized);
+                    return unchanged;
+                }
+            } finally {
+                slots.release();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to normalize original image, storing as uploaded: {}", e.getMessage());
+            return unchanged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteStaged(normalized);
+            return unchanged;
         }
+
+        log.info("Normalized {} image: {}x{} (orientation {}) {} → {} bytes",
+                ImageType.ORIGINAL.getDescription(), info.width(), info.height(), info.orientation(),
+                staged.size(), normalized.size());
+        deleteStaged(staged);
+        return new StagedOriginal(normalized, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * 임시 저장된 원본 이미지 커밋 (일괄 업로드: 옷 ID가 정해지기 전에 스트리밍으로 임시 저장해 둔 파일)
+     *
+     * @param staged 임시 저장된 원본 이미지
+     * @param clothId 옷 ID
+     * @param extension 확장자 (".png" 형식)
+     * @param sha256 임시 저장하면서 계산한 SHA-256 (hex)
+     * @return 저장된 이미지의 URL, SHA-256(hex), 바이트 크기
+     */
+    public StoredImage commitOriginalImage(StagedImage staged, Long clothId, String extension, String sha256) {
+        String url = commitStagedImage(staged, clothId + extension);
+        return new StoredImage(url, sha256, staged.size());
     }
 
     /**
@@ -207,6 +480,464 @@ public class ImageStorageService {
         return saveImage(imageBytes, ImageType.EXPANDED, filename);
     }
 
+    /**
+     * 이미지 URL을 로컬 파일 경로로 변환
+     * - 예: /uploads/original/123.jpg -> ./uploads/original/123.jpg
+     *
+     * @param imageUrl 이미지 URL
+     * @return 로컬 파일 경로
+     */
+    public Path resolvePath(String imageUrl) {
+        Path path = Paths.get(imageUrl.replace(uploadBaseUrl, uploadBaseDir));
+
+        // 평면 레이아웃 URL인데 파일이 샤딩 디렉토리로 옮겨졌으면 그쪽을 읽음 (마이그레이션 중/후 이전 URL 호환)
+        if (imageUrl.startsWith(uploadBaseUrl + "/") && !Files.exists(path)) {
+            String sharded = shardedRelativeOfLegacy(imageUrl.substring(uploadBaseUrl.length() + 1));
+            if (sharded != null) {
+                Path shardedPath = Paths.get(uploadBaseDir, sharded);
+                if (Files.exists(shardedPath)) {
+                    return shardedPath;
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * 평면 레이아웃 상대 경로({type}/{filename}) → 샤딩 레이아웃 상대 경로
+     *
+     * @param relative /uploads/ 이후의 경로
+     * @return 샤딩 경로 (이미지 타입 디렉토리 바로 아래 파일이 아니면 null)
+     */
+    public static String shardedRelativeOfLegacy(String relative) {
+        int slash = relative.indexOf('/');
+        if (slash <= 0 || slash != relative.lastIndexOf('/') || slash == relative.length() - 1
+                || relative.contains("..")) {
+            return null;
+        }
+        String directory = relative.substring(0, slash);
+        if (ImageType.fromDirectory(directory).isEmpty()) {
+            return null;
+        }
+        String filename = relative.substring(slash + 1);
+        return directory + "/" + shardOf(filename) + "/" + filename;
+    }
+
+    /**
+     * 평면 레이아웃 이미지를 샤딩 디렉토리로 이동 (마이그레이션용)
+     * - 이미 샤딩 경로에 있으면 이동하지 않음, 이전 위치의 파생 이미지는 삭제
+     * - 이동 후에도 이전 URL은 resolvePath/UploadFileService에서 계속 조회됨
+     *
+     * @param imageUrl 이미지 URL
+     * @return 샤딩 레이아웃 URL (평면 레이아웃 URL이 아니거나 파일이 없으면 null)
+     * @throws IOException 이동 실패 시
+     */
+    public String moveToShardedLayout(String imageUrl) throws IOException {
+        if (imageUrl == null || !imageUrl.startsWith(uploadBaseUrl + "/")) {
+            return null;
+        }
+        String sharded = shardedRelativeOfLegacy(imageUrl.substring(uploadBaseUrl.length() + 1));
+        if (sharded == null) {
+            return null;
+        }
+
+        Path legacyPath = Paths.get(uploadBaseDir, imageUrl.substring(uploadBaseUrl.length() + 1));
+        Path shardedPath = Paths.get(uploadBaseDir, sharded);
+        if (Files.isRegularFile(legacyPath)) {
+            Files.createDirectories(shardedPath.getParent());
+            try {
+                Files.move(legacyPath, shardedPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(legacyPath, shardedPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (remoteStore()) {
+                blobStore.putFile(sharded, shardedPath, contentTypeOf(sharded));
+                blobStore.delete(imageUrl.substring(uploadBaseUrl.length() + 1));
+            }
+            deleteDerivatives(imageUrl);
+        } else if (!Files.isRegularFile(shardedPath)) {
+            return null;
+        }
+        return uploadBaseUrl + "/" + sharded;
+    }
+
+    /**
+     * 저장된 이미지를 스트리밍 가능한 Resource로 로드
+     * - 파일 내용을 메모리에 읽지 않음 (Range 요청 시 필요한 구간만 전송)
+     *
+     * @param imageUrl 이미지 URL
+     * @return 파일 Resource
+     * @throws ResponseStatusException 파일이 없을 때 (404)
+     */
+    public Resource loadAsResource(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지가 존재하지 않습니다.");
+        }
+
+        Path filePath = localCopyOf(imageUrl);
+        if (!Files.isRegularFile(filePath)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지 파일을 찾을 수 없습니다: " + imageUrl);
+        }
+        return new FileSystemResource(filePath);
+    }
+
+    /**
+     * 저장된 이미지를 바이트 배열로 읽기
+     * - inline 모드(구버전 워커 호환) 메시지 발행 시에만 사용
+     *
+     * @param imageUrl 이미지 URL
+     * @return 이미지 바이트 배열
+     */
+    public byte[] readImageBytes(String imageUrl) {
+        try {
+            return Files.readAllBytes(localCopyOf(imageUrl));
+        } catch (IOException e) {
+            log.error("Failed to read image: {}", imageUrl, e);
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "이미지 읽기 실패: " + e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * 저장된 이미지를 다른 이름으로 연결 (하드 링크, 지원하지 않는 파일시스템이면 복사)
+     * - 같은 내용을 디스크에 다시 기록하지 않음
+     * - 어느 한쪽을 삭제해도 다른 쪽 파일은 유지됨
+     *
+     * @param sourceUrl  기존 이미지 URL
+     * @param targetType 대상 이미지 타입 (저장 디렉토리 결정)
+     * @param filename   대상 파일명
+     * @return 연결된 이미지의 URL
+     * @throws IOException 기존 이미지가 없거나 연결/복사에 실패했을 때
+     */
+    public String linkImage(String sourceUrl, ImageType targetType, String filename) throws IOException {
+        Path source = localCopyOf(sourceUrl);
+        Path targetDir = directoryFor(targetType, filename);
+        Files.createDirectories(targetDir);
+
+        Path target = targetDir.resolve(filename);
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (remoteStore()) {
+            blobStore.putFile(keyOf(targetType, filename), target, contentTypeOf(filename));
+        }
+        return imageUrl(targetType, filename);
+    }
+
+    /**
+     * 타입 디렉토리 + 파일명 → 이미지 URL
+     *
+     * @return 이미지 URL (파일 존재 여부는 확인하지 않음)
+     */
+    public String imageUrl(ImageType imageType, String filename) {
+        return uploadBaseUrl + "/" + keyOf(imageType, filename);
+    }
+
+    /**
+     * 평면 레이아웃 URL ({type}/{filename}, 샤딩 이전 형식)
+     */
+    public String legacyImageUrl(ImageType imageType, String filename) {
+        return uploadBaseUrl + "/" + imageType.getDirectory() + "/" + filename;
+    }
+
+    /**
+     * 타입 디렉토리 + 파일명으로 저장된 이미지 찾기 (샤딩/평면 레이아웃 모두 확인)
+     *
+     * @return 실제 파일이 있는 위치의 이미지 URL (없으면 null)
+     */
+    public String findImageUrl(ImageType imageType, String filename) {
+        String flat = imageType.getDirectory() + "/" + filename;
+        if (Files.isRegularFile(Paths.get(uploadBaseDir, flat))) {
+            return legacyImageUrl(imageType, filename);
+        }
+        String sharded = shardedRelativeOfLegacy(flat);
+        if (sharded != null && Files.isRegularFile(Paths.get(uploadBaseDir, sharded))) {
+            return uploadBaseUrl + "/" + sharded;
+        }
+        return fetchKey(flat).map(key -> uploadBaseUrl + "/" + key).orElse(null);
+    }
+
+    /**
+     * 이미지 URL의 로컬 파일 (파이프라인, 파생 이미지, 지각 해시처럼 파일 경로로 읽는 코드용)
+     * - 원격 저장소를 쓰고 로컬 작업 사본이 없으면 저장소에서 내려받음
+     *
+     * @param imageUrl 이미지 URL
+     * @return 로컬 파일 경로 (저장소에도 없으면 resolvePath 결과 그대로, 존재하지 않음)
+     */
+    public Path localCopyOf(String imageUrl) {
+        Path path = resolvePath(imageUrl);
+        if (!remoteStore() || Files.isRegularFile(path)) {
+            return path;
+        }
+        String relative = relativePath(imageUrl);
+        if (relative == null) {
+            return path;
+        }
+        return fetchKey(relative).map(key -> Paths.get(uploadBaseDir, key)).orElse(path);
+    }
+
+    /**
+     * 원격 저장소의 이미지를 로컬 작업 사본으로 내려받기 (UploadFileController의 대체 조회)
+     *
+     * @param relative /uploads/ 이후의 경로 (평면 레이아웃이면 샤딩 키도 확인)
+     * @return 내려받은 파일 경로 (로컬 저장소이거나 저장소에 없으면 empty)
+     */
+    public Optional<Path> fetchFromStore(String relative) {
+        return fetchKey(relative).map(key -> Paths.get(uploadBaseDir, key));
+    }
+
+    /**
+     * 원격 저장소에서 키(평면이면 샤딩 키도)를 찾아 로컬 작업 사본으로 기록
+     *
+     * @return 내려받은 키 (없으면 empty)
+     */
+    private Optional<String> fetchKey(String relative) {
+        if (!remoteStore() || relative == null || relative.indexOf('/') <= 0
+                || ImageType.fromDirectory(relative.substring(0, relative.indexOf('/'))).isEmpty()) {
+            return Optional.empty();
+        }
+        String sharded = shardedRelativeOfLegacy(relative);
+        for (String key : sharded == null ? List.of(relative) : List.of(relative, sharded)) {
+            try {
+                BlobStore.validateKey(key);
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            Path target = Paths.get(uploadBaseDir, key);
+            try (InputStream in = blobStore.get(key)) {
+                Files.createDirectories(target.getParent());
+                Path tempPath = Files.createTempFile(target.getParent(), STAGING_PREFIX, STAGING_SUFFIX);
+                try {
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempPath), STAGING_BUFFER_SIZE)) {
+                        in.transferTo(out);
+                    }
+                    moveAtomically(tempPath, target);
+                } finally {
+                    Files.deleteIfExists(tempPath);
+                }
+                log.debug("Fetched {} from blob store", key);
+                return Optional.of(key);
+            } catch (NoSuchFileException e) {
+                // 다음 후보 키 확인
+            } catch (IOException e) {
+                log.warn("Failed to fetch {} from blob store: {}", key, e.getMessage());
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 새 파일의 저장소 키 (/uploads/ 이후 상대 경로, 레이아웃 설정에 따라 평면/샤딩)
+     */
+    private String keyOf(ImageType imageType, String filename) {
+        return shardedLayout
+                ? imageType.getDirectory() + "/" + shardOf(filename) + "/" + filename
+                : imageType.getDirectory() + "/" + filename;
+    }
+
+    /**
+     * 원본 정규화 동시 실행 제한 (테스트에서 필드를 나중에 주입하므로 처음 사용할 때 생성)
+     */
+    private Semaphore normalizeSlots() {
+        Semaphore slots = normalizeSlots;
+        if (slots == null) {
+            synchronized (this) {
+                slots = normalizeSlots;
+                if (slots == null) {
+                    slots = new Semaphore(Math.max(1, normalizeMaxConcurrent));
+                    normalizeSlots = slots;
+                }
+            }
+        }
+        return slots;
+    }
+
+    private void deleteStaged(StagedImage staged) {
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged.tempPath());
+        } catch (IOException e) {
+            log.warn("Failed to delete staged image: {}", staged.tempPath(), e);
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 원격 저장소(S3 등)인지 (로컬 저장소면 업로드 루트 자체가 저장소)
+     */
+    private boolean remoteStore() {
+        return !(blobStore instanceof LocalBlobStore);
+    }
+
+    private static String contentTypeOf(String filename) {
+        return MediaTypeFactory.getMediaType(filename)
+                .map(MediaType::toString)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 새 파일을 저장할 디렉토리 (레이아웃 설정에 따라 평면/샤딩)
+     */
+    private Path directoryFor(ImageType imageType, String filename) {
+        Path directory = Paths.get(uploadBaseDir, imageType.getDirectory());
+        return shardedLayout ? directory.resolve(shardOf(filename)) : directory;
+    }
+
+    /**
+     * 파일명 → 2단계 샤드 디렉토리 ("ab/cd", 디렉토리당 최대 256개 하위 디렉토리)
+     */
+    private static String shardOf(String filename) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(filename.getBytes(StandardCharsets.UTF_8));
+            HexFormat hex = HexFormat.of();
+            return hex.toHexDigits(digest[0]) + "/" + hex.toHexDigits(digest[1]);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 파생 이미지 URL
+     * - 원본과 같은 상대 경로를 width별 디렉토리 아래에 둠
+     * - PNG/JPEG는 같은 형식 유지 (PNG는 알파 채널 유지), 그 외 형식은 PNG로 변환하여 .png 추가
+     *
+     * @param imageUrl 원본 이미지 URL
+     * @param width    파생 이미지 최대 너비
+     * @return 파생 이미지 URL (이 서버에 저장된 이미지가 아니면 null)
+     */
+    public String derivativeUrl(String imageUrl, int width) {
+        String relative = relativePath(imageUrl);
+        if (relative == null) {
+            return null;
+        }
+        return uploadBaseUrl + "/" + DERIVED_DIR + "/" + width + "/" + relative
+                + (derivativeFormat(relative).equals(formatOf(relative)) ? "" : ".png");
+    }
+
+    /**
+     * 파생 이미지 URL → 원본 이미지 URL (derivativeUrl의 역변환)
+     *
+     * @param width            파생 이미지 너비
+     * @param derivativeRelative /uploads/derived/{width}/ 이후의 경로
+     * @return 원본 이미지 URL (존재하지 않으면 null)
+     */
+    public String sourceUrlOfDerivative(int width, String derivativeRelative) {
+        String candidate = uploadBaseUrl + "/" + derivativeRelative;
+        if (Files.isRegularFile(localCopyOf(candidate))) {
+            return candidate;
+        }
+        if (derivativeRelative.endsWith(".png")) {
+            String converted = candidate.substring(0, candidate.length() - ".png".length());
+            if (Files.isRegularFile(localCopyOf(converted))) {
+                return converted;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 파생 이미지 생성 (동기)
+     * - 임시 파일에 기록 후 원자적 이동 (생성 중인 파일이 노출되지 않음)
+     *
+     * @param imageUrl 원본 이미지 URL
+     * @param width    최대 너비 (원본보다 크면 확대하지 않음)
+     * @return 생성된 파생 이미지 경로
+     * @throws IOException 원본을 읽을 수 없거나 기록에 실패했을 때
+     */
+    public Path createDerivative(String imageUrl, int width) throws IOException {
+        String derivativeUrl = derivativeUrl(imageUrl, width);
+        if (derivativeUrl == null) {
+            throw new IOException("파생 이미지를 만들 수 없는 URL입니다: " + imageUrl);
+        }
+
+        Path target = resolvePath(derivativeUrl);
+        BufferedImage scaled = ImageResizer.readScaled(localCopyOf(imageUrl), width, 0);
+
+        Files.createDirectories(target.getParent());
+        Path tempPath = Files.createTempFile(target.getParent(), STAGING_PREFIX, STAGING_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempPath), STAGING_BUFFER_SIZE)) {
+                ImageResizer.write(scaled, derivativeFormat(relativePath(imageUrl)), out);
+            }
+            try {
+                Files.move(tempPath, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+        return target;
+    }
+
+    public boolean isShardedLayout() {
+        return shardedLayout;
+    }
+
+    public String getUploadBaseUrl() {
+        return uploadBaseUrl;
+    }
+
+    public int[] getDerivativeWidths() {
+        return derivativeWidths.clone();
+    }
+
+    /**
+     * /uploads/ 이후의 상대 경로 (외부 URL이거나 파생 이미지면 null)
+     */
+    private String relativePath(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(uploadBaseUrl + "/")) {
+            return null;
+        }
+        String relative = imageUrl.substring(uploadBaseUrl.length() + 1);
+        if (relative.isBlank() || relative.startsWith(DERIVED_DIR + "/") || relative.contains("..")) {
+            return null;
+        }
+        return relative;
+    }
+
+    private static String formatOf(String path) {
+        String lower = path.toLowerCase();
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "jpg";
+        }
+        if (lower.endsWith(".png")) {
+            return "png";
+        }
+        return "other";
+    }
+
+    /**
+     * 축소 이미지 출력 형식 (JPEG는 JPEG 유지, 그 외는 알파 채널을 보존하는 PNG)
+     */
+    static String derivativeFormat(String path) {
+        return "jpg".equals(formatOf(path)) ? "jpg" : "png";
+    }
+
     /**
      * 이미지 파일 삭제
      *
@@ -220,13 +951,18 @@ public class ImageStorageService {
         try {
             // URL에서 파일 경로 추출
             // 예: /uploads/original/123.jpg -> ./uploads/original/123.jpg
-            String relativePath = imageUrl.replace(uploadBaseUrl, uploadBaseDir);
-            Path filePath = Paths.get(relativePath);
+            Path filePath = resolvePath(imageUrl);
 
             if (Files.exists(filePath)) {
                 Files.delete(filePath);
                 log.info("Deleted image: {}", imageUrl);
             }
+            if (remoteStore()) {
+                deleteFromStore(imageUrl);
+            }
+
+            // 파생 이미지도 함께 삭제
+            deleteDerivatives(imageUrl);
 
         } catch (IOException e) {
             log.warn("Failed to delete image: {}", imageUrl, e);
@@ -234,6 +970,34 @@ public class ImageStorageService {
         }
     }
 
+    /**
+     * 원격 저장소의 객체 삭제 (평면 레이아웃 URL이면 샤딩 키도)
+     */
+    private void deleteFromStore(String imageUrl) throws IOException {
+        String relative = relativePath(imageUrl);
+        if (relative == null) {
+            return;
+        }
+        String sharded = shardedRelativeOfLegacy(relative);
+        for (String key : sharded == null ? List.of(relative) : List.of(relative, sharded)) {
+            if (blobStore.delete(key)) {
+                log.info("Deleted {} from blob store", key);
+            }
+        }
+    }
+
+    /**
+     * 이미지의 파생 이미지(모든 너비) 삭제
+     */
+    private void deleteDerivatives(String imageUrl) throws IOException {
+        for (int width : derivativeWidths) {
+            String derivativeUrl = derivativeUrl(imageUrl, width);
+            if (derivativeUrl != null) {
+                Files.deleteIfExists(resolvePath(derivativeUrl));
+            }
+        }
+    }
+
     /**
      * 이미지 파일 검증
      *
@@ -296,4 +1060,90 @@ public class ImageStorageService {
 
         return ".jpg";
     }
+
+    /**
+     * 원본 이미지 저장 결과
+     *
+     * @param url    저장된 이미지의 URL (storage reference)
+     * @param sha256 파일 내용의 SHA-256 (hex)
+     * @param size   파일 크기 (bytes)
+     */
+    public record StoredImage(String url, String sha256, long size) {}
+
+    /**
+     * 정규화된(커밋 전) 원본 이미지
+     *
+     * @param staged 임시 저장된 원본 (정규화 결과 또는 업로드 그대로)
+     * @param sha256 staged 내용의 SHA-256 (hex)
+     */
+    public record StagedOriginal(StagedImage staged, String sha256) {}
+
+    /**
+     * 임시 저장된(커밋 전) 이미지
+     *
+     * @param imageType 이미지 타입 (대상 디렉토리)
+     * @param tempPath  대상 디렉토리 내 임시 파일 경로
+     * @param size      파일 크기 (bytes)
+     */
+    public record StagedImage(ImageType imageType, Path tempPath, long size) {}
+
+    /**
+     * 임시 파일에 이미지를 기록하는 콜백
+     */
+    @FunctionalInterface
+    public interface ImageWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 임시 저장 세션 (결과 메시지 1건 단위)
+     */
+    public class StagingSession implements AutoCloseable {
+
+        private final List<StagedImage> stagedImages = new ArrayList<>();
+
+        /**
+         * 세션에 임시 이미지 기록
+         * - 내용이 비어있으면 null 반환 (이미지 없음으로 취급)
+         */
+        public StagedImage stage(ImageType imageType, ImageWriter writer) throws IOException {
+            StagedImage staged = stageImage(imageType, writer);
+            if (staged.size() == 0) {
+                Files.deleteIfExists(staged.tempPath());
+                return null;
+            }
+            stagedImages.add(staged);
+            return staged;
+        }
+
+        /**
+         * 세션의 임시 원본 정규화 (새로 만든 임시 파일도 세션이 정리)
+         */
+        public StagedOriginal normalizeOriginal(StagedImage staged, String sha256) {
+            StagedOriginal normalized = ImageStorageService.this.normalizeOriginal(staged, sha256);
+            if (normalized.staged() != staged) {
+                stagedImages.remove(staged);
+                stagedImages.add(normalized.staged());
+            }
+            return normalized;
+        }
+
+        public List<StagedImage> getStagedImages() {
+            return stagedImages;
+        }
+
+        /**
+         * 커밋되지 않은 임시 파일 삭제 (커밋된 파일은 이미 이동되어 존재하지 않음)
+         */
+        @Override
+        public void close() {
+            for (StagedImage staged : stagedImages) {
+                try {
+                    Files.deleteIfExists(staged.tempPath());
+                } catch (IOException e) {
+                    log.warn("Failed to delete staged image: {}", staged.tempPath(), e);
+                }
+            }
+        }
+    }
 }
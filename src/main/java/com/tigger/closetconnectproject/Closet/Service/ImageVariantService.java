@@ -0,0 +1,238 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Util.DiskLruCache;
+import com.tigger.closetconnectproject.Closet.Util.ImageResizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 크기 맞춤 이미지 변환 (/img/{type}/{file}?w=&h=&fit=)
+ * - 저장된 이미지를 요청한 크기로 축소/재인코딩하여 디스크 LRU 캐시에 보관
+ * - 캐시 키(= ETag)는 원본 경로, 원본 크기/수정 시각, 변환 파라미터로 결정 (원본이 바뀌면 새 키)
+ * - 같은 변환에 대한 동시 요청은 한 번만 계산
+ * - 캐시 인덱스는 주기적으로, 그리고 종료 시 디스크에 기록 (재시작 후 LRU 순서 유지)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private static final String METRIC_REQUESTS = "image.variant.requests";
+    private static final String METRIC_RENDER = "image.variant.render";
+
+    private final ImageStorageService imageStorageService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${image.variant.cache-dir:./cache/img}")
+    private String cacheDir;
+
+    @Value("${image.variant.cache-max-bytes:536870912}")
+    private long cacheMaxBytes;
+
+    @Value("${image.variant.max-dimension:2000}")
+    private int maxDimension;
+
+    private DiskLruCache cache;
+
+    /**
+     * 크기 맞춤 방식
+     * - CONTAIN: 박스 안에 들어가도록 축소 (비율 유지, 여백 없음)
+     * - COVER: 박스를 가득 채우도록 축소 후 가운데 크롭 (w, h 모두 필요)
+     */
+    public enum Fit {
+        CONTAIN, COVER;
+
+        public static Fit from(String value) {
+            try {
+                return Fit.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fit은 contain 또는 cover만 가능합니다.");
+            }
+        }
+    }
+
+    /**
+     * 변환 요청 (캐시 키가 결정된 상태, 이미지는 아직 만들지 않음)
+     *
+     * @param key       캐시 키 (16진수)
+     * @param source    원본 파일
+     * @param sourceUrl 원본 이미지 URL (변환 실패 시 리다이렉트용)
+     * @param format    출력 형식 ("png" 또는 "jpg")
+     */
+    public record VariantRequest(String key, Path source, String sourceUrl, String format,
+                                 int width, int height, Fit fit) {
+
+        public String etag() {
+            return "\"" + key + "\"";
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        cache = new DiskLruCache(Paths.get(cacheDir), cacheMaxBytes);
+        Gauge.builder("image.variant.cache.bytes", cache, DiskLruCache::getTotalBytes)
+                .description("Bytes held by the on-demand image variant cache")
+                .register(meterRegistry);
+        Gauge.builder("image.variant.cache.entries", cache, DiskLruCache::size)
+                .register(meterRegistry);
+        log.info("Image variant cache ready: {} ({} entries, {} bytes, max {} bytes)",
+                cacheDir, cache.size(), cache.getTotalBytes(), cacheMaxBytes);
+    }
+
+    /**
+     * 변환 요청 검증 및 캐시 키 계산 (이미지를 읽지 않으므로 If-None-Match 비교에 사용)
+     *
+     * @param type     이미지 타입 디렉토리
+     * @param filename 파일명
+     * @param width    목표 너비 (0이면 높이 기준)
+     * @param height   목표 높이 (0이면 너비 기준)
+     * @param fit      크기 맞춤 방식
+     * @return 변환 요청
+     * @throws ResponseStatusException 잘못된 파라미터(400) 또는 원본 없음(404)
+     */
+    public VariantRequest prepare(ImageStorageService.ImageType type, String filename,
+                                  int width, int height, Fit fit) {
+        if (width < 0 || height < 0 || width > maxDimension || height > maxDimension
+                || (width == 0 && height == 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "w, h는 0~" + maxDimension + " 사이여야 하며 하나 이상 지정해야 합니다.");
+        }
+        if (fit == Fit.COVER && (width == 0 || height == 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "fit=cover는 w와 h가 모두 필요합니다.");
+        }
+        if (filename.isBlank() || filename.startsWith(".") || filename.contains("/")
+                || filename.contains("\\") || filename.contains("..")) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다.");
+        }
+
+        String sourceUrl = imageStorageService.findImageUrl(type, filename);
+        if (sourceUrl == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다.");
+        }
+        Path source = imageStorageService.localCopyOf(sourceUrl);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다.");
+        }
+        if (!attributes.isRegularFile()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지를 찾을 수 없습니다.");
+        }
+
+        String format = ImageStorageService.derivativeFormat(filename);
+        String key = sha256Hex(String.join("|",
+                type.getDirectory(), filename,
+                Long.toString(attributes.size()), Long.toString(attributes.lastModifiedTime().toMillis()),
+                Integer.toString(width), Integer.toString(height), fit.name(), format));
+        return new VariantRequest(key, source, sourceUrl, format, width, height, fit);
+    }
+
+    /**
+     * 변환된 이미지 경로 반환 (캐시에 없으면 생성, 같은 변환이 진행 중이면 완료까지 대기)
+     *
+     * @param request 변환 요청
+     * @return 캐시 파일 경로
+     * @throws IOException 원본을 디코딩할 수 없거나 기록에 실패했을 때
+     */
+    public Path getOrCreate(VariantRequest request) throws IOException {
+        Path cached = cache.get(request.key());
+        if (cached != null) {
+            meterRegistry.counter(METRIC_REQUESTS, "result", "hit").increment();
+            return cached;
+        }
+
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(request.key(), future);
+        if (running == null) {
+            meterRegistry.counter(METRIC_REQUESTS, "result", "miss").increment();
+            render(request, future);
+            running = future;
+        } else {
+            meterRegistry.counter(METRIC_REQUESTS, "result", "coalesced").increment();
+        }
+
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("이미지 변환 실패: " + request.sourceUrl(), e.getCause());
+        }
+    }
+
+    /**
+     * 캐시 인덱스 기록 (LRU 순서 보존)
+     */
+    @Scheduled(fixedDelayString = "${image.variant.index-flush-interval-ms:60000}")
+    @PreDestroy
+    public void flushIndex() {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.flush();
+        } catch (IOException e) {
+            log.warn("Failed to write image variant cache index: {}", e.getMessage());
+        }
+    }
+
+    private void render(VariantRequest request, CompletableFuture<Path> future) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            BufferedImage image = request.fit() == Fit.COVER
+                    ? ImageResizer.readScaledToCover(request.source(), request.width(), request.height())
+                    : ImageResizer.readScaled(request.source(), request.width(), request.height());
+            future.complete(cache.put(request.key(), out -> ImageResizer.write(image, request.format(), out)));
+        } catch (Exception e) {
+            outcome = "failure";
+            log.warn("Failed to render image variant: {} ({}x{} {}): {}",
+                    request.sourceUrl(), request.width(), request.height(), request.fit(), e.getMessage());
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(request.key(), future);
+            sample.stop(meterRegistry.timer(METRIC_RENDER, "fit", request.fit().name().toLowerCase(Locale.ROOT),
+                    "outcome", outcome));
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            // 160비트면 충돌 가능성이 무시할 만하고 파일명/ETag가 짧아짐
+            return HexFormat.of().formatHex(digest, 0, 20);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
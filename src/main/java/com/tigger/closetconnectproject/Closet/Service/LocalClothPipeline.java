@@ -0,0 +1,394 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Client.ClothPipelineStageClient;
+import com.tigger.closetconnectproject.Closet.Client.ClothPipelineStageClient.Stage;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Dto.SegmentationResponse;
+import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Entity.ClothOutboxMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 로컬 옷 처리 파이프라인 (RabbitMQ 비활성화 시)
+ * - 브로커 없이 cloth_outbox 행을 직접 가져와 rembg → segmentation → inpainting 서버를 JVM에서 호출
+ * - 단일 노드 배포/CI용: 결과는 RabbitMQ 경로와 같은 ClothResultMessage 계약으로 ClothResultHandler에 전달
+ * - 작업은 clothProcessingExecutor에서 실행, 단계별 동시 호출 수/타임아웃은 ClothPipelineStageClient가 제한
+ * - 배경 제거/세그멘테이션 결과는 단계가 끝나는 즉시 단계별 중간 결과로 먼저 반영 (인페인팅을 기다리지 않음)
+ * - 결과(성공/실패)를 반영한 뒤 outbox 행 삭제 → 처리 중 JVM이 죽으면 lease 후 다시 처리
+ * - spring.rabbitmq.enabled=false일 때만 활성화 (ClothOutboxRelay와 배타적)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "false")
+public class LocalClothPipeline {
+
+    private final ClothOutboxService outboxService;
+    private final ClothPipelineStageClient stageClient;
+    private final ImageStorageService imageStorageService;
+    private final ClothResultHandler resultHandler;
+    private final ClothProgressNotifier progressNotifier;
+    private final ClothStatusCache statusCache;
+    private final ClothPipelineMetrics pipelineMetrics;
+    private final Executor processingExecutor;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 동시에 처리 중인 작업 수 상한 (Executor 큐에 쌓인 작업 포함)
+     */
+    @Value("${cloth.local-pipeline.max-in-flight:10}")
+    private int maxInFlight = 10;
+
+    /**
+     * 단계별 중간 결과 반영 여부 (false면 모든 단계가 끝난 뒤 한 번에 반영)
+     */
+    @Value("${cloth.local-pipeline.stage-results-enabled:true}")
+    private boolean stageResultsEnabled = true;
+
+    @Value("${cloth.outbox.idle-poll-interval-ms:1000}")
+    private long idlePollIntervalMs = 1000;
+
+    /**
+     * segmentation 서버가 크롭 이미지를 저장하는 디렉토리 (같은 호스트에서 실행 중이어야 함)
+     */
+    @Value("${cloth-segmentation.output-dir:./outputs/segmented_clothes}")
+    private String segmentationOutputDir = "./outputs/segmented_clothes";
+
+    /**
+     * 처리 중인 outbox 행 ID (lease가 지나 다시 가져와도 중복 실행하지 않음)
+     */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private long nextPollAt;
+
+    public LocalClothPipeline(ClothOutboxService outboxService,
+                              ClothPipelineStageClient stageClient,
+                              ImageStorageService imageStorageService,
+                              ClothResultHandler resultHandler,
+                              ClothProgressNotifier progressNotifier,
+                              ClothStatusCache statusCache,
+                              ClothPipelineMetrics pipelineMetrics,
+                              @Qualifier("clothProcessingExecutor") Executor processingExecutor,
+                              MeterRegistry meterRegistry) {
+        this.outboxService = outboxService;
+        this.stageClient = stageClient;
+        this.imageStorageService = imageStorageService;
+        this.resultHandler = resultHandler;
+        this.progressNotifier = progressNotifier;
+        this.statusCache = statusCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.processingExecutor = processingExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * outbox 주기 확인 (새 행이 커밋되면 다음 주기에 바로, 그 외에는 idle-poll-interval마다)
+     */
+    @Scheduled(fixedDelayString = "${cloth.outbox.interval-ms:100}")
+    public void pollTick() {
+        long now = System.currentTimeMillis();
+        if (!outboxService.takePending() && now < nextPollAt) {
+            return;
+        }
+        nextPollAt = now + idlePollIntervalMs;
+
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("[LocalPipeline] Dispatch failed, will retry", e);
+        }
+    }
+
+    /**
+     * 남은 용량만큼 outbox 행을 가져와 Executor에 제출
+     *
+     * @return 제출한 작업 수
+     */
+    public int dispatch() {
+        int capacity = maxInFlight - inFlight.size();
+        if (capacity <= 0) {
+            return 0;
+        }
+
+        int submitted = 0;
+        for (ClothOutboxMessage row : outboxService.claim(capacity)) {
+            if (!inFlight.add(row.getId())) {
+                continue;  // 이전 lease에서 가져간 행이 아직 처리 중
+            }
+            pipelineMetrics.onEnqueued(row.getClothId(), row.getImageType(), row.getCreatedAt().toEpochMilli());
+            long claimedAt = System.nanoTime();
+            processingExecutor.execute(() -> {
+                // Executor 대기 시간 = 로컬 파이프라인의 queue_wait
+                pipelineMetrics.recordSince(ClothPipelineMetrics.STAGE_QUEUE_WAIT, row.getClothId(), true, claimedAt);
+                run(row);
+            });
+            submitted++;
+        }
+        return submitted;
+    }
+
+    private void run(ClothOutboxMessage row) {
+        try {
+            process(row);
+        } catch (RuntimeException e) {
+            // 로컬 파이프라인은 결과 반영을 재시도하지 않으므로 바로 종료 상태(FAILED)로
+            log.error("[LocalPipeline][{}] Failed to apply result", row.getClothId(), e);
+            failUnrecoverable(row.getClothId(), e);
+        } finally {
+            outboxService.deleteRelayed(List.of(row.getId()));
+            inFlight.remove(row.getId());
+        }
+    }
+
+    private void failUnrecoverable(Long clothId, RuntimeException cause) {
+        try {
+            Throwable reason = cause.getCause() != null ? cause.getCause() : cause;
+            resultHandler.handleUnrecoverableResult(clothId, reason.getMessage());
+        } catch (RuntimeException e) {
+            log.error("[LocalPipeline][{}] Failed to mark result as FAILED", clothId, e);
+        }
+    }
+
+    /**
+     * 옷 1건 처리 후 결과 반영
+     * - 단계 호출 결과 이미지는 StagingSession 임시 파일로 바로 기록, 커밋되지 않은 파일은 세션 종료 시 삭제
+     */
+    void process(ClothOutboxMessage row) {
+        Long clothId = row.getClothId();
+        try (ImageStorageService.StagingSession session = imageStorageService.openStagingSession()) {
+            ClothResultMessage result;
+            try {
+                result = runStages(row, session);
+                meterRegistry.counter("cloth.local.jobs", "result", "success").increment();
+            } catch (IOException | RuntimeException e) {
+                log.error("[LocalPipeline][{}] Pipeline failed", clothId, e);
+                result = new ClothResultMessage();
+                result.setClothId(clothId);
+                result.setSuccess(false);
+                result.setErrorMessage(e.getMessage());
+                meterRegistry.counter("cloth.local.jobs", "result", "failure").increment();
+            }
+            resultHandler.handleClothResult(result);
+        }
+    }
+
+    private ClothResultMessage runStages(ClothOutboxMessage row, ImageStorageService.StagingSession session)
+            throws IOException {
+        Long clothId = row.getClothId();
+        Long userId = row.getUserId();
+
+        // 1. 배경 제거 (원본을 저장소에서 바로 스트리밍)
+        reportProgress(userId, clothId, "배경 제거 중", 10);
+        Resource original = imageStorageService.loadAsResource(row.getImageRef());
+        ImageStorageService.StagedImage removedBg = timedStage(clothId, Stage.REMBG, () ->
+                session.stage(ImageStorageService.ImageType.REMOVED_BG,
+                        out -> stageClient.transform(Stage.REMBG, originalFilename(row), streamOf(original), out)));
+        if (removedBg == null) {
+            throw new IOException("배경 제거 결과가 비어 있습니다.");
+        }
+        boolean removedBgApplied = stageResultsEnabled && publishRemovedBg(session, clothId, removedBg);
+
+        // 2. 세그멘테이션 (크롭 이미지는 segmentation 서버가 output-dir에 저장)
+        reportProgress(userId, clothId, "옷 영역 분리 중", 40);
+        SegmentationResponse segmentation = timedStage(clothId, Stage.SEGMENTATION, () ->
+                stageClient.analyze(Stage.SEGMENTATION, "removed_bg.png",
+                        HttpRequest.BodyPublishers.ofFile(removedBg.tempPath()), SegmentationResponse.class));
+        if (segmentation == null || segmentation.detectedItems() == null || segmentation.detectedItems().isEmpty()) {
+            throw new IOException("옷을 감지하지 못했습니다.");
+        }
+
+        List<SegmentationResponse.DetectedItem> detected = new ArrayList<>(segmentation.detectedItems());
+        detected.sort(Comparator.comparingInt(SegmentationResponse.DetectedItem::areaPixels).reversed());
+        SegmentationResponse.DetectedItem primary = detected.get(0);
+
+        ImageStorageService.StagedImage segmented = stageCrop(session, primary);
+        List<ClothResultMessage.SegmentedItem> segmentedItems = new ArrayList<>();
+        for (SegmentationResponse.DetectedItem item : detected) {
+            segmentedItems.add(new ClothResultMessage.SegmentedItem(
+                    item.label(), null, stageCrop(session, item), item.areaPixels()));
+        }
+
+        Category category = categoryOf(primary);
+        boolean segmentedApplied = stageResultsEnabled
+                && publishSegmented(session, clothId, primary, category, segmented, segmentedItems);
+
+        // 3. 인페인팅 (주 아이템 크롭 기준)
+        reportProgress(userId, clothId, "이미지 복원 중", 70);
+        ImageStorageService.StagedImage inpainted = timedStage(clothId, Stage.INPAINTING, () ->
+                session.stage(ImageStorageService.ImageType.INPAINTED,
+                        out -> stageClient.transform(Stage.INPAINTING, "segmented.png",
+                                HttpRequest.BodyPublishers.ofFile(segmented.tempPath()), out)));
+
+        // 중간 결과로 반영한 이미지는 최종 결과에서 생략 (반영된 값 유지)
+        ClothResultMessage result = new ClothResultMessage();
+        result.setClothId(clothId);
+        result.setSuccess(true);
+        result.setRemovedBgImage(removedBgApplied ? null : removedBg);
+        result.setSegmentedImage(segmentedApplied ? null : segmented);
+        result.setInpaintedImage(inpainted);
+        result.setSegmentationLabel(primary.label());
+        result.setAreaPixels(primary.areaPixels());
+        result.setSuggestedCategory(category == null ? null : category.name());
+        result.setAllSegmentedItems(segmentedApplied ? null : segmentedItems);
+        return result;
+    }
+
+    /**
+     * 배경 제거 결과를 단계별 중간 결과로 먼저 반영
+     *
+     * @return 반영 여부 (false면 최종 결과에 담음)
+     */
+    private boolean publishRemovedBg(ImageStorageService.StagingSession session, Long clothId,
+                                     ImageStorageService.StagedImage removedBg) throws IOException {
+        ClothResultMessage stageResult = stageResult(clothId, ProcessingStage.REMOVED_BG);
+        stageResult.setRemovedBgImage(copyOf(session, removedBg));
+        return resultHandler.handleStageResult(stageResult);
+    }
+
+    /**
+     * 세그멘테이션 결과(주 아이템 크롭, 모든 크롭, 추천 카테고리)를 단계별 중간 결과로 먼저 반영
+     *
+     * @return 반영 여부 (false면 최종 결과에 담음)
+     */
+    private boolean publishSegmented(ImageStorageService.StagingSession session, Long clothId,
+                                     SegmentationResponse.DetectedItem primary, Category category,
+                                     ImageStorageService.StagedImage segmented,
+                                     List<ClothResultMessage.SegmentedItem> segmentedItems) throws IOException {
+        ClothResultMessage stageResult = stageResult(clothId, ProcessingStage.SEGMENTED);
+        stageResult.setSegmentedImage(copyOf(session, segmented));
+        stageResult.setSegmentationLabel(primary.label());
+        stageResult.setAreaPixels(primary.areaPixels());
+        stageResult.setSuggestedCategory(category == null ? null : category.name());
+
+        List<ClothResultMessage.SegmentedItem> copies = new ArrayList<>();
+        for (ClothResultMessage.SegmentedItem item : segmentedItems) {
+            copies.add(new ClothResultMessage.SegmentedItem(
+                    item.getLabel(), null, copyOf(session, item.getImage()), item.getAreaPixels()));
+        }
+        stageResult.setAllSegmentedItems(copies);
+        return resultHandler.handleStageResult(stageResult);
+    }
+
+    private static ClothResultMessage stageResult(Long clothId, ProcessingStage stage) {
+        ClothResultMessage message = new ClothResultMessage();
+        message.setClothId(clothId);
+        message.setSuccess(true);
+        message.setStage(stage);
+        return message;
+    }
+
+    /**
+     * 단계 결과 이미지 복사 (원본은 다음 단계 입력으로 쓰고, 복사본은 중간 결과로 커밋)
+     * - 반영되지 않은 복사본/원본은 세션 종료 시 삭제
+     */
+    private static ImageStorageService.StagedImage copyOf(ImageStorageService.StagingSession session,
+                                                          ImageStorageService.StagedImage staged) throws IOException {
+        return session.stage(staged.imageType(), out -> Files.copy(staged.tempPath(), out));
+    }
+
+    /**
+     * 단계 호출 시간 기록 (워커 헤더와 같은 이름: worker_rembg, worker_segmentation, worker_inpainting)
+     */
+    private <T> T timedStage(Long clothId, Stage stage, StageCall<T> call) throws IOException {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.run();
+            success = true;
+            return result;
+        } finally {
+            pipelineMetrics.recordSince(ClothPipelineMetrics.WORKER_STAGE_PREFIX + stage.name().toLowerCase(),
+                    clothId, success, start);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageCall<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * 진행도 전송 (WebSocket + 상태 폴링 캐시)
+     */
+    private void reportProgress(Long userId, Long clothId, String step, int percentage) {
+        pipelineMetrics.onProgress(clothId, Map.of());
+        statusCache.applyProgress(clothId, ProcessingStatus.PROCESSING, step, percentage);
+        progressNotifier.notifyProgress(userId, clothId, ProcessingStatus.PROCESSING, step, percentage);
+    }
+
+    /**
+     * segmentation 서버가 저장한 크롭 이미지를 임시 파일로 복사
+     * - 상대 경로가 현재 디렉토리 기준으로 없으면 output-dir 아래 파일명으로 찾음
+     */
+    private ImageStorageService.StagedImage stageCrop(ImageStorageService.StagingSession session,
+                                                      SegmentationResponse.DetectedItem item) throws IOException {
+        Path path = Paths.get(item.savedPath());
+        if (!path.isAbsolute() && !Files.exists(path)) {
+            path = Paths.get(segmentationOutputDir).resolve(path.getFileName());
+        }
+        Path source = path;
+        ImageStorageService.StagedImage staged = session.stage(ImageStorageService.ImageType.SEGMENTED,
+                out -> Files.copy(source, out));
+        if (staged == null) {
+            throw new IOException("크롭 이미지가 비어 있습니다: " + item.label());
+        }
+        return staged;
+    }
+
+    /**
+     * 원본 파일명 (multipart 파트 Content-Type 결정용, 확장자가 없으면 png로 간주)
+     */
+    private static String originalFilename(ClothOutboxMessage row) {
+        String filename = StringUtils.getFilename(row.getImageRef());
+        return StringUtils.hasText(filename) && filename.contains(".") ? filename : "original.png";
+    }
+
+    private static HttpRequest.BodyPublisher streamOf(Resource resource) {
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return resource.getInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 세그멘테이션 한글 카테고리 → 추천 카테고리 (알 수 없으면 null: 사용자가 선택)
+     */
+    static Category categoryOf(SegmentationResponse.DetectedItem item) {
+        if (item.categoryKr() == null) {
+            return null;
+        }
+        return switch (item.categoryKr()) {
+            case "상의", "아우터", "원피스" -> Category.TOP;
+            case "하의" -> Category.BOTTOM;
+            case "신발" -> Category.SHOES;
+            case "악세서리", "액세서리", "가방", "모자" -> Category.ACC;
+            default -> null;
+        };
+    }
+}
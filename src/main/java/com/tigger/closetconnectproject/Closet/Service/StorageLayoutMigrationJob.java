@@ -0,0 +1,69 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 저장소 레이아웃 마이그레이션 실행기
+ * - upload.layout.migration.enabled=true일 때만 동작 (샤딩 레이아웃이 켜져 있어야 함)
+ * - 주기마다 한 배치만 처리하여 디스크/DB 부하를 제한 (batch-size / interval-ms)
+ * - 진행 상황은 DB 체크포인트에 있으므로 재시작하면 이어서 진행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageLayoutMigrationJob {
+
+    private final StorageLayoutMigrationService migrationService;
+    private final ImageStorageService imageStorageService;
+
+    @Value("${upload.layout.migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${upload.layout.migration.batch-size:200}")
+    private int batchSize;
+
+    private volatile boolean finished;
+
+    @Scheduled(fixedDelayString = "${upload.layout.migration.interval-ms:2000}")
+    public void runBatch() {
+        if (!enabled || finished) {
+            return;
+        }
+        if (!imageStorageService.isShardedLayout()) {
+            log.warn("[StorageMigration] upload.layout.sharded=false, migration disabled");
+            finished = true;
+            return;
+        }
+
+        try {
+            StorageLayoutMigrationService.BatchResult result = migrationService.migrateNextBatch(batchSize);
+            if (!result.allTargetsDone()) {
+                if (result.completed()) {
+                    log.info("[StorageMigration] {} completed", result.target());
+                } else if (result.rows() > 0) {
+                    log.info("[StorageMigration] {} batch: {} rows, {} urls migrated (lastId={})",
+                            result.target(), result.rows(), result.migratedUrls(), result.lastId());
+                }
+                return;
+            }
+
+            int moved = migrationService.sweepLegacyFiles(batchSize);
+            if (moved > 0) {
+                log.info("[StorageMigration] Moved {} unreferenced legacy files", moved);
+                return;
+            }
+
+            finished = true;
+            log.info("[StorageMigration] ✅ Migration finished: {}", migrationService.getCheckpoints().stream()
+                    .map(c -> c.getTarget() + "=" + c.getMigratedUrls())
+                    .toList());
+        } catch (Exception e) {
+            // 다음 주기에 체크포인트부터 다시 시도
+            log.error("[StorageMigration] Batch failed, will retry", e);
+        }
+    }
+}
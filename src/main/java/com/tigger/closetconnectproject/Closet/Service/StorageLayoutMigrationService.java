@@ -0,0 +1,305 @@
+package com.tigger.closetconnectproject.Closet.Service;
+
+import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ClothFingerprint;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Entity.StorageMigrationCheckpoint;
+import com.tigger.closetconnectproject.Closet.Repository.ClothFingerprintRepository;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Repository.StorageMigrationCheckpointRepository;
+import com.tigger.closetconnectproject.Market.Entity.MarketProductImage;
+import com.tigger.closetconnectproject.Market.Repository.MarketProductImageRepository;
+import com.tigger.closetconnectproject.Post.Entity.PostAttachment;
+import com.tigger.closetconnectproject.Post.Repository.PostAttachmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 평면 → 해시 샤딩 저장소 레이아웃 마이그레이션
+ * - 대상 테이블을 id 순서로 배치 처리: 참조하는 파일을 샤딩 디렉토리로 옮기고 URL 컬럼(JSON 포함)을 갱신
+ * - 배치마다 체크포인트를 같은 트랜잭션에 기록 (중단 후 재시작해도 이어서 진행)
+ * - 처리 중(PROCESSING)이라 건너뛴 옷은 테이블 끝에 도달한 뒤 가장 작은 건너뛴 id부터 다시 확인
+ *   (max-revisit-passes회까지, 그래도 남으면 이전 URL 대체 조회에 맡김)
+ * - 파일 이동이 먼저 일어나도 이전 URL은 계속 조회되므로 (resolvePath/UploadFileService 대체 조회) 트랜잭션 롤백에 안전
+ * - 모든 테이블이 끝나면 참조되지 않은 평면 파일도 샤딩 디렉토리로 옮김
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageLayoutMigrationService {
+
+    public static final String CLOTH = "cloth";
+    public static final String CLOTH_FINGERPRINT = "cloth_fingerprint";
+    public static final String MARKET_PRODUCT_IMAGE = "market_product_image";
+    public static final String POST_ATTACHMENT = "community_post_attachment";
+
+    /**
+     * 처리 순서
+     */
+    public static final List<String> TARGETS = List.of(CLOTH, CLOTH_FINGERPRINT, MARKET_PRODUCT_IMAGE, POST_ATTACHMENT);
+
+    private final ImageStorageService imageStorageService;
+    private final StorageMigrationCheckpointRepository checkpointRepository;
+    private final ClothRepository clothRepository;
+    private final ClothFingerprintRepository fingerprintRepository;
+    private final MarketProductImageRepository marketProductImageRepository;
+    private final PostAttachmentRepository postAttachmentRepository;
+
+    @Value("${app.upload.root:./uploads}")
+    private String uploadBaseDir;
+
+    /**
+     * 건너뛴 행을 다시 확인하는 최대 회차 (처리 중 상태로 멈춘 행 때문에 끝나지 않는 것을 방지)
+     */
+    @Value("${upload.layout.migration.max-revisit-passes:20}")
+    private int maxRevisitPasses = 20;
+
+    /**
+     * 배치 처리 결과
+     *
+     * @param target       대상 테이블 (모든 테이블이 끝났으면 null)
+     * @param rows         처리한 행 수
+     * @param migratedUrls 샤딩 경로로 바꾼 URL 수
+     * @param lastId       체크포인트 id
+     * @param completed    해당 테이블 완료 여부 (건너뛴 행을 다시 확인하러 돌아가면 false)
+     */
+    public record BatchResult(String target, int rows, int migratedUrls, long lastId, boolean completed) {
+
+        public boolean allTargetsDone() {
+            return target == null;
+        }
+    }
+
+    /**
+     * 완료되지 않은 첫 대상 테이블의 다음 배치 처리
+     *
+     * @param batchSize 배치당 최대 행 수
+     * @return 처리 결과
+     */
+    @Transactional
+    public BatchResult migrateNextBatch(int batchSize) {
+        for (String target : TARGETS) {
+            StorageMigrationCheckpoint checkpoint = checkpointRepository.findById(target)
+                    .orElseGet(() -> StorageMigrationCheckpoint.builder().target(target).build());
+            if (checkpoint.isCompleted()) {
+                continue;
+            }
+            return migrateBatch(checkpoint, batchSize);
+        }
+        return new BatchResult(null, 0, 0, 0, true);
+    }
+
+    /**
+     * 참조되지 않은 평면 레이아웃 파일을 샤딩 디렉토리로 이동 (테이블 마이그레이션 완료 후)
+     * - 이미지 타입 디렉토리 바로 아래 파일만 대상 (임시 파일 제외)
+     *
+     * @param limit 최대 이동 파일 수
+     * @return 이동한 파일 수 (0이면 남은 평면 파일 없음)
+     */
+    public int sweepLegacyFiles(int limit) {
+        int moved = 0;
+        for (ImageStorageService.ImageType type : ImageStorageService.ImageType.values()) {
+            Path directory = Paths.get(uploadBaseDir, type.getDirectory());
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(directory)) {
+                files = stream.filter(Files::isRegularFile)
+                        .filter(path -> !path.getFileName().toString().startsWith("."))
+                        .limit(limit - moved)
+                        .toList();
+            } catch (IOException e) {
+                log.warn("[StorageMigration] Failed to list {}: {}", directory, e.getMessage());
+                continue;
+            }
+
+            for (Path file : files) {
+                String url = imageStorageService.legacyImageUrl(type, file.getFileName().toString());
+                try {
+                    if (imageStorageService.moveToShardedLayout(url) != null) {
+                        moved++;
+                    }
+                } catch (IOException e) {
+                    log.warn("[StorageMigration] Failed to move {}: {}", url, e.getMessage());
+                }
+            }
+            if (moved >= limit) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * 마이그레이션 대상 테이블별 진행 상황
+     */
+    @Transactional(readOnly = true)
+    public List<StorageMigrationCheckpoint> getCheckpoints() {
+        List<StorageMigrationCheckpoint> checkpoints = new ArrayList<>();
+        for (String target : TARGETS) {
+            checkpoints.add(checkpointRepository.findById(target)
+                    .orElseGet(() -> StorageMigrationCheckpoint.builder().target(target).build()));
+        }
+        return checkpoints;
+    }
+
+    private BatchResult migrateBatch(StorageMigrationCheckpoint checkpoint, int batchSize) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        long lastId = checkpoint.getLastId();
+        Long skippedFromId = checkpoint.getSkippedFromId();
+        UrlRewriter rewriter = new UrlRewriter(imageStorageService.getUploadBaseUrl());
+
+        int rows;
+        switch (checkpoint.getTarget()) {
+            case CLOTH -> {
+                List<Cloth> cloths = clothRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+                for (Cloth c : cloths) {
+                    if (c.getProcessingStatus() == ProcessingStatus.PROCESSING) {
+                        // 결과 반영과 겹치면 갱신이 유실되므로 건너뜀 (테이블 끝에서 이 id부터 다시 확인)
+                        if (skippedFromId == null || c.getId() < skippedFromId) {
+                            skippedFromId = c.getId();
+                        }
+                        continue;
+                    }
+                    rewrite(c::getImageUrl, c::setImageUrl, rewriter);
+                    rewrite(c::getOriginalImageUrl, c::setOriginalImageUrl, rewriter);
+                    rewrite(c::getRemovedBgImageUrl, c::setRemovedBgImageUrl, rewriter);
+                    rewrite(c::getSegmentedImageUrl, c::setSegmentedImageUrl, rewriter);
+                    rewrite(c::getInpaintedImageUrl, c::setInpaintedImageUrl, rewriter);
+                    rewrite(c::getAdditionalItemsJson, c::setAdditionalItemsJson, rewriter);
+                    rewrite(c::getAllSegmentedItemsJson, c::setAllSegmentedItemsJson, rewriter);
+                    rewrite(c::getAllExpandedItemsJson, c::setAllExpandedItemsJson, rewriter);
+                }
+                rows = cloths.size();
+                lastId = cloths.isEmpty() ? lastId : cloths.get(cloths.size() - 1).getId();
+            }
+            case CLOTH_FINGERPRINT -> {
+                List<ClothFingerprint> fingerprints = fingerprintRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+                for (ClothFingerprint f : fingerprints) {
+                    rewrite(f::getRemovedBgImageUrl, f::setRemovedBgImageUrl, rewriter);
+                    rewrite(f::getSegmentedImageUrl, f::setSegmentedImageUrl, rewriter);
+                    rewrite(f::getInpaintedImageUrl, f::setInpaintedImageUrl, rewriter);
+                    rewrite(f::getAllSegmentedItemsJson, f::setAllSegmentedItemsJson, rewriter);
+                    rewrite(f::getAllExpandedItemsJson, f::setAllExpandedItemsJson, rewriter);
+                }
+                rows = fingerprints.size();
+                lastId = fingerprints.isEmpty() ? lastId : fingerprints.get(fingerprints.size() - 1).getId();
+            }
+            case MARKET_PRODUCT_IMAGE -> {
+                List<MarketProductImage> images = marketProductImageRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+                for (MarketProductImage i : images) {
+                    rewrite(i::getImageUrl, i::changeImageUrl, rewriter);
+                }
+                rows = images.size();
+                lastId = images.isEmpty() ? lastId : images.get(images.size() - 1).getId();
+            }
+            case POST_ATTACHMENT -> {
+                List<PostAttachment> attachments = postAttachmentRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+                for (PostAttachment a : attachments) {
+                    rewrite(a::getUrl, a::changeUrl, rewriter);
+                }
+                rows = attachments.size();
+                lastId = attachments.isEmpty() ? lastId : attachments.get(attachments.size() - 1).getId();
+            }
+            default -> throw new IllegalArgumentException("알 수 없는 마이그레이션 대상: " + checkpoint.getTarget());
+        }
+
+        boolean completed = rows == 0;
+        if (completed && skippedFromId != null) {
+            if (checkpoint.getRevisitPasses() < maxRevisitPasses) {
+                // 건너뛴 행부터 다시 확인 (이미 옮긴 행은 평면 URL이 없으므로 변경 없음)
+                log.info("[StorageMigration] {} revisiting rows skipped while processing (from id {}, pass {})",
+                        checkpoint.getTarget(), skippedFromId, checkpoint.getRevisitPasses() + 1);
+                lastId = skippedFromId - 1;
+                checkpoint.setRevisitPasses(checkpoint.getRevisitPasses() + 1);
+                completed = false;
+            } else {
+                log.warn("[StorageMigration] {} rows from id {} still processing after {} passes, left on legacy URLs",
+                        checkpoint.getTarget(), skippedFromId, checkpoint.getRevisitPasses());
+            }
+            skippedFromId = null;
+        }
+
+        checkpoint.setLastId(lastId);
+        checkpoint.setSkippedFromId(skippedFromId);
+        checkpoint.setCompleted(completed);
+        checkpoint.setMigratedUrls(checkpoint.getMigratedUrls() + rewriter.migrated);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+
+        return new BatchResult(checkpoint.getTarget(), rows, rewriter.migrated, lastId, completed);
+    }
+
+    private static void rewrite(Supplier<String> getter, Consumer<String> setter,
+                                Function<String, String> rewriter) {
+        String value = getter.get();
+        if (value == null) {
+            return;
+        }
+        String rewritten = rewriter.apply(value);
+        if (!rewritten.equals(value)) {
+            setter.accept(rewritten);
+        }
+    }
+
+    /**
+     * 문자열(단일 URL 또는 JSON) 안의 평면 레이아웃 URL을 찾아 파일을 옮기고 샤딩 URL로 치환
+     * - 파일이 없거나 이동에 실패한 URL은 그대로 둠 (대체 조회로 계속 동작)
+     */
+    private class UrlRewriter implements Function<String, String> {
+
+        private final Pattern legacyUrl;
+        private int migrated;
+
+        private UrlRewriter(String uploadBaseUrl) {
+            // {base}/{type}/{filename} 뒤에 '/'가 오지 않는 경우만 (이미 샤딩된 경로 제외)
+            this.legacyUrl = Pattern.compile(Pattern.quote(uploadBaseUrl) + "/[a-z-]+/[^/\"'\\s?#]++(?!/)");
+        }
+
+        @Override
+        public String apply(String value) {
+            Matcher matcher = legacyUrl.matcher(value);
+            StringBuilder result = new StringBuilder(value.length() + 16);
+            boolean changed = false;
+            while (matcher.find()) {
+                String url = matcher.group();
+                String sharded = null;
+                try {
+                    sharded = imageStorageService.moveToShardedLayout(url);
+                } catch (IOException e) {
+                    log.warn("[StorageMigration] Failed to move {}: {}", url, e.getMessage());
+                }
+                if (sharded != null) {
+                    migrated++;
+                    changed = true;
+                }
+                matcher.appendReplacement(result, Matcher.quoteReplacement(sharded != null ? sharded : url));
+            }
+            if (!changed) {
+                return value;
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.tigger.closetconnectproject.Closet.Util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 용량 제한 디스크 LRU 캐시
+ * - 항목은 {디렉토리}/{키 앞 2자}/{키} 파일로 저장 (임시 파일 기록 후 원자적 이동)
+ * - 총 용량이 maxBytes를 넘으면 가장 오래 사용하지 않은 항목부터 삭제
+ * - LRU 순서는 인덱스 파일(lru.index)에 기록하여 재시작 후에도 유지
+ * - 인덱스 기록 이후 추가된 파일은 시작 시 디렉토리를 스캔하여 수정 시각 순으로 복구
+ * - 스레드 안전 (인덱스 변경은 동기화, 파일 기록/삭제는 락 밖에서 수행)
+ */
+public class DiskLruCache {
+
+    private static final String INDEX_FILE = "lru.index";
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final String TEMP_SUFFIX = ".part";
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{8,128}");
+
+    private final Path directory;
+    private final long maxBytes;
+
+    /**
+     * 키 → 파일 크기 (접근 순서, 가장 오래된 항목이 먼저)
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private boolean dirty;
+
+    /**
+     * 캐시 내용을 기록하는 콜백
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * @param directory 캐시 디렉토리 (없으면 생성)
+     * @param maxBytes  최대 총 용량 (bytes)
+     * @throws IOException 디렉토리를 만들 수 없거나 인덱스를 읽을 수 없을 때
+     */
+    public DiskLruCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        load();
+    }
+
+    /**
+     * 캐시 조회 (조회된 항목은 가장 최근 사용으로 갱신)
+     *
+     * @param key 16진수 키
+     * @return 캐시 파일 경로 (없으면 null)
+     */
+    public Path get(String key) {
+        Path path = pathOf(key);
+        synchronized (this) {
+            Long size = entries.get(key);
+            if (size == null) {
+                return null;
+            }
+            if (!Files.isRegularFile(path)) {
+                // 외부에서 삭제된 파일
+                entries.remove(key);
+                totalBytes -= size;
+                dirty = true;
+                return null;
+            }
+            dirty = true;
+        }
+        return path;
+    }
+
+    /**
+     * 캐시 항목 기록 (같은 키가 있으면 덮어씀) 후 용량 초과분 정리
+     *
+     * @param key    16진수 키
+     * @param writer 내용 기록 콜백
+     * @return 캐시 파일 경로
+     * @throws IOException 기록 실패 시 (임시 파일은 삭제됨)
+     */
+    public Path put(String key, EntryWriter writer) throws IOException {
+        Path target = pathOf(key);
+        Files.createDirectories(target.getParent());
+        Path tempPath = Files.createTempFile(target.getParent(), TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempPath))) {
+                writer.write(out);
+            }
+            try {
+                Files.move(tempPath, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+
+        long size = Files.size(target);
+        List<Path> evicted;
+        synchronized (this) {
+            Long previous = entries.put(key, size);
+            if (previous != null) {
+                totalBytes -= previous;
+            }
+            totalBytes += size;
+            dirty = true;
+            evicted = evictOverflow();
+        }
+        deleteFiles(evicted);
+        return target;
+    }
+
+    /**
+     * 인덱스 파일 기록 (변경이 있을 때만, 임시 파일 기록 후 원자적 이동)
+     */
+    public void flush() throws IOException {
+        List<Map.Entry<String, Long>> snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            snapshot = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                snapshot.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+            dirty = false;
+        }
+
+        Path tempPath = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : snapshot) {
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(Long.toString(entry.getValue()));
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(tempPath, directory.resolve(INDEX_FILE),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            throw e;
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 인덱스 파일 + 디렉토리 스캔으로 LRU 상태 복구
+     * - 인덱스에 있지만 파일이 없는 항목은 버림
+     * - 인덱스에 없는 파일(마지막 기록 이후 추가)은 가장 최근 항목으로 추가
+     * - 남아 있는 임시 파일은 삭제
+     */
+    private void load() throws IOException {
+        Map<String, Path> files = new LinkedHashMap<>();
+        List<Path> tempFiles = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(directory, 2)) {
+            stream.filter(Files::isRegularFile).forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(TEMP_PREFIX)) {
+                    tempFiles.add(path);
+                } else if (KEY_PATTERN.matcher(name).matches() && path.getParent().getParent().equals(directory)) {
+                    files.put(name, path);
+                }
+            });
+        }
+        deleteFiles(tempFiles);
+
+        Path indexPath = directory.resolve(INDEX_FILE);
+        if (Files.isRegularFile(indexPath)) {
+            for (String line : Files.readAllLines(indexPath, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                String key = tab > 0 ? line.substring(0, tab) : line;
+                Path path = files.remove(key);
+                if (path != null) {
+                    addLoaded(key, Files.size(path));
+                }
+            }
+        }
+
+        List<Path> unindexed = new ArrayList<>(files.values());
+        unindexed.sort(Comparator.comparing(DiskLruCache::lastModifiedMillis));
+        for (Path path : unindexed) {
+            addLoaded(path.getFileName().toString(), Files.size(path));
+        }
+
+        List<Path> evicted;
+        synchronized (this) {
+            dirty = !unindexed.isEmpty();
+            evicted = evictOverflow();
+        }
+        deleteFiles(evicted);
+    }
+
+    private synchronized void addLoaded(String key, long size) {
+        entries.put(key, size);
+        totalBytes += size;
+    }
+
+    /**
+     * 용량 초과분을 가장 오래된 항목부터 인덱스에서 제거 (가장 최근 항목 하나는 남김)
+     * - 호출자가 동기화, 반환된 파일은 락 밖에서 삭제
+     */
+    private List<Path> evictOverflow() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            totalBytes -= eldest.getValue();
+            evicted.add(pathOf(eldest.getKey()));
+            it.remove();
+            dirty = true;
+        }
+        return evicted;
+    }
+
+    private static void deleteFiles(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // 다음 시작 시 인덱스에 없는 파일로 다시 등록되어 정리됨
+            }
+        }
+    }
+
+    private Path pathOf(String key) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("캐시 키는 16진수 문자열이어야 합니다: " + key);
+        }
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
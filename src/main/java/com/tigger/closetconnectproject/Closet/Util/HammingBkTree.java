@@ -0,0 +1,119 @@
+package com.tigger.closetconnectproject.Closet.Util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 64비트 해시용 BK-tree (해밍 거리)
+ * - 삼각 부등식으로 탐색 범위를 좁혀 반경 내 해시를 전체 스캔 없이 조회
+ * - 같은 해시를 가진 여러 항목(옷 ID)을 한 노드에 보관
+ * - 삭제는 지원하지 않음 (항목이 빠지면 인덱스를 다시 구성)
+ * - 스레드 안전하지 않음 (호출자가 동기화)
+ */
+public class HammingBkTree {
+
+    private static final int MAX_DISTANCE = 64;
+
+    private Node root;
+    private int size;
+
+    /**
+     * 항목 추가
+     *
+     * @param hash 64비트 지각 해시
+     * @param id   항목 ID
+     */
+    public void add(long hash, long id) {
+        size++;
+        if (root == null) {
+            root = new Node(hash, id);
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance == 0) {
+                node.addId(id);
+                return;
+            }
+            Node child = node.children[distance];
+            if (child == null) {
+                node.children[distance] = new Node(hash, id);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * 반경 내 항목 조회
+     *
+     * @param hash        조회할 해시
+     * @param maxDistance 최대 해밍 거리 (포함)
+     * @return (ID, 거리) 목록 (순서 보장 없음)
+     */
+    public List<Match> search(long hash, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.idCount; i++) {
+                    matches.add(new Match(node.ids[i], distance));
+                }
+            }
+
+            int from = Math.max(1, distance - maxDistance);
+            int to = Math.min(MAX_DISTANCE, distance + maxDistance);
+            for (int d = from; d <= to; d++) {
+                Node child = node.children[d];
+                if (child != null) {
+                    stack.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 조회 결과
+     *
+     * @param id       항목 ID
+     * @param distance 해밍 거리
+     */
+    public record Match(long id, int distance) {}
+
+    private static final class Node {
+        private final long hash;
+        private final Node[] children = new Node[MAX_DISTANCE + 1];
+        private long[] ids;
+        private int idCount;
+
+        private Node(long hash, long id) {
+            this.hash = hash;
+            this.ids = new long[]{id};
+            this.idCount = 1;
+        }
+
+        private void addId(long id) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+            ids[idCount++] = id;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.tigger.closetconnectproject.Closet.Util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * 업로드 원본 정규화 유틸리티 (AI 파이프라인에 넘기기 전, 순수 Java/ImageIO)
+ * - 헤더만 읽어 크기/형식/EXIF 방향 확인 (픽셀 디코딩 없음, 압축 폭탄 판단용)
+ * - 서브샘플링 디코딩으로 긴 변을 제한하고 EXIF 방향을 픽셀에 적용한 뒤 메타데이터 없이 다시 인코딩
+ * - 크기/방향을 바꿀 필요가 없는 JPEG은 다시 인코딩하지 않고 메타데이터 세그먼트만 제거 (무손실)
+ */
+public final class ImageNormalizer {
+
+    private static final int MARKER_SOI = 0xD8;
+    private static final int MARKER_EOI = 0xD9;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_APP1 = 0xE1;
+    private static final int MARKER_APP2 = 0xE2;   // ICC 프로파일 (색 재현에 필요)
+    private static final int MARKER_APP14 = 0xEE;  // Adobe (CMYK/YCCK 디코딩에 필요)
+    private static final int MARKER_APP15 = 0xEF;
+    private static final int MARKER_COM = 0xFE;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+
+    private ImageNormalizer() {
+    }
+
+    /**
+     * 헤더만 읽어 이미지 정보 확인
+     *
+     * @param source 이미지 파일
+     * @return 이미지 정보 (ImageIO가 읽을 수 없는 형식이면 null)
+     * @throws IOException 헤더를 읽을 수 없을 때
+     */
+    public static ImageInfo probe(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                int orientation = "jpeg".equals(format) ? readJpegOrientation(source) : 1;
+                return new ImageInfo(format, reader.getWidth(0), reader.getHeight(0), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 긴 변을 maxEdge 이하로 줄이고 EXIF 방향을 적용해 다시 인코딩 (메타데이터 없음)
+     *
+     * @param source  원본 이미지 파일
+     * @param info    {@link #probe} 결과
+     * @param maxEdge 긴 변 최대 길이 (px)
+     * @param format  출력 형식 ("jpg" 또는 "png")
+     * @param out     출력 스트림 (닫지 않음)
+     * @throws IOException 디코딩/인코딩 실패
+     */
+    public static void normalize(Path source, ImageInfo info, int maxEdge, String format, OutputStream out)
+            throws IOException {
+        BufferedImage scaled = ImageResizer.readScaled(source, maxEdge, maxEdge);
+        ImageResizer.write(applyOrientation(scaled, info.orientation()), format, out);
+    }
+
+    /**
+     * JPEG 메타데이터 세그먼트(EXIF/XMP/IPTC/주석 등) 제거 (픽셀 데이터는 그대로 복사)
+     * - JFIF(APP0), ICC 프로파일(APP2), Adobe(APP14)는 디코딩에 필요하므로 유지
+     *
+     * @param source JPEG 파일
+     * @param out    출력 스트림 (닫지 않음)
+     * @return 제거한 세그먼트 수 (0이면 출력은 원본과 같음)
+     * @throws IOException JPEG 구조가 올바르지 않을 때
+     */
+    public static int stripJpegMetadata(Path source, OutputStream out) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readUnsignedByte() != 0xFF || in.readUnsignedByte() != MARKER_SOI) {
+                throw new IOException("JPEG 파일이 아닙니다");
+            }
+            out.write(0xFF);
+            out.write(MARKER_SOI);
+
+            int removed = 0;
+            while (true) {
+                int marker = nextMarker(in);
+                if (marker == MARKER_SOS || marker == MARKER_EOI) {
+                    // 스캔 데이터부터 끝까지 그대로 복사
+                    out.write(0xFF);
+                    out.write(marker);
+                    in.transferTo(out);
+                    return removed;
+                }
+                if (isStandalone(marker)) {
+                    out.write(0xFF);
+                    out.write(marker);
+                    continue;
+                }
+
+                int length = in.readUnsignedShort();
+                if (length < 2) {
+                    throw new IOException("잘못된 JPEG 세그먼트 길이: " + length);
+                }
+                byte[] payload = in.readNBytes(length - 2);
+                if (payload.length != length - 2) {
+                    throw new EOFException("JPEG 세그먼트가 잘렸습니다");
+                }
+                if (isMetadata(marker)) {
+                    removed++;
+                    continue;
+                }
+                out.write(0xFF);
+                out.write(marker);
+                out.write(length >> 8);
+                out.write(length & 0xFF);
+                out.write(payload);
+            }
+        }
+    }
+
+    /**
+     * EXIF 방향(1~8)을 픽셀에 적용
+     */
+    static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+        int outWidth = swap ? height : width;
+        int outHeight = swap ? width : height;
+
+        int[] src = image.getRGB(0, 0, width, height, null, 0, width);
+        int[] dst = new int[src.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int dx;
+                int dy;
+                switch (orientation) {
+                    case 2 -> { dx = width - 1 - x; dy = y; }
+                    case 3 -> { dx = width - 1 - x; dy = height - 1 - y; }
+                    case 4 -> { dx = x; dy = height - 1 - y; }
+                    case 5 -> { dx = y; dy = x; }
+                    case 6 -> { dx = height - 1 - y; dy = x; }
+                    case 7 -> { dx = height - 1 - y; dy = width - 1 - x; }
+                    default -> { dx = y; dy = width - 1 - x; }
+                }
+                dst[dy * outWidth + dx] = src[y * width + x];
+            }
+        }
+
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage rotated = new BufferedImage(outWidth, outHeight, type);
+        rotated.setRGB(0, 0, outWidth, outHeight, dst, 0, outWidth);
+        return rotated;
+    }
+
+    /**
+     * JPEG APP1(Exif) 세그먼트의 IFD0에서 방향 태그 읽기 (없거나 읽을 수 없으면 1)
+     */
+    static int readJpegOrientation(Path source) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readUnsignedByte() != 0xFF || in.readUnsignedByte() != MARKER_SOI) {
+                return 1;
+            }
+            while (true) {
+                int marker = nextMarker(in);
+                if (marker == MARKER_SOS || marker == MARKER_EOI) {
+                    return 1;
+                }
+                if (isStandalone(marker)) {
+                    continue;
+                }
+                int length = in.readUnsignedShort();
+                if (marker != MARKER_APP1) {
+                    in.skipNBytes(length - 2);
+                    continue;
+                }
+                byte[] payload = in.readNBytes(length - 2);
+                int orientation = exifOrientation(payload);
+                if (orientation > 0) {
+                    return orientation;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * "Exif\0\0" + TIFF 헤더 + IFD0에서 방향 태그 값 (없으면 0)
+     */
+    private static int exifOrientation(byte[] payload) {
+        if (payload.length < 14 || payload[0] != 'E' || payload[1] != 'x' || payload[2] != 'i' || payload[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(payload, 6, payload.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifdOffset = tiff.getInt(4);
+        int entries = Short.toUnsignedInt(tiff.getShort(ifdOffset));
+        for (int i = 0; i < entries; i++) {
+            int entry = ifdOffset + 2 + i * 12;
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == TAG_ORIENTATION) {
+                return Short.toUnsignedInt(tiff.getShort(entry + 8));
+            }
+        }
+        return 0;
+    }
+
+    private static int nextMarker(InputStream in) throws IOException {
+        int b = in.read();
+        if (b != 0xFF) {
+            throw new IOException("JPEG 마커가 아닙니다");
+        }
+        int marker;
+        do {
+            marker = in.read();  // 채움 바이트(0xFF) 건너뜀
+        } while (marker == 0xFF);
+        if (marker < 0) {
+            throw new EOFException("JPEG 파일이 잘렸습니다");
+        }
+        return marker;
+    }
+
+    private static boolean isStandalone(int marker) {
+        return marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7);
+    }
+
+    private static boolean isMetadata(int marker) {
+        return marker == MARKER_COM
+                || (marker >= MARKER_APP1 && marker <= MARKER_APP15 && marker != MARKER_APP2 && marker != MARKER_APP14);
+    }
+
+    /**
+     * 헤더에서 읽은 이미지 정보
+     *
+     * @param format      ImageIO 형식 이름 (jpeg, png, gif, bmp ...)
+     * @param width       저장된 너비 (EXIF 방향 적용 전)
+     * @param height      저장된 높이 (EXIF 방향 적용 전)
+     * @param orientation EXIF 방향 (1 = 그대로)
+     */
+    public record ImageInfo(String format, int width, int height, int orientation) {
+
+        public long pixels() {
+            return (long) width * height;
+        }
+
+        public int longEdge() {
+            return Math.max(width, height);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.tigger.closetconnectproject.Closet.Util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 썸네일/파생 이미지용 리사이즈 유틸리티 (순수 Java, ImageIO)
+ * - 큰 이미지는 디코딩 단계에서 서브샘플링하여 메모리 사용량을 제한
+ * - 절반씩 단계적으로 축소하여 bilinear 보간의 계단 현상을 줄임
+ * - 알파 채널이 있으면 유지 (PNG), 없으면 RGB로 처리
+ */
+public final class ImageResizer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImageResizer() {
+    }
+
+    /**
+     * 이미지 파일을 읽어 지정한 박스 안에 들어가도록 축소 (확대하지 않음)
+     *
+     * @param source    원본 이미지 파일
+     * @param maxWidth  최대 너비
+     * @param maxHeight 최대 높이 (0이면 너비 기준)
+     * @return 축소된 이미지
+     * @throws IOException 읽을 수 없거나 지원하지 않는 형식일 때
+     */
+    public static BufferedImage readScaled(Path source, int maxWidth, int maxHeight) throws IOException {
+        return read(source, (width, height) -> scaleToFit(width, height, maxWidth, maxHeight));
+    }
+
+    /**
+     * 이미지 파일을 읽어 지정한 박스를 가득 채우도록 축소한 뒤 가운데를 잘라냄 (확대하지 않음)
+     * - 원본이 박스보다 작은 방향은 원본 크기 유지
+     *
+     * @param source 원본 이미지 파일
+     * @param width  목표 너비
+     * @param height 목표 높이
+     * @return 축소/크롭된 이미지
+     * @throws IOException 읽을 수 없거나 지원하지 않는 형식일 때
+     */
+    public static BufferedImage readScaledToCover(Path source, int width, int height) throws IOException {
+        BufferedImage scaled = read(source, (w, h) ->
+                Math.min(1.0, Math.max((double) width / w, (double) height / h)));
+        int cropWidth = Math.min(width, scaled.getWidth());
+        int cropHeight = Math.min(height, scaled.getHeight());
+        if (cropWidth == scaled.getWidth() && cropHeight == scaled.getHeight()) {
+            return scaled;
+        }
+        return scaled.getSubimage(
+                (scaled.getWidth() - cropWidth) / 2,
+                (scaled.getHeight() - cropHeight) / 2,
+                cropWidth, cropHeight);
+    }
+
+    private static BufferedImage read(Path source, ScaleRule rule) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                throw new IOException("이미지를 열 수 없습니다: " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다: " + source);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                double scale = rule.scale(width, height);
+
+                // 목표 크기의 2배 이상 남기는 범위에서 정수 서브샘플링 (이후 단계적 축소로 마무리)
+                int step = Math.max(1, (int) Math.floor(1 / (scale * 2)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                return resize(decoded,
+                        Math.max(1, (int) Math.round(width * scale)),
+                        Math.max(1, (int) Math.round(height * scale)));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 단계적 축소 (절반씩, 마지막 단계에서 목표 크기)
+     */
+    public static BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight) {
+        boolean alpha = source.getColorModel().hasAlpha();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width == targetWidth && height == targetHeight && source.getType() == type) {
+            return source;
+        }
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (width < targetWidth || width == current.getWidth()) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    /**
+     * 이미지 인코딩
+     *
+     * @param image  이미지
+     * @param format "png" 또는 "jpg" (jpg는 알파 채널 없이 품질 0.85)
+     * @param out    출력 스트림 (닫지 않음)
+     */
+    public static void write(BufferedImage image, String format, OutputStream out) throws IOException {
+        if (!"jpg".equals(format)) {
+            if (!ImageIO.write(image, format, out)) {
+                throw new IOException("지원하지 않는 출력 형식입니다: " + format);
+            }
+            return;
+        }
+
+        BufferedImage rgb = image;
+        if (image.getColorModel().hasAlpha()) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * 박스에 맞추는 축소 비율 (1 이하, 확대하지 않음)
+     */
+    public static double scaleToFit(int width, int height, int maxWidth, int maxHeight) {
+        double scale = 1.0;
+        if (maxWidth > 0) {
+            scale = Math.min(scale, (double) maxWidth / width);
+        }
+        if (maxHeight > 0) {
+            scale = Math.min(scale, (double) maxHeight / height);
+        }
+        return scale;
+    }
+
+    /**
+     * 원본 크기 → 축소 비율
+     */
+    @FunctionalInterface
+    private interface ScaleRule {
+        double scale(int width, int height);
+    }
+}
@@ -0,0 +1,120 @@
+package com.tigger.closetconnectproject.Closet.Util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 64비트 지각 해시 (dHash)
+ * - 이미지를 9x8 밝기 격자로 축소한 뒤 가로로 인접한 칸의 밝기 대소를 비트로 기록
+ * - 약간의 크롭/리사이즈/재압축에도 해밍 거리가 작게 유지됨 (같은 옷을 다시 찍은 사진 감지용)
+ * - 순수 Java (ImageIO) 구현, 큰 이미지는 디코딩 단계에서 서브샘플링
+ */
+public final class PerceptualHash {
+
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+
+    /**
+     * 디코딩 시 짧은 변 기준 목표 크기 (이보다 큰 이미지는 서브샘플링)
+     */
+    private static final int DECODE_TARGET_SIZE = 256;
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * 이미지 파일의 dHash 계산
+     *
+     * @param imagePath 이미지 파일 경로
+     * @return 64비트 해시
+     * @throws IOException 읽을 수 없거나 지원하지 않는 형식일 때
+     */
+    public static long dHash(Path imagePath) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(imagePath.toFile())) {
+            if (in == null) {
+                throw new IOException("이미지를 열 수 없습니다: " + imagePath);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다: " + imagePath);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int shortSide = Math.min(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, shortSide / DECODE_TARGET_SIZE);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return dHash(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 디코딩된 이미지의 dHash 계산
+     * - 격자 칸마다 평균 밝기를 구함 (투명 픽셀은 흰 배경으로 합성)
+     *
+     * @param image 이미지
+     * @return 64비트 해시
+     */
+    public static long dHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+
+        double[] sums = new double[GRID_WIDTH * GRID_HEIGHT];
+        int[] counts = new int[GRID_WIDTH * GRID_HEIGHT];
+        for (int y = 0; y < height; y++) {
+            int cellY = Math.min(GRID_HEIGHT - 1, y * GRID_HEIGHT / height);
+            for (int x = 0; x < width; x++) {
+                int cellX = Math.min(GRID_WIDTH - 1, x * GRID_WIDTH / width);
+                int cell = cellY * GRID_WIDTH + cellX;
+                sums[cell] += luminance(argb[y * width + x]);
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0;
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH - 1; x++) {
+                int left = y * GRID_WIDTH + x;
+                hash <<= 1;
+                if (average(sums, counts, left) > average(sums, counts, left + 1)) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 두 해시의 해밍 거리 (0 = 동일, 64 = 정반대)
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static double luminance(int argb) {
+        int alpha = (argb >>> 24) & 0xFF;
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        double lum = 0.299 * r + 0.587 * g + 0.114 * b;
+        return (lum * alpha + 255.0 * (255 - alpha)) / 255.0;
+    }
+
+    private static double average(double[] sums, int[] counts, int cell) {
+        // 9칸보다 좁은 이미지는 빈 칸이 생길 수 있음
+        return counts[cell] == 0 ? 0 : sums[cell] / counts[cell];
+    }
+}
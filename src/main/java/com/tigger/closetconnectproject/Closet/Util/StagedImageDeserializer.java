@@ -0,0 +1,70 @@
+package com.tigger.closetconnectproject.Closet.Util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+
+import java.io.IOException;
+
+/**
+ * base64 이미지 필드 스트리밍 역직렬화기
+ * - JSON 문자열 토큰을 String으로 만들지 않고 JsonParser.readBinaryValue로 청크 단위 디코딩
+ * - 디코딩된 바이트는 대상 ImageType 디렉토리의 임시 파일로 바로 기록 (힙에 전체 이미지를 올리지 않음)
+ * - 임시 파일은 ClothResultHandler(ClothArtifactPersister)에서 clothId/label 기준 최종 파일명으로 커밋
+ * - ObjectReader 속성으로 ImageStorageService.StagingSession이 주입되어야 함 (ClothResultMessageReader 참고)
+ */
+public abstract class StagedImageDeserializer extends JsonDeserializer<ImageStorageService.StagedImage> {
+
+    private final ImageStorageService.ImageType imageType;
+
+    protected StagedImageDeserializer(ImageStorageService.ImageType imageType) {
+        this.imageType = imageType;
+    }
+
+    @Override
+    public ImageStorageService.StagedImage deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            return (ImageStorageService.StagedImage) ctxt.handleUnexpectedToken(ImageStorageService.StagedImage.class, p);
+        }
+
+        Object attribute = ctxt.getAttribute(ImageStorageService.StagingSession.class);
+        if (!(attribute instanceof ImageStorageService.StagingSession session)) {
+            throw JsonMappingException.from(p,
+                    "StagingSession이 없습니다. ClothResultMessageReader로 역직렬화해야 합니다.");
+        }
+
+        // 빈 문자열이면 null (이미지 없음)
+        return session.stage(imageType, out -> p.readBinaryValue(ctxt.getBase64Variant(), out));
+    }
+
+    /** 배경 제거 이미지 → removed-bg 디렉토리 */
+    public static class RemovedBg extends StagedImageDeserializer {
+        public RemovedBg() {
+            super(ImageStorageService.ImageType.REMOVED_BG);
+        }
+    }
+
+    /** 세그먼트 이미지 → segmented 디렉토리 */
+    public static class Segmented extends StagedImageDeserializer {
+        public Segmented() {
+            super(ImageStorageService.ImageType.SEGMENTED);
+        }
+    }
+
+    /** 인페인팅 이미지 → inpainted 디렉토리 */
+    public static class Inpainted extends StagedImageDeserializer {
+        public Inpainted() {
+            super(ImageStorageService.ImageType.INPAINTED);
+        }
+    }
+
+    /** Gemini 확장 이미지 → expanded 디렉토리 */
+    public static class Expanded extends StagedImageDeserializer {
+        public Expanded() {
+            super(ImageStorageService.ImageType.EXPANDED);
+        }
+    }
+}
@@ -10,13 +10,13 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
- * 비동기 처리 설정 (DEPRECATED)
- * - 옷 이미지 처리 파이프라인을 백그라운드에서 실행하기 위한 Executor 설정
+ * 비동기 처리 설정
+ * - RabbitMQ 비활성화 시 로컬 파이프라인(LocalClothPipeline)이 옷 처리 작업을 실행하는 Executor
+ * - 작업 하나가 rembg → segmentation → inpainting 호출 동안 스레드를 점유 (Java 17: 플랫폼 스레드)
+ * - 단계별 동시 호출 수는 ClothPipelineStageClient가 따로 제한
  *
- * @deprecated RabbitMQ로 마이그레이션됨. RabbitMQConfig 사용
- * @see com.tigger.closetconnectproject.Common.Config.RabbitMQConfig
+ * @see com.tigger.closetconnectproject.Closet.Service.LocalClothPipeline
  */
-@Deprecated
 @Configuration
 @EnableAsync
 public class AsyncConfig {
@@ -31,7 +31,7 @@ public class AsyncConfig {
     private int queueCapacity;
 
     /**
-     * 옷 이미지 처리 전용 Executor
+     * 옷 이미지 처리 전용 Executor (로컬 파이프라인)
      *
      * @return ThreadPoolTaskExecutor
      */
@@ -0,0 +1,54 @@
+package com.tigger.closetconnectproject.Common.Config;
+
+import com.tigger.closetconnectproject.Common.Storage.BlobStore;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import com.tigger.closetconnectproject.Common.Storage.S3BlobStore;
+import com.tigger.closetconnectproject.Common.Storage.S3RequestSigner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * 업로드 파일 저장소(BlobStore) 설정
+ * - storage.backend=local: app.upload.root 디렉토리 (UploadFileController가 /uploads/** 로 제공)
+ * - storage.backend=s3: S3 호환 오브젝트 스토리지 (로컬 개발은 MinIO)
+ */
+@Slf4j
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore blobStore(
+            @Value("${storage.backend:local}") String backend,
+            @Value("${app.upload.root:./uploads}") String uploadRoot,
+            @Value("${app.upload.public-prefix:/uploads}") String publicPrefix,
+            @Value("${storage.s3.endpoint:http://localhost:9000}") String endpoint,
+            @Value("${storage.s3.region:us-east-1}") String region,
+            @Value("${storage.s3.bucket:closetconnect}") String bucket,
+            @Value("${storage.s3.access-key:}") String accessKey,
+            @Value("${storage.s3.secret-key:}") String secretKey,
+            @Value("${storage.s3.public-base-url:}") String publicBaseUrl,
+            @Value("${storage.s3.part-size-bytes:8388608}") int partSize
+    ) {
+        if ("s3".equalsIgnoreCase(backend)) {
+            if (accessKey.isBlank() || secretKey.isBlank()) {
+                throw new IllegalStateException("storage.backend=s3에는 storage.s3.access-key/secret-key가 필요합니다.");
+            }
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String publicBase = publicBaseUrl.isBlank() ? endpoint + "/" + bucket : publicBaseUrl;
+            log.info("BlobStore: S3 ({}/{}, public={})", endpoint, bucket, publicBase);
+            return new S3BlobStore(httpClient, new S3RequestSigner(accessKey, secretKey, region),
+                    URI.create(endpoint), bucket, publicBase, partSize);
+        }
+        log.info("BlobStore: local ({}, public={})", uploadRoot, publicPrefix);
+        return new LocalBlobStore(Paths.get(uploadRoot), publicPrefix);
+    }
+}
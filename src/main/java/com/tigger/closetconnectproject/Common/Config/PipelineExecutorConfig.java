@@ -0,0 +1,143 @@
+package com.tigger.closetconnectproject.Common.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 옷 처리 파이프라인 Executor 설정
+ * - DB 트랜잭션 밖에서 수행하는 파일 I/O 전용 스레드 풀
+ * - 파생 이미지(썸네일) 생성 전용 스레드 풀
+ * - 상태 long-poll 응답 준비 전용 스레드 풀
+ * - 진행도 SSE 전송 전용 스레드 풀
+ * - outbox relay 전용 스레드 (confirm 대기가 공유 스케줄러 스레드를 막지 않도록)
+ * - 풀/큐 크기를 제한하여 느린 디스크가 다른 작업을 잠식하지 않도록 함
+ */
+@Configuration
+public class PipelineExecutorConfig {
+
+    @Value("${cloth.pipeline.artifact-io.pool-size:4}")
+    private int artifactIoPoolSize;
+
+    @Value("${cloth.pipeline.artifact-io.queue-capacity:64}")
+    private int artifactIoQueueCapacity;
+
+    @Value("${image.derivative.pool-size:2}")
+    private int derivativePoolSize;
+
+    @Value("${image.derivative.queue-capacity:200}")
+    private int derivativeQueueCapacity;
+
+    @Value("${cloth.status-cache.wake-pool-size:2}")
+    private int statusWakePoolSize;
+
+    @Value("${cloth.progress.stream.pool-size:4}")
+    private int progressStreamPoolSize;
+
+    @Value("${cloth.progress.stream.queue-capacity:10000}")
+    private int progressStreamQueueCapacity;
+
+    /**
+     * 결과 아티팩트 저장(임시 파일 커밋) 전용 Executor
+     * - 큐가 가득 차면 호출한 컨슈머 스레드에서 직접 실행 (자연스러운 배압)
+     *
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "clothArtifactIoExecutor")
+    public Executor clothArtifactIoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(artifactIoPoolSize);
+        executor.setMaxPoolSize(artifactIoPoolSize);
+        executor.setQueueCapacity(artifactIoQueueCapacity);
+        executor.setThreadNamePrefix("cloth-artifact-io-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 파생 이미지(썸네일) 생성 전용 Executor
+     * - 큐가 가득 차면 제출이 거부됨 (호출자가 건너뛰고 첫 요청 시 지연 생성으로 보완)
+     *
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "imageDerivativeExecutor")
+    public Executor imageDerivativeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(derivativePoolSize);
+        executor.setMaxPoolSize(derivativePoolSize);
+        executor.setQueueCapacity(derivativeQueueCapacity);
+        executor.setThreadNamePrefix("image-derivative-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 상태 long-poll 응답 준비 전용 Executor
+     * - 캐시 무효화로 깨어난 대기 요청의 상태를 다시 읽음 (무효화한 컨슈머/트랜잭션 스레드에서 DB를 읽지 않도록)
+     * - 큐가 가득 차면 호출한 스레드에서 직접 실행
+     *
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "clothStatusWakeExecutor")
+    public Executor clothStatusWakeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(statusWakePoolSize);
+        executor.setMaxPoolSize(statusWakePoolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("cloth-status-wake-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 진행도 SSE 전송 전용 Executor
+     * - 연결마다 동시에 하나의 전송 작업만 실행 (ClothProgressStreamRegistry)
+     * - 큐가 가득 차면 제출이 거부됨 (해당 연결을 끊고 재연결 시 Last-Event-ID로 재전송)
+     *
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "clothProgressStreamExecutor")
+    public Executor clothProgressStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(progressStreamPoolSize);
+        executor.setMaxPoolSize(progressStreamPoolSize);
+        executor.setQueueCapacity(progressStreamQueueCapacity);
+        executor.setThreadNamePrefix("cloth-progress-sse-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * outbox relay 전용 Executor
+     * - 스레드 1개, 한 번에 한 배치만 실행 (ClothOutboxRelay가 이전 배치가 끝났을 때만 제출)
+     * - 종료 시 진행 중인 배치의 confirm 대기를 마침
+     *
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "clothOutboxRelayExecutor")
+    public Executor clothOutboxRelayExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("cloth-outbox-relay-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
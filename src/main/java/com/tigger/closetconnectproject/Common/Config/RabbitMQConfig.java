@@ -1,16 +1,25 @@
 package com.tigger.closetconnectproject.Common.Config;
 
+import com.tigger.closetconnectproject.Closet.Service.ClothDeadLetterService;
+import com.tigger.closetconnectproject.Closet.Service.ClothDispatchLanes;
+import com.tigger.closetconnectproject.Closet.Service.ClothListenerConcurrencyController;
+import com.tigger.closetconnectproject.Closet.Service.ClothRetryTiers;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * RabbitMQ 설정
  * - 옷 이미지 처리 파이프라인을 위한 큐, 익스체인지, 바인딩 설정
@@ -21,6 +30,75 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
 public class RabbitMQConfig {
 
+    /**
+     * 결과 메시지 content-type (cloth.result.queue)
+     * - v1: 단일 JSON 메시지 (이미지 base64 포함)
+     * - v2: 아티팩트별 raw PNG 메시지 + 매니페스트 메시지 (correlationId로 묶음)
+     * - 두 프로토콜을 동시에 수신하므로 워커를 순차적으로 전환 가능
+     */
+    public static final String RESULT_CONTENT_TYPE_JSON = "application/json";
+    public static final String RESULT_CONTENT_TYPE_ARTIFACT = "application/vnd.closetconnect.cloth-artifact.v2";
+    public static final String RESULT_CONTENT_TYPE_MANIFEST = "application/vnd.closetconnect.cloth-manifest.v2+json";
+
+    /**
+     * 아티팩트 메시지 헤더
+     */
+    public static final String HEADER_CLOTH_ID = "x-cloth-id";
+    public static final String HEADER_ARTIFACT_TYPE = "x-artifact-type";
+    public static final String HEADER_ARTIFACT_LABEL = "x-artifact-label";
+    public static final String HEADER_AREA_PIXELS = "x-area-pixels";
+
+    /**
+     * 처리 요청 발행 시각 (epoch millis, lane 대기 시간 측정용)
+     */
+    public static final String HEADER_ENQUEUED_AT = "x-enqueued-at";
+
+    /**
+     * 파이프라인 단계 시간 측정 헤더 (ClothPipelineMetrics)
+     * - x-image-type: 처리 요청에 실어 보내는 이미지 타입 (워커가 진행도/결과 메시지에 그대로 되돌려줌, x-enqueued-at도 동일)
+     * - x-dequeued-at: 워커가 처리 요청을 꺼낸 시각 (epoch millis, 진행도/결과 메시지)
+     * - x-stage-timings: 워커 단계별 처리 시간 (결과 메시지, 예: rembg=1200;segmentation=800;inpainting=3000)
+     */
+    public static final String HEADER_IMAGE_TYPE = "x-image-type";
+    public static final String HEADER_DEQUEUED_AT = "x-dequeued-at";
+    public static final String HEADER_STAGE_TIMINGS = "x-stage-timings";
+
+    /**
+     * 지연 재시도 / dead letter 헤더 (ClothDeadLetterService)
+     * - x-retry-count: 지금까지 예약된 재시도 횟수
+     * - x-retry-tier: retry 익스체인지(headers)가 단계 큐를 고르는 값 (지연 ms)
+     * - x-original-queue: 실패한 메시지가 원래 소비되던 큐 (재전달/재처리 대상)
+     */
+    public static final String HEADER_RETRY_COUNT = "x-retry-count";
+    public static final String HEADER_RETRY_TIER = "x-retry-tier";
+    public static final String HEADER_ORIGINAL_QUEUE = "x-original-queue";
+    public static final String HEADER_FAILURE_REASON = "x-failure-reason";
+    public static final String HEADER_DEAD_LETTERED_AT = "x-dead-lettered-at";
+
+    /**
+     * 결과 메시지 프로토콜 판별
+     *
+     * @param contentType AMQP content-type 속성
+     * @return 결과 프로토콜 (알 수 없는 값은 v1 JSON으로 취급)
+     */
+    public static ResultProtocol resolveResultProtocol(String contentType) {
+        if (contentType == null) {
+            return ResultProtocol.JSON;
+        }
+        String baseType = contentType.split(";")[0].trim();
+        return switch (baseType) {
+            case RESULT_CONTENT_TYPE_ARTIFACT -> ResultProtocol.BINARY_ARTIFACT;
+            case RESULT_CONTENT_TYPE_MANIFEST -> ResultProtocol.BINARY_MANIFEST;
+            default -> ResultProtocol.JSON;
+        };
+    }
+
+    public enum ResultProtocol {
+        JSON,             // v1 단일 JSON
+        BINARY_ARTIFACT,  // v2 아티팩트 (raw PNG)
+        BINARY_MANIFEST   // v2 매니페스트 (JSON)
+    }
+
     @Value("${rabbitmq.queue.cloth-processing}")
     private String clothProcessingQueue;
 
@@ -46,6 +124,9 @@ public class RabbitMQConfig {
      * 옷 처리 요청 큐 선언 (Spring → Python)
      * - durable: true (서버 재시작 시에도 큐 유지)
      * - 메시지 지속성은 메시지 발행 시 설정됨
+     * - 워커가 재시도 없이 reject한 메시지의 dead letter 설정은 큐 인자가 아니라 브로커 정책으로 적용
+     *   (이미 인자 없이 선언된 durable 큐를 다른 인자로 재선언하면 PRECONDITION_FAILED,
+     *   정책은 기존 큐에 바로 적용되므로 큐 삭제/메시지 유실 없음 - docs/setup/RABBITMQ_SETUP_GUIDE.md)
      */
     @Bean
     public Queue clothProcessingQueue() {
@@ -53,6 +134,24 @@ public class RabbitMQConfig {
                 .build();
     }
 
+    /**
+     * 사용자별 공정 분배 lane 큐 선언 (rabbitmq.fair-share.lanes 개)
+     * - 큐 이름과 같은 라우팅 키로 cloth.exchange에 바인딩
+     * - ClothFairShareDispatcher가 라운드 로빈으로 cloth.processing.queue에 옮김
+     */
+    @Bean
+    public Declarables clothProcessingLanes(ClothDispatchLanes lanes, DirectExchange clothExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        if (lanes.isEnabled()) {
+            for (int lane = 0; lane < lanes.getLaneCount(); lane++) {
+                Queue queue = QueueBuilder.durable(lanes.queueName(lane)).build();
+                declarables.add(queue);
+                declarables.add(BindingBuilder.bind(queue).to(clothExchange).with(queue.getName()));
+            }
+        }
+        return new Declarables(declarables);
+    }
+
     /**
      * 옷 처리 결과 큐 선언 (Python → Spring)
      * - durable: true (서버 재시작 시에도 큐 유지)
@@ -118,6 +217,41 @@ public class RabbitMQConfig {
                 .with(clothProgressRoutingKey);
     }
 
+    /**
+     * 지연 재시도 단계 큐 선언 (rabbitmq.retry.delays-ms 개)
+     * - x-message-ttl: 단계 지연 시간 (큐 단위 TTL이라 앞 메시지가 뒤 메시지를 막지 않음)
+     * - 만료되면 기본 익스체인지로 dead-letter (라우팅 키 = 원래 큐 이름) → 원래 큐로 재전달
+     * - retry 익스체인지(headers)에 x-retry-tier 값으로 바인딩
+     */
+    @Bean
+    public Declarables clothRetryTopology(ClothRetryTiers retryTiers) {
+        List<Declarable> declarables = new ArrayList<>();
+        HeadersExchange retryExchange = new HeadersExchange(retryTiers.getExchange());
+        declarables.add(retryExchange);
+        for (int tier = 0; tier < retryTiers.getTierCount(); tier++) {
+            Queue queue = QueueBuilder.durable(retryTiers.queueName(tier))
+                    .ttl((int) retryTiers.delayMs(tier))
+                    .deadLetterExchange("")
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(retryExchange)
+                    .where(HEADER_RETRY_TIER).matches(retryTiers.tierHeaderValue(tier)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * dead letter 익스체인지/큐 선언 (재시도를 모두 소진했거나 재시도할 수 없는 메시지)
+     * - 관리자 API로 조회/일괄 재처리 (AdminClothDeadLetterController)
+     */
+    @Bean
+    public Declarables clothDeadLetterTopology(ClothRetryTiers retryTiers) {
+        DirectExchange deadLetterExchange = new DirectExchange(retryTiers.getDeadLetterExchange());
+        Queue deadLetterQueue = QueueBuilder.durable(retryTiers.getDeadLetterQueue()).build();
+        return new Declarables(deadLetterExchange, deadLetterQueue,
+                BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(deadLetterQueue.getName()));
+    }
+
     /**
      * 메시지 변환기 (JSON)
      * - Java 객체 <-> JSON 메시지 자동 변환
@@ -131,28 +265,96 @@ public class RabbitMQConfig {
      * RabbitTemplate 설정
      * - 메시지 발행 시 사용
      * - JSON 컨버터 적용
+     * - mandatory: 라우팅되지 않은 메시지는 반환 (publisher confirm의 CorrelationData에 기록됨)
      */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
                                         MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        template.setMandatory(true);
         return template;
     }
 
     /**
-     * RabbitMQ Listener Container Factory 설정
-     * - Consumer 설정 (동시성, prefetch, acknowledge 등)
+     * RabbitMQ Listener Container Factory 설정 (기본)
+     * - Consumer 설정 (동시성, prefetch, acknowledge 등): spring.rabbitmq.listener.simple.* 적용
+     * - 실패 시 컨테이너 안에서 재시도하지 않고(maxAttempts=1) ClothDeadLetterService로 넘김
+     *   → 지연 재시도 큐 또는 dead letter 큐로 발행 후 ack, 컨슈머 스레드는 바로 다음 메시지 처리
      */
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory,
-            MessageConverter messageConverter) {
+            MessageConverter messageConverter,
+            ClothDeadLetterService deadLetterService) {
+        return listenerContainerFactory(configurer, connectionFactory, messageConverter, deadLetterService);
+    }
+
+    /**
+     * 결과 리스너 전용 Container Factory (cloth.result.queue)
+     * - 수 MB 메시지 + 파일 저장 + DB 반영: prefetch 1
+     * - 진행도 리스너와 consumer를 공유하지 않으므로 결과 적체가 진행도 전달을 막지 않음
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory clothResultContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            ClothDeadLetterService deadLetterService,
+            ClothListenerConcurrencyController concurrencyController) {
+        SimpleRabbitListenerContainerFactory factory =
+                listenerContainerFactory(configurer, connectionFactory, messageConverter, deadLetterService);
+        applyPolicy(factory, concurrencyController, ClothListenerConcurrencyController.RESULT_LISTENER_ID);
+        return factory;
+    }
+
+    /**
+     * 진행도 리스너 전용 Container Factory (cloth.progress.queue)
+     * - 작은 메시지를 빠르게 전달: prefetch를 크게 두고 적체에 따라 조절
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory clothProgressContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            ClothDeadLetterService deadLetterService,
+            ClothListenerConcurrencyController concurrencyController) {
+        SimpleRabbitListenerContainerFactory factory =
+                listenerContainerFactory(configurer, connectionFactory, messageConverter, deadLetterService);
+        applyPolicy(factory, concurrencyController, ClothListenerConcurrencyController.PROGRESS_LISTENER_ID);
+        return factory;
+    }
+
+    private SimpleRabbitListenerContainerFactory listenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MessageConverter messageConverter,
+            ClothDeadLetterService deadLetterService) {
 
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
-        factory.setConnectionFactory(connectionFactory);
+        configurer.configure(factory, connectionFactory);
         factory.setMessageConverter(messageConverter);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(1)
+                .recoverer(deadLetterService)
+                .build());
 
         return factory;
     }
+
+    /**
+     * 리스너 정책의 초기 consumer 수/prefetch 적용
+     * - 자동 조절 사용 시: 최소값으로 시작, ClothListenerConcurrencyController가 조정
+     * - 자동 조절 미사용 시: 최소~최대 범위에서 컨테이너 기본 방식(연속 처리 횟수 기준)으로 조정
+     */
+    private static void applyPolicy(SimpleRabbitListenerContainerFactory factory,
+                                    ClothListenerConcurrencyController concurrencyController,
+                                    String listenerId) {
+        ClothListenerConcurrencyController.ListenerPolicy policy = concurrencyController.policy(listenerId);
+        factory.setConcurrentConsumers(policy.minConsumers());
+        factory.setMaxConcurrentConsumers(concurrencyController.isEnabled()
+                ? policy.minConsumers() : policy.maxConsumers());
+        factory.setPrefetchCount(policy.minPrefetch());
+    }
 }
@@ -0,0 +1,13 @@
+package com.tigger.closetconnectproject.Common.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 스케줄링 설정
+ * - @Scheduled 기반 주기 작업 활성화 (미완성 결과 정리 등)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,26 +0,0 @@
-package com.tigger.closetconnectproject.Common.Config;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-import java.nio.file.Paths;
-
-@Configuration
-public class WebConfig implements WebMvcConfigurer {
-
-    @Value("${app.upload.root}")
-    private String uploadRoot;
-
-    @Value("${app.upload.public-prefix:/uploads}")
-    private String publicPrefix;
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        String location = Paths.get(uploadRoot).toUri().toString(); // file:///...
-        registry.addResourceHandler(publicPrefix + "/**")
-                .addResourceLocations(location)
-                .setCachePeriod(3600);
-    }
-}
@@ -1,5 +1,7 @@
 package com.tigger.closetconnectproject.Common.Exception;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -7,6 +9,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -46,6 +49,21 @@ public class GlobalExceptionHandler {
                 .body(body);
     }
 
+    /**
+     * 처리량 한도 초과 시 발생하는 예외 처리 (429 Too Many Requests)
+     * - Retry-After 헤더로 다시 시도할 시점(초)을 알려줌
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "error", "Too Many Requests",
+                        "message", e.getMessage(),
+                        "retryAfterSeconds", e.getRetryAfterSeconds()
+                ));
+    }
+
     /**
      * IllegalArgumentException 처리 (하위 호환성 유지)
      * - 점진적으로 ResourceNotFoundException, BusinessException으로 전환 권장
@@ -113,6 +131,27 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * 설명: ResponseStatusException 처리 (서비스/컨트롤러가 지정한 상태 코드 유지)
+     * - 업로드 검증 실패(400), 이미지 없음(404) 등
+     * - 5xx는 기타 예외와 같이 메시지를 노출하지 않음
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<?> handleResponseStatus(ResponseStatusException e) {
+        HttpStatusCode status = e.getStatusCode();
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        String error = resolved != null ? resolved.getReasonPhrase() : String.valueOf(status.value());
+        String message = status.is5xxServerError() ? "서버 오류가 발생했습니다."
+                : e.getReason() != null ? e.getReason() : error;
+
+        return ResponseEntity.status(status)
+                .headers(e.getHeaders())
+                .body(Map.of(
+                        "error", error,
+                        "message", message
+                ));
+    }
+
     /**
      * 설명: 기타 예외 처리 (예상하지 못한 에러)
      */
@@ -0,0 +1,19 @@
+package com.tigger.closetconnectproject.Common.Exception;
+
+/**
+ * 처리량 한도를 넘어 요청을 받을 수 없을 때 발생하는 예외
+ * HTTP 429 Too Many Requests + Retry-After 헤더로 매핑됩니다.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,226 @@
+package com.tigger.closetconnectproject.Common.Storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 바이너리 객체(이미지, 첨부파일) 저장소
+ * - 키: '/'로 구분된 상대 경로 (예: images/ab/cd/{sha256}.png)
+ * - 모든 입출력은 스트리밍 (파일 전체를 힙에 올리지 않음)
+ * - 구현: 로컬 파일 시스템(LocalBlobStore), S3 호환 오브젝트 스토리지(S3BlobStore)
+ */
+public interface BlobStore {
+
+    Pattern KEY_SEGMENT = Pattern.compile("[^./\\\\\\p{Cntrl}][^/\\\\\\p{Cntrl}]*");
+    Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    /**
+     * 객체 저장 (같은 키가 있으면 덮어씀)
+     *
+     * @param key           객체 키
+     * @param content       내용 스트림 (호출자가 닫음)
+     * @param contentLength 바이트 크기 (모르면 -1)
+     * @param contentType   MIME 타입
+     * @return 저장된 객체 정보 (sha256 포함)
+     */
+    BlobInfo put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    /**
+     * 로컬 파일 저장
+     * - 기본 구현은 파일을 스트리밍으로 put (파일은 그대로 남음, 호출자가 정리)
+     * - LocalBlobStore는 복사 없이 파일을 키 위치로 이동
+     *
+     * @param key         객체 키
+     * @param file        저장할 파일
+     * @param contentType MIME 타입
+     * @return 저장된 객체 정보
+     */
+    default BlobInfo putFile(String key, Path file, String contentType) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return put(key, in, Files.size(file), contentType);
+        }
+    }
+
+    /**
+     * 내용 해시 키로 저장: {prefix}/{ab}/{cd}/{sha256}{extension}
+     * - 같은 내용이 이미 있으면 다시 기록하지 않고 기존 객체 반환
+     * - 기본 구현은 해시 계산을 위해 임시 파일에 먼저 기록
+     *
+     * @param prefix      키 접두사 (예: images)
+     * @param extension   확장자 (".png" 형식, 없으면 빈 문자열)
+     * @param content     내용 스트림 (호출자가 닫음)
+     * @param contentType MIME 타입
+     * @return 저장된 객체 정보
+     */
+    default BlobInfo putContentAddressed(String prefix, String extension, InputStream content,
+                                         String contentType) throws IOException {
+        Path temp = Files.createTempFile("blob-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = content.transferTo(out);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String key = contentKey(prefix, sha256, extension);
+
+            Optional<BlobInfo> existing = stat(key);
+            if (existing.isPresent() && existing.get().size() == size) {
+                return new BlobInfo(key, size, existing.get().contentType(), sha256);
+            }
+            try (InputStream in = Files.newInputStream(temp)) {
+                return put(key, in, size, contentType);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 객체 정보 조회
+     *
+     * @return 객체 정보 (없으면 empty, sha256은 알 수 없으면 null)
+     */
+    Optional<BlobInfo> stat(String key) throws IOException;
+
+    /**
+     * 객체 내용 스트림 (호출자가 닫아야 함)
+     *
+     * @throws java.nio.file.NoSuchFileException 객체가 없을 때
+     */
+    InputStream get(String key) throws IOException;
+
+    /**
+     * 객체 일부 구간 스트림 (Range 요청용)
+     *
+     * @param offset 시작 위치 (bytes)
+     * @param length 최대 길이 (bytes, 객체 끝을 넘으면 끝까지)
+     * @throws java.nio.file.NoSuchFileException 객체가 없을 때
+     */
+    InputStream get(String key, long offset, long length) throws IOException;
+
+    /**
+     * 객체 삭제
+     *
+     * @return 삭제했으면 true (없었으면 false)
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 클라이언트가 객체를 내려받을 공개 URL
+     */
+    String publicUrl(String key);
+
+    /**
+     * 멀티파트 업로드 시작 (큰 파일을 여러 조각으로 나누어 업로드)
+     *
+     * @return 업로드 ID
+     */
+    String initiateMultipartUpload(String key, String contentType) throws IOException;
+
+    /**
+     * 멀티파트 조각 업로드
+     *
+     * @param partNumber 조각 번호 (1부터)
+     */
+    UploadedPart uploadPart(String key, String uploadId, int partNumber, InputStream content,
+                            long contentLength) throws IOException;
+
+    /**
+     * 멀티파트 업로드 완료 (조각 번호 순서로 이어 붙임)
+     */
+    BlobInfo completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException;
+
+    /**
+     * 멀티파트 업로드 취소 (업로드된 조각 삭제)
+     */
+    void abortMultipartUpload(String key, String uploadId) throws IOException;
+
+    /**
+     * 클라이언트가 저장소로 직접 업로드할 서명된 URL (업로드 데이터가 서버를 거치지 않음)
+     *
+     * @param key         업로드될 객체 키
+     * @param contentType 업로드 시 반드시 사용해야 하는 Content-Type
+     * @param ttl         URL 유효 시간
+     * @return 업로드 정보 (직접 업로드를 지원하지 않는 저장소면 empty)
+     */
+    Optional<PresignedUpload> presignUpload(String key, String contentType, Duration ttl);
+
+    /**
+     * 내용 해시 키: {prefix}/{ab}/{cd}/{sha256}{extension}
+     */
+    static String contentKey(String prefix, String sha256, String extension) {
+        if (!extension.isEmpty() && !EXTENSION.matcher(extension).matches()) {
+            throw new IllegalArgumentException("허용되지 않는 확장자입니다: " + extension);
+        }
+        String key = prefix + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/"
+                + sha256 + extension.toLowerCase();
+        validateKey(key);
+        return key;
+    }
+
+    /**
+     * 키 검증 (경로 탈출, 빈 구간, 숨김 파일 방지)
+     *
+     * @throws IllegalArgumentException 잘못된 키
+     */
+    static void validateKey(String key) {
+        if (key == null || key.isEmpty() || key.length() > 512) {
+            throw new IllegalArgumentException("잘못된 저장소 키입니다: " + key);
+        }
+        for (String segment : key.split("/", -1)) {
+            if (!KEY_SEGMENT.matcher(segment).matches() || segment.contains("..")) {
+                throw new IllegalArgumentException("잘못된 저장소 키입니다: " + key);
+            }
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 객체 정보
+     *
+     * @param key         객체 키
+     * @param size        바이트 크기
+     * @param contentType MIME 타입 (모르면 null)
+     * @param sha256      내용 SHA-256 hex (모르면 null)
+     */
+    record BlobInfo(String key, long size, String contentType, String sha256) {}
+
+    /**
+     * 업로드된 멀티파트 조각
+     *
+     * @param partNumber 조각 번호 (1부터)
+     * @param etag       저장소가 반환한 조각 식별자 (완료 요청에 필요)
+     */
+    record UploadedPart(int partNumber, String etag) {}
+
+    /**
+     * 직접 업로드 정보
+     *
+     * @param url       업로드 URL
+     * @param method    HTTP 메서드 (PUT)
+     * @param headers   업로드 요청에 반드시 포함해야 하는 헤더
+     * @param expiresAt URL 만료 시각
+     */
+    record PresignedUpload(String url, String method, Map<String, String> headers, Instant expiresAt) {}
+}
@@ -0,0 +1,338 @@
+package com.tigger.closetconnectproject.Common.Storage;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 파일 시스템 BlobStore
+ * - 키 = 루트 디렉토리 기준 상대 경로, 공개 URL = {publicPrefix}/{key} (UploadFileController가 제공)
+ * - 같은 디렉토리의 임시 파일에 기록 후 원자적 이동 (부분 기록된 파일이 노출되지 않음)
+ * - 멀티파트 조각은 {root}/.multipart/{uploadId}/ 에 보관 후 완료 시 이어 붙임
+ * - 서명된 직접 업로드는 지원하지 않음 (업로드가 항상 서버를 거침)
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final String TEMP_SUFFIX = ".part";
+    private static final String MULTIPART_DIR = ".multipart";
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final String publicPrefix;
+
+    public LocalBlobStore(Path root, String publicPrefix) {
+        this.root = root.toAbsolutePath().normalize();
+        this.publicPrefix = publicPrefix;
+    }
+
+    @Override
+    public BlobInfo put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = pathOf(key);
+        MessageDigest digest = BlobStore.sha256();
+        Path temp = createTemp(target.getParent());
+        try {
+            long size;
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), digest)) {
+                size = content.transferTo(out);
+            }
+            if (contentLength >= 0 && size != contentLength) {
+                throw new IOException("내용 길이가 일치하지 않습니다: " + size + " != " + contentLength);
+            }
+            moveInto(temp, target);
+            return new BlobInfo(key, size, contentType, HexFormat.of().formatHex(digest.digest()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 해시 계산과 기록을 한 번에 (임시 파일을 대상 디렉토리 쪽에 두므로 추가 복사 없음)
+     */
+    @Override
+    public BlobInfo putContentAddressed(String prefix, String extension, InputStream content,
+                                        String contentType) throws IOException {
+        BlobStore.validateKey(prefix);
+        Path prefixDir = pathOf(prefix);
+        MessageDigest digest = BlobStore.sha256();
+        Path temp = createTemp(prefixDir);
+        try {
+            long size;
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), digest)) {
+                size = content.transferTo(out);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String key = BlobStore.contentKey(prefix, sha256, extension);
+            Path target = pathOf(key);
+            if (!Files.isRegularFile(target) || Files.size(target) != size) {
+                moveInto(temp, target);
+            }
+            return new BlobInfo(key, size, contentType, sha256);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 로컬 파일을 키 위치로 이동 (같은 파일 시스템이면 원자적 이동, 복사 없음)
+     *
+     * @param key  객체 키
+     * @param file 이동할 파일 (성공하면 더 이상 존재하지 않음)
+     * @return 저장된 객체 정보 (sha256은 계산하지 않음)
+     */
+    @Override
+    public BlobInfo putFile(String key, Path file, String contentType) throws IOException {
+        Path target = pathOf(key);
+        long size = Files.size(file);
+        moveInto(file, target);
+        return new BlobInfo(key, size, contentType, null);
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new BlobInfo(key, Files.size(path), Files.probeContentType(path), null));
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(existingPath(key));
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("잘못된 범위입니다: offset=" + offset + ", length=" + length);
+        }
+        SeekableByteChannel channel = Files.newByteChannel(existingPath(key));
+        try {
+            channel.position(offset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new LimitedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(pathOf(key));
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        BlobStore.validateKey(key);
+        return publicPrefix + "/" + key;
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) throws IOException {
+        BlobStore.validateKey(key);
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        Files.createDirectories(multipartDir(uploadId));
+        return uploadId;
+    }
+
+    @Override
+    public UploadedPart uploadPart(String key, String uploadId, int partNumber, InputStream content,
+                                   long contentLength) throws IOException {
+        if (partNumber < 1 || partNumber > 10_000) {
+            throw new IllegalArgumentException("조각 번호는 1~10000 사이여야 합니다: " + partNumber);
+        }
+        Path dir = existingMultipartDir(uploadId);
+        Path temp = createTemp(dir);
+        try {
+            MessageDigest digest = BlobStore.sha256();
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), digest)) {
+                content.transferTo(out);
+            }
+            moveInto(temp, dir.resolve(Integer.toString(partNumber)));
+            return new UploadedPart(partNumber, HexFormat.of().formatHex(digest.digest()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public BlobInfo completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException {
+        Path dir = existingMultipartDir(uploadId);
+        List<UploadedPart> ordered = parts.stream()
+                .sorted(Comparator.comparingInt(UploadedPart::partNumber))
+                .toList();
+        if (ordered.isEmpty()) {
+            throw new IllegalArgumentException("완료할 조각이 없습니다.");
+        }
+
+        Path target = pathOf(key);
+        MessageDigest digest = BlobStore.sha256();
+        Path temp = createTemp(target.getParent());
+        try {
+            long size = 0;
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), digest)) {
+                for (UploadedPart part : ordered) {
+                    Path partPath = dir.resolve(Integer.toString(part.partNumber()));
+                    if (!Files.isRegularFile(partPath)) {
+                        throw new NoSuchFileException("업로드되지 않은 조각: " + part.partNumber());
+                    }
+                    size += Files.copy(partPath, out);
+                }
+            }
+            moveInto(temp, target);
+            deleteRecursively(dir);
+            return new BlobInfo(key, size, Files.probeContentType(target), HexFormat.of().formatHex(digest.digest()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) throws IOException {
+        Path dir = multipartDir(uploadId);
+        if (Files.isDirectory(dir)) {
+            deleteRecursively(dir);
+        }
+    }
+
+    @Override
+    public Optional<PresignedUpload> presignUpload(String key, String contentType, Duration ttl) {
+        return Optional.empty();
+    }
+
+    /**
+     * 키 → 로컬 파일 경로 (파이프라인처럼 파일 경로가 필요한 코드용, 존재 여부는 확인하지 않음)
+     */
+    public Path pathOf(String key) {
+        BlobStore.validateKey(key);
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("잘못된 저장소 키입니다: " + key);
+        }
+        return path;
+    }
+
+    private Path existingPath(String key) throws NoSuchFileException {
+        Path path = pathOf(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(key);
+        }
+        return path;
+    }
+
+    private Path multipartDir(String uploadId) {
+        if (uploadId == null || !UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new IllegalArgumentException("잘못된 업로드 ID입니다: " + uploadId);
+        }
+        return root.resolve(MULTIPART_DIR).resolve(uploadId);
+    }
+
+    private Path existingMultipartDir(String uploadId) throws NoSuchFileException {
+        Path dir = multipartDir(uploadId);
+        if (!Files.isDirectory(dir)) {
+            throw new NoSuchFileException("멀티파트 업로드를 찾을 수 없습니다: " + uploadId);
+        }
+        return dir;
+    }
+
+    private static Path createTemp(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+    }
+
+    private static void moveInto(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 최대 length 바이트까지만 읽는 스트림 (Range 응답용)
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.tigger.closetconnectproject.Common.Storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * S3 호환 오브젝트 스토리지 BlobStore (AWS S3, MinIO 등)
+ * - path-style 주소 ({endpoint}/{bucket}/{key}) 사용: MinIO/로컬 개발 환경과 그대로 호환
+ * - 본문은 서명하지 않고(UNSIGNED-PAYLOAD) 스트리밍 전송
+ * - partSize보다 크거나 길이를 모르는 업로드는 멀티파트로 나누어 전송 (메모리 사용량은 조각 1개 크기)
+ * - 클라이언트 직접 업로드용 presigned PUT URL 발급
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    /**
+     * S3 멀티파트 최소 조각 크기 (마지막 조각 제외)
+     */
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private final HttpClient httpClient;
+    private final S3RequestSigner signer;
+    private final URI endpoint;
+    private final String bucket;
+    private final String publicBaseUrl;
+    private final int partSize;
+
+    /**
+     * @param endpoint      저장소 주소 (예: http://localhost:9000)
+     * @param bucket        버킷 이름
+     * @param publicBaseUrl 공개 URL 접두사 (CDN 또는 {endpoint}/{bucket})
+     * @param partSize      멀티파트 조각 크기 (최소 5MB)
+     */
+    public S3BlobStore(HttpClient httpClient, S3RequestSigner signer, URI endpoint, String bucket,
+                       String publicBaseUrl, int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("partSize는 5MB 이상이어야 합니다: " + partSize);
+        }
+        this.httpClient = httpClient;
+        this.signer = signer;
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.publicBaseUrl = publicBaseUrl.endsWith("/")
+                ? publicBaseUrl.substring(0, publicBaseUrl.length() - 1)
+                : publicBaseUrl;
+        this.partSize = partSize;
+    }
+
+    @Override
+    public BlobInfo put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        BlobStore.validateKey(key);
+        MessageDigest digest = BlobStore.sha256();
+        InputStream in = new DigestInputStream(content, digest);
+
+        if (contentLength >= 0 && contentLength <= partSize) {
+            send("PUT", key, Map.of(), Map.of("Content-Type", contentType), body(in, contentLength),
+                    HttpResponse.BodyHandlers.discarding(), 200);
+            return new BlobInfo(key, contentLength, contentType, HexFormat.of().formatHex(digest.digest()));
+        }
+
+        String uploadId = initiateMultipartUpload(key, contentType);
+        try {
+            List<UploadedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[partSize];
+            long size = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, partSize)) > 0 || parts.isEmpty()) {
+                parts.add(uploadPart(key, uploadId, parts.size() + 1, new ByteArrayInputStream(buffer, 0, read), read));
+                size += read;
+                if (read < partSize) {
+                    break;
+                }
+            }
+            completeMultipartUpload(key, uploadId, parts);
+            return new BlobInfo(key, size, contentType, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException e) {
+            abortQuietly(key, uploadId);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<BlobInfo> stat(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", key, Map.of(), Map.of(), HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.discarding(), 200, 404);
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        return Optional.of(new BlobInfo(key, size, contentType, null));
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return getStream(key, Map.of(), 200);
+    }
+
+    @Override
+    public InputStream get(String key, long offset, long length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("잘못된 범위입니다: offset=" + offset + ", length=" + length);
+        }
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        return getStream(key, Map.of("Range", "bytes=" + offset + "-" + (offset + length - 1)), 206);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        // S3는 없는 객체 삭제도 204를 반환하므로 존재 여부를 먼저 확인
+        if (stat(key).isEmpty()) {
+            return false;
+        }
+        send("DELETE", key, Map.of(), Map.of(), HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.discarding(), 204, 200);
+        return true;
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        BlobStore.validateKey(key);
+        return publicBaseUrl + "/" + S3RequestSigner.encode(key, false);
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) throws IOException {
+        BlobStore.validateKey(key);
+        HttpResponse<String> response = send("POST", key, Map.of("uploads", ""), Map.of("Content-Type", contentType),
+                HttpRequest.BodyPublishers.noBody(), HttpResponse.BodyHandlers.ofString(), 200);
+        Matcher matcher = UPLOAD_ID.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IOException("멀티파트 업로드 ID를 받지 못했습니다: " + abbreviate(response.body()));
+        }
+        return matcher.group(1);
+    }
+
+    @Override
+    public UploadedPart uploadPart(String key, String uploadId, int partNumber, InputStream content,
+                                   long contentLength) throws IOException {
+        if (contentLength < 0) {
+            throw new IllegalArgumentException("조각 크기를 알아야 합니다.");
+        }
+        HttpResponse<Void> response = send("PUT", key,
+                Map.of("partNumber", Integer.toString(partNumber), "uploadId", uploadId), Map.of(),
+                body(content, contentLength),
+                HttpResponse.BodyHandlers.discarding(), 200);
+        String etag = response.headers().firstValue("ETag")
+                .orElseThrow(() -> new IOException("조각 ETag를 받지 못했습니다: " + partNumber));
+        return new UploadedPart(partNumber, etag);
+    }
+
+    @Override
+    public BlobInfo completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        parts.stream()
+                .sorted(Comparator.comparingInt(UploadedPart::partNumber))
+                .forEach(part -> xml.append("<Part><PartNumber>").append(part.partNumber())
+                        .append("</PartNumber><ETag>").append(escapeXml(part.etag()))
+                        .append("</ETag></Part>"));
+        xml.append("</CompleteMultipartUpload>");
+
+        HttpResponse<String> response = send("POST", key, Map.of("uploadId", uploadId),
+                Map.of("Content-Type", "application/xml"),
+                HttpRequest.BodyPublishers.ofString(xml.toString(), StandardCharsets.UTF_8),
+                HttpResponse.BodyHandlers.ofString(), 200);
+        // 완료 요청은 200 응답 본문에 오류가 담길 수 있음
+        if (response.body().contains("<Error>")) {
+            throw new IOException("멀티파트 업로드 완료 실패: " + abbreviate(response.body()));
+        }
+        return stat(key).orElseThrow(() -> new NoSuchFileException(key));
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) throws IOException {
+        send("DELETE", key, Map.of("uploadId", uploadId), Map.of(), HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.discarding(), 204, 200, 404);
+    }
+
+    @Override
+    public Optional<PresignedUpload> presignUpload(String key, String contentType, Duration ttl) {
+        BlobStore.validateKey(key);
+        Instant now = Instant.now();
+        String path = objectPath(key);
+        String query = signer.presignQuery("PUT", host(), path, Map.of("content-type", contentType), ttl, now);
+        return Optional.of(new PresignedUpload(
+                baseUri() + path + "?" + query,
+                "PUT",
+                Map.of("Content-Type", contentType),
+                now.plus(ttl)));
+    }
+
+    private InputStream getStream(String key, Map<String, String> headers, int expectedStatus) throws IOException {
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), headers, HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.ofInputStream(), expectedStatus, 200, 404, 416);
+        int status = response.statusCode();
+        if (status == 404) {
+            response.body().close();
+            throw new NoSuchFileException(key);
+        }
+        if (status == 416) {
+            // 객체 끝을 넘는 범위
+            response.body().close();
+            return InputStream.nullInputStream();
+        }
+        return response.body();
+    }
+
+    private <T> HttpResponse<T> send(String method, String key, Map<String, String> query, Map<String, String> headers,
+                                     HttpRequest.BodyPublisher body, HttpResponse.BodyHandler<T> handler,
+                                     int... expectedStatus) throws IOException {
+        BlobStore.validateKey(key);
+        String path = objectPath(key);
+        String canonicalQuery = S3RequestSigner.canonicalQuery(new TreeMap<>(query));
+        Map<String, String> signedHeaders = signer.signHeaders(method, host(), path, query, headers,
+                S3RequestSigner.UNSIGNED_PAYLOAD, Instant.now());
+
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUri() + path + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery)))
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, body);
+        signedHeaders.forEach(request::header);
+
+        HttpResponse<T> response;
+        try {
+            response = httpClient.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("저장소 요청이 중단되었습니다: " + method + " " + key, e);
+        }
+
+        for (int status : expectedStatus) {
+            if (response.statusCode() == status) {
+                return response;
+            }
+        }
+        String detail = response.body() instanceof String s ? abbreviate(s) : "";
+        if (response.body() instanceof InputStream stream) {
+            stream.close();
+        }
+        throw new IOException("저장소 요청 실패: " + method + " " + key + " → " + response.statusCode() + " " + detail);
+    }
+
+    /**
+     * 길이를 아는 스트리밍 본문 (Content-Length 지정, S3는 chunked 전송을 받지 않음)
+     */
+    private static HttpRequest.BodyPublisher body(InputStream content, long contentLength) {
+        if (contentLength == 0) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        return HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> content), contentLength);
+    }
+
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            abortMultipartUpload(key, uploadId);
+        } catch (IOException e) {
+            log.warn("Failed to abort multipart upload {} ({}): {}", key, uploadId, e.getMessage());
+        }
+    }
+
+    private String objectPath(String key) {
+        return "/" + S3RequestSigner.encode(bucket, true) + "/" + S3RequestSigner.encode(key, false);
+    }
+
+    private String baseUri() {
+        return endpoint.getScheme() + "://" + endpoint.getRawAuthority();
+    }
+
+    private String host() {
+        return endpoint.getRawAuthority();
+    }
+
+    private static String escapeXml(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() > 300 ? value.substring(0, 300) + "..." : value;
+    }
+}
@@ -0,0 +1,170 @@
+package com.tigger.closetconnectproject.Common.Storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * AWS Signature Version 4 서명 (S3 호환 저장소: AWS S3, MinIO 등)
+ * - 헤더 서명: 일반 API 요청 (본문은 UNSIGNED-PAYLOAD로 스트리밍)
+ * - 쿼리 서명: 클라이언트에게 넘겨주는 presigned URL
+ */
+public class S3RequestSigner {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    public static final String EMPTY_PAYLOAD_SHA256 =
+            "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE_STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    public S3RequestSigner(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * 요청 헤더 서명
+     *
+     * @param method      HTTP 메서드
+     * @param host        Host 헤더 값 (포트 포함)
+     * @param encodedPath URI 인코딩된 경로 (예: /bucket/images/a%20b.png)
+     * @param query       쿼리 파라미터 (인코딩 전)
+     * @param headers     서명에 포함할 헤더 (host, x-amz-date, x-amz-content-sha256 제외)
+     * @param payloadHash 본문 SHA-256 hex 또는 UNSIGNED-PAYLOAD
+     * @return 요청에 추가할 헤더 (Authorization, x-amz-date, x-amz-content-sha256 + 전달한 헤더)
+     */
+    public Map<String, String> signHeaders(String method, String host, String encodedPath,
+                                           Map<String, String> query, Map<String, String> headers,
+                                           String payloadHash, Instant now) {
+        String amzDate = AMZ_DATE.format(now);
+        Map<String, String> signed = new TreeMap<>();
+        headers.forEach((name, value) -> signed.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        signed.put("host", host);
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", amzDate);
+
+        String signedHeaders = String.join(";", signed.keySet());
+        String signature = signature(method, encodedPath, canonicalQuery(query), signed, payloadHash, now);
+
+        Map<String, String> result = new LinkedHashMap<>(signed);
+        result.remove("host");
+        result.put("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(now)
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+        return result;
+    }
+
+    /**
+     * presigned URL 쿼리 문자열 생성
+     *
+     * @param method      HTTP 메서드
+     * @param host        Host 헤더 값 (포트 포함)
+     * @param encodedPath URI 인코딩된 경로
+     * @param headers     클라이언트가 그대로 보내야 하는 헤더 (예: content-type, host 제외)
+     * @param ttl         유효 시간 (최대 7일)
+     * @return 인코딩된 쿼리 문자열 ('?' 제외)
+     */
+    public String presignQuery(String method, String host, String encodedPath, Map<String, String> headers,
+                               Duration ttl, Instant now) {
+        Map<String, String> signed = new TreeMap<>();
+        headers.forEach((name, value) -> signed.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        signed.put("host", host);
+
+        Map<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope(now));
+        query.put("X-Amz-Date", AMZ_DATE.format(now));
+        query.put("X-Amz-Expires", Long.toString(Math.min(ttl.toSeconds(), Duration.ofDays(7).toSeconds())));
+        query.put("X-Amz-SignedHeaders", String.join(";", signed.keySet()));
+
+        String canonicalQuery = canonicalQuery(query);
+        String signature = signature(method, encodedPath, canonicalQuery, signed, UNSIGNED_PAYLOAD, now);
+        return canonicalQuery + "&X-Amz-Signature=" + signature;
+    }
+
+    /**
+     * 쿼리 파라미터 → 정렬 + 인코딩된 쿼리 문자열 (서명과 실제 요청에 같은 문자열을 사용)
+     */
+    public static String canonicalQuery(Map<String, String> query) {
+        return new TreeMap<>(query).entrySet().stream()
+                .map(e -> encode(e.getKey(), true) + "=" + encode(e.getValue(), true))
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * RFC 3986 URI 인코딩 (AWS 규칙: A-Z a-z 0-9 - _ . ~ 외 모두 %XX)
+     *
+     * @param encodeSlash false면 경로 구분자 '/'는 그대로 둠
+     */
+    public static String encode(String value, boolean encodeSlash) {
+        StringBuilder sb = new StringBuilder(value.length() + 16);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return sb.toString();
+    }
+
+    private String signature(String method, String encodedPath, String canonicalQuery,
+                             Map<String, String> signedHeaders, String payloadHash, Instant now) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        signedHeaders.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value).append('\n'));
+
+        String canonicalRequest = method + "\n"
+                + encodedPath + "\n"
+                + canonicalQuery + "\n"
+                + canonicalHeaders + "\n"
+                + String.join(";", signedHeaders.keySet()) + "\n"
+                + payloadHash;
+
+        String stringToSign = ALGORITHM + "\n"
+                + AMZ_DATE.format(now) + "\n"
+                + scope(now) + "\n"
+                + HexFormat.of().formatHex(BlobStore.sha256().digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), DATE_STAMP.format(now));
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private String scope(Instant now) {
+        return DATE_STAMP.format(now) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -99,19 +99,22 @@ public class MarketProductDtos {
         private Integer price;
         private ProductStatus status;
         private String imageUrl;  // thumbnailUrl → imageUrl로 변경 (프론트엔드와 일치)
+        private String thumbnailUrl;  // 목록용 축소 이미지 (없으면 요청 시 생성)
         private String region;
         private Long likeCount;
         private Integer viewCount;
         private Integer commentCount;  // 댓글 수 추가
         private LocalDateTime createdAt;
 
-        public static ProductListRes of(MarketProduct p, String imageUrl, Long likeCount, Integer commentCount) {
+        public static ProductListRes of(MarketProduct p, String imageUrl, String thumbnailUrl,
+                                        Long likeCount, Integer commentCount) {
             return ProductListRes.builder()
                     .productId(p.getId())
                     .title(p.getTitle())
                     .price(p.getPrice())
                     .status(p.getStatus())
                     .imageUrl(imageUrl)
+                    .thumbnailUrl(thumbnailUrl)
                     .region(p.getRegion())
                     .likeCount(likeCount)
                     .viewCount(p.getViewCount())
@@ -35,4 +35,9 @@ public class MarketProductImage {
     @Column(nullable = false)
     @Builder.Default
     private Integer orderIndex = 0;
+
+    // 저장소 레이아웃 변경 시 URL 갱신
+    public void changeImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
 }
@@ -1,6 +1,7 @@
 package com.tigger.closetconnectproject.Market.Repository;
 
 import com.tigger.closetconnectproject.Market.Entity.MarketProductImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -31,4 +32,9 @@ public interface MarketProductImageRepository extends JpaRepository<MarketProduc
         ORDER BY i.marketProduct.id, i.orderIndex ASC
         """)
     List<MarketProductImage> findByMarketProduct_IdIn(List<Long> productIds);
+
+    /**
+     * 저장소 레이아웃 마이그레이션용 (id 기준 keyset 페이지)
+     */
+    List<MarketProductImage> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.tigger.closetconnectproject.Market.Service;
 
+import com.tigger.closetconnectproject.Closet.Service.ImageDerivativeService;
 import com.tigger.closetconnectproject.Market.Dto.MarketProductDtos;
 import com.tigger.closetconnectproject.Market.Dto.MarketProductLikeDtos;
 import com.tigger.closetconnectproject.Market.Entity.*;
@@ -32,6 +33,7 @@ public class MarketProductLikeService {
     private final MarketProductImageRepository imageRepo;
     private final MarketProductCommentRepository commentRepo;
     private final UsersRepository userRepo;
+    private final ImageDerivativeService derivativeService;
 
     /**
      * 찜 추가
@@ -123,6 +125,7 @@ public class MarketProductLikeService {
             return MarketProductDtos.ProductListRes.of(
                     p,
                     imageUrlMap.get(p.getId()),
+                    derivativeService.thumbnailUrl(imageUrlMap.get(p.getId())),
                     likeCountMap.getOrDefault(p.getId(), 0L),
                     commentCountMap.getOrDefault(p.getId(), 0)
             );
@@ -2,6 +2,7 @@ package com.tigger.closetconnectproject.Market.Service;
 
 import com.tigger.closetconnectproject.Closet.Entity.Cloth;
 import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Service.ImageDerivativeService;
 import com.tigger.closetconnectproject.Market.Dto.MarketProductDtos;
 import com.tigger.closetconnectproject.Market.Entity.*;
 import com.tigger.closetconnectproject.Market.Repository.MarketProductCommentRepository;
@@ -33,6 +34,7 @@ public class MarketProductService {
     private final ClothRepository clothRepo;
     private final UsersRepository userRepo;
     private final ChatService chatService;
+    private final ImageDerivativeService derivativeService;
 
     /**
      * 상품 등록
@@ -151,6 +153,7 @@ public class MarketProductService {
         return products.map(p -> MarketProductDtos.ProductListRes.of(
                 p,
                 imageUrlMap.get(p.getId()),
+                derivativeService.thumbnailUrl(imageUrlMap.get(p.getId())),
                 likeCountMap.getOrDefault(p.getId(), 0L),
                 commentCountMap.getOrDefault(p.getId(), 0)
         ));
@@ -320,6 +323,7 @@ public class MarketProductService {
         return products.map(p -> MarketProductDtos.ProductListRes.of(
                 p,
                 imageUrlMap.get(p.getId()),
+                derivativeService.thumbnailUrl(imageUrlMap.get(p.getId())),
                 likeCountMap.getOrDefault(p.getId(), 0L),
                 commentCountMap.getOrDefault(p.getId(), 0)
         ));
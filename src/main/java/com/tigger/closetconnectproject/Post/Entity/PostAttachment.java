@@ -34,4 +34,9 @@ public class PostAttachment {
 
     @Column(nullable = false)
     private long size;
+
+    /** 저장소 레이아웃 변경 시 URL 갱신 */
+    public void changeUrl(String url) {
+        this.url = url;
+    }
 }
@@ -1,8 +1,14 @@
 package com.tigger.closetconnectproject.Post.Repository;
 
 import com.tigger.closetconnectproject.Post.Entity.PostAttachment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface PostAttachmentRepository extends JpaRepository<PostAttachment, Long> {
     // 필요 시 findByPostId 등 추가
+
+    // 저장소 레이아웃 마이그레이션용 (id 기준 keyset 페이지)
+    List<PostAttachment> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,21 +1,20 @@
 package com.tigger.closetconnectproject.Post.Service;
 
+import com.tigger.closetconnectproject.Common.Storage.BlobStore;
 import com.tigger.closetconnectproject.Post.Dto.PostDtos;
 import com.tigger.closetconnectproject.Post.Entity.Post;
 import com.tigger.closetconnectproject.Post.Entity.PostAttachment;
 import com.tigger.closetconnectproject.Post.Repository.PostAttachmentRepository;
 import com.tigger.closetconnectproject.Post.Repository.PostRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.time.LocalDate;
-import java.util.UUID;
+import java.io.InputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,9 +22,7 @@ public class AttachmentService {
 
     private final PostRepository postRepository;
     private final PostAttachmentRepository attachmentRepository;
-
-    @Value("${file.upload-dir:uploads}") // 기본 uploads
-    private String uploadDir;
+    private final BlobStore blobStore;
 
     private static String ext(String filename) {
         if (!StringUtils.hasText(filename)) return "";
@@ -43,30 +40,26 @@ public class AttachmentService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("post not found: " + postId));
 
-        LocalDate today = LocalDate.now();
         String orig = file.getOriginalFilename();
-        String extension = ext(orig);
-        String random = UUID.randomUUID().toString().replace("-", "");
-        String savedName = random + (StringUtils.hasText(extension) ? ("." + extension) : "");
+        String extension = ext(orig).toLowerCase();
+        // 확장자는 저장소 키에 들어가므로 영숫자만 허용
+        String suffix = extension.matches("[a-z0-9]{1,10}") ? "." + extension : "";
+        String contentType = MediaTypeFactory.getMediaType(orig)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
 
-        // /uploads/{postId}/YYYY/MM/DD/
-        String relPath = String.format("%d/%04d/%02d/%02d", postId, today.getYear(), today.getMonthValue(), today.getDayOfMonth());
-        File dir = new File(uploadDir, relPath);
-        if (!dir.exists() && !dir.mkdirs()) {
-            throw new IllegalStateException("failed to create upload dir: " + dir.getAbsolutePath());
+        // attachments/{ab}/{cd}/{sha256}.ext (같은 파일은 한 번만 저장)
+        BlobStore.BlobInfo blob;
+        try (InputStream in = file.getInputStream()) {
+            blob = blobStore.putContentAddressed("attachments", suffix, in, contentType);
         }
-
-        File dest = new File(dir, savedName);
-        file.transferTo(dest);
-
-        String contentType = Files.probeContentType(dest.toPath());
-        long size = dest.length();
-        String url = "/uploads/" + relPath + "/" + savedName; // 정적 리소스 매핑 필요(아래 참고)
+        long size = blob.size();
+        String url = blobStore.publicUrl(blob.key());
 
         PostAttachment att = PostAttachment.builder()
                 .post(post)
                 .filename(orig)
-//                .storedName(savedName)
+                .imageKey(blob.key())
                 .contentType(contentType)
                 .size(size)
                 .url(url)
@@ -11,7 +11,7 @@ import com.tigger.closetconnectproject.Post.Entity.Visibility;
 import com.tigger.closetconnectproject.Post.Repository.PostAttachmentRepository;
 import com.tigger.closetconnectproject.Post.Repository.PostLikeRepository;
 import com.tigger.closetconnectproject.Post.Repository.PostRepository;
-import com.tigger.closetconnectproject.Upload.Service.LocalStorageService;
+import com.tigger.closetconnectproject.Upload.Service.UploadStorageService;
 import com.tigger.closetconnectproject.User.Entity.Users;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
@@ -31,7 +31,7 @@ public class PostService {
     private final PostLikeRepository likeRepo;
     private final PostAttachmentRepository attRepo;
     private final com.tigger.closetconnectproject.Community.Repository.CommunityBoardRepository boardRepo;
-    private final LocalStorageService storage;
+    private final UploadStorageService storage;
 
 
     // src/main/java/com/tigger/closetconnectproject/Post/Service/PostService.java
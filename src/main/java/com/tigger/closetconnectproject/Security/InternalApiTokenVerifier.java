@@ -0,0 +1,59 @@
+package com.tigger.closetconnectproject.Security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 내부 API(/internal/**) 공유 토큰 검증
+ * - AI 워커가 X-Internal-Token 헤더로 인증 (JWT 없음)
+ * - 시작 시 검증: 예전 공개 기본값이면 항상 실패, claim-check 발행(RabbitMQ)이 켜져 있는데 비어 있으면 실패
+ * - 토큰이 비어 있으면 모든 내부 요청 거부
+ */
+@Component
+public class InternalApiTokenVerifier {
+
+    public static final String HEADER = "X-Internal-Token";
+
+    /**
+     * 예전 설정 파일/워커에 있던 공개 기본값 (사용 금지)
+     */
+    static final String PUBLIC_DEFAULT_TOKEN = "change-this-internal-token";
+
+    @Value("${cloth.pipeline.internal-token:}")
+    private String internalToken = "";
+
+    @Value("${cloth.pipeline.claim-check.enabled:true}")
+    private boolean claimCheckEnabled = true;
+
+    @Value("${spring.rabbitmq.enabled:true}")
+    private boolean rabbitEnabled = true;
+
+    @PostConstruct
+    public void validate() {
+        String token = internalToken == null ? "" : internalToken.trim();
+        if (PUBLIC_DEFAULT_TOKEN.equals(token)) {
+            throw new IllegalStateException(
+                    "cloth.pipeline.internal-token이 공개 기본값입니다. PIPELINE_INTERNAL_TOKEN에 임의의 긴 값을 설정하세요.");
+        }
+        if (token.isEmpty() && claimCheckEnabled && rabbitEnabled) {
+            throw new IllegalStateException(
+                    "claim-check 모드에는 cloth.pipeline.internal-token이 필요합니다. PIPELINE_INTERNAL_TOKEN을 설정하세요.");
+        }
+    }
+
+    /**
+     * 요청 토큰 검증 (상수 시간 비교)
+     */
+    public boolean matches(String token) {
+        if (internalToken == null || internalToken.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                internalToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,9 +2,11 @@ package com.tigger.closetconnectproject.Security;
 
 import com.tigger.closetconnectproject.Common.Jwt.JwtAuthenticationFilter;
 import com.tigger.closetconnectproject.Common.Jwt.JwtTokenProvider;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.*;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -25,6 +27,7 @@ public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final AppUserDetailsService userDetailsService;
+    private final InternalApiTokenVerifier internalApiTokenVerifier;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -36,6 +39,12 @@ public class SecurityConfig {
                 .formLogin(form -> form.disable()) // formLogin 설정
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // 비동기 응답(상태 long-poll) 재디스패치: 원래 요청에서 이미 인가됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // AI 워커 전용 내부 API: X-Internal-Token 공유 토큰 필수
+                        .requestMatchers("/internal/**").access((authentication, context) ->
+                                new AuthorizationDecision(internalApiTokenVerifier.matches(
+                                        context.getRequest().getHeader(InternalApiTokenVerifier.HEADER))))
                         .requestMatchers("/api/v1/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/api/v1/weather/**").permitAll() // 날씨 API 공개
                         .requestMatchers(HttpMethod.GET, "/api/v1/market/**").permitAll() // Market 조회는 공개
@@ -47,6 +56,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/ootd/**").authenticated()
                         .requestMatchers("/api/v1/boards/**").authenticated()
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/pipeline").hasRole("ADMIN") // 파이프라인 단계별 시간 요약
                         .requestMatchers("/api/v1/posts/**").authenticated()
                         .requestMatchers(HttpMethod.OPTIONS,"/**").permitAll()
                         .anyRequest().permitAll()
@@ -1,8 +1,10 @@
 package com.tigger.closetconnectproject.Upload.Controller;
 
 import com.tigger.closetconnectproject.Security.AppUserDetails;
+import com.tigger.closetconnectproject.Upload.Dto.PresignedUploadRequest;
+import com.tigger.closetconnectproject.Upload.Dto.PresignedUploadResponse;
 import com.tigger.closetconnectproject.Upload.Dto.UploadResponse;
-import com.tigger.closetconnectproject.Upload.Service.LocalStorageService;
+import com.tigger.closetconnectproject.Upload.Service.UploadStorageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,12 +20,12 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class UploadController {
 
-    private final LocalStorageService storage;
+    private final UploadStorageService storage;
 
     /**
      * 설명: 이미지 파일 업로드
      * - 허용 형식: JPG, PNG, WEBP
-     * - 저장 위치: {uploadRoot}/{userId}/{year}/{month}/{day}/{uuid}.ext
+     * - 저장 키: images/{ab}/{cd}/{sha256}.ext (같은 이미지는 한 번만 저장)
      * - 반환: 공개 URL 및 내부 imageKey
      * @param file 업로드할 이미지 파일 (multipart/form-data)
      * @param principal 현재 로그인한 사용자 (Spring Security 자동 주입)
@@ -39,8 +41,32 @@ public class UploadController {
         // @PreAuthorize로 인증 체크되므로 principal은 항상 not null
         Long uid = principal.getUser().getUserId();
 
-        // 파일 저장 (LocalStorageService에서 MIME 타입 검증 및 저장)
+        // 파일 저장 (UploadStorageService에서 MIME 타입 검증 및 저장)
         var saved = storage.store(file, uid);
         return new UploadResponse(saved.imageUrl(), saved.imageKey());
     }
+
+    /**
+     * 설명: 저장소 직접 업로드 URL 발급 (큰 파일을 서버를 거치지 않고 업로드)
+     * - 발급된 URL로 headers를 포함하여 PUT 요청하면 imageUrl로 조회 가능
+     * - 로컬 저장소 설정에서는 501 (multipart 업로드 사용)
+     * @param request 업로드할 이미지 MIME 타입
+     * @param principal 현재 로그인한 사용자
+     * @return 업로드 URL, 필수 헤더, 만료 시각, 업로드 후 공개 URL 및 imageKey
+     */
+    @PostMapping("/presigned")
+    @PreAuthorize("isAuthenticated()")
+    public PresignedUploadResponse presign(
+            @RequestBody PresignedUploadRequest request,
+            @AuthenticationPrincipal AppUserDetails principal
+    ) {
+        var presigned = storage.presign(request.contentType(), principal.getUser().getUserId());
+        return new PresignedUploadResponse(
+                presigned.upload().url(),
+                presigned.upload().method(),
+                presigned.upload().headers(),
+                presigned.upload().expiresAt(),
+                presigned.imageUrl(),
+                presigned.imageKey());
+    }
 }
@@ -0,0 +1,63 @@
+package com.tigger.closetconnectproject.Upload.Controller;
+
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Upload.Service.UploadFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * 업로드 파일 제공 Controller (/uploads/**, 로컬 저장소)
+ * - 정적 리소스 핸들러 대신 Range/If-Range, 내용 해시 ETag, immutable 캐시를 직접 처리
+ * - /uploads/derived/** 는 ImageDerivativeController가 처리 (더 구체적인 매핑이 우선)
+ * - 옷 이미지가 로컬에 없으면 원격 저장소(storage.backend=s3)에서 작업 사본을 내려받아 제공
+ */
+@RestController
+@RequiredArgsConstructor
+public class UploadFileController {
+
+    private final UploadFileService uploadFileService;
+    private final ImageStorageService imageStorageService;
+
+    @Value("${app.upload.public-prefix:/uploads}")
+    private String publicPrefix;
+
+    /**
+     * 설명: 업로드 파일 조회
+     *
+     * @param v 내용 해시 버전 (일치하면 1년 immutable 캐시, 내용이 바뀌었으면 현재 버전으로 302)
+     * @example GET /uploads/inpainted/3f/a1/123.png?v=9f86d081884c7d65
+     */
+    @GetMapping("${app.upload.public-prefix:/uploads}/**")
+    public void getFile(
+            @RequestParam(name = UploadFileService.VERSION_PARAM, required = false) String v,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String prefix = publicPrefix + "/";
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(prefix)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "파일을 찾을 수 없습니다.");
+        }
+        String relative = UriUtils.decode(path.substring(prefix.length()), StandardCharsets.UTF_8);
+
+        Path file = uploadFileService.resolve(relative)
+                .or(() -> imageStorageService.fetchFromStore(relative))
+                .orElseThrow(() -> {
+                    uploadFileService.recordNotFound(relative);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "파일을 찾을 수 없습니다.");
+                });
+        uploadFileService.serve(file, UploadFileService.typeOf(relative), v, request, response);
+    }
+}
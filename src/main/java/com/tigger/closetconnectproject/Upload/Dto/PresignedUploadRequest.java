@@ -0,0 +1,5 @@
+package com.tigger.closetconnectproject.Upload.Dto;
+
+public record PresignedUploadRequest(
+        String contentType
+) {}
@@ -0,0 +1,13 @@
+package com.tigger.closetconnectproject.Upload.Dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PresignedUploadResponse(
+        String uploadUrl,
+        String method,
+        Map<String, String> headers,
+        Instant expiresAt,
+        String imageUrl,
+        String imageKey
+) {}
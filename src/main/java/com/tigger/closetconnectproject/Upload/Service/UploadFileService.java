@@ -0,0 +1,350 @@
+package com.tigger.closetconnectproject.Upload.Service;
+
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 업로드 파일 제공 (/uploads/**)
+ * - ETag = 파일 내용 SHA-256 (파일 크기/수정 시각 기준으로 메모리에 캐시)
+ * - 내용 해시가 URL에 있으면(?v={해시 앞 16자리} 또는 {sha256}.ext 파일명) 1년 immutable 캐시, 없으면 no-cache + ETag 재검증
+ * - Range/If-Range 지원 (단일 구간, 여러 구간 요청은 전체 응답)
+ * - Tomcat sendfile로 커널에서 바로 전송 (지원하지 않으면 FileChannel.transferTo)
+ * - 메트릭: uploads.served.bytes{type}, uploads.requests{type, result} (result=not_modified가 클라이언트 캐시 적중)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadFileService {
+
+    public static final String VERSION_PARAM = "v";
+
+    private static final int VERSION_LENGTH = 16;
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("([0-9a-f]{64})(\\.[A-Za-z0-9]{1,10})?");
+    private static final Pattern VERSION = Pattern.compile("[0-9a-f]{" + VERSION_LENGTH + "}");
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String METRIC_BYTES = "uploads.served.bytes";
+    private static final String METRIC_REQUESTS = "uploads.requests";
+
+    /**
+     * 메트릭 type 태그로 쓰는 최상위 디렉토리 (그 외는 "other", 태그 값 개수 제한)
+     */
+    private static final Set<String> KNOWN_TYPES = Stream.concat(
+            Arrays.stream(ImageStorageService.ImageType.values()).map(ImageStorageService.ImageType::getDirectory),
+            Stream.of("images", "attachments", "derived")
+    ).collect(Collectors.toUnmodifiableSet());
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.upload.root:./uploads}")
+    private String uploadRoot;
+
+    @Value("${app.upload.public-prefix:/uploads}")
+    private String publicPrefix;
+
+    @Value("${upload.serve.hash-cache-size:10000}")
+    private int hashCacheSize = 10_000;
+
+    /**
+     * 이보다 작은 파일은 sendfile 대신 직접 기록 (Tomcat 기본 sendfileSize와 같은 48KB)
+     */
+    @Value("${upload.serve.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes = 48 * 1024;
+
+    private final Map<Path, ContentHash> hashCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, ContentHash> eldest) {
+            return size() > hashCacheSize;
+        }
+    };
+
+    private record ContentHash(long size, long lastModified, String sha256) {}
+
+    /**
+     * /uploads/ 이후 상대 경로 → 파일 (평면 레이아웃 URL은 샤딩 위치도 확인)
+     *
+     * @return 파일 경로 (없거나 허용되지 않는 경로면 empty)
+     */
+    public Optional<Path> resolve(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return Optional.empty();
+        }
+        for (String segment : relativePath.split("/", -1)) {
+            if (segment.isEmpty() || segment.startsWith(".") || segment.contains("\\")) {
+                return Optional.empty();
+            }
+        }
+
+        Path root = root();
+        Path path = root.resolve(relativePath).normalize();
+        if (path.startsWith(root) && Files.isRegularFile(path)) {
+            return Optional.of(path);
+        }
+        String sharded = ImageStorageService.shardedRelativeOfLegacy(relativePath);
+        if (sharded != null) {
+            Path shardedPath = root.resolve(sharded).normalize();
+            if (shardedPath.startsWith(root) && Files.isRegularFile(shardedPath)) {
+                return Optional.of(shardedPath);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 내용 해시가 포함된 URL (브라우저/CDN이 재검증 없이 1년 캐시)
+     * - 파일명이 이미 내용 해시면 그대로 반환
+     *
+     * @param url 업로드 파일 URL
+     * @return ?v={해시} 가 붙은 URL (이 서버 파일이 아니거나 파일이 없으면 원래 URL)
+     */
+    public String versionedUrl(String url) {
+        if (url == null || !url.startsWith(publicPrefix + "/") || url.indexOf('?') >= 0) {
+            return url;
+        }
+        String relative = url.substring(publicPrefix.length() + 1);
+        if (isContentAddressed(relative)) {
+            return url;
+        }
+        Optional<Path> file = resolve(relative);
+        if (file.isEmpty()) {
+            return url;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.get(), BasicFileAttributes.class);
+            return url + "?" + VERSION_PARAM + "=" + contentHash(file.get(), attributes).substring(0, VERSION_LENGTH);
+        } catch (IOException e) {
+            log.debug("Failed to hash {}: {}", url, e.getMessage());
+            return url;
+        }
+    }
+
+    /**
+     * 파일 응답 기록 (조건부 요청, Range, 캐시 헤더, 메트릭 포함)
+     *
+     * @param file             제공할 파일
+     * @param type             메트릭 type 태그 (typeOf)
+     * @param requestedVersion 요청 URL의 v 파라미터 (없으면 null)
+     */
+    public void serve(Path file, String type, String requestedVersion,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String sha256 = contentHash(file, attributes);
+        String etag = "\"" + sha256 + "\"";
+
+        boolean immutable = isContentAddressed(file.getFileName().toString());
+        if (requestedVersion != null && !immutable) {
+            if (!VERSION.matcher(requestedVersion).matches() || !sha256.startsWith(requestedVersion)) {
+                // 내용이 바뀐 파일의 이전 버전 URL → 현재 버전으로 이동 (이전 버전 응답이 immutable로 캐시되지 않도록)
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+                response.setStatus(HttpServletResponse.SC_FOUND);
+                response.setHeader(HttpHeaders.LOCATION, request.getRequestURI()
+                        + "?" + VERSION_PARAM + "=" + sha256.substring(0, VERSION_LENGTH));
+                count(type, "redirect");
+                return;
+            }
+            immutable = true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue()
+                : CacheControl.noCache().cachePublic().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            count(type, "not_modified");
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        long start = 0;
+        long length = size;
+        boolean partial = false;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // 여러 구간(multipart/byteranges)은 지원하지 않고 전체 응답 (RFC 9110 허용)
+            if (ranges.size() == 1) {
+                long rangeStart = ranges.get(0).getRangeStart(size);
+                long rangeEnd = ranges.get(0).getRangeEnd(size);
+                if (rangeStart >= size || rangeEnd < rangeStart) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    count(type, "unsatisfiable");
+                    return;
+                }
+                start = rangeStart;
+                length = rangeEnd - rangeStart + 1;
+                partial = true;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + rangeStart + "-" + rangeEnd + "/" + size);
+            }
+        }
+        response.setContentLengthLong(length);
+        count(type, partial ? "partial" : "full");
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+        transfer(file, start, length, request, response);
+        meterRegistry.counter(METRIC_BYTES, "type", type).increment(length);
+    }
+
+    /**
+     * 파일 없음 메트릭 기록
+     */
+    public void recordNotFound(String relativePath) {
+        count(typeOf(relativePath), "not_found");
+    }
+
+    /**
+     * 상대 경로 → 메트릭 type 태그 (최상위 디렉토리)
+     */
+    public static String typeOf(String relativePath) {
+        int slash = relativePath == null ? -1 : relativePath.indexOf('/');
+        String top = slash > 0 ? relativePath.substring(0, slash) : "";
+        return KNOWN_TYPES.contains(top) ? top : "other";
+    }
+
+    private void transfer(Path file, long start, long length,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && length >= sendfileMinBytes) {
+            // 응답 본문을 쓰지 않고 Tomcat에 파일 구간을 넘기면 커넥터가 sendfile로 전송
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * If-Range가 없거나 현재 버전과 일치하면 true (일치하지 않으면 Range를 무시하고 전체 응답)
+     */
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 파일 내용 SHA-256 (파일명이 내용 해시면 계산하지 않음)
+     */
+    private String contentHash(Path file, BasicFileAttributes attributes) throws IOException {
+        var nameHash = CONTENT_ADDRESSED_NAME.matcher(file.getFileName().toString());
+        if (nameHash.matches()) {
+            return nameHash.group(1);
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        synchronized (hashCache) {
+            ContentHash cached = hashCache.get(file);
+            if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+                return cached.sha256();
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        synchronized (hashCache) {
+            hashCache.put(file, new ContentHash(size, lastModified, sha256));
+        }
+        return sha256;
+    }
+
+    private static boolean isContentAddressed(String relativePath) {
+        String name = relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        return CONTENT_ADDRESSED_NAME.matcher(name).matches();
+    }
+
+    private void count(String type, String result) {
+        meterRegistry.counter(METRIC_REQUESTS, "type", type, "result", result).increment();
+    }
+
+    private Path root() {
+        return Paths.get(uploadRoot).toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,82 @@
+package com.tigger.closetconnectproject.Upload.Service;
+
+import com.tigger.closetconnectproject.Common.Storage.BlobStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 사용자 업로드 이미지 저장 (BlobStore 위임)
+ * - 키: images/{ab}/{cd}/{sha256}.ext (같은 이미지는 한 번만 저장)
+ * - 큰 파일은 presigned URL로 저장소에 직접 업로드 가능 (S3 저장소일 때)
+ */
+@Service
+@RequiredArgsConstructor
+public class UploadStorageService {
+
+    private static final Map<String, String> ALLOWED = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/webp", ".webp");
+
+    // 멀티파트 한도는 옷 일괄 업로드(zip) 때문에 크게 잡혀 있으므로 이미지 한 장 크기는 여기서 제한
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+
+    private static final String IMAGE_PREFIX = "images";
+    private static final String DIRECT_PREFIX = "images/direct";
+
+    private final BlobStore blobStore;
+
+    @Value("${storage.presign.ttl-seconds:900}")
+    private long presignTtlSeconds;
+
+    public Stored store(MultipartFile file, Long userId) throws IOException {
+        if (file == null || file.isEmpty()) throw new IllegalArgumentException("이미지가 비어있습니다.");
+        if (file.getSize() > MAX_FILE_SIZE) throw new IllegalArgumentException("파일 크기는 10MB를 초과할 수 없습니다.");
+        String ct = Optional.ofNullable(file.getContentType()).orElse("");
+        String ext = extensionOf(ct);
+
+        BlobStore.BlobInfo blob;
+        try (InputStream in = file.getInputStream()) {
+            blob = blobStore.putContentAddressed(IMAGE_PREFIX, ext, in, ct);
+        }
+        return new Stored(blob.key(), blobStore.publicUrl(blob.key()));
+    }
+
+    /**
+     * 저장소 직접 업로드 URL 발급
+     * - 파일 내용이 서버를 거치지 않으므로 내용 해시 대신 무작위 키 사용
+     *
+     * @param contentType 업로드할 이미지 MIME 타입 (업로드 요청에 같은 값을 사용해야 함)
+     * @throws ResponseStatusException 저장소가 직접 업로드를 지원하지 않을 때 (501)
+     */
+    public Presigned presign(String contentType, Long userId) {
+        String ext = extensionOf(Optional.ofNullable(contentType).orElse(""));
+        String key = DIRECT_PREFIX + "/" + userId + "/" + UUID.randomUUID().toString().replace("-", "") + ext;
+
+        BlobStore.PresignedUpload upload = blobStore.presignUpload(key, contentType, Duration.ofSeconds(presignTtlSeconds))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                        "현재 저장소는 직접 업로드를 지원하지 않습니다. multipart 업로드를 사용하세요."));
+        return new Presigned(key, blobStore.publicUrl(key), upload);
+    }
+
+    private static String extensionOf(String contentType) {
+        String ext = ALLOWED.get(contentType);
+        if (ext == null) throw new IllegalArgumentException("jpg/png/webp만 허용됩니다.");
+        return ext;
+    }
+
+    public record Stored(String imageKey, String imageUrl) {}
+
+    public record Presigned(String imageKey, String imageUrl, BlobStore.PresignedUpload upload) {}
+}
@@ -0,0 +1,127 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Service.ClothAdmissionController;
+import com.tigger.closetconnectproject.Common.Exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothAdmissionController 단위 테스트
+ * - 대기열/처리량 기반 예상 완료 시각, 전체/사용자별 한도
+ */
+class ClothAdmissionControllerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private ClothRepository clothRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ClothAdmissionController admissionController;
+
+    @BeforeEach
+    void setUp() {
+        clothRepository = mock(ClothRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        admissionController = new ClothAdmissionController(clothRepository, meterRegistry);
+        ReflectionTestUtils.setField(admissionController, "clock", (LongSupplier) clock::get);
+    }
+
+    @Test
+    @DisplayName("SLO 이내면 허용하고 대기열/기본 처리량으로 예상 완료 시각을 계산한다")
+    void admitsWithinSloUsingDefaultThroughput() {
+        // Given: 대기 11건, 기본 처리량 6건/분 → (11 + 1) / 0.1 = 120초
+        given(clothRepository.countByProcessingStatus(ProcessingStatus.PROCESSING)).willReturn(11L);
+
+        // When
+        ClothAdmissionController.Admission admission = admissionController.admit(1L);
+
+        // Then
+        assertThat(admission.etaSeconds()).isEqualTo(120);
+        assertThat(admission.estimatedCompletionAt()).isEqualTo(Instant.ofEpochMilli(NOW + 120_000));
+        verify(clothRepository, never()).countByUser_UserIdAndProcessingStatus(1L, ProcessingStatus.PROCESSING);
+        assertThat(meterRegistry.counter("cloth.admission.decisions", "outcome", "admitted").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("관측 처리량이 충분하면 기본값 대신 사용한다")
+    void usesObservedThroughput() {
+        // Given: 최근 20초간 40건 완료 → 2건/초, 대기 19건 → 10초
+        for (int i = 0; i < 20; i++) {
+            admissionController.onCompleted();
+        }
+        clock.addAndGet(10_000);
+        for (int i = 0; i < 20; i++) {
+            admissionController.onCompleted();
+        }
+        given(clothRepository.countByProcessingStatus(ProcessingStatus.PROCESSING)).willReturn(19L);
+
+        // When
+        ClothAdmissionController.Admission admission = admissionController.admit(1L);
+
+        // Then
+        assertThat(admission.etaSeconds()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("대기열이 전체 한도 이상이면 모두 429로 거절하고 Retry-After를 알려준다")
+    void rejectsEveryoneAboveMaxBacklog() {
+        // Given
+        given(clothRepository.countByProcessingStatus(ProcessingStatus.PROCESSING)).willReturn(1005L);
+
+        // When & Then: 한도 아래로 내려갈 때까지 6건 / 0.1건/초 = 60초
+        assertThatThrownBy(() -> admissionController.admit(1L))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(e -> ((TooManyRequestsException) e).getRetryAfterSeconds())
+                .isEqualTo(60L);
+        assertThat(meterRegistry.counter("cloth.admission.decisions", "outcome", "rejected_global").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("SLO를 넘으면 처리 중인 옷이 많은 사용자만 거절한다")
+    void rejectsHeavyUsersWhenOverSlo() {
+        // Given: 대기 99건 → 1000초 (SLO 600초 초과)
+        given(clothRepository.countByProcessingStatus(ProcessingStatus.PROCESSING)).willReturn(99L);
+        given(clothRepository.countByUser_UserIdAndProcessingStatus(1L, ProcessingStatus.PROCESSING)).willReturn(3L);
+        given(clothRepository.countByUser_UserIdAndProcessingStatus(2L, ProcessingStatus.PROCESSING)).willReturn(0L);
+
+        // When & Then
+        assertThatThrownBy(() -> admissionController.admit(1L))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(e -> ((TooManyRequestsException) e).getRetryAfterSeconds())
+                .isEqualTo(400L);
+        assertThat(admissionController.admit(2L).etaSeconds()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("대기열 깊이는 갱신 주기 동안 재사용하고 그 사이 허용한 건수를 더한다")
+    void reusesBacklogReadingBetweenRefreshes() {
+        // Given
+        given(clothRepository.countByProcessingStatus(ProcessingStatus.PROCESSING)).willReturn(0L);
+
+        // When
+        long first = admissionController.admit(1L).etaSeconds();
+        long second = admissionController.admit(1L).etaSeconds();
+
+        // Then
+        assertThat(first).isEqualTo(10);
+        assertThat(second).isEqualTo(20);
+        verify(clothRepository).countByProcessingStatus(ProcessingStatus.PROCESSING);
+    }
+}
@@ -0,0 +1,119 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Service.ClothArtifactPersister;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClothArtifactPersister 단위 테스트
+ * - 임시 저장된 아티팩트의 병렬 커밋
+ * - 아이템 JSON 구성 및 순서 유지
+ */
+class ClothArtifactPersisterTest {
+
+    private ImageStorageService imageStorageService;
+    private ClothArtifactPersister persister;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseUrl", "/uploads");
+
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(3);
+        persister = new ClothArtifactPersister(imageStorageService, new ObjectMapper(), executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("모든 아티팩트를 커밋하고 아이템 JSON을 크기순 그대로 구성한다")
+    void persistAllArtifacts() throws Exception {
+        // Given
+        ClothResultMessage message = new ClothResultMessage();
+        message.setClothId(3L);
+        message.setSuccess(true);
+        message.setRemovedBgImage(stage(ImageStorageService.ImageType.REMOVED_BG, 1));
+        message.setInpaintedImage(stage(ImageStorageService.ImageType.INPAINTED, 2));
+        message.setAllExpandedItems(List.of(
+                new ClothResultMessage.ExpandedItem("upper", null, stage(ImageStorageService.ImageType.EXPANDED, 3), 900),
+                new ClothResultMessage.ExpandedItem("pants", null, stage(ImageStorageService.ImageType.EXPANDED, 4), 400)
+        ));
+
+        // When
+        ClothArtifactPersister.PersistedArtifacts result = persister.persist(message);
+
+        // Then
+        assertThat(result.removedBgUrl()).isEqualTo("/uploads/removed-bg/3.png");
+        assertThat(result.segmentedUrl()).isNull();
+        assertThat(result.inpaintedUrl()).isEqualTo("/uploads/inpainted/3.png");
+        assertThat(Files.readAllBytes(tempDir.resolve("removed-bg/3.png"))).containsExactly(1);
+        assertThat(Files.exists(tempDir.resolve("expanded/3_upper.png"))).isTrue();
+        assertThat(Files.exists(tempDir.resolve("expanded/3_pants.png"))).isTrue();
+
+        assertThat(result.expandedItemsJson())
+                .contains("\"expandedUrl\":\"/uploads/expanded/3_upper.png\"")
+                .contains("\"expandedUrl\":\"/uploads/expanded/3_pants.png\"");
+        assertThat(result.expandedItemsJson().indexOf("upper"))
+                .isLessThan(result.expandedItemsJson().indexOf("pants"));
+        assertThat(result.segmentedItemsJson()).isNull();
+
+        long recorded = meterRegistry.find("cloth.result.artifact.write").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+        assertThat(recorded).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("개별 아이템 저장 실패는 목록에서 제외된다")
+    void failedItemIsSkipped() throws Exception {
+        // Given - 이미 커밋된 임시 파일은 다시 커밋할 수 없음
+        ImageStorageService.StagedImage stale = stage(ImageStorageService.ImageType.EXPANDED, 5);
+        imageStorageService.commitStagedImage(stale, 4L, "stale");
+
+        ClothResultMessage message = new ClothResultMessage();
+        message.setClothId(4L);
+        message.setSuccess(true);
+        message.setAllExpandedItems(List.of(
+                new ClothResultMessage.ExpandedItem("stale", null, stale, 100),
+                new ClothResultMessage.ExpandedItem("shoes", null, stage(ImageStorageService.ImageType.EXPANDED, 6), 50)
+        ));
+
+        // When
+        ClothArtifactPersister.PersistedArtifacts result = persister.persist(message);
+
+        // Then
+        assertThat(result.expandedItemsJson()).contains("shoes").doesNotContain("\"label\":\"stale\"");
+    }
+
+    private ImageStorageService.StagedImage stage(ImageStorageService.ImageType type, int content) throws Exception {
+        return imageStorageService.stageImage(type, out -> out.write(content));
+    }
+}
@@ -0,0 +1,192 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothBatchResponse;
+import com.tigger.closetconnectproject.Closet.Service.ClothAdmissionController;
+import com.tigger.closetconnectproject.Closet.Service.ClothBatchImportService;
+import com.tigger.closetconnectproject.Closet.Service.ClothService;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Exception.TooManyRequestsException;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothBatchImportService 단위 테스트
+ * - zip 항목 스트리밍, 건너뛸 항목, 한도, 임시 파일 정리
+ */
+class ClothBatchImportServiceTest {
+
+    private ClothService clothService;
+    private ClothAdmissionController admissionController;
+    private ClothBatchImportService batchImportService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ImageStorageService imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseUrl", "/uploads");
+
+        clothService = mock(ClothService.class);
+        admissionController = mock(ClothAdmissionController.class);
+        batchImportService = new ClothBatchImportService(
+                clothService, imageStorageService, admissionController, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("zip의 이미지 항목만 임시 저장해 한 번에 생성하고 나머지는 건너뛴다")
+    void importsImageEntriesFromZip() throws Exception {
+        // Given
+        MockMultipartFile archive = zip(
+                "closet/", null,
+                "closet/white shirt.JPG", "shirt",
+                "closet/jeans.png", "jeans",
+                "closet/readme.txt", "hello",
+                "__MACOSX/closet/._jeans.png", "meta");
+        given(admissionController.admit(7L, 2))
+                .willReturn(new ClothAdmissionController.Admission(30, Instant.ofEpochSecond(1000)));
+        given(clothService.createBatch(eq(7L), anyString(), anyList(), eq("FULL_BODY")))
+                .willReturn(new ClothService.BatchResult(List.of(11L, 12L), 0));
+
+        // When
+        ClothBatchResponse response = batchImportService.importBatch(7L, null, archive, "FULL_BODY");
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ClothService.BatchItem>> captor = ArgumentCaptor.forClass(List.class);
+        verify(clothService).createBatch(eq(7L), eq(response.batchId()), captor.capture(), eq("FULL_BODY"));
+        List<ClothService.BatchItem> items = captor.getValue();
+        assertThat(items).extracting(ClothService.BatchItem::name).containsExactly("white shirt", "jeans");
+        assertThat(items).extracting(ClothService.BatchItem::extension).containsExactly(".jpg", ".png");
+        assertThat(items.get(1).staged().size()).isEqualTo(5);
+
+        assertThat(response.clothIds()).containsExactly(11L, 12L);
+        assertThat(response.skipped()).extracting(ClothBatchResponse.SkippedItem::filename)
+                .containsExactly("closet/readme.txt");
+        assertThat(response.estimatedCompletionAt()).isEqualTo(Instant.ofEpochSecond(1000));
+        assertThat(stagingFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘는 이미지는 해당 항목만 건너뛴다")
+    void skipsOversizedEntries() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(batchImportService, "maxItemBytes", 4L);
+        MockMultipartFile small = new MockMultipartFile("images", "a.png", "image/png", new byte[]{1, 2, 3});
+        MockMultipartFile large = new MockMultipartFile("images", "b.png", "image/png", new byte[]{1, 2, 3, 4, 5});
+        given(admissionController.admit(7L, 1))
+                .willReturn(new ClothAdmissionController.Admission(10, Instant.ofEpochSecond(1000)));
+        given(clothService.createBatch(eq(7L), anyString(), anyList(), anyString()))
+                .willReturn(new ClothService.BatchResult(List.of(11L), 0));
+
+        // When
+        ClothBatchResponse response = batchImportService.importBatch(7L, List.of(small, large), null, "SINGLE_ITEM");
+
+        // Then
+        assertThat(response.skipped()).containsExactly(new ClothBatchResponse.SkippedItem("b.png", "too_large"));
+        assertThat(stagingFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("허용 제어에서 거절되면 옷을 만들지 않고 임시 파일을 지운다")
+    void rejectedBatchLeavesNoFiles() throws Exception {
+        // Given
+        MockMultipartFile archive = zip("a.png", "aaa", "b.png", "bbb");
+        given(admissionController.admit(7L, 2)).willThrow(new TooManyRequestsException("busy", 60));
+
+        // When & Then
+        assertThatThrownBy(() -> batchImportService.importBatch(7L, null, archive, "FULL_BODY"))
+                .isInstanceOf(TooManyRequestsException.class);
+        verify(clothService, never()).createBatch(any(), any(), anyList(), any());
+        assertThat(stagingFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("최대 장수를 넘으면 400으로 거절한다")
+    void rejectsTooManyItems() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(batchImportService, "maxItems", 1);
+        MockMultipartFile archive = zip("a.png", "aaa", "b.png", "bbb");
+
+        // When & Then
+        assertThatThrownBy(() -> batchImportService.importBatch(7L, null, archive, "FULL_BODY"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(admissionController, never()).admit(any(), anyInt());
+        assertThat(stagingFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("요청 본문으로 받은 zip이 최대 크기를 넘으면 400으로 거절한다")
+    void rejectsOversizedArchiveBody() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(batchImportService, "maxArchiveBytes", 64L);
+        MockMultipartFile archive = zip("a.png", "a".repeat(500), "b.png", "b".repeat(500));
+
+        // When & Then
+        assertThatThrownBy(() -> batchImportService.importArchive(
+                7L, new ByteArrayInputStream(archive.getBytes()), "FULL_BODY"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("64 bytes");
+        verify(clothService, never()).createBatch(any(), any(), anyList(), any());
+        assertThat(stagingFiles()).isEmpty();
+    }
+
+    /**
+     * 이름/내용 쌍으로 zip 생성 (내용이 null이면 디렉토리)
+     */
+    private static MockMultipartFile zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                if (namesAndContents[i + 1] != null) {
+                    zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("archive", "closet.zip", "application/zip", bytes.toByteArray());
+    }
+
+    private List<Path> stagingFiles() throws IOException {
+        Path original = tempDir.resolve("original");
+        if (!Files.exists(original)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(original)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Service.ClothDeadLetterService;
+import com.tigger.closetconnectproject.Closet.Service.ClothDispatchLanes;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultHandler;
+import com.tigger.closetconnectproject.Closet.Service.ClothRetryTiers;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothDeadLetterService 단위 테스트
+ * - 실패 횟수에 따른 지연 재시도 단계 선택
+ * - 재시도 소진/재시도 불가 실패의 dead letter 이동
+ * - 처리 요청 메시지 본문의 retryCount 증가
+ * - 결과 메시지는 dead letter로 갈 때만 FAILED 반영
+ */
+class ClothDeadLetterServiceTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private ClothResultHandler resultHandler;
+    private SimpleMeterRegistry meterRegistry;
+    private ClothDeadLetterService deadLetterService;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        resultHandler = mock(ClothResultHandler.class);
+        meterRegistry = new SimpleMeterRegistry();
+        deadLetterService = new ClothDeadLetterService(rabbitTemplate, new ClothRetryTiers(), new ClothDispatchLanes(),
+                resultHandler, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(deadLetterService, "clothProcessingQueue", "cloth.processing.queue");
+        ReflectionTestUtils.setField(deadLetterService, "clothResultQueue", "cloth.result.queue");
+    }
+
+    @Test
+    @DisplayName("첫 실패는 5초 단계 큐로 보내고 재시도 횟수를 1 올린다")
+    void schedulesFirstRetry() {
+        // Given
+        Message message = resultMessage(null);
+
+        // When
+        deadLetterService.recover(message, failure(new IllegalStateException("DB down")));
+
+        // Then
+        verify(rabbitTemplate).send(eq("cloth.retry.exchange"), eq("cloth.result.queue"), eq(message));
+        MessageProperties props = message.getMessageProperties();
+        assertThat((Integer) props.getHeader(RabbitMQConfig.HEADER_RETRY_COUNT)).isEqualTo(1);
+        assertThat((String) props.getHeader(RabbitMQConfig.HEADER_RETRY_TIER)).isEqualTo("5000");
+        assertThat(props.getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        assertThat(meterRegistry.counter("cloth.retry.scheduled", "tier", "5000").count()).isEqualTo(1);
+        verify(resultHandler, never()).handleUnrecoverableResult(any(), any());  // 재시도 중에는 상태 유지
+    }
+
+    @Test
+    @DisplayName("재시도 단계를 모두 소진하면 원래 큐 정보와 함께 dead letter 큐로 보낸다")
+    void deadLettersAfterLastTier() {
+        // Given
+        Message message = resultMessage(3);
+
+        // When
+        deadLetterService.recover(message, failure(new IllegalStateException("still failing")));
+
+        // Then
+        verify(rabbitTemplate).send(eq("cloth.dlx"), eq("cloth.dead-letter.queue"), eq(message));
+        verify(rabbitTemplate, never()).send(eq("cloth.retry.exchange"), any(String.class), any(Message.class));
+        MessageProperties props = message.getMessageProperties();
+        assertThat((String) props.getHeader(RabbitMQConfig.HEADER_ORIGINAL_QUEUE)).isEqualTo("cloth.result.queue");
+        assertThat((String) props.getHeader(RabbitMQConfig.HEADER_FAILURE_REASON)).contains("still failing");
+        assertThat(meterRegistry.counter("cloth.dead-letter.routed").count()).isEqualTo(1);
+        verify(resultHandler).handleUnrecoverableResult(eq(1L), contains("still failing"));
+    }
+
+    @Test
+    @DisplayName("단계별 중간 결과는 dead letter로 가도 옷을 FAILED로 바꾸지 않는다")
+    void keepsStatusForDeadLetteredStageResult() {
+        // Given
+        Message message = resultMessage(3);
+        message = new Message("{\"clothId\":1,\"stage\":\"REMOVED_BG\"}".getBytes(StandardCharsets.UTF_8),
+                message.getMessageProperties());
+
+        // When
+        deadLetterService.recover(message, failure(new IllegalStateException("still failing")));
+
+        // Then
+        verify(rabbitTemplate).send(eq("cloth.dlx"), eq("cloth.dead-letter.queue"), eq(message));
+        verify(resultHandler, never()).handleUnrecoverableResult(any(), any());
+    }
+
+    @Test
+    @DisplayName("역직렬화 실패처럼 재시도해도 소용없는 메시지는 바로 dead letter 큐로 보낸다")
+    void deadLettersNonRetryableFailure() {
+        // Given
+        Message message = resultMessage(null);
+
+        // When
+        deadLetterService.recover(message, failure(new MessageConversionException("bad json")));
+
+        // Then
+        verify(rabbitTemplate).send(eq("cloth.dlx"), eq("cloth.dead-letter.queue"), eq(message));
+    }
+
+    @Test
+    @DisplayName("처리 요청 메시지를 재시도 큐로 보낼 때 본문의 retryCount도 1 올린다")
+    void incrementsProcessingMessageRetryCount() throws Exception {
+        // Given
+        MessageProperties props = new MessageProperties();
+        props.setConsumerQueue("cloth.processing.queue");
+        props.setReceivedDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        Message message = new Message("{\"clothId\":1,\"retryCount\":1}".getBytes(StandardCharsets.UTF_8), props);
+
+        // When
+        deadLetterService.recover(message, failure(new IllegalStateException("worker down")));
+
+        // Then
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq("cloth.retry.exchange"), eq("cloth.processing.queue"), sent.capture());
+        assertThat(new ObjectMapper().readTree(sent.getValue().getBody()).get("retryCount").asInt()).isEqualTo(2);
+        assertThat((Integer) sent.getValue().getMessageProperties().getHeader(RabbitMQConfig.HEADER_RETRY_COUNT))
+                .isEqualTo(1);
+    }
+
+    private static Message resultMessage(Integer retryCount) {
+        MessageProperties props = new MessageProperties();
+        props.setConsumerQueue("cloth.result.queue");
+        props.setReceivedDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        props.setDeliveryMode(null);
+        if (retryCount != null) {
+            props.setHeader(RabbitMQConfig.HEADER_RETRY_COUNT, retryCount);
+        }
+        return new Message("{\"clothId\":1}".getBytes(), props);
+    }
+
+    private static Throwable failure(Throwable cause) {
+        return new ListenerExecutionFailedException("Listener threw exception", cause);
+    }
+}
@@ -0,0 +1,187 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import com.rabbitmq.client.ReturnListener;
+import com.tigger.closetconnectproject.Closet.Service.ClothDispatchLanes;
+import com.tigger.closetconnectproject.Closet.Service.ClothFairShareDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothFairShareDispatcher 단위 테스트
+ * - lane 라운드 로빈 분배
+ * - 워커 큐 target-depth 제한
+ * - publisher confirm 실패 시 lane에 되돌림
+ * - 사용자 → lane consistent hash
+ */
+class ClothFairShareDispatcherTest {
+
+    private static final String WORKER_QUEUE = "cloth.processing.queue";
+
+    private Channel channel;
+    private ClothDispatchLanes lanes;
+    private ClothFairShareDispatcher dispatcher;
+    private final Map<String, ArrayDeque<String>> laneMessages = new HashMap<>();
+    private long deliveryTag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        channel = mock(Channel.class);
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        given(rabbitTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+        given(channel.basicGet(anyString(), anyBoolean())).willAnswer(invocation -> {
+            ArrayDeque<String> queue = laneMessages.get(invocation.<String>getArgument(0));
+            String body = queue == null ? null : queue.poll();
+            return body == null ? null : new GetResponse(
+                    new Envelope(++deliveryTag, false, "cloth.exchange", invocation.getArgument(0)),
+                    new AMQP.BasicProperties(), body.getBytes(StandardCharsets.UTF_8), queue.size());
+        });
+        given(channel.waitForConfirms(anyLong())).willReturn(true);
+
+        lanes = new ClothDispatchLanes();
+        ReflectionTestUtils.setField(lanes, "laneCount", 4);
+
+        dispatcher = new ClothFairShareDispatcher(rabbitTemplate, lanes, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "clothProcessingQueue", WORKER_QUEUE);
+        ReflectionTestUtils.setField(dispatcher, "clothExchange", "cloth.exchange");
+        ReflectionTestUtils.setField(dispatcher, "clothProcessingRoutingKey", "cloth.processing");
+    }
+
+    @Test
+    @DisplayName("대량 업로드 lane과 단건 lane을 번갈아 워커 큐로 옮긴다")
+    void roundRobinAcrossLanes() throws Exception {
+        // Given - 0번 lane에 대량 업로드 4건, 2번 lane에 단건 1건, 워커 큐는 비어 있음
+        workerQueueDepth(0);
+        enqueue(0, "bulk-1", "bulk-2", "bulk-3", "bulk-4");
+        enqueue(2, "single-1");
+
+        // When
+        ClothFairShareDispatcher.DispatchResult result = dispatcher.dispatch();
+
+        // Then - 단건 업로드는 대량 업로드 1건 뒤에 바로 분배
+        assertThat(result.moved()).isEqualTo(5);
+        assertThat(result.drained()).isTrue();
+        assertThat(publishedBodies()).containsExactly("bulk-1", "single-1", "bulk-2", "bulk-3", "bulk-4");
+        verify(channel, atLeastOnce()).basicAck(anyLong(), eq(false));
+    }
+
+    @Test
+    @DisplayName("워커 큐가 target-depth만큼 차 있으면 더 옮기지 않는다")
+    void respectsTargetDepth() throws Exception {
+        // Given - target-depth 8, 이미 6건 대기
+        workerQueueDepth(6);
+        enqueue(1, "a-1", "a-2", "a-3");
+
+        // When
+        ClothFairShareDispatcher.DispatchResult result = dispatcher.dispatch();
+
+        // Then
+        assertThat(result.moved()).isEqualTo(2);
+        assertThat(result.drained()).isFalse();
+        assertThat(laneMessages.get(lanes.queueName(1))).containsExactly("a-3");
+    }
+
+    @Test
+    @DisplayName("워커 큐 발행이 nack되면 lane에서 ack하지 않고 되돌린다")
+    void requeuesWhenPublishNacked() throws Exception {
+        // Given
+        workerQueueDepth(0);
+        enqueue(0, "a-1", "a-2");
+        given(channel.waitForConfirms(anyLong())).willReturn(false);
+
+        // When
+        ClothFairShareDispatcher.DispatchResult result = dispatcher.dispatch();
+
+        // Then
+        assertThat(result.moved()).isZero();
+        assertThat(result.drained()).isFalse();
+        verify(channel, times(2)).basicNack(anyLong(), eq(false), eq(true));
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("워커 큐로 라우팅되지 못하고 반환되면 lane에 되돌린다")
+    void requeuesWhenPublishReturned() throws Exception {
+        // Given - 발행하면 브로커가 mandatory 메시지를 반환
+        workerQueueDepth(0);
+        enqueue(1, "a-1");
+        ArgumentCaptor<ReturnListener> listener = ArgumentCaptor.forClass(ReturnListener.class);
+        given(channel.waitForConfirms(anyLong())).willAnswer(invocation -> {
+            verify(channel).addReturnListener(listener.capture());
+            listener.getValue().handleReturn(312, "NO_ROUTE", "cloth.exchange", "cloth.processing",
+                    new AMQP.BasicProperties(), new byte[0]);
+            return true;
+        });
+
+        // When
+        ClothFairShareDispatcher.DispatchResult result = dispatcher.dispatch();
+
+        // Then
+        assertThat(result.moved()).isZero();
+        verify(channel).basicNack(anyLong(), eq(false), eq(true));
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel).removeReturnListener(listener.getValue());
+    }
+
+    @Test
+    @DisplayName("사용자 lane은 항상 같고 lane 수를 늘려도 대부분 유지된다")
+    void consistentLaneAssignment() {
+        List<Long> userIds = IntStream.range(1, 10_001).mapToObj(Long::valueOf).toList();
+
+        long moved = userIds.stream()
+                .filter(id -> ClothDispatchLanes.laneOf(id, 32) != ClothDispatchLanes.laneOf(id, 33))
+                .count();
+
+        assertThat(userIds).allSatisfy(id -> assertThat(ClothDispatchLanes.laneOf(id, 32))
+                .isBetween(0, 31)
+                .isEqualTo(ClothDispatchLanes.laneOf(id, 32)));
+        assertThat(moved).isLessThan(userIds.size() / 20);
+        assertThat(ClothDispatchLanes.laneOf(null, 32)).isZero();
+    }
+
+    private void workerQueueDepth(int depth) throws Exception {
+        given(channel.queueDeclarePassive(WORKER_QUEUE))
+                .willReturn(new AMQP.Queue.DeclareOk.Builder().queue(WORKER_QUEUE).messageCount(depth).build());
+    }
+
+    private void enqueue(int lane, String... bodies) {
+        laneMessages.computeIfAbsent(lanes.queueName(lane), name -> new ArrayDeque<>()).addAll(List.of(bodies));
+    }
+
+    private List<String> publishedBodies() throws Exception {
+        ArgumentCaptor<byte[]> bodies = ArgumentCaptor.forClass(byte[].class);
+        verify(channel, atLeastOnce()).basicPublish(eq("cloth.exchange"), eq("cloth.processing"), eq(true),
+                any(AMQP.BasicProperties.class), bodies.capture());
+        return bodies.getAllValues().stream().map(body -> new String(body, StandardCharsets.UTF_8)).toList();
+    }
+}
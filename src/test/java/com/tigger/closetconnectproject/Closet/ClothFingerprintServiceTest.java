@@ -0,0 +1,123 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ClothFingerprint;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothFingerprintRepository;
+import com.tigger.closetconnectproject.Closet.Service.ClothArtifactPersister;
+import com.tigger.closetconnectproject.Closet.Service.ClothFingerprintService;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothFingerprintService 단위 테스트
+ * - 처리 결과 지문 등록 (fingerprint 디렉토리 하드 링크)
+ * - 재업로드 시 결과 재사용 및 원래 옷 삭제 후에도 재사용 가능
+ */
+class ClothFingerprintServiceTest {
+
+    private static final String HASH = "ab".repeat(32);
+
+    private ClothFingerprintRepository fingerprintRepository;
+    private ImageStorageService imageStorageService;
+    private ClothFingerprintService fingerprintService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseUrl", "/uploads");
+
+        fingerprintRepository = mock(ClothFingerprintRepository.class);
+        fingerprintService = new ClothFingerprintService(
+                fingerprintRepository, imageStorageService, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fingerprintService, "enabled", true);
+    }
+
+    @Test
+    @DisplayName("등록된 지문의 결과는 원래 옷의 파일이 삭제된 뒤에도 새 옷에 연결된다")
+    void recordThenReuseAfterSourceDeleted() throws Exception {
+        // Given - 옷 10의 처리 결과
+        String removedBgUrl = commit(ImageStorageService.ImageType.REMOVED_BG, 10L, null, 1);
+        String expandedUrl = commit(ImageStorageService.ImageType.EXPANDED, 10L, "pants", 2);
+        ClothResultMessage message = new ClothResultMessage();
+        message.setSuggestedCategory("BOTTOM");
+        message.setSegmentationLabel("pants");
+        ClothArtifactPersister.PersistedArtifacts artifacts = new ClothArtifactPersister.PersistedArtifacts(
+                removedBgUrl, null, null, null,
+                "[{\"label\":\"pants\",\"expandedUrl\":\"" + expandedUrl + "\",\"areaPixels\":500}]", null);
+
+        // When - 지문 등록 후 원래 옷 거부(파일 삭제)
+        fingerprintService.record(10L, HASH, message, artifacts);
+        ArgumentCaptor<ClothFingerprint> captor = ArgumentCaptor.forClass(ClothFingerprint.class);
+        verify(fingerprintRepository).save(captor.capture());
+        ClothFingerprint fingerprint = captor.getValue();
+
+        imageStorageService.deleteImage(removedBgUrl);
+        imageStorageService.deleteImage(expandedUrl);
+
+        given(fingerprintRepository.findByContentHash(HASH)).willReturn(Optional.of(fingerprint));
+        Cloth reupload = Cloth.builder().id(20L).name("재업로드").originalContentHash(HASH).build();
+        boolean reused = fingerprintService.reuseIfKnown(reupload);
+
+        // Then
+        assertThat(reused).isTrue();
+        assertThat(reupload.getProcessingStatus()).isEqualTo(ProcessingStatus.READY_FOR_REVIEW);
+        assertThat(reupload.getSuggestedCategory()).isEqualTo(Category.BOTTOM);
+        assertThat(reupload.getRemovedBgImageUrl()).isEqualTo("/uploads/removed-bg/20.png");
+        assertThat(Files.readAllBytes(tempDir.resolve("removed-bg/20.png"))).containsExactly(1);
+        assertThat(reupload.getAllExpandedItemsJson()).contains("/uploads/expanded/20_pants.png");
+        assertThat(Files.readAllBytes(tempDir.resolve("expanded/20_pants.png"))).containsExactly(2);
+        assertThat(fingerprint.getHitCount()).isEqualTo(1L);
+        assertThat(fingerprintService.getHitRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("아티팩트가 사라진 지문은 삭제되고 파이프라인으로 처리된다")
+    void staleFingerprintIsEvicted() {
+        // Given
+        ClothFingerprint stale = ClothFingerprint.builder()
+                .contentHash(HASH)
+                .removedBgImageUrl("/uploads/fingerprint/" + HASH + ".removed-bg.png")
+                .build();
+        given(fingerprintRepository.findByContentHash(HASH)).willReturn(Optional.of(stale));
+        Cloth cloth = Cloth.builder().id(30L).name("옷").originalContentHash(HASH).build();
+
+        // When
+        boolean reused = fingerprintService.reuseIfKnown(cloth);
+
+        // Then
+        assertThat(reused).isFalse();
+        assertThat(cloth.getProcessingStatus()).isEqualTo(ProcessingStatus.PROCESSING);
+        assertThat(cloth.getRemovedBgImageUrl()).isNull();
+        verify(fingerprintRepository).delete(stale);
+        assertThat(fingerprintService.getHitRatio()).isZero();
+    }
+
+    private String commit(ImageStorageService.ImageType type, Long clothId, String label, int content) throws Exception {
+        ImageStorageService.StagedImage staged = imageStorageService.stageImage(type, out -> out.write(content));
+        return imageStorageService.commitStagedImage(staged, clothId, label);
+    }
+}
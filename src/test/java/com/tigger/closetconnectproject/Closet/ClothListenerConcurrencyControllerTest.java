@@ -0,0 +1,67 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Service.ClothListenerConcurrencyController;
+import com.tigger.closetconnectproject.Closet.Service.ClothListenerConcurrencyController.Decision;
+import com.tigger.closetconnectproject.Closet.Service.ClothListenerConcurrencyController.ListenerPolicy;
+import com.tigger.closetconnectproject.Closet.Service.ClothListenerConcurrencyController.Observation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClothListenerConcurrencyController 조정 결정 테스트
+ * - 적체/지연/DB 풀 포화에 따른 consumer 수, prefetch 변화
+ */
+class ClothListenerConcurrencyControllerTest {
+
+    private static final ListenerPolicy RESULT = new ListenerPolicy(
+            ClothListenerConcurrencyController.RESULT_LISTENER_ID, "cloth.result.queue", 2, 8, 1, 1, 5000, true);
+    private static final ListenerPolicy PROGRESS = new ListenerPolicy(
+            ClothListenerConcurrencyController.PROGRESS_LISTENER_ID, "cloth.progress.queue", 1, 4, 10, 250, 50, false);
+
+    @Test
+    @DisplayName("결과 큐가 적체되고 처리 시간이 정상이면 consumer를 하나 늘린다")
+    void scalesUpOnBacklog() {
+        Decision decision = ClothListenerConcurrencyController.decide(
+                RESULT, new Observation(100, 2, 1, 800, false), 10);
+
+        assertThat(decision.consumers()).isEqualTo(3);
+        assertThat(decision.prefetch()).isEqualTo(1);
+        assertThat(decision.reason()).isEqualTo("backlog");
+    }
+
+    @Test
+    @DisplayName("DB 풀이 포화되면 적체가 있어도 결과 consumer를 줄인다")
+    void scalesDownWhenDbSaturated() {
+        Decision decision = ClothListenerConcurrencyController.decide(
+                RESULT, new Observation(100, 4, 1, 800, true), 10);
+
+        assertThat(decision.consumers()).isEqualTo(3);
+        assertThat(decision.reason()).isEqualTo("db_saturated");
+    }
+
+    @Test
+    @DisplayName("진행도 큐가 적체되면 consumer보다 prefetch를 먼저 늘리고, 느려지면 prefetch를 줄인다")
+    void adjustsProgressPrefetch() {
+        Decision backlog = ClothListenerConcurrencyController.decide(
+                PROGRESS, new Observation(500, 1, 10, 5, false), 10);
+        Decision slow = ClothListenerConcurrencyController.decide(
+                PROGRESS, new Observation(500, 1, 40, 120, false), 10);
+
+        assertThat(backlog.consumers()).isEqualTo(1);
+        assertThat(backlog.prefetch()).isEqualTo(20);
+        assertThat(slow.prefetch()).isEqualTo(20);
+        assertThat(slow.reason()).isEqualTo("latency");
+    }
+
+    @Test
+    @DisplayName("큐가 비면 최소값까지 한 단계씩 줄인다")
+    void scalesDownWhenIdle() {
+        Decision decision = ClothListenerConcurrencyController.decide(
+                RESULT, new Observation(0, 2, 1, 0, false), 10);
+
+        assertThat(decision.consumers()).isEqualTo(2);
+        assertThat(decision.prefetch()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothProcessingMessage;
+import com.tigger.closetconnectproject.Closet.Service.ClothDispatchLanes;
+import com.tigger.closetconnectproject.Closet.Service.ClothMessageProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothMessageProducer 단위 테스트
+ * - 버퍼 배치 발행
+ * - publisher confirm(ack/nack) 처리와 재발행
+ */
+class ClothMessageProducerTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private ClothDispatchLanes lanes;
+    private SimpleMeterRegistry meterRegistry;
+    private ClothMessageProducer producer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        given(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).willAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+
+        lanes = new ClothDispatchLanes();
+        meterRegistry = new SimpleMeterRegistry();
+        producer = new ClothMessageProducer(rabbitTemplate, lanes, meterRegistry);
+        ReflectionTestUtils.setField(producer, "clothExchange", "cloth.exchange");
+        ReflectionTestUtils.setField(producer, "clothProcessingRoutingKey", "cloth.processing");
+        ReflectionTestUtils.setField(producer, "maxAttempts", 2);
+        ReflectionTestUtils.setField(producer, "retryBackoffMs", 0L);
+        producer.init();
+    }
+
+    @Test
+    @DisplayName("버퍼에 쌓인 메시지를 한 번에 사용자 lane으로 발행하고 ack를 받으면 완료한다")
+    void publishesBatchToUserLanes() {
+        // Given
+        CompletableFuture<Void> first = producer.sendClothProcessingMessage(message(1L, 10L));
+        CompletableFuture<Void> second = producer.sendClothProcessingMessage(message(2L, 10L));
+        CompletableFuture<Void> third = producer.sendClothProcessingMessage(message(3L, 20L));
+
+        // When
+        int published = producer.flush();
+        List<CorrelationData> correlations = sentCorrelations(3);
+        correlations.forEach(correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(true, null)));
+
+        // Then
+        assertThat(published).isEqualTo(3);
+        verify(rabbitTemplate, times(1)).invoke(any(RabbitOperations.OperationsCallback.class));
+        verify(rabbitTemplate, times(2)).convertAndSend(eq("cloth.exchange"), eq(lanes.routingKeyOf(10L)),
+                any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(third).isCompleted();
+        assertThat(meterRegistry.counter("cloth.publish.results", "result", "ack").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("cloth.publish.confirm.lag").count()).isEqualTo(3);
+        assertThat(meterRegistry.get("cloth.publish.awaiting.confirm").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("nack을 받으면 다시 발행하고 max-attempts를 넘으면 실패로 완료한다")
+    void retriesOnNackThenGivesUp() {
+        // Given
+        CompletableFuture<Void> result = producer.sendClothProcessingMessage(message(1L, 10L));
+
+        // When - 첫 시도 nack → 버퍼로 재투입
+        producer.flush();
+        sentCorrelations(1).get(0).getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+
+        // Then
+        assertThat(result).isNotDone();
+        assertThat(meterRegistry.get("cloth.publish.buffer.size").gauge().value()).isEqualTo(1);
+
+        // When - 두 번째 시도도 nack
+        producer.flush();
+        sentCorrelations(2).get(1).getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+
+        // Then
+        assertThat(result).isCompletedExceptionally();
+        assertThat(meterRegistry.counter("cloth.publish.results", "result", "nack").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("cloth.publish.results", "result", "failed").count()).isEqualTo(1);
+    }
+
+    private List<CorrelationData> sentCorrelations(int expected) {
+        ArgumentCaptor<CorrelationData> captor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, times(expected)).convertAndSend(eq("cloth.exchange"), any(String.class),
+                any(Object.class), any(MessagePostProcessor.class), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static ClothProcessingMessage message(Long clothId, Long userId) {
+        ClothProcessingMessage message = new ClothProcessingMessage();
+        message.setClothId(clothId);
+        message.setUserId(userId);
+        return message;
+    }
+}
@@ -0,0 +1,151 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothProcessingMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ClothOutboxMessage;
+import com.tigger.closetconnectproject.Closet.Service.ClothMessageProducer;
+import com.tigger.closetconnectproject.Closet.Service.ClothOutboxRelay;
+import com.tigger.closetconnectproject.Closet.Service.ClothOutboxService;
+import com.tigger.closetconnectproject.Closet.Service.ClothPipelineMetrics;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothOutboxRelay 단위 테스트
+ * - confirm된 행만 일괄 삭제
+ * - claim-check 메시지 구성
+ * - 주기마다 배치 하나만 발행
+ */
+@ExtendWith(MockitoExtension.class)
+class ClothOutboxRelayTest {
+
+    @Mock
+    private ClothOutboxService outboxService;
+
+    @Mock
+    private ClothMessageProducer clothMessageProducer;
+
+    @Mock
+    private ImageStorageService imageStorageService;
+
+    @Captor
+    private ArgumentCaptor<Collection<Long>> deletedCaptor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClothOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new ClothOutboxRelay(outboxService, clothMessageProducer, imageStorageService,
+                new ClothPipelineMetrics(meterRegistry), meterRegistry, Runnable::run);
+        ReflectionTestUtils.setField(relay, "claimCheckEnabled", true);
+        ReflectionTestUtils.setField(relay, "internalBaseUrl", "http://api:8080");
+        ReflectionTestUtils.setField(relay, "confirmTimeoutMs", 1000L);
+    }
+
+    @Test
+    @DisplayName("confirm된 행만 삭제하고 실패한 행은 lease 후 재발행하도록 남긴다")
+    void deletesOnlyConfirmedRows() {
+        // Given
+        given(outboxService.claim(100)).willReturn(List.of(row(1L, 10L), row(2L, 20L), row(3L, 30L)));
+        given(clothMessageProducer.sendClothProcessingMessage(any(ClothProcessingMessage.class))).willReturn(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new AmqpException("nack")),
+                CompletableFuture.completedFuture(null));
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        verify(outboxService).deleteRelayed(deletedCaptor.capture());
+        assertThat(relayed).isEqualTo(2);
+        assertThat(deletedCaptor.getValue()).containsExactly(1L, 3L);
+        assertThat(meterRegistry.counter("cloth.outbox.relayed").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("cloth.outbox.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("claim-check 메시지에는 저장소 참조와 내부 다운로드 URL만 담는다")
+    void buildsClaimCheckMessage() {
+        // Given
+        given(outboxService.claim(100)).willReturn(List.of(row(1L, 10L)));
+        given(clothMessageProducer.sendClothProcessingMessage(any(ClothProcessingMessage.class)))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        relay.relayBatch();
+
+        // Then
+        ArgumentCaptor<ClothProcessingMessage> sent = ArgumentCaptor.forClass(ClothProcessingMessage.class);
+        verify(clothMessageProducer).sendClothProcessingMessage(sent.capture());
+        assertThat(sent.getValue().getClothId()).isEqualTo(10L);
+        assertThat(sent.getValue().getImageRef()).isEqualTo("/uploads/original/10.png");
+        assertThat(sent.getValue().getImageFetchUrl()).isEqualTo("http://api:8080/internal/v1/cloth/10/original");
+        assertThat(sent.getValue().getImageBytes()).isNull();
+    }
+
+    @Test
+    @DisplayName("배치가 가득 차도 한 주기에는 한 배치만 발행하고 다음 주기에 이어서 가져온다")
+    void relaysOneBatchPerTick() {
+        // Given - 배치 크기 1, 새 행 표시
+        ReflectionTestUtils.setField(relay, "batchSize", 1);
+        given(outboxService.takePending()).willReturn(true);
+        given(outboxService.claim(1)).willReturn(List.of(row(1L, 10L)));
+        given(clothMessageProducer.sendClothProcessingMessage(any(ClothProcessingMessage.class)))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        relay.relayTick();
+
+        // Then
+        verify(outboxService, times(1)).claim(1);
+        verify(outboxService).markPending();
+    }
+
+    @Test
+    @DisplayName("가져올 행이 없으면 아무것도 하지 않는다")
+    void emptyOutbox() {
+        given(outboxService.claim(100)).willReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+        verify(outboxService, never()).deleteRelayed(anyCollection());
+    }
+
+    private static ClothOutboxMessage row(Long id, Long clothId) {
+        return ClothOutboxMessage.builder()
+                .id(id)
+                .clothId(clothId)
+                .userId(1L)
+                .imageRef("/uploads/original/" + clothId + ".png")
+                .contentSha256("ab".repeat(32))
+                .contentLength(1234L)
+                .imageType("FULL_BODY")
+                .attempts(1)
+                .availableAt(Instant.now().plusSeconds(30))
+                .createdAt(Instant.now())
+                .build();
+    }
+}
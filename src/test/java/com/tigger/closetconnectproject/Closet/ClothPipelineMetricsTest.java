@@ -0,0 +1,99 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Service.ClothPipelineMetrics;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClothPipelineMetrics 단위 테스트
+ * - 워커 헤더 기반 단계 시간, 옷당 한 번만 기록되는 단계, 요약
+ */
+class ClothPipelineMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClothPipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipelineMetrics = new ClothPipelineMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("첫 진행도와 큐 대기 시간은 옷당 한 번만 기록한다")
+    void recordsFirstProgressAndQueueWaitOnce() {
+        // Given
+        long now = System.currentTimeMillis();
+        pipelineMetrics.onEnqueued(1L, "FULL_BODY", now - 5000);
+        Map<String, Object> headers = Map.of(
+                RabbitMQConfig.HEADER_ENQUEUED_AT, now - 4000,
+                RabbitMQConfig.HEADER_DEQUEUED_AT, now - 1000);
+
+        // When
+        pipelineMetrics.onProgress(1L, headers);
+        pipelineMetrics.onProgress(1L, headers);
+
+        // Then
+        assertThat(stageTimer("first_progress", "FULL_BODY").count()).isEqualTo(1);
+        Timer queueWait = stageTimer("queue_wait", "FULL_BODY");
+        assertThat(queueWait.count()).isEqualTo(1);
+        assertThat(queueWait.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3000);
+    }
+
+    @Test
+    @DisplayName("결과 헤더의 워커 단계 시간을 이미지 타입별로 기록하고 잘못된 항목은 건너뛴다")
+    void recordsWorkerStageTimingsFromHeaders() {
+        // Given
+        Map<String, Object> headers = Map.of(
+                RabbitMQConfig.HEADER_ENQUEUED_AT, System.currentTimeMillis() - 10000,
+                RabbitMQConfig.HEADER_IMAGE_TYPE, "SINGLE_ITEM",
+                RabbitMQConfig.HEADER_STAGE_TIMINGS, "rembg=1200;segmentation=abc;inpainting=3000");
+
+        // When
+        pipelineMetrics.onWorkerResult(2L, headers, true);
+        pipelineMetrics.onCompleted(2L, true);
+
+        // Then
+        assertThat(stageTimer("worker_rembg", "SINGLE_ITEM").totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1200);
+        assertThat(stageTimer("worker_inpainting", "SINGLE_ITEM").totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3000);
+        assertThat(meterRegistry.find(ClothPipelineMetrics.STAGE_TIMER).tag("stage", "worker_segmentation").timer())
+                .isNull();
+        assertThat(stageTimer("end_to_end", "SINGLE_ITEM").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("요약은 단계별로 건수와 백분위수를 보여준다")
+    void summarizesStages() {
+        // Given
+        pipelineMetrics.record(ClothPipelineMetrics.STAGE_DB_UPDATE, "FULL_BODY", "success", 40);
+        pipelineMetrics.record(ClothPipelineMetrics.STAGE_DB_UPDATE, "FULL_BODY", "success", 60);
+
+        // When
+        Map<String, List<ClothPipelineMetrics.StageSummary>> summary = pipelineMetrics.summary();
+
+        // Then
+        assertThat(summary).containsOnlyKeys("db_update");
+        ClothPipelineMetrics.StageSummary dbUpdate = summary.get("db_update").get(0);
+        assertThat(dbUpdate.imageType()).isEqualTo("FULL_BODY");
+        assertThat(dbUpdate.count()).isEqualTo(2);
+        assertThat(dbUpdate.meanMs()).isEqualTo(50);
+        assertThat(dbUpdate.p99Ms()).isNotNull();
+    }
+
+    private Timer stageTimer(String stage, String imageType) {
+        return meterRegistry.get(ClothPipelineMetrics.STAGE_TIMER)
+                .tag("stage", stage)
+                .tag("image_type", imageType)
+                .timer();
+    }
+}
@@ -0,0 +1,120 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.tigger.closetconnectproject.Closet.Client.ClothPipelineStageClient;
+import com.tigger.closetconnectproject.Closet.Client.ClothPipelineStageClient.Stage;
+import com.tigger.closetconnectproject.Closet.Dto.SegmentationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ClothPipelineStageClient 계약 테스트 (스텁 HTTP 서버)
+ * - FastAPI 서버 계약: multipart/form-data의 file 파트, 파트 Content-Type은 image/*
+ * - 기본 경로: rembg /remove-bg, segmentation /segment, inpainting /inpaint
+ */
+class ClothPipelineStageClientTest {
+
+    private static final byte[] PNG_BYTES = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3};
+
+    private HttpServer server;
+    private ClothPipelineStageClient client;
+    private final Map<String, Captured> captured = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub("/remove-bg", 200, "image/png", new byte[]{9, 9, 9});
+        stub("/segment", 200, "application/json",
+                "{\"status\":\"success\",\"detected_items\":[],\"summary\":{\"total_items\":0,\"categories\":[]}}"
+                        .getBytes(StandardCharsets.UTF_8));
+        stub("/inpaint", 422, "application/json", "{\"detail\":\"missing file\"}".getBytes(StandardCharsets.UTF_8));
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        client = new ClothPipelineStageClient(new ObjectMapper(), new SimpleMeterRegistry(),
+                baseUrl, 5, "/remove-bg", 1,
+                baseUrl, 5, "/segment", 1,
+                baseUrl, 5, "/inpaint", 1,
+                5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("이미지를 multipart/form-data의 file 파트로 보내고 응답 이미지를 그대로 기록한다")
+    void sendsImageAsMultipartFilePart() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        client.transform(Stage.REMBG, "original.jpg", HttpRequest.BodyPublishers.ofByteArray(PNG_BYTES), out);
+
+        // Then
+        Captured request = captured.get("/remove-bg");
+        assertThat(request.contentType()).startsWith("multipart/form-data; boundary=");
+        String boundary = request.contentType().substring("multipart/form-data; boundary=".length());
+        String body = new String(request.body(), StandardCharsets.ISO_8859_1);
+        assertThat(body).startsWith("--" + boundary + "\r\n");
+        assertThat(body).contains("Content-Disposition: form-data; name=\"file\"; filename=\"original.jpg\"");
+        assertThat(body).contains("Content-Type: image/jpeg\r\n\r\n"
+                + new String(PNG_BYTES, StandardCharsets.ISO_8859_1) + "\r\n--" + boundary + "--\r\n");
+        assertThat(out.toByteArray()).containsExactly(9, 9, 9);
+    }
+
+    @Test
+    @DisplayName("중간 결과 파일명은 image/png 파트로 보내고 JSON 응답을 역직렬화한다")
+    void sendsIntermediateImageAsPngPart() throws Exception {
+        // When
+        SegmentationResponse response = client.analyze(Stage.SEGMENTATION, "removed_bg.png",
+                HttpRequest.BodyPublishers.ofByteArray(PNG_BYTES), SegmentationResponse.class);
+
+        // Then
+        String body = new String(captured.get("/segment").body(), StandardCharsets.ISO_8859_1);
+        assertThat(body).contains("name=\"file\"; filename=\"removed_bg.png\"\r\nContent-Type: image/png\r\n");
+        assertThat(response.status()).isEqualTo("success");
+    }
+
+    @Test
+    @DisplayName("2xx 이외 응답은 IOException으로 전달한다")
+    void failsOnNonSuccessStatus() {
+        // When & Then
+        assertThatThrownBy(() -> client.transform(Stage.INPAINTING, "segmented.png",
+                HttpRequest.BodyPublishers.ofByteArray(PNG_BYTES), OutputStream.nullOutputStream()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP 422");
+    }
+
+    private void stub(String path, int status, String contentType, byte[] response) {
+        server.createContext(path, exchange -> {
+            captured.put(path, new Captured(
+                    exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestBody().readAllBytes()));
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        });
+    }
+
+    private record Captured(String contentType, byte[] body) {}
+}
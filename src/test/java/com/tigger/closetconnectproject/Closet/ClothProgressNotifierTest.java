@@ -0,0 +1,96 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothProgressMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressNotifier;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressStreamRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * ClothProgressNotifier 단위 테스트
+ * - 중간 진행도 latest-wins 병합, 종료 상태 즉시 전송
+ */
+class ClothProgressNotifierTest {
+
+    private static final String DESTINATION = "/queue/cloth/progress/7";
+
+    private SimpMessagingTemplate messagingTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ClothProgressNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        notifier = new ClothProgressNotifier(messagingTemplate, mock(ClothProgressStreamRegistry.class), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("flush 전 여러 번 들어온 중간 진행도는 최신 값 하나만 전송한다")
+    void coalescesIntermediateUpdates() {
+        // Given
+        notifier.notifyProgress(7L, 1L, ProcessingStatus.PROCESSING, "배경 제거", 10);
+        notifier.notifyProgress(7L, 1L, ProcessingStatus.PROCESSING, "배경 제거", 20);
+        notifier.notifyProgress(7L, 1L, ProcessingStatus.PROCESSING, "세그멘테이션", 40);
+        verifyNoInteractions(messagingTemplate);
+
+        // When
+        notifier.flush();
+        notifier.flush();
+
+        // Then
+        ArgumentCaptor<ClothProgressMessage> captor = ArgumentCaptor.forClass(ClothProgressMessage.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DESTINATION), captor.capture());
+        assertThat(captor.getValue().getProgressPercentage()).isEqualTo(40);
+        assertThat(captor.getValue().getCurrentStep()).isEqualTo("세그멘테이션");
+        assertThat(meterRegistry.counter("cloth.progress.received").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("cloth.progress.superseded").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("cloth.progress.delivered", "kind", "intermediate").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("완료 알림은 즉시 전송하고 대기 중이거나 뒤늦게 온 중간 진행도는 버린다")
+    void terminalUpdateWinsOverPending() {
+        // Given
+        notifier.notifyProgress(7L, 1L, ProcessingStatus.PROCESSING, "인페인팅", 80);
+
+        // When
+        notifier.notifyComplete(7L, 1L);
+        notifier.notifyProgress(7L, 1L, ProcessingStatus.PROCESSING, "인페인팅", 90);
+        notifier.flush();
+
+        // Then
+        ArgumentCaptor<ClothProgressMessage> captor = ArgumentCaptor.forClass(ClothProgressMessage.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DESTINATION), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(ProcessingStatus.READY_FOR_REVIEW);
+        assertThat(meterRegistry.counter("cloth.progress.delivered", "kind", "terminal").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cloth.progress.delivered", "kind", "intermediate").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("서로 다른 옷의 진행도는 각각 전송한다")
+    void keepsLatestPerCloth() {
+        // Given
+        notifier.notifyProgress(7L, 1L, ProcessingStatus.PROCESSING, "배경 제거", 10);
+        notifier.notifyProgress(7L, 2L, ProcessingStatus.PROCESSING, "배경 제거", 15);
+
+        // When
+        notifier.flush();
+
+        // Then
+        verify(messagingTemplate, times(2)).convertAndSend(eq(DESTINATION), any(ClothProgressMessage.class));
+    }
+}
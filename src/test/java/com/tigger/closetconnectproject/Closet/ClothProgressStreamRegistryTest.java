@@ -0,0 +1,96 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothProgressMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressStreamRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClothProgressStreamRegistry 단위 테스트
+ * - 느린 연결의 중간 진행도 버림, Last-Event-ID 재전송
+ */
+class ClothProgressStreamRegistryTest {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ClothProgressStreamRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 전송 작업을 모아두었다가 테스트에서 직접 실행 (느린 클라이언트 흉내)
+        registry = new ClothProgressStreamRegistry(pendingTasks::add, meterRegistry);
+        ReflectionTestUtils.setField(registry, "bufferSize", 3);
+    }
+
+    @Test
+    @DisplayName("전송이 밀려 버퍼가 가득 차면 가장 오래된 중간 진행도부터 버린다")
+    void dropsOldestIntermediateWhenBufferFull() {
+        // Given
+        registry.connect(7L, null);
+
+        // When
+        for (int progress = 10; progress <= 50; progress += 10) {
+            registry.publish(progress(progress), false);
+        }
+        runPendingTasks();
+
+        // Then
+        assertThat(meterRegistry.counter("cloth.progress.stream.dropped", "reason", "slow_client").count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.counter("cloth.progress.stream.sent").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("완료/실패 이벤트만으로 버퍼가 넘치면 연결을 끊는다")
+    void closesConnectionWhenOnlyTerminalEventsQueued() {
+        // Given
+        registry.connect(7L, null);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            registry.publish(progress(100), true);
+        }
+
+        // Then
+        assertThat(registry.getConnectionCount(7L)).isZero();
+        assertThat(meterRegistry.counter("cloth.progress.stream.dropped", "reason", "overflow").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID로 재연결하면 그 이후 이벤트만 다시 보낸다")
+    void replaysEventsAfterLastEventId() {
+        // Given
+        registry.publish(progress(10), false);
+        registry.publish(progress(40), false);
+        registry.publish(progress(70), false);
+
+        // When
+        registry.connect(7L, "1");
+        runPendingTasks();
+
+        // Then
+        assertThat(meterRegistry.counter("cloth.progress.stream.sent").count()).isEqualTo(2);
+        assertThat(registry.getConnectionCount(7L)).isEqualTo(1);
+    }
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.remove(0).run();
+        }
+    }
+
+    private static ClothProgressMessage progress(int percentage) {
+        return new ClothProgressMessage(1L, 7L, ProcessingStatus.PROCESSING, "배경 제거 중", percentage);
+    }
+}
@@ -0,0 +1,145 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultManifest;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultAssembler;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Config.RabbitMQConfig;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClothResultAssembler 단위 테스트
+ * - v2 아티팩트/매니페스트 메시지의 순서와 무관한 조립
+ * - 반영 실패 시 작업/임시 파일 유지 후 재시도 메시지로 다시 조립
+ */
+class ClothResultAssemblerTest {
+
+    private ClothResultAssembler assembler;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ImageStorageService imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseUrl", "/uploads");
+
+        assembler = new ClothResultAssembler(imageStorageService, objectMapper);
+        ReflectionTestUtils.setField(assembler, "pendingTtlSeconds", 1800L);
+    }
+
+    @Test
+    @DisplayName("매니페스트가 먼저 도착해도 모든 아티팩트가 도착하면 결과가 조립된다")
+    void assemblesRegardlessOfArrivalOrder() throws Exception {
+        // Given
+        ClothResultManifest manifest = new ClothResultManifest(
+                2, 7L, null, true, null, "BOTTOM", "pants", 1000,
+                List.of(
+                        new ClothResultManifest.ArtifactRef(ClothResultManifest.ArtifactType.REMOVED_BG, null, null),
+                        new ClothResultManifest.ArtifactRef(ClothResultManifest.ArtifactType.EXPANDED_ITEM, "pants", 1000)
+                ));
+
+        // When - 매니페스트 먼저
+        Optional<ClothResultAssembler.AssembledResult> afterManifest = assembler.acceptManifest(manifestMessage(manifest));
+        Optional<ClothResultAssembler.AssembledResult> afterFirst =
+                assembler.acceptArtifact(artifactMessage("EXPANDED_ITEM", "pants", new byte[]{4, 5}));
+        Optional<ClothResultAssembler.AssembledResult> afterSecond =
+                assembler.acceptArtifact(artifactMessage("REMOVED_BG", null, new byte[]{1, 2, 3}));
+
+        // Then
+        assertThat(afterManifest).isEmpty();
+        assertThat(afterFirst).isEmpty();
+        assertThat(afterSecond).isPresent();
+
+        ClothResultMessage message = afterSecond.get().message();
+        assertThat(message.getClothId()).isEqualTo(7L);
+        assertThat(message.getSuggestedCategory()).isEqualTo("BOTTOM");
+        assertThat(Files.readAllBytes(message.getRemovedBgImage().tempPath())).containsExactly(1, 2, 3);
+        assertThat(message.getAllExpandedItems()).hasSize(1);
+        assertThat(message.getAllExpandedItems().get(0).getLabel()).isEqualTo("pants");
+        assertThat(message.getAllExpandedItems().get(0).getImage().tempPath().getParent())
+                .isEqualTo(tempDir.resolve("expanded"));
+
+        // 반영 성공 시 작업과 커밋되지 않은 임시 파일 정리
+        assertThat(assembler.getPendingCount()).isEqualTo(1);
+        assembler.complete(afterSecond.get());
+        assertThat(assembler.getPendingCount()).isZero();
+        assertThat(message.getRemovedBgImage().tempPath()).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("반영에 실패하면 작업과 임시 파일을 유지하고 재시도된 매니페스트로 다시 조립된다")
+    void reassemblesAfterReleasedFailure() throws Exception {
+        // Given
+        ClothResultManifest manifest = new ClothResultManifest(
+                2, 7L, null, true, null, "TOP", "shirt", 500,
+                List.of(new ClothResultManifest.ArtifactRef(ClothResultManifest.ArtifactType.REMOVED_BG, null, null)));
+        assembler.acceptArtifact(artifactMessage("REMOVED_BG", null, new byte[]{1, 2, 3}));
+        ClothResultAssembler.AssembledResult first = assembler.acceptManifest(manifestMessage(manifest)).orElseThrow();
+
+        // 반영 중에 같은 매니페스트가 다시 와도 중복 조립하지 않음
+        assertThat(assembler.acceptManifest(manifestMessage(manifest))).isEmpty();
+
+        // When - 반영 실패 후 매니페스트 재시도
+        assembler.release(first);
+        Optional<ClothResultAssembler.AssembledResult> retried = assembler.acceptManifest(manifestMessage(manifest));
+
+        // Then
+        assertThat(retried).isPresent();
+        Path removedBg = retried.get().message().getRemovedBgImage().tempPath();
+        assertThat(removedBg).isEqualTo(first.message().getRemovedBgImage().tempPath());
+        assertThat(Files.readAllBytes(removedBg)).containsExactly(1, 2, 3);
+
+        assembler.complete(retried.get());
+        assertThat(assembler.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("실패 매니페스트는 아티팩트 없이 즉시 조립된다")
+    void failedManifestCompletesImmediately() throws Exception {
+        ClothResultManifest manifest = new ClothResultManifest(
+                2, 8L, null, false, "AI 처리 실패", null, null, null, List.of());
+
+        Optional<ClothResultAssembler.AssembledResult> result = assembler.acceptManifest(manifestMessage(manifest));
+
+        assertThat(result).isPresent();
+        assertThat(result.get().message().getSuccess()).isFalse();
+        assertThat(result.get().message().getErrorMessage()).isEqualTo("AI 처리 실패");
+    }
+
+    private Message manifestMessage(ClothResultManifest manifest) throws Exception {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(RabbitMQConfig.RESULT_CONTENT_TYPE_MANIFEST);
+        props.setCorrelationId("job-" + manifest.getClothId());
+        return new Message(objectMapper.writeValueAsBytes(manifest), props);
+    }
+
+    private Message artifactMessage(String type, String label, byte[] body) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(RabbitMQConfig.RESULT_CONTENT_TYPE_ARTIFACT);
+        props.setCorrelationId("job-7");
+        props.setHeader(RabbitMQConfig.HEADER_CLOTH_ID, 7L);
+        props.setHeader(RabbitMQConfig.HEADER_ARTIFACT_TYPE, type);
+        if (label != null) {
+            props.setHeader(RabbitMQConfig.HEADER_ARTIFACT_LABEL, label);
+        }
+        return new Message(body, props);
+    }
+}
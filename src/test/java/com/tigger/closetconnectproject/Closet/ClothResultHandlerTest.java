@@ -0,0 +1,136 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Service.ClothAdmissionController;
+import com.tigger.closetconnectproject.Closet.Service.ClothArtifactPersister;
+import com.tigger.closetconnectproject.Closet.Service.ClothFingerprintService;
+import com.tigger.closetconnectproject.Closet.Service.ClothPipelineMetrics;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressNotifier;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultHandler;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultWriter;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusCache;
+import com.tigger.closetconnectproject.Closet.Service.ImageDerivativeService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ClothResultHandler 단위 테스트
+ * - 재시도될 반영 실패는 상태/집계를 바꾸지 않음
+ * - 종료 상태(성공, 반영 불가)에서만 end_to_end 기록 + 처리량 집계
+ */
+@ExtendWith(MockitoExtension.class)
+class ClothResultHandlerTest {
+
+    private static final Long CLOTH_ID = 10L;
+
+    @Mock private ClothRepository clothRepository;
+    @Mock private ClothProgressNotifier progressNotifier;
+    @Mock private ClothArtifactPersister artifactPersister;
+    @Mock private ClothResultWriter resultWriter;
+    @Mock private ClothFingerprintService fingerprintService;
+    @Mock private ImageDerivativeService derivativeService;
+    @Mock private ClothStatusCache statusCache;
+    @Mock private ClothAdmissionController admissionController;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClothResultHandler resultHandler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ClothPipelineMetrics pipelineMetrics = new ClothPipelineMetrics(meterRegistry);
+        pipelineMetrics.onEnqueued(CLOTH_ID, "SINGLE_ITEM", System.currentTimeMillis() - 1000);
+        resultHandler = new ClothResultHandler(clothRepository, progressNotifier, artifactPersister, resultWriter,
+                fingerprintService, derivativeService, statusCache, pipelineMetrics, admissionController,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("반영 실패는 상태를 바꾸지 않고 end_to_end도 기록하지 않은 채 다시 던진다")
+    void leavesStateUntouchedOnRetryableFailure() {
+        // Given
+        given(clothRepository.existsById(CLOTH_ID)).willReturn(true);
+        given(artifactPersister.persist(any())).willReturn(artifacts());
+        willThrow(new IllegalStateException("DB down")).given(resultWriter).applySuccess(any(), any());
+
+        // When & Then
+        assertThatThrownBy(() -> resultHandler.handleClothResult(success()))
+                .isInstanceOf(RuntimeException.class)
+                .hasRootCauseMessage("DB down");
+        verify(resultWriter, never()).applyFailure(anyLong(), anyString(), anyString());
+        verify(progressNotifier, never()).notifyFailure(any(), any(), any());
+        assertThat(endToEnd("failure")).isNull();
+        verify(admissionController, never()).onCompleted();
+    }
+
+    @Test
+    @DisplayName("재시도를 모두 소진한 결과는 FAILED로 반영하고 end_to_end를 한 번 기록한다")
+    void recordsCompletionOnceWhenUnrecoverable() {
+        // Given
+        given(resultWriter.applyFailure(anyLong(), anyString(), anyString())).willReturn(1L);
+
+        // When
+        resultHandler.handleUnrecoverableResult(CLOTH_ID, "DB down");
+
+        // Then
+        verify(progressNotifier).notifyFailure(1L, CLOTH_ID, "DB down");
+        assertThat(endToEnd("failure").count()).isEqualTo(1);
+        verify(admissionController).onCompleted();
+    }
+
+    @Test
+    @DisplayName("커밋 이후 부가 작업이 실패해도 결과는 다시 반영하지 않는다")
+    void keepsCommittedResultWhenPostCommitStepFails() {
+        // Given
+        given(clothRepository.existsById(CLOTH_ID)).willReturn(true);
+        given(artifactPersister.persist(any())).willReturn(artifacts());
+        given(resultWriter.applySuccess(any(), any()))
+                .willReturn(new ClothResultWriter.AppliedResult(1L, "hash", artifacts()));
+        willThrow(new IllegalStateException("socket closed")).given(progressNotifier).notifyComplete(1L, CLOTH_ID);
+
+        // When
+        resultHandler.handleClothResult(success());
+
+        // Then
+        assertThat(endToEnd("success").count()).isEqualTo(1);
+        verify(admissionController).onCompleted();
+        verify(resultWriter, never()).applyFailure(anyLong(), anyString(), anyString());
+    }
+
+    private Timer endToEnd(String outcome) {
+        return meterRegistry.find(ClothPipelineMetrics.STAGE_TIMER)
+                .tag("stage", ClothPipelineMetrics.STAGE_END_TO_END)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private static ClothResultMessage success() {
+        ClothResultMessage message = new ClothResultMessage();
+        message.setClothId(CLOTH_ID);
+        message.setSuccess(true);
+        return message;
+    }
+
+    private static ClothArtifactPersister.PersistedArtifacts artifacts() {
+        return new ClothArtifactPersister.PersistedArtifacts(
+                "/uploads/removed-bg/10.png", "/uploads/segmented/10.png", "/uploads/inpainted/10.png",
+                null, null, null);
+    }
+}
@@ -0,0 +1,147 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultMessageReader;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 결과 메시지 역직렬화 벤치마크 (./gradlew benchmark)
+ * - 합성 결과 메시지: 주 이미지 3장 + 세그먼트 아이템 9장 + 확장 아이템 8장 = 20장
+ * - 기존 방식(String → base64 String → byte[] → Files.write)과 스트리밍 방식의
+ *   스레드 할당 바이트와 소요 시간을 비교
+ */
+@Tag("benchmark")
+class ClothResultMessageReaderBenchmark {
+
+    private static final int IMAGE_SIZE = 512 * 1024;
+    private static final int ITERATIONS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("스트리밍 디코딩은 기존 방식보다 힙 할당이 적다")
+    void compareLegacyAndStreaming() throws Exception {
+        byte[] body = syntheticResult(20);
+
+        ImageStorageService storage = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(storage, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(storage, "uploadBaseUrl", "/uploads");
+        ClothResultMessageReader reader = new ClothResultMessageReader(objectMapper);
+
+        // 워밍업
+        legacy(body, tempDir.resolve("legacy"));
+        streaming(body, storage, reader);
+
+        long[] legacy = measure(() -> legacy(body, tempDir.resolve("legacy")));
+        long[] streaming = measure(() -> streaming(body, storage, reader));
+
+        System.out.printf("[benchmark] body=%d bytes, images=20%n", body.length);
+        System.out.printf("[benchmark] legacy    : %,d bytes allocated, %d ms%n", legacy[0], legacy[1]);
+        System.out.printf("[benchmark] streaming : %,d bytes allocated, %d ms%n", streaming[0], streaming[1]);
+
+        assertThat(streaming[0]).isLessThan(legacy[0]);
+    }
+
+    private long[] measure(ThrowingRunnable task) throws Exception {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = bean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.run();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000 / ITERATIONS;
+        long allocated = (bean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+        return new long[]{allocated, elapsedMs};
+    }
+
+    /**
+     * 기존 방식: JSON 전체를 String으로, base64 필드를 String으로, 디코딩 결과를 byte[]로 보유
+     */
+    @SuppressWarnings("unchecked")
+    private void legacy(byte[] body, Path dir) throws Exception {
+        Files.createDirectories(dir);
+        Map<String, Object> message = objectMapper.readValue(new String(body, StandardCharsets.UTF_8), Map.class);
+        int index = 0;
+        for (String key : List.of("removedBgImageBase64", "segmentedImageBase64", "inpaintedImageBase64")) {
+            Files.write(dir.resolve(index++ + ".png"), Base64.getDecoder().decode((String) message.get(key)));
+        }
+        for (String key : List.of("allSegmentedItems", "allExpandedItems")) {
+            for (Map<String, Object> item : (List<Map<String, Object>>) message.get(key)) {
+                Files.write(dir.resolve(index++ + ".png"), Base64.getDecoder().decode((String) item.get("imageBase64")));
+            }
+        }
+    }
+
+    private void streaming(byte[] body, ImageStorageService storage, ClothResultMessageReader reader) throws Exception {
+        try (ImageStorageService.StagingSession session = storage.openStagingSession()) {
+            ClothResultMessage message = reader.read(body, session);
+            storage.commitStagedImage(message.getRemovedBgImage(), message.getClothId(), null);
+            storage.commitStagedImage(message.getSegmentedImage(), message.getClothId(), null);
+            storage.commitStagedImage(message.getInpaintedImage(), message.getClothId(), null);
+            for (ClothResultMessage.SegmentedItem item : message.getAllSegmentedItems()) {
+                storage.commitStagedImage(item.getImage(), message.getClothId(), item.getLabel());
+            }
+            for (ClothResultMessage.ExpandedItem item : message.getAllExpandedItems()) {
+                storage.commitStagedImage(item.getImage(), message.getClothId(), item.getLabel());
+            }
+        }
+    }
+
+    private byte[] syntheticResult(int imageCount) throws Exception {
+        Random random = new Random(42);
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("clothId", 1L);
+        root.put("success", true);
+        root.put("removedBgImageBase64", randomBase64(random));
+        root.put("segmentedImageBase64", randomBase64(random));
+        root.put("inpaintedImageBase64", randomBase64(random));
+
+        int remaining = imageCount - 3;
+        ArrayNode segmented = root.putArray("allSegmentedItems");
+        ArrayNode expanded = root.putArray("allExpandedItems");
+        for (int i = 0; i < remaining; i++) {
+            ObjectNode item = (i % 2 == 0 ? segmented : expanded).addObject();
+            item.put("label", "item-" + i);
+            item.put("imageBase64", randomBase64(random));
+            item.put("areaPixels", 1000 + i);
+        }
+        return objectMapper.writeValueAsBytes(root);
+    }
+
+    private String randomBase64(Random random) {
+        byte[] bytes = new byte[IMAGE_SIZE];
+        random.nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
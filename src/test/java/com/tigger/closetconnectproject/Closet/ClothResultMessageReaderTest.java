@@ -0,0 +1,131 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultMessageReader;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ClothResultMessageReader 단위 테스트
+ * - base64 이미지 필드의 임시 파일 스트리밍 디코딩
+ * - 커밋(atomic move) 및 세션 종료 시 임시 파일 정리
+ */
+class ClothResultMessageReaderTest {
+
+    private ImageStorageService imageStorageService;
+    private ClothResultMessageReader reader;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseUrl", "/uploads");
+
+        reader = new ClothResultMessageReader(new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("base64 이미지 필드는 대상 디렉토리의 임시 파일로 디코딩된다")
+    void readStagesImagesIntoTargetDirectory() throws Exception {
+        // Given
+        byte[] removedBg = new byte[]{1, 2, 3, 4};
+        byte[] expanded = new byte[]{9, 8, 7};
+        String json = """
+                {"clothId": 10, "success": true,
+                 "removedBgImageBase64": "%s",
+                 "segmentedImageBase64": "",
+                 "allExpandedItems": [{"label": "pants", "imageBase64": "%s", "areaPixels": 100}]}
+                """.formatted(
+                Base64.getEncoder().encodeToString(removedBg),
+                Base64.getEncoder().encodeToString(expanded));
+
+        try (ImageStorageService.StagingSession session = imageStorageService.openStagingSession()) {
+            // When
+            ClothResultMessage message = reader.read(json.getBytes(StandardCharsets.UTF_8), session);
+
+            // Then
+            assertThat(message.getClothId()).isEqualTo(10L);
+            assertThat(message.getSegmentedImage()).isNull();  // 빈 문자열은 이미지 없음
+            assertThat(message.getRemovedBgImage().tempPath().getParent())
+                    .isEqualTo(tempDir.resolve("removed-bg"));
+            assertThat(Files.readAllBytes(message.getRemovedBgImage().tempPath())).isEqualTo(removedBg);
+
+            ClothResultMessage.ExpandedItem item = message.getAllExpandedItems().get(0);
+            assertThat(item.getAreaPixels()).isEqualTo(100);
+            assertThat(item.getImage().tempPath().getParent()).isEqualTo(tempDir.resolve("expanded"));
+
+            // 커밋 시 최종 파일명으로 이동
+            String url = imageStorageService.commitStagedImage(item.getImage(), 10L, item.getLabel());
+            assertThat(url).isEqualTo("/uploads/expanded/10_pants.png");
+            assertThat(Files.readAllBytes(tempDir.resolve("expanded/10_pants.png"))).isEqualTo(expanded);
+        }
+
+        // 커밋되지 않은 임시 파일은 세션 종료 시 삭제
+        try (Stream<Path> files = Files.list(tempDir.resolve("removed-bg"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("워커가 단계마다 보내는 중간 결과(stage)는 해당 단계 이미지만 담은 단계 결과로 읽힌다")
+    void readWorkerStageResults() throws Exception {
+        // Given - cloth_processing_worker(_cloudrun).send_stage_result가 발행하는 형태
+        String image = Base64.getEncoder().encodeToString(new byte[]{5, 6, 7});
+        String removedBgJson = """
+                {"clothId": 10, "success": true, "stage": "REMOVED_BG", "removedBgImageBase64": "%s"}
+                """.formatted(image);
+        String segmentedJson = """
+                {"clothId": 10, "success": true, "stage": "SEGMENTED",
+                 "segmentedImageBase64": "%s",
+                 "suggestedCategory": "TOP", "segmentationLabel": "upper-clothes", "areaPixels": 100,
+                 "allSegmentedItems": [{"label": "upper-clothes", "segmentedPath": "", "imageBase64": "%s", "areaPixels": 100}]}
+                """.formatted(image, image);
+
+        try (ImageStorageService.StagingSession session = imageStorageService.openStagingSession()) {
+            // When
+            ClothResultMessage removedBg = reader.read(removedBgJson.getBytes(StandardCharsets.UTF_8), session);
+            ClothResultMessage segmented = reader.read(segmentedJson.getBytes(StandardCharsets.UTF_8), session);
+
+            // Then
+            assertThat(removedBg.isStageResult()).isTrue();
+            assertThat(removedBg.getStage()).isEqualTo(ProcessingStage.REMOVED_BG);
+            assertThat(removedBg.getRemovedBgImage().size()).isEqualTo(3);
+            assertThat(removedBg.getSegmentedImage()).isNull();
+
+            assertThat(segmented.getStage()).isEqualTo(ProcessingStage.SEGMENTED);
+            assertThat(segmented.getSegmentedImage().tempPath().getParent()).isEqualTo(tempDir.resolve("segmented"));
+            assertThat(segmented.getSuggestedCategory()).isEqualTo("TOP");
+            assertThat(segmented.getAllSegmentedItems()).singleElement()
+                    .satisfies(item -> assertThat(item.getImage().size()).isEqualTo(3));
+            assertThat(segmented.getInpaintedImage()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("StagingSession 없이 역직렬화하면 예외가 발생한다")
+    void readWithoutSessionFails() {
+        String json = "{\"clothId\": 1, \"removedBgImageBase64\": \"AQID\"}";
+
+        assertThatThrownBy(() -> new ObjectMapper().readValue(json, ClothResultMessage.class))
+                .hasMessageContaining("StagingSession");
+    }
+}
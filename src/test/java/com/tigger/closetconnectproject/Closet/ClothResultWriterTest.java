@@ -0,0 +1,129 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Service.ClothArtifactPersister;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultWriter;
+import com.tigger.closetconnectproject.User.Entity.Users;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ClothResultWriter 단위 테스트
+ * - 단계별 중간 결과 반영 (completedStages, 재전송 무시)
+ * - 최종 결과와 중간 결과 합치기, 먼저 확정된 옷의 상태 유지
+ */
+class ClothResultWriterTest {
+
+    private Cloth cloth;
+    private ClothResultWriter resultWriter;
+
+    @BeforeEach
+    void setUp() {
+        cloth = Cloth.builder()
+                .id(100L)
+                .user(Users.builder().userId(1L).build())
+                .name("테스트 옷")
+                .processingStatus(ProcessingStatus.PROCESSING)
+                .build();
+
+        ClothRepository clothRepository = mock(ClothRepository.class);
+        given(clothRepository.findById(100L)).willReturn(Optional.of(cloth));
+        resultWriter = new ClothResultWriter(clothRepository);
+    }
+
+    @Test
+    @DisplayName("중간 결과는 해당 단계 이미지와 진행 단계만 반영하고 같은 단계가 다시 오면 무시한다")
+    void appliesStageOnce() {
+        // Given
+        ClothResultMessage message = stage(ProcessingStage.SEGMENTED);
+        message.setSuggestedCategory("TOP");
+        message.setSegmentationLabel("upper-clothes");
+
+        // When
+        Long userId = resultWriter.applyStage(message, ProcessingStage.SEGMENTED,
+                artifacts(null, "/uploads/segmented/100.png", null));
+
+        // Then
+        assertThat(userId).isEqualTo(1L);
+        assertThat(cloth.getSegmentedImageUrl()).isEqualTo("/uploads/segmented/100.png");
+        assertThat(cloth.getSuggestedCategory()).isEqualTo(Category.TOP);
+        assertThat(cloth.getProcessingStatus()).isEqualTo(ProcessingStatus.PROCESSING);
+        assertThat(cloth.getCurrentStep()).isEqualTo(ProcessingStage.SEGMENTED.getCompletedStep());
+        assertThat(ProcessingStage.fromMask(cloth.getCompletedStages())).containsExactly(ProcessingStage.SEGMENTED);
+
+        assertThat(resultWriter.acceptsStage(100L, ProcessingStage.SEGMENTED)).isFalse();
+        assertThat(resultWriter.applyStage(message, ProcessingStage.SEGMENTED,
+                artifacts(null, "/uploads/segmented/other.png", null))).isNull();
+        assertThat(cloth.getSegmentedImageUrl()).isEqualTo("/uploads/segmented/100.png");
+    }
+
+    @Test
+    @DisplayName("최종 결과에 없는 이미지는 중간 결과로 반영한 값을 유지하고 전체 아티팩트로 돌려준다")
+    void mergesFinalResultWithStages() {
+        // Given
+        resultWriter.applyStage(stage(ProcessingStage.REMOVED_BG), ProcessingStage.REMOVED_BG,
+                artifacts("/uploads/removed-bg/100.png", null, null));
+        ClothResultMessage result = new ClothResultMessage();
+        result.setClothId(100L);
+        result.setSuccess(true);
+
+        // When
+        ClothResultWriter.AppliedResult applied = resultWriter.applySuccess(result,
+                artifacts(null, null, "/uploads/inpainted/100.png"));
+
+        // Then
+        assertThat(cloth.getProcessingStatus()).isEqualTo(ProcessingStatus.READY_FOR_REVIEW);
+        assertThat(cloth.getRemovedBgImageUrl()).isEqualTo("/uploads/removed-bg/100.png");
+        assertThat(applied.artifacts().removedBgUrl()).isEqualTo("/uploads/removed-bg/100.png");
+        assertThat(applied.artifacts().inpaintedUrl()).isEqualTo("/uploads/inpainted/100.png");
+        assertThat(ProcessingStage.fromMask(cloth.getCompletedStages()))
+                .containsExactly(ProcessingStage.REMOVED_BG, ProcessingStage.INPAINTED);
+        assertThat(resultWriter.acceptsStage(100L, ProcessingStage.SEGMENTED)).isFalse();
+    }
+
+    @Test
+    @DisplayName("처리 중에 먼저 확정된 옷은 이후 결과나 실패가 와도 COMPLETED를 유지한다")
+    void keepsEarlyConfirmation() {
+        // Given
+        cloth.setProcessingStatus(ProcessingStatus.COMPLETED);
+        ClothResultMessage result = new ClothResultMessage();
+        result.setClothId(100L);
+        result.setSuccess(true);
+
+        // When
+        boolean acceptsStage = resultWriter.acceptsStage(100L, ProcessingStage.INPAINTED);
+        resultWriter.applySuccess(result, artifacts(null, null, "/uploads/inpainted/100.png"));
+        resultWriter.applyFailure(100L, "timeout", "처리 실패");
+
+        // Then
+        assertThat(acceptsStage).isTrue();
+        assertThat(cloth.getProcessingStatus()).isEqualTo(ProcessingStatus.COMPLETED);
+        assertThat(cloth.getInpaintedImageUrl()).isEqualTo("/uploads/inpainted/100.png");
+        assertThat(cloth.getErrorMessage()).isNull();
+    }
+
+    private static ClothResultMessage stage(ProcessingStage stage) {
+        ClothResultMessage message = new ClothResultMessage();
+        message.setClothId(100L);
+        message.setSuccess(true);
+        message.setStage(stage);
+        return message;
+    }
+
+    private static ClothArtifactPersister.PersistedArtifacts artifacts(String removedBgUrl, String segmentedUrl,
+                                                                     String inpaintedUrl) {
+        return new ClothArtifactPersister.PersistedArtifacts(removedBgUrl, segmentedUrl, inpaintedUrl, null, null, null);
+    }
+}
@@ -3,11 +3,18 @@ package com.tigger.closetconnectproject.Closet;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tigger.closetconnectproject.Closet.Dto.ClothCreateRequest;
 import com.tigger.closetconnectproject.Closet.Dto.ClothResponse;
+import com.tigger.closetconnectproject.Closet.Dto.ClothUploadRequest;
+import com.tigger.closetconnectproject.Closet.Dto.ConfirmCategoryRequest;
 import com.tigger.closetconnectproject.Closet.Entity.Category;
 import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
 import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
 import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Service.ClothAdmissionController;
 import com.tigger.closetconnectproject.Closet.Service.ClothService;
+import com.tigger.closetconnectproject.Closet.Service.ClothSimilarityIndex;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusCache;
+import com.tigger.closetconnectproject.Closet.Service.ImageDerivativeService;
 import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
 import com.tigger.closetconnectproject.User.Entity.UserRole;
 import com.tigger.closetconnectproject.User.Entity.UserStatus;
@@ -25,8 +32,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +69,18 @@ class ClothServiceTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private ClothSimilarityIndex similarityIndex;
+
+    @Mock
+    private ImageDerivativeService derivativeService;
+
+    @Mock
+    private ClothStatusCache statusCache;
+
+    @Mock
+    private ClothAdmissionController admissionController;
+
     @InjectMocks
     private ClothService clothService;
 
@@ -139,6 +162,28 @@ class ClothServiceTest {
                 .hasMessageContaining("사용자 없음");
     }
 
+    @Test
+    @DisplayName("업로드 이미지 검증 실패(400)는 500으로 바꾸지 않고 그대로 전달하고 옷을 지운다")
+    void createWithImageKeepsClientError() {
+        // Given - 압축 해제 폭탄처럼 해상도 한도를 넘는 이미지
+        MockMultipartFile image = new MockMultipartFile("image", "bomb.png", "image/png", new byte[]{1, 2, 3});
+        ClothUploadRequest req = new ClothUploadRequest();
+        req.setName("새 옷");
+        ResponseStatusException rejected =
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지 해상도가 너무 큽니다. (60000x60000)");
+
+        given(usersRepository.findById(1L)).willReturn(Optional.of(testUser));
+        given(admissionController.admit(1L))
+                .willReturn(new ClothAdmissionController.Admission(30, Instant.ofEpochSecond(1000)));
+        given(clothRepository.save(any(Cloth.class))).willReturn(testCloth);
+        given(imageStorageService.storeOriginalImage(image, 100L)).willThrow(rejected);
+
+        // When & Then
+        assertThatThrownBy(() -> clothService.createWithImage(1L, image, req))
+                .isSameAs(rejected);
+        verify(clothRepository).delete(testCloth);
+    }
+
     @Test
     @DisplayName("옷 목록을 카테고리별로 조회할 수 있다")
     void listByCategory() {
@@ -202,6 +247,8 @@ class ClothServiceTest {
 
         // Then
         verify(clothRepository).delete(testCloth);
+        verify(similarityIndex).invalidate(1L);
+        verify(statusCache).invalidate(100L);
     }
 
     @Test
@@ -292,6 +339,40 @@ class ClothServiceTest {
         assertThat(response.imageUrl()).isEqualTo("/uploads/inpainted.png");
     }
 
+    @Test
+    @DisplayName("처리 중이고 반영된 단계가 없으면 카테고리를 확정할 수 없다")
+    void confirmCategoryWhileProcessingWithoutStages() {
+        // Given
+        testCloth.setProcessingStatus(ProcessingStatus.PROCESSING);
+        testCloth.setCompletedStages(null);
+        given(clothRepository.findById(100L)).willReturn(Optional.of(testCloth));
+        ConfirmCategoryRequest req = new ConfirmCategoryRequest(Category.TOP, ConfirmCategoryRequest.ImageType.ORIGINAL);
+
+        // When & Then
+        assertThatThrownBy(() -> clothService.confirmCategory(1L, 100L, req))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("반영된 처리 결과가 없습니다");
+        assertThat(testCloth.getProcessingStatus()).isEqualTo(ProcessingStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("처리 중이어도 단계 결과가 반영되었으면 카테고리를 먼저 확정할 수 있다")
+    void confirmCategoryWhileProcessingAfterStage() {
+        // Given
+        testCloth.setProcessingStatus(ProcessingStatus.PROCESSING);
+        testCloth.setRemovedBgImageUrl("/uploads/removed-bg/100.png");
+        testCloth.setCompletedStages(ProcessingStage.REMOVED_BG.addTo(null));
+        given(clothRepository.findById(100L)).willReturn(Optional.of(testCloth));
+        ConfirmCategoryRequest req = new ConfirmCategoryRequest(Category.TOP, ConfirmCategoryRequest.ImageType.REMOVED_BG);
+
+        // When
+        clothService.confirmCategory(1L, 100L, req);
+
+        // Then
+        assertThat(testCloth.getProcessingStatus()).isEqualTo(ProcessingStatus.COMPLETED);
+        assertThat(testCloth.getImageUrl()).isEqualTo("/uploads/removed-bg/100.png");
+    }
+
     @Test
     @DisplayName("JSON 파싱 실패 시 빈 리스트를 반환한다")
     void parseJsonToList_failureReturnsEmptyList() {
@@ -0,0 +1,98 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Dto.ClothStatusResponse;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ClothStatusCache 단위 테스트
+ * - 진행도 write-through, 무효화, ETag, long-poll 변경 신호
+ */
+class ClothStatusCacheTest {
+
+    private ClothStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClothStatusCache(new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    @DisplayName("캐시된 상태에 진행도를 반영하면 ETag가 바뀌고 대기 중인 요청을 깨운다")
+    void appliesProgressAndSignalsWaiters() {
+        // Given
+        ClothStatusCache.Entry loaded = cache.fill(7L, processing(1L, 10), cache.loadStamp());
+        CompletableFuture<Void> signal = cache.nextChange(1L);
+
+        // When
+        cache.applyProgress(1L, ProcessingStatus.PROCESSING, "옷 영역 분리 중", 40);
+
+        // Then
+        ClothStatusCache.Entry updated = cache.get(1L);
+        assertThat(updated.status().progressPercentage()).isEqualTo(40);
+        assertThat(updated.etag()).isNotEqualTo(loaded.etag());
+        assertThat(signal).isCompleted();
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 옷의 진행도나 완료 후 늦게 온 진행도는 반영하지 않는다")
+    void ignoresUnknownAndLateProgress() {
+        // Given
+        cache.fill(7L, new ClothStatusResponse(1L, ProcessingStatus.READY_FOR_REVIEW, "처리 완료", 100,
+                null, null, null, null, null, null, List.of()), cache.loadStamp());
+
+        // When
+        cache.applyProgress(1L, ProcessingStatus.PROCESSING, "이미지 복원 중", 70);
+        cache.applyProgress(2L, ProcessingStatus.PROCESSING, "배경 제거 중", 10);
+
+        // Then
+        assertThat(cache.get(1L).status().processingStatus()).isEqualTo(ProcessingStatus.READY_FOR_REVIEW);
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("DB에서 읽는 사이 무효화되면 읽은 값을 캐시에 넣지 않는다")
+    void skipsFillAfterConcurrentInvalidation() {
+        // Given
+        long stamp = cache.loadStamp();
+        cache.invalidate(1L);
+
+        // When
+        ClothStatusCache.Entry entry = cache.fill(7L, processing(1L, 10), stamp);
+
+        // Then
+        assertThat(entry.status().id()).isEqualTo(1L);
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 가장 오래 조회되지 않은 항목을 제거한다")
+    void evictsLeastRecentlyUsed() {
+        // Given
+        cache.fill(7L, processing(1L, 10), cache.loadStamp());
+        cache.fill(7L, processing(2L, 10), cache.loadStamp());
+        cache.get(1L);
+
+        // When
+        cache.fill(7L, processing(3L, 10), cache.loadStamp());
+
+        // Then
+        assertThat(cache.get(1L)).isNotNull();
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private static ClothStatusResponse processing(Long clothId, int progress) {
+        return new ClothStatusResponse(clothId, ProcessingStatus.PROCESSING, "배경 제거 중", progress,
+                null, null, null, null, null, null, List.of());
+    }
+}
@@ -0,0 +1,90 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Util.DiskLruCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * DiskLruCache 단위 테스트
+ * - 용량 초과 시 가장 오래 사용하지 않은 항목 삭제
+ * - 재시작(인스턴스 재생성) 후 LRU 순서 유지
+ */
+class DiskLruCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("용량을 넘으면 가장 오래 사용하지 않은 항목부터 삭제한다")
+    void evictsLeastRecentlyUsed() throws IOException {
+        // Given - 100바이트 항목 3개까지 보관
+        DiskLruCache cache = new DiskLruCache(tempDir, 300);
+        Path a = cache.put("aaaaaaaa", out -> out.write(new byte[100]));
+        cache.put("bbbbbbbb", out -> out.write(new byte[100]));
+        cache.put("cccccccc", out -> out.write(new byte[100]));
+
+        // When - a를 사용한 뒤 새 항목 추가
+        assertThat(cache.get("aaaaaaaa")).isEqualTo(a);
+        cache.put("dddddddd", out -> out.write(new byte[100]));
+
+        // Then - b가 삭제됨
+        assertThat(cache.get("bbbbbbbb")).isNull();
+        assertThat(cache.get("aaaaaaaa")).isNotNull();
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getTotalBytes()).isEqualTo(300);
+        assertThat(Files.exists(tempDir.resolve("bb").resolve("bbbbbbbb"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("인덱스를 기록하면 다시 열었을 때 LRU 순서가 유지된다")
+    void restoresOrderAfterRestart() throws IOException {
+        // Given
+        DiskLruCache cache = new DiskLruCache(tempDir, 300);
+        cache.put("aaaaaaaa", out -> out.write(new byte[100]));
+        cache.put("bbbbbbbb", out -> out.write(new byte[100]));
+        cache.put("cccccccc", out -> out.write(new byte[100]));
+        cache.get("aaaaaaaa");
+        cache.flush();
+
+        // When - 재시작 후 새 항목 추가
+        DiskLruCache reopened = new DiskLruCache(tempDir, 300);
+        reopened.put("dddddddd", out -> out.write(new byte[100]));
+
+        // Then - 재시작 전 가장 오래된 b가 삭제됨
+        assertThat(reopened.get("bbbbbbbb")).isNull();
+        assertThat(reopened.get("aaaaaaaa")).isNotNull();
+        assertThat(reopened.get("cccccccc")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("인덱스에 없는 파일은 시작 시 복구하고 남은 임시 파일은 삭제한다")
+    void recoversUnindexedFiles() throws IOException {
+        // Given - 인덱스 기록 없이 종료
+        DiskLruCache cache = new DiskLruCache(tempDir, 1_000);
+        cache.put("aaaaaaaa", out -> out.write(new byte[10]));
+        Path leftover = Files.createFile(tempDir.resolve("aa").resolve(".tmp-crash.part"));
+
+        // When
+        DiskLruCache reopened = new DiskLruCache(tempDir, 1_000);
+
+        // Then
+        assertThat(reopened.get("aaaaaaaa")).isNotNull();
+        assertThat(reopened.getTotalBytes()).isEqualTo(10);
+        assertThat(Files.exists(leftover)).isFalse();
+    }
+
+    @Test
+    @DisplayName("16진수가 아닌 키는 거부한다")
+    void rejectsInvalidKey() {
+        assertThatThrownBy(() -> new DiskLruCache(tempDir, 100).get("../etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,145 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Util.ImageNormalizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ImageNormalizer 단위 테스트
+ * - 헤더만으로 크기/EXIF 방향 확인, 방향 적용 + 축소, JPEG 메타데이터 제거
+ */
+class ImageNormalizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("픽셀 데이터 없이 헤더만 있는 PNG도 크기를 읽는다 (디코딩하지 않음)")
+    void probesDimensionsFromHeaderOnly() throws Exception {
+        // Given: 40000x40000 PNG 헤더 (IDAT 없음, 디코딩하면 실패)
+        Path bomb = tempDir.resolve("bomb.png");
+        Files.write(bomb, pngHeaderOnly(40000, 40000));
+
+        // When
+        ImageNormalizer.ImageInfo info = ImageNormalizer.probe(bomb);
+
+        // Then
+        assertThat(info.format()).isEqualTo("png");
+        assertThat(info.pixels()).isEqualTo(1_600_000_000L);
+    }
+
+    @Test
+    @DisplayName("EXIF 방향(90도 회전)을 읽고 축소하면서 픽셀에 적용한다")
+    void appliesOrientationWhileDownscaling() throws Exception {
+        // Given: 가로 2000x1000, 왼쪽 절반 빨강, EXIF 방향 6 (시계 방향 90도 회전해서 표시)
+        Path photo = tempDir.resolve("photo.jpg");
+        Files.write(photo, withExifOrientation(jpeg(2000, 1000), 6));
+
+        // When
+        ImageNormalizer.ImageInfo info = ImageNormalizer.probe(photo);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageNormalizer.normalize(photo, info, 500, "jpg", out);
+
+        // Then: 세로 250x500, 빨강이 위쪽
+        assertThat(info.orientation()).isEqualTo(6);
+        BufferedImage normalized = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(normalized.getWidth()).isEqualTo(250);
+        assertThat(normalized.getHeight()).isEqualTo(500);
+        assertThat(new Color(normalized.getRGB(125, 60)).getRed()).isGreaterThan(200);
+        assertThat(new Color(normalized.getRGB(125, 440)).getRed()).isLessThan(60);
+    }
+
+    @Test
+    @DisplayName("JPEG의 EXIF 세그먼트만 제거하고 나머지는 그대로 복사한다")
+    void stripsExifSegment() throws Exception {
+        // Given
+        byte[] plain = jpeg(64, 32);
+        Path photo = tempDir.resolve("exif.jpg");
+        Files.write(photo, withExifOrientation(plain, 3));
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int removed = ImageNormalizer.stripJpegMetadata(photo, out);
+
+        // Then
+        assertThat(removed).isEqualTo(1);
+        assertThat(out.toByteArray()).isEqualTo(plain);
+    }
+
+    /**
+     * 왼쪽 절반 빨강, 오른쪽 절반 파랑 JPEG
+     */
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, width / 2, height);
+        g.setColor(Color.BLUE);
+        g.fillRect(width / 2, 0, width - width / 2, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * SOI 바로 뒤에 방향 태그 하나만 있는 EXIF(APP1) 세그먼트 삽입 (big-endian TIFF)
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(jpeg, 0, 2);                      // SOI
+        data.writeShort(0xFFE1);                     // APP1
+        data.writeShort(2 + 6 + 8 + 2 + 12 + 4);     // 길이
+        data.write("Exif\0\0".getBytes(StandardCharsets.US_ASCII));
+        data.writeBytes("MM");
+        data.writeShort(42);
+        data.writeInt(8);                            // IFD0 위치
+        data.writeShort(1);                          // 항목 수
+        data.writeShort(0x0112);                     // Orientation
+        data.writeShort(3);                          // SHORT
+        data.writeInt(1);
+        data.writeShort(orientation);
+        data.writeShort(0);
+        data.writeInt(0);                            // 다음 IFD 없음
+        data.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static byte[] pngHeaderOnly(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream ihdrData = new DataOutputStream(ihdr);
+        ihdrData.writeBytes("IHDR");
+        ihdrData.writeInt(width);
+        ihdrData.writeInt(height);
+        ihdrData.write(new byte[]{8, 2, 0, 0, 0});  // 8비트 RGB
+        byte[] chunk = ihdr.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(chunk);
+
+        data.writeInt(chunk.length - 4);
+        data.write(chunk);
+        data.writeInt((int) crc.getValue());
+        return out.toByteArray();
+    }
+}
@@ -1,6 +1,8 @@
 package com.tigger.closetconnectproject.Closet;
 
 import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Common.Storage.BlobStore;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +13,9 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -18,12 +23,19 @@ import java.nio.file.Paths;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * ImageStorageService 단위 테스트
  * - ImageType Enum 테스트
  * - 이미지 저장 및 삭제 테스트
  * - 파일 검증 테스트
+ * - 파생 이미지(썸네일) 생성 테스트
+ * - 해시 샤딩 레이아웃 테스트
  */
 class ImageStorageServiceTest {
 
@@ -37,7 +49,7 @@ class ImageStorageServiceTest {
 
     @BeforeEach
     void setUp() {
-        imageStorageService = new ImageStorageService();
+        imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
 
         // 임시 디렉토리 설정
         uploadBaseDir = tempDir.toString();
@@ -105,6 +117,68 @@ class ImageStorageServiceTest {
         assertThat(savedBytes).isEqualTo(imageBytes);
     }
 
+    @Test
+    @DisplayName("원본 이미지 저장 시 SHA-256과 크기를 함께 계산한다")
+    void storeOriginalImageWithHash() throws Exception {
+        // Given
+        byte[] imageBytes = new byte[]{1, 2, 3, 4, 5};
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.jpg",
+                "image/jpeg",
+                imageBytes
+        );
+        String expectedHash = java.util.HexFormat.of().formatHex(
+                java.security.MessageDigest.getInstance("SHA-256").digest(imageBytes));
+
+        // When
+        ImageStorageService.StoredImage stored = imageStorageService.storeOriginalImage(file, 110L);
+
+        // Then
+        assertThat(stored.url()).isEqualTo("/uploads/original/110.jpg");
+        assertThat(stored.sha256()).isEqualTo(expectedHash);
+        assertThat(stored.size()).isEqualTo(imageBytes.length);
+        assertThat(imageStorageService.readImageBytes(stored.url())).isEqualTo(imageBytes);
+    }
+
+    @Test
+    @DisplayName("긴 변이 한도를 넘는 원본은 축소해 저장하고 SHA-256은 저장된 파일 기준이다")
+    void storeOriginalImageDownscales() throws Exception {
+        // Given - 3000x1500 JPEG, 한도 1024
+        java.io.ByteArrayOutputStream jpeg = new java.io.ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB), "jpg", jpeg);
+        MockMultipartFile file = new MockMultipartFile("file", "big.jpg", "image/jpeg", jpeg.toByteArray());
+
+        // When
+        ImageStorageService.StoredImage stored = imageStorageService.storeOriginalImage(file, 111L);
+
+        // Then
+        byte[] savedBytes = imageStorageService.readImageBytes(stored.url());
+        BufferedImage saved = ImageIO.read(new java.io.ByteArrayInputStream(savedBytes));
+        assertThat(saved.getWidth()).isEqualTo(1024);
+        assertThat(saved.getHeight()).isEqualTo(512);
+        assertThat(stored.size()).isEqualTo(savedBytes.length);
+        assertThat(stored.sha256()).isEqualTo(java.util.HexFormat.of().formatHex(
+                java.security.MessageDigest.getInstance("SHA-256").digest(savedBytes)));
+    }
+
+    @Test
+    @DisplayName("해상도가 한도를 넘는 원본은 디코딩하지 않고 400으로 거절한다")
+    void storeOriginalImageRejectsPixelBomb() throws Exception {
+        // Given - 100x100 PNG, 픽셀 한도 5000
+        ReflectionTestUtils.setField(imageStorageService, "normalizeMaxPixels", 5000L);
+        java.io.ByteArrayOutputStream png = new java.io.ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB), "png", png);
+        MockMultipartFile file = new MockMultipartFile("file", "bomb.png", "image/png", png.toByteArray());
+
+        // When & Then
+        assertThatThrownBy(() -> imageStorageService.storeOriginalImage(file, 112L))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting("status")
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(Files.exists(Paths.get(uploadBaseDir, "original", "112.png"))).isFalse();
+    }
+
     @Test
     @DisplayName("배경 제거 이미지를 저장할 수 있다")
     void saveRemovedBgImage() throws IOException {
@@ -125,6 +199,25 @@ class ImageStorageServiceTest {
         assertThat(savedBytes).isEqualTo(imageBytes);
     }
 
+    @Test
+    @DisplayName("이미 커밋된 임시 이미지를 다시 커밋하면 저장된 파일을 그대로 사용한다")
+    void recommitStagedImageIsIdempotent() throws IOException {
+        // Given
+        try (ImageStorageService.StagingSession session = imageStorageService.openStagingSession()) {
+            ImageStorageService.StagedImage staged = session.stage(ImageStorageService.ImageType.REMOVED_BG,
+                    out -> out.write(new byte[]{1, 2, 3}));
+            String first = imageStorageService.commitStagedImage(staged, 201L, null);
+
+            // When - 결과 반영 재시도
+            String second = imageStorageService.commitStagedImage(staged, 201L, null);
+
+            // Then
+            assertThat(second).isEqualTo(first).isEqualTo("/uploads/removed-bg/201.png");
+            assertThat(Files.readAllBytes(Paths.get(uploadBaseDir, "removed-bg", "201.png")))
+                    .containsExactly(1, 2, 3);
+        }
+    }
+
     @Test
     @DisplayName("세그멘테이션 이미지를 저장할 수 있다")
     void saveSegmentedImage() throws IOException {
@@ -422,4 +515,146 @@ class ImageStorageServiceTest {
         byte[] savedBytes = Files.readAllBytes(savedFile);
         assertThat(savedBytes).isEqualTo(newBytes);
     }
+
+    @Test
+    @DisplayName("파생 이미지는 너비에 맞춰 축소되고 PNG 알파 채널을 유지한다")
+    void createDerivativeKeepsAlpha() throws IOException {
+        // Given - 1000x500 반투명 PNG
+        BufferedImage source = new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB);
+        source.setRGB(0, 0, 0x80FF0000);
+        Path sourcePath = Paths.get(uploadBaseDir, "segmented", "800.png");
+        Files.createDirectories(sourcePath.getParent());
+        ImageIO.write(source, "png", sourcePath.toFile());
+
+        // When
+        String derivativeUrl = imageStorageService.derivativeUrl("/uploads/segmented/800.png", 320);
+        Path derivative = imageStorageService.createDerivative("/uploads/segmented/800.png", 320);
+
+        // Then
+        assertThat(derivativeUrl).isEqualTo("/uploads/derived/320/segmented/800.png");
+        assertThat(derivative).isEqualTo(Paths.get(uploadBaseDir, "derived", "320", "segmented", "800.png"));
+        BufferedImage result = ImageIO.read(derivative.toFile());
+        assertThat(result.getWidth()).isEqualTo(320);
+        assertThat(result.getHeight()).isEqualTo(160);
+        assertThat(result.getColorModel().hasAlpha()).isTrue();
+        assertThat(imageStorageService.sourceUrlOfDerivative(320, "segmented/800.png"))
+                .isEqualTo("/uploads/segmented/800.png");
+
+        // 원본 삭제 시 파생 이미지도 삭제
+        imageStorageService.deleteImage("/uploads/segmented/800.png");
+        assertThat(Files.exists(derivative)).isFalse();
+    }
+
+    @Test
+    @DisplayName("원본보다 큰 너비의 파생 이미지는 확대하지 않는다")
+    void createDerivativeDoesNotUpscale() throws IOException {
+        // Given
+        BufferedImage source = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Path sourcePath = Paths.get(uploadBaseDir, "original", "801.jpg");
+        Files.createDirectories(sourcePath.getParent());
+        ImageIO.write(source, "jpg", sourcePath.toFile());
+
+        // When
+        Path derivative = imageStorageService.createDerivative("/uploads/original/801.jpg", 800);
+
+        // Then
+        BufferedImage result = ImageIO.read(derivative.toFile());
+        assertThat(result.getWidth()).isEqualTo(200);
+        assertThat(result.getHeight()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("외부 URL과 파생 이미지 URL에는 파생 이미지를 만들지 않는다")
+    void derivativeUrlOnlyForLocalImages() {
+        assertThat(imageStorageService.derivativeUrl("https://cdn.example.com/a.png", 320)).isNull();
+        assertThat(imageStorageService.derivativeUrl("/uploads/derived/96/original/1.jpg", 320)).isNull();
+        assertThat(imageStorageService.derivativeUrl("/uploads/../etc/passwd", 320)).isNull();
+        assertThat(imageStorageService.derivativeUrl("/uploads/original/1.webp", 320))
+                .isEqualTo("/uploads/derived/320/original/1.webp.png");
+    }
+
+    @Test
+    @DisplayName("샤딩 레이아웃에서는 파일명 해시 기준 2단계 하위 디렉토리에 저장한다")
+    void saveWithShardedLayout() throws IOException {
+        // Given
+        ReflectionTestUtils.setField(imageStorageService, "shardedLayout", true);
+
+        // When
+        String url = imageStorageService.saveSegmentedImage(new byte[]{1, 2, 3}, 900L, "pants");
+
+        // Then
+        String sharded = ImageStorageService.shardedRelativeOfLegacy("segmented/900_pants.png");
+        assertThat(sharded).matches("segmented/[0-9a-f]{2}/[0-9a-f]{2}/900_pants\\.png");
+        assertThat(url).isEqualTo("/uploads/" + sharded);
+        assertThat(Files.exists(Paths.get(uploadBaseDir, sharded))).isTrue();
+        assertThat(imageStorageService.findImageUrl(ImageStorageService.ImageType.SEGMENTED, "900_pants.png"))
+                .isEqualTo(url);
+    }
+
+    @Test
+    @DisplayName("평면 레이아웃 파일을 샤딩 디렉토리로 옮겨도 이전 URL로 계속 조회된다")
+    void legacyUrlResolvesAfterMove() throws IOException {
+        // Given - 평면 레이아웃으로 저장
+        String legacyUrl = imageStorageService.saveRemovedBgImage(new byte[]{7, 8, 9}, 901L);
+        assertThat(legacyUrl).isEqualTo("/uploads/removed-bg/901.png");
+
+        // When
+        String shardedUrl = imageStorageService.moveToShardedLayout(legacyUrl);
+
+        // Then
+        assertThat(shardedUrl).isEqualTo("/uploads/" + ImageStorageService.shardedRelativeOfLegacy("removed-bg/901.png"));
+        assertThat(Files.exists(Paths.get(uploadBaseDir, "removed-bg", "901.png"))).isFalse();
+        assertThat(imageStorageService.readImageBytes(legacyUrl)).isEqualTo(new byte[]{7, 8, 9});
+        assertThat(imageStorageService.moveToShardedLayout(shardedUrl)).isNull();
+        assertThat(imageStorageService.moveToShardedLayout(legacyUrl)).isEqualTo(shardedUrl);
+    }
+
+    @Test
+    @DisplayName("이미지 타입 디렉토리 바로 아래 파일만 샤딩 대상이다")
+    void shardedRelativeOnlyForTypeDirectories() {
+        assertThat(ImageStorageService.shardedRelativeOfLegacy("unknown/1.png")).isNull();
+        assertThat(ImageStorageService.shardedRelativeOfLegacy("segmented/ab/cd/1.png")).isNull();
+        assertThat(ImageStorageService.shardedRelativeOfLegacy("derived/320/segmented/1.png")).isNull();
+        assertThat(ImageStorageService.shardedRelativeOfLegacy("segmented/../1.png")).isNull();
+    }
+
+    @Test
+    @DisplayName("원격 저장소면 이미지를 저장소에 올리고 로컬 작업 사본도 남긴다")
+    void remoteStoreKeepsLocalWorkingCopy() throws IOException {
+        // Given
+        BlobStore remote = mock(BlobStore.class);
+        ImageStorageService storage = remoteStorage(remote);
+
+        // When
+        String url = storage.saveInpaintedImage(new byte[]{1, 2, 3}, 902L);
+
+        // Then
+        assertThat(url).isEqualTo("/uploads/inpainted/902.png");
+        verify(remote).putFile(eq("inpainted/902.png"), any(Path.class), eq("image/png"));
+        assertThat(Files.readAllBytes(Paths.get(uploadBaseDir, "inpainted", "902.png"))).isEqualTo(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    @DisplayName("원격 저장소를 쓰고 로컬 작업 사본이 없으면 저장소에서 내려받아 읽는다")
+    void remoteStoreFetchesMissingLocalCopy() throws IOException {
+        // Given - 다른 인스턴스가 저장해 로컬에는 없는 원본
+        BlobStore remote = mock(BlobStore.class);
+        given(remote.get("original/903.jpg")).willReturn(new ByteArrayInputStream(new byte[]{4, 5, 6}));
+        ImageStorageService storage = remoteStorage(remote);
+
+        // When
+        byte[] bytes = storage.readImageBytes("/uploads/original/903.jpg");
+
+        // Then
+        assertThat(bytes).isEqualTo(new byte[]{4, 5, 6});
+        assertThat(Files.exists(Paths.get(uploadBaseDir, "original", "903.jpg"))).isTrue();
+        assertThat(storage.fetchFromStore("images/ab/cd/other.png")).isEmpty();
+    }
+
+    private ImageStorageService remoteStorage(BlobStore remote) {
+        ImageStorageService storage = new ImageStorageService(remote);
+        ReflectionTestUtils.setField(storage, "uploadBaseDir", uploadBaseDir);
+        ReflectionTestUtils.setField(storage, "uploadBaseUrl", uploadBaseUrl);
+        return storage;
+    }
 }
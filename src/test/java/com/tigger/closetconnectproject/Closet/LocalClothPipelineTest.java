@@ -0,0 +1,239 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Client.ClothPipelineStageClient;
+import com.tigger.closetconnectproject.Closet.Client.ClothPipelineStageClient.Stage;
+import com.tigger.closetconnectproject.Closet.Dto.ClothResultMessage;
+import com.tigger.closetconnectproject.Closet.Dto.SegmentationResponse;
+import com.tigger.closetconnectproject.Closet.Entity.ClothOutboxMessage;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStage;
+import com.tigger.closetconnectproject.Closet.Service.ClothOutboxService;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressNotifier;
+import com.tigger.closetconnectproject.Closet.Service.ClothPipelineMetrics;
+import com.tigger.closetconnectproject.Closet.Service.ClothResultHandler;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusCache;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Closet.Service.LocalClothPipeline;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * LocalClothPipeline 단위 테스트
+ * - 단계 호출 결과를 ClothResultMessage 계약으로 전달 (배경 제거/세그멘테이션은 단계별 중간 결과로 먼저)
+ * - 단계 실패 시 실패 결과 전달, 결과 반영 후 outbox 행 삭제
+ */
+@ExtendWith(MockitoExtension.class)
+class LocalClothPipelineTest {
+
+    @Mock
+    private ClothOutboxService outboxService;
+
+    @Mock
+    private ClothPipelineStageClient stageClient;
+
+    @Mock
+    private ClothResultHandler resultHandler;
+
+    @Mock
+    private ClothProgressNotifier progressNotifier;
+
+    @TempDir
+    Path tempDir;
+
+    private LocalClothPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ImageStorageService imageStorageService = new ImageStorageService(new LocalBlobStore(tempDir, "/uploads"));
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageStorageService, "uploadBaseUrl", "/uploads");
+
+        Files.createDirectories(tempDir.resolve("original"));
+        Files.write(tempDir.resolve("original/10.png"), new byte[]{1, 2, 3});
+
+        // 작업을 호출 스레드에서 바로 실행
+        pipeline = new LocalClothPipeline(outboxService, stageClient, imageStorageService, resultHandler,
+                progressNotifier, new ClothStatusCache(new SimpleMeterRegistry(), 100),
+                new ClothPipelineMetrics(new SimpleMeterRegistry()), Runnable::run, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("단계 결과를 ClothResultMessage로 만들어 반영하고 outbox 행을 삭제한다")
+    void processesAllStages() throws Exception {
+        // Given
+        Path topCrop = crop("top.png", 4);
+        Path pantsCrop = crop("pants.png", 5);
+        given(outboxService.claim(10)).willReturn(List.of(row()));
+        willAnswer(inv -> write(inv.getArgument(3), 6)).given(stageClient).transform(eq(Stage.REMBG), any(), any(), any());
+        willAnswer(inv -> write(inv.getArgument(3), 7)).given(stageClient).transform(eq(Stage.INPAINTING), any(), any(), any());
+        given(stageClient.analyze(eq(Stage.SEGMENTATION), any(), any(), eq(SegmentationResponse.class)))
+                .willReturn(new SegmentationResponse("success", null, List.of(
+                        detected("pants", "하의", pantsCrop, 100),
+                        detected("upper-clothes", "상의", topCrop, 300)), null));
+
+        // When
+        int submitted = pipeline.dispatch();
+
+        // Then
+        ArgumentCaptor<ClothResultMessage> captor = ArgumentCaptor.forClass(ClothResultMessage.class);
+        verify(resultHandler).handleClothResult(captor.capture());
+        ClothResultMessage result = captor.getValue();
+
+        assertThat(submitted).isEqualTo(1);
+        assertThat(result.getSuccess()).isTrue();
+        assertThat(result.getSegmentationLabel()).isEqualTo("upper-clothes");
+        assertThat(result.getSuggestedCategory()).isEqualTo("TOP");
+        assertThat(result.getRemovedBgImage().size()).isEqualTo(6);
+        assertThat(result.getSegmentedImage().size()).isEqualTo(4);
+        assertThat(result.getInpaintedImage().size()).isEqualTo(7);
+        assertThat(result.getAllSegmentedItems())
+                .extracting(ClothResultMessage.SegmentedItem::getLabel)
+                .containsExactly("upper-clothes", "pants");
+        verify(outboxService).deleteRelayed(List.of(1L));
+
+        // 커밋되지 않은 임시 파일은 남지 않음
+        try (Stream<Path> files = Files.walk(tempDir.resolve("segmented"))) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("배경 제거/세그멘테이션 결과는 인페인팅 전에 먼저 반영하고 최종 결과에서는 생략한다")
+    void publishesStageResultsBeforeInpainting() throws Exception {
+        // Given
+        Path topCrop = crop("top.png", 4);
+        Path pantsCrop = crop("pants.png", 5);
+        given(outboxService.claim(10)).willReturn(List.of(row()));
+        willAnswer(inv -> write(inv.getArgument(3), 6)).given(stageClient).transform(eq(Stage.REMBG), any(), any(), any());
+        willAnswer(inv -> write(inv.getArgument(3), 7)).given(stageClient).transform(eq(Stage.INPAINTING), any(), any(), any());
+        given(stageClient.analyze(eq(Stage.SEGMENTATION), any(), any(), eq(SegmentationResponse.class)))
+                .willReturn(new SegmentationResponse("success", null, List.of(
+                        detected("pants", "하의", pantsCrop, 100),
+                        detected("upper-clothes", "상의", topCrop, 300)), null));
+        given(resultHandler.handleStageResult(any())).willReturn(true);
+
+        // When
+        pipeline.dispatch();
+
+        // Then - 단계 순서대로 중간 결과 반영
+        InOrder inOrder = inOrder(resultHandler, stageClient);
+        inOrder.verify(resultHandler).handleStageResult(argThat(m -> m.getStage() == ProcessingStage.REMOVED_BG));
+        inOrder.verify(resultHandler).handleStageResult(argThat(m -> m.getStage() == ProcessingStage.SEGMENTED));
+        inOrder.verify(stageClient).transform(eq(Stage.INPAINTING), any(), any(), any());
+
+        ArgumentCaptor<ClothResultMessage> stageCaptor = ArgumentCaptor.forClass(ClothResultMessage.class);
+        verify(resultHandler, times(2)).handleStageResult(stageCaptor.capture());
+        ClothResultMessage removedBgStage = stageCaptor.getAllValues().get(0);
+        ClothResultMessage segmentedStage = stageCaptor.getAllValues().get(1);
+        assertThat(removedBgStage.getRemovedBgImage().size()).isEqualTo(6);
+        assertThat(segmentedStage.getSegmentedImage().size()).isEqualTo(4);
+        assertThat(segmentedStage.getSuggestedCategory()).isEqualTo("TOP");
+        assertThat(segmentedStage.getAllSegmentedItems())
+                .extracting(ClothResultMessage.SegmentedItem::getLabel)
+                .containsExactly("upper-clothes", "pants");
+
+        // 최종 결과에는 인페인팅 이미지만
+        ArgumentCaptor<ClothResultMessage> captor = ArgumentCaptor.forClass(ClothResultMessage.class);
+        verify(resultHandler).handleClothResult(captor.capture());
+        ClothResultMessage result = captor.getValue();
+        assertThat(result.isStageResult()).isFalse();
+        assertThat(result.getRemovedBgImage()).isNull();
+        assertThat(result.getSegmentedImage()).isNull();
+        assertThat(result.getAllSegmentedItems()).isNull();
+        assertThat(result.getInpaintedImage().size()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("단계 호출이 실패하면 실패 결과를 반영하고 outbox 행을 삭제한다")
+    void reportsStageFailure() throws Exception {
+        // Given
+        given(outboxService.claim(10)).willReturn(List.of(row()));
+        willThrow(new IOException("REMBG 서버 응답 오류: HTTP 500"))
+                .given(stageClient).transform(eq(Stage.REMBG), any(), any(), any());
+
+        // When
+        pipeline.dispatch();
+
+        // Then
+        ArgumentCaptor<ClothResultMessage> captor = ArgumentCaptor.forClass(ClothResultMessage.class);
+        verify(resultHandler).handleClothResult(captor.capture());
+        assertThat(captor.getValue().getSuccess()).isFalse();
+        assertThat(captor.getValue().getErrorMessage()).contains("HTTP 500");
+        verify(outboxService).deleteRelayed(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("결과 반영이 실패하면 재시도 없이 바로 FAILED로 반영한다")
+    void failsUnrecoverableWhenResultHandlingFails() throws Exception {
+        // Given
+        given(outboxService.claim(10)).willReturn(List.of(row()));
+        willThrow(new IOException("REMBG 서버 응답 오류: HTTP 500"))
+                .given(stageClient).transform(eq(Stage.REMBG), any(), any(), any());
+        willThrow(new RuntimeException("Failed to process cloth result", new IllegalStateException("DB down")))
+                .given(resultHandler).handleClothResult(any());
+
+        // When
+        pipeline.dispatch();
+
+        // Then
+        verify(resultHandler).handleUnrecoverableResult(10L, "DB down");
+        verify(outboxService).deleteRelayed(List.of(1L));
+    }
+
+    private Path crop(String filename, int size) throws IOException {
+        Path path = tempDir.resolve("segmentation-output").resolve(filename);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[size]);
+        return path;
+    }
+
+    private static Object write(OutputStream out, int size) throws IOException {
+        out.write(new byte[size]);
+        return null;
+    }
+
+    private static SegmentationResponse.DetectedItem detected(String label, String categoryKr, Path path, int area) {
+        return new SegmentationResponse.DetectedItem(label, categoryKr, null, path.toString(), area);
+    }
+
+    private static ClothOutboxMessage row() {
+        return ClothOutboxMessage.builder()
+                .id(1L)
+                .clothId(10L)
+                .userId(1L)
+                .imageRef("/uploads/original/10.png")
+                .imageType("FULL_BODY")
+                .attempts(1)
+                .availableAt(Instant.now().plusSeconds(30))
+                .createdAt(Instant.now())
+                .build();
+    }
+}
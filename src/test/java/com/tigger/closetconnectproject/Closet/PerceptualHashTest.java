@@ -0,0 +1,114 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Util.HammingBkTree;
+import com.tigger.closetconnectproject.Closet.Util.PerceptualHash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PerceptualHash / HammingBkTree 단위 테스트
+ * - 크롭/리사이즈된 같은 이미지는 해밍 거리가 작음
+ * - BK-tree 조회 결과가 전체 스캔과 같음
+ */
+class PerceptualHashTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("같은 이미지를 살짝 크롭하고 축소해도 해밍 거리가 작다")
+    void similarImagesHaveSmallDistance() throws Exception {
+        // Given
+        BufferedImage original = pattern(800, 1000, 2);
+        BufferedImage cropped = resize(original.getSubimage(20, 25, 760, 950), 380, 475);
+        BufferedImage other = pattern(800, 1000, 102);
+        Path originalFile = tempDir.resolve("original.png");
+        ImageIO.write(original, "png", originalFile.toFile());
+
+        // When - 파일 경로는 디코딩 시 서브샘플링됨
+        long originalHash = PerceptualHash.dHash(originalFile);
+
+        // Then
+        assertThat(PerceptualHash.distance(originalHash, PerceptualHash.dHash(original))).isLessThanOrEqualTo(4);
+        assertThat(PerceptualHash.distance(originalHash, PerceptualHash.dHash(cropped))).isLessThanOrEqualTo(10);
+        assertThat(PerceptualHash.distance(originalHash, PerceptualHash.dHash(other))).isGreaterThan(20);
+    }
+
+    @Test
+    @DisplayName("BK-tree 반경 조회는 전체 스캔과 같은 결과를 반환한다")
+    void bkTreeMatchesBruteForce() {
+        // Given
+        Random random = new Random(42);
+        HammingBkTree tree = new HammingBkTree();
+        List<Long> hashes = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            long hash = random.nextLong();
+            hashes.add(hash);
+            tree.add(hash, id);
+        }
+        long query = hashes.get(7) ^ 0b1011L;  // 3비트 차이
+
+        // When
+        List<HammingBkTree.Match> matches = tree.search(query, 12);
+
+        // Then
+        List<Long> expected = new ArrayList<>();
+        for (int id = 0; id < hashes.size(); id++) {
+            if (PerceptualHash.distance(hashes.get(id), query) <= 12) {
+                expected.add((long) id);
+            }
+        }
+        assertThat(matches).extracting(HammingBkTree.Match::id).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(matches).contains(new HammingBkTree.Match(7, 3));
+        assertThat(tree.size()).isEqualTo(2000);
+    }
+
+    /**
+     * 사인파를 겹친 부드러운 명암 패턴 (시드별로 다른 이미지)
+     */
+    private static BufferedImage pattern(int width, int height, long seed) {
+        Random random = new Random(seed);
+        double[] fx = new double[4];
+        double[] fy = new double[4];
+        double[] phase = new double[4];
+        for (int i = 0; i < 4; i++) {
+            fx[i] = 1 + random.nextDouble() * 3;
+            fy[i] = 1 + random.nextDouble() * 3;
+            phase[i] = random.nextDouble() * 2 * Math.PI;
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double v = 0;
+                for (int i = 0; i < 4; i++) {
+                    v += Math.sin(2 * Math.PI * (fx[i] * x / width + fy[i] * y / height) + phase[i]);
+                }
+                int gray = (int) Math.max(0, Math.min(255, 128 + v * 30));
+                image.setRGB(x, y, (gray << 16) | (gray << 8) | gray);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return resized;
+    }
+}
@@ -0,0 +1,99 @@
+package com.tigger.closetconnectproject.Closet;
+
+import com.tigger.closetconnectproject.Closet.Entity.Cloth;
+import com.tigger.closetconnectproject.Closet.Entity.ProcessingStatus;
+import com.tigger.closetconnectproject.Closet.Entity.StorageMigrationCheckpoint;
+import com.tigger.closetconnectproject.Closet.Repository.ClothFingerprintRepository;
+import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Repository.StorageMigrationCheckpointRepository;
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Closet.Service.StorageLayoutMigrationService;
+import com.tigger.closetconnectproject.Market.Repository.MarketProductImageRepository;
+import com.tigger.closetconnectproject.Post.Repository.PostAttachmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * StorageLayoutMigrationService 단위 테스트
+ * - 처리 중이라 건너뛴 옷은 테이블 끝에서 다시 확인한 뒤 완료
+ */
+class StorageLayoutMigrationServiceTest {
+
+    private ImageStorageService imageStorageService;
+    private ClothRepository clothRepository;
+    private StorageMigrationCheckpoint checkpoint;
+    private StorageLayoutMigrationService migrationService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStorageService = mock(ImageStorageService.class);
+        clothRepository = mock(ClothRepository.class);
+        StorageMigrationCheckpointRepository checkpointRepository = mock(StorageMigrationCheckpointRepository.class);
+
+        checkpoint = StorageMigrationCheckpoint.builder().target(StorageLayoutMigrationService.CLOTH).build();
+        given(checkpointRepository.findById(StorageLayoutMigrationService.CLOTH)).willReturn(Optional.of(checkpoint));
+        given(imageStorageService.getUploadBaseUrl()).willReturn("/uploads");
+        given(imageStorageService.moveToShardedLayout(anyString()))
+                .willAnswer(invocation -> invocation.<String>getArgument(0).replace("/uploads/original/", "/uploads/original/ab/cd/"));
+
+        migrationService = new StorageLayoutMigrationService(imageStorageService, checkpointRepository, clothRepository,
+                mock(ClothFingerprintRepository.class), mock(MarketProductImageRepository.class),
+                mock(PostAttachmentRepository.class));
+    }
+
+    @Test
+    @DisplayName("처리 중이라 건너뛴 옷은 테이블 끝에서 그 id부터 다시 확인하고, 처리가 끝났으면 URL을 옮긴다")
+    void revisitsRowsSkippedWhileProcessing() {
+        // Given: 1번은 완료, 2번은 처리 중
+        Cloth done = cloth(1L, ProcessingStatus.READY_FOR_REVIEW);
+        Cloth processing = cloth(2L, ProcessingStatus.PROCESSING);
+        given(clothRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .willReturn(List.of(done, processing));
+        given(clothRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class))).willReturn(List.of());
+
+        // When: 첫 배치 → 테이블 끝 (2번을 다시 확인하러 돌아감)
+        StorageLayoutMigrationService.BatchResult first = migrationService.migrateNextBatch(10);
+        StorageLayoutMigrationService.BatchResult end = migrationService.migrateNextBatch(10);
+
+        // Then
+        assertThat(first.completed()).isFalse();
+        assertThat(done.getOriginalImageUrl()).isEqualTo("/uploads/original/ab/cd/1.png");
+        assertThat(processing.getOriginalImageUrl()).isEqualTo("/uploads/original/2.png");
+        assertThat(end.completed()).isFalse();
+        assertThat(checkpoint.getLastId()).isEqualTo(1L);
+        assertThat(checkpoint.getSkippedFromId()).isNull();
+
+        // When: 2번 처리 완료 후 다시 확인
+        processing.setProcessingStatus(ProcessingStatus.READY_FOR_REVIEW);
+        given(clothRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .willReturn(List.of(processing));
+        migrationService.migrateNextBatch(10);
+        StorageLayoutMigrationService.BatchResult last = migrationService.migrateNextBatch(10);
+
+        // Then
+        assertThat(processing.getOriginalImageUrl()).isEqualTo("/uploads/original/ab/cd/2.png");
+        assertThat(last.completed()).isTrue();
+        assertThat(checkpoint.isCompleted()).isTrue();
+    }
+
+    private static Cloth cloth(Long id, ProcessingStatus status) {
+        return Cloth.builder()
+                .id(id)
+                .name("옷 " + id)
+                .originalImageUrl("/uploads/original/" + id + ".png")
+                .processingStatus(status)
+                .build();
+    }
+}
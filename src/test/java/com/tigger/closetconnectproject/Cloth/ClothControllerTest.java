@@ -2,10 +2,14 @@ package com.tigger.closetconnectproject.Cloth;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tigger.closetconnectproject.Closet.Controller.ClothController;
+import com.tigger.closetconnectproject.Closet.Dto.ClothBatchResponse;
 import com.tigger.closetconnectproject.Closet.Dto.ClothCreateRequest;
 import com.tigger.closetconnectproject.Closet.Dto.ClothResponse;
 import com.tigger.closetconnectproject.Closet.Entity.Category;
+import com.tigger.closetconnectproject.Closet.Service.ClothBatchImportService;
+import com.tigger.closetconnectproject.Closet.Service.ClothProgressStreamRegistry;
 import com.tigger.closetconnectproject.Closet.Service.ClothService;
+import com.tigger.closetconnectproject.Closet.Service.ClothStatusService;
 import com.tigger.closetconnectproject.Common.Exception.GlobalExceptionHandler;
 import com.tigger.closetconnectproject.Security.AppUserDetails;
 import com.tigger.closetconnectproject.User.Entity.UserRole;
@@ -13,6 +17,7 @@ import com.tigger.closetconnectproject.User.Entity.UserStatus;
 import com.tigger.closetconnectproject.User.Entity.Users;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.InputStream;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,8 +25,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -43,6 +51,9 @@ class ClothControllerTest {
     @Autowired ObjectMapper objectMapper;
 
     @MockBean ClothService clothService;
+    @MockBean ClothStatusService clothStatusService;
+    @MockBean ClothProgressStreamRegistry progressStreamRegistry;
+    @MockBean ClothBatchImportService batchImportService;
 
     // JPA Auditing 에러 방지용
     @MockBean JpaMetamodelMappingContext jpaMetamodelMappingContext;
@@ -67,10 +78,10 @@ class ClothControllerTest {
         );
 
         ClothResponse res = new ClothResponse(
-                1L, 10L, "블랙 티셔츠", Category.TOP, "http://img/1",
+                1L, 10L, "블랙 티셔츠", Category.TOP, "http://img/1", "http://img/1",
                 "http://img/1", null, null, null,
                 null, null, null, null,
-                List.of(), List.of(), List.of()
+                List.of(), List.of(), List.of(), null, null
         );
 
         given(clothService.create(anyLong(), any(ClothCreateRequest.class)))
@@ -110,10 +121,10 @@ class ClothControllerTest {
     @DisplayName("인증된 사용자는 특정 옷을 조회할 수 있다")
     void getCloth_success() throws Exception {
         ClothResponse res = new ClothResponse(
-                1L, 10L, "블랙 티셔츠", Category.TOP, "http://img/1",
+                1L, 10L, "블랙 티셔츠", Category.TOP, "http://img/1", "http://img/1",
                 "http://img/1", null, null, null,
                 null, null, null, null,
-                List.of(), List.of(), List.of()
+                List.of(), List.of(), List.of(), null, null
         );
 
         // ✅ principal(userId=10L) + id=1L 로 스텁
@@ -149,4 +160,41 @@ class ClothControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("해상도 한도를 넘는 이미지(압축 해제 폭탄)를 업로드하면 400이 발생한다")
+    void uploadWithImage_decompressionBomb() throws Exception {
+        MockMultipartFile image = new MockMultipartFile("image", "bomb.png", "image/png", new byte[]{1, 2, 3});
+        given(clothService.createWithImage(eq(10L), any(), any()))
+                .willThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지 해상도가 너무 큽니다. (60000x60000)"));
+
+        mockMvc.perform(
+                        multipart(API + "/upload")
+                                .file(image)
+                                .param("name", "폭탄")
+                                .with(user(testUserDetails()))
+                                .with(csrf())
+                )
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("이미지 해상도가 너무 큽니다. (60000x60000)"));
+    }
+
+    @Test
+    @DisplayName("zip 파일을 요청 본문으로 보내면 multipart 없이 일괄 업로드한다")
+    void uploadBatchArchive_streamsRequestBody() throws Exception {
+        given(batchImportService.importArchive(eq(10L), any(InputStream.class), eq("SINGLE_ITEM")))
+                .willReturn(new ClothBatchResponse("batch-1", List.of(1L, 2L), 0, List.of(), null));
+
+        mockMvc.perform(
+                        post(API + "/upload/batch")
+                                .with(user(testUserDetails()))
+                                .with(csrf())
+                                .param("imageType", "SINGLE_ITEM")
+                                .contentType("application/zip")
+                                .content(new byte[]{'P', 'K', 3, 4})
+                )
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.batchId").value("batch-1"))
+                .andExpect(jsonPath("$.clothIds.length()").value(2));
+    }
+
 }
@@ -3,6 +3,7 @@ package com.tigger.closetconnectproject.Market;
 import com.tigger.closetconnectproject.Closet.Entity.Cloth;
 import com.tigger.closetconnectproject.Closet.Entity.Category;
 import com.tigger.closetconnectproject.Closet.Repository.ClothRepository;
+import com.tigger.closetconnectproject.Closet.Service.ImageDerivativeService;
 import com.tigger.closetconnectproject.Market.Dto.MarketProductDtos;
 import com.tigger.closetconnectproject.Market.Entity.*;
 import com.tigger.closetconnectproject.Market.Repository.MarketProductCommentRepository;
@@ -59,6 +60,7 @@ class MarketProductServiceTest {
     @Mock ClothRepository clothRepo;
     @Mock UsersRepository userRepo;
     @Mock ChatService chatService;
+    @Mock ImageDerivativeService derivativeService;
 
     @InjectMocks MarketProductService productService;
 
@@ -0,0 +1,112 @@
+package com.tigger.closetconnectproject.Storage;
+
+import com.tigger.closetconnectproject.Common.Storage.BlobStore;
+import com.tigger.closetconnectproject.Common.Storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * LocalBlobStore 단위 테스트
+ * - 내용 해시 키 저장 및 중복 제거
+ * - 범위 읽기
+ * - 멀티파트 업로드
+ * - 키 검증
+ */
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalBlobStore(tempDir, "/uploads");
+    }
+
+    @Test
+    @DisplayName("내용 해시 키로 저장하고 같은 내용은 같은 키를 반환한다")
+    void putContentAddressed() throws IOException {
+        // When
+        BlobStore.BlobInfo first = store.putContentAddressed("images", ".png", stream("hello"), "image/png");
+        BlobStore.BlobInfo second = store.putContentAddressed("images", ".png", stream("hello"), "image/png");
+
+        // Then
+        String sha256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+        assertThat(first.key()).isEqualTo("images/2c/f2/" + sha256 + ".png");
+        assertThat(first.sha256()).isEqualTo(sha256);
+        assertThat(first.size()).isEqualTo(5);
+        assertThat(second.key()).isEqualTo(first.key());
+        assertThat(store.publicUrl(first.key())).isEqualTo("/uploads/" + first.key());
+        try (var files = Files.walk(tempDir.resolve("images"))) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("범위 읽기는 요청한 구간만 반환한다")
+    void rangeRead() throws IOException {
+        // Given
+        store.put("attachments/a.txt", stream("0123456789"), 10, "text/plain");
+
+        // When & Then
+        try (InputStream in = store.get("attachments/a.txt", 3, 4)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("3456");
+        }
+        try (InputStream in = store.get("attachments/a.txt", 8, 100)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("89");
+        }
+        assertThatThrownBy(() -> store.get("attachments/missing.txt"))
+                .isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    @DisplayName("멀티파트 조각을 번호 순서로 이어 붙이고 임시 조각을 정리한다")
+    void multipartUpload() throws IOException {
+        // Given
+        String uploadId = store.initiateMultipartUpload("videos/big.bin", "application/octet-stream");
+        BlobStore.UploadedPart part2 = store.uploadPart("videos/big.bin", uploadId, 2, stream("world"), 5);
+        BlobStore.UploadedPart part1 = store.uploadPart("videos/big.bin", uploadId, 1, stream("hello "), 6);
+
+        // When
+        BlobStore.BlobInfo blob = store.completeMultipartUpload("videos/big.bin", uploadId, List.of(part2, part1));
+
+        // Then
+        assertThat(blob.size()).isEqualTo(11);
+        try (InputStream in = store.get("videos/big.bin")) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello world");
+        }
+        assertThat(Files.exists(tempDir.resolve(".multipart").resolve(uploadId))).isFalse();
+    }
+
+    @Test
+    @DisplayName("경로 탈출, 숨김 파일 키는 거부하고 직접 업로드 URL은 발급하지 않는다")
+    void rejectsInvalidKeys() {
+        assertThatThrownBy(() -> store.put("../etc/passwd", stream("x"), 1, "text/plain"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.put("images/.hidden", stream("x"), 1, "text/plain"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.put("/absolute", stream("x"), 1, "text/plain"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.presignUpload("images/a.png", "image/png", Duration.ofMinutes(5))).isEmpty();
+    }
+
+    private static InputStream stream(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,147 @@
+package com.tigger.closetconnectproject.Upload;
+
+import com.tigger.closetconnectproject.Closet.Service.ImageStorageService;
+import com.tigger.closetconnectproject.Upload.Service.UploadFileService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UploadFileService 단위 테스트
+ * - 내용 해시 ETag / 조건부 요청
+ * - Range 요청
+ * - ?v= 버전 URL 캐시 정책
+ * - 평면 레이아웃 URL → 샤딩 위치
+ */
+class UploadFileServiceTest {
+
+    // sha256("0123456789")
+    private static final String SHA256 = "84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882";
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UploadFileService uploadFileService;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        uploadFileService = new UploadFileService(meterRegistry);
+        ReflectionTestUtils.setField(uploadFileService, "uploadRoot", tempDir.toString());
+        ReflectionTestUtils.setField(uploadFileService, "publicPrefix", "/uploads");
+
+        file = tempDir.resolve("attachments/a.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "0123456789", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("전체 응답은 내용 해시 ETag와 no-cache를 내려주고 같은 ETag면 304를 반환한다")
+    void fullResponseAndNotModified() throws IOException {
+        // When
+        MockHttpServletResponse first = serve(request(), null);
+
+        // Then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader("ETag")).isEqualTo("\"" + SHA256 + "\"");
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("no-cache, public");
+        assertThat(first.getContentAsString()).isEqualTo("0123456789");
+
+        // When - 재검증
+        MockHttpServletRequest revalidate = request();
+        revalidate.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse second = serve(revalidate, null);
+
+        // Then
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+        assertThat(meterRegistry.counter("uploads.requests", "type", "attachments", "result", "not_modified").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("uploads.served.bytes", "type", "attachments").count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Range 요청은 206과 Content-Range를, 범위를 벗어나면 416을 반환한다")
+    void rangeRequests() throws IOException {
+        // Given
+        MockHttpServletRequest partial = request();
+        partial.addHeader("Range", "bytes=2-4");
+        MockHttpServletRequest outOfRange = request();
+        outOfRange.addHeader("Range", "bytes=20-30");
+        MockHttpServletRequest staleIfRange = request();
+        staleIfRange.addHeader("Range", "bytes=2-4");
+        staleIfRange.addHeader("If-Range", "\"other\"");
+
+        // When
+        MockHttpServletResponse partialResponse = serve(partial, null);
+        MockHttpServletResponse outOfRangeResponse = serve(outOfRange, null);
+        MockHttpServletResponse staleIfRangeResponse = serve(staleIfRange, null);
+
+        // Then
+        assertThat(partialResponse.getStatus()).isEqualTo(206);
+        assertThat(partialResponse.getHeader("Content-Range")).isEqualTo("bytes 2-4/10");
+        assertThat(partialResponse.getContentAsString()).isEqualTo("234");
+        assertThat(outOfRangeResponse.getStatus()).isEqualTo(416);
+        assertThat(outOfRangeResponse.getHeader("Content-Range")).isEqualTo("bytes */10");
+        assertThat(staleIfRangeResponse.getStatus()).isEqualTo(200);
+        assertThat(staleIfRangeResponse.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    @DisplayName("내용 해시 버전 URL은 immutable로 캐시하고 이전 버전은 현재 버전으로 리다이렉트한다")
+    void versionedUrls() throws IOException {
+        // When
+        String versioned = uploadFileService.versionedUrl("/uploads/attachments/a.txt");
+        MockHttpServletResponse current = serve(request(), SHA256.substring(0, 16));
+        MockHttpServletResponse stale = serve(request(), "0000000000000000");
+
+        // Then
+        assertThat(versioned).isEqualTo("/uploads/attachments/a.txt?v=" + SHA256.substring(0, 16));
+        assertThat(current.getStatus()).isEqualTo(200);
+        assertThat(current.getHeader("Cache-Control")).isEqualTo("max-age=31536000, public, immutable");
+        assertThat(stale.getStatus()).isEqualTo(302);
+        assertThat(stale.getHeader("Location")).isEqualTo(versioned);
+        assertThat(uploadFileService.versionedUrl("https://cdn.example.com/a.txt"))
+                .isEqualTo("https://cdn.example.com/a.txt");
+    }
+
+    @Test
+    @DisplayName("평면 레이아웃 URL은 샤딩 위치의 파일로 해석하고 경로 탈출은 거부한다")
+    void resolveLegacyAndRejectTraversal() throws IOException {
+        // Given
+        Path sharded = tempDir.resolve(ImageStorageService.shardedRelativeOfLegacy("original/1.png"));
+        Files.createDirectories(sharded.getParent());
+        Files.write(sharded, new byte[]{1, 2, 3});
+
+        // When & Then
+        assertThat(uploadFileService.resolve("original/1.png")).contains(sharded.toAbsolutePath().normalize());
+        assertThat(uploadFileService.resolve("../secret.txt")).isEmpty();
+        assertThat(uploadFileService.resolve("attachments/.hidden")).isEmpty();
+        assertThat(UploadFileService.typeOf("original/1.png")).isEqualTo("original");
+        assertThat(UploadFileService.typeOf("unknown/1.png")).isEqualTo("other");
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/uploads/attachments/a.txt");
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request, String version) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        uploadFileService.serve(file, "attachments", version, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,63 @@
+package com.tigger.closetconnectproject.jwt;
+
+import com.tigger.closetconnectproject.Security.InternalApiTokenVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * InternalApiTokenVerifier 단위 테스트
+ * - 시작 시 토큰 검증 (공개 기본값, claim-check 모드에서 빈 값)
+ * - 요청 토큰 비교
+ */
+class InternalApiTokenVerifierTest {
+
+    @Test
+    @DisplayName("예전 공개 기본값이면 시작에 실패한다")
+    void rejectsPublicDefaultToken() {
+        // Given
+        InternalApiTokenVerifier verifier = verifier("change-this-internal-token", false);
+
+        // When & Then
+        assertThatThrownBy(verifier::validate).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("claim-check 모드에서 토큰이 비어 있으면 시작에 실패하고, 꺼져 있으면 모든 요청을 거부한다")
+    void requiresTokenForClaimCheck() {
+        // Given
+        InternalApiTokenVerifier claimCheck = verifier("", true);
+        InternalApiTokenVerifier inline = verifier("", false);
+
+        // When & Then
+        assertThatThrownBy(claimCheck::validate).isInstanceOf(IllegalStateException.class);
+        assertThatCode(inline::validate).doesNotThrowAnyException();
+        assertThat(inline.matches("")).isFalse();
+        assertThat(inline.matches(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("설정한 토큰과 같은 값만 허용한다")
+    void matchesConfiguredToken() {
+        // Given
+        InternalApiTokenVerifier verifier = verifier("s3cr3t-worker-token", true);
+        verifier.validate();
+
+        // When & Then
+        assertThat(verifier.matches("s3cr3t-worker-token")).isTrue();
+        assertThat(verifier.matches("s3cr3t-worker-tokeN")).isFalse();
+        assertThat(verifier.matches(null)).isFalse();
+    }
+
+    private static InternalApiTokenVerifier verifier(String token, boolean claimCheckEnabled) {
+        InternalApiTokenVerifier verifier = new InternalApiTokenVerifier();
+        ReflectionTestUtils.setField(verifier, "internalToken", token);
+        ReflectionTestUtils.setField(verifier, "claimCheckEnabled", claimCheckEnabled);
+        ReflectionTestUtils.setField(verifier, "rabbitEnabled", true);
+        return verifier;
+    }
+}